@@ -0,0 +1,86 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
+
+/**
+ * Annotation that can be used on test methods run with
+ * {@link com.github.mjeanroy.junit.servers.runner.JunitServerRunner}: instead
+ * of being executed once, the body of the test method is executed repeatedly
+ * and concurrently against the embedded server.
+ *
+ * Rules, {@code @Before} and {@code @After} methods are executed once, so
+ * injected fields (such as http clients) are shared by all threads: http
+ * clients are thread-safe, but requests wait for a free connection when
+ * the number of threads is greater than the connection pool size
+ * (see {@link HttpClientConfiguration#getMaxConnectionsPerRoute()}).
+ *
+ * Test fails with the first failure if at least one execution fails, and
+ * the report of measured phase is available with
+ * {@link com.github.mjeanroy.junit.servers.runner.LoadTestReports#get(org.junit.runner.Description)}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+@Documented
+public @interface LoadTest {
+
+	/**
+	 * Get number of threads executing test method concurrently.
+	 *
+	 * @return Number of threads, default is 1.
+	 */
+	int threads() default 1;
+
+	/**
+	 * Get duration of measured phase.
+	 *
+	 * @return Duration, default is 10 seconds.
+	 * @see #unit()
+	 */
+	long duration() default 10000;
+
+	/**
+	 * Get duration of warmup phase, whose results are discarded.
+	 *
+	 * @return Warmup duration, default is no warmup.
+	 * @see #unit()
+	 */
+	long warmup() default 0;
+
+	/**
+	 * Get unit of durations.
+	 *
+	 * @return Duration unit, default is {@link TimeUnit#MILLISECONDS}.
+	 */
+	TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -30,6 +30,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
+import com.github.mjeanroy.junit.servers.client.HttpClientScope;
 import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
 
 /**
@@ -49,4 +51,112 @@ public @interface TestHttpClient {
 	 * @return Strategy, default is {@link HttpClientStrategy#AUTO}.
 	 */
 	HttpClientStrategy strategy() default HttpClientStrategy.AUTO;
+
+	/**
+	 * Get scope of http client.
+	 * Default is {@link HttpClientScope#METHOD}: a new client is created
+	 * for each test method. With {@link HttpClientScope#CLASS}, client is
+	 * shared by all test methods of the test class.
+	 *
+	 * @return Scope, default is {@link HttpClientScope#METHOD}.
+	 */
+	HttpClientScope scope() default HttpClientScope.METHOD;
+
+	/**
+	 * Get maximum number of connections in the pool.
+	 *
+	 * @return Maximum number of connections.
+	 * @see HttpClientConfiguration#getMaxTotalConnections()
+	 */
+	int maxTotalConnections() default HttpClientConfiguration.DEFAULT_MAX_TOTAL_CONNECTIONS;
+
+	/**
+	 * Get maximum number of connections per route.
+	 *
+	 * @return Maximum number of connections per route.
+	 * @see HttpClientConfiguration#getMaxConnectionsPerRoute()
+	 */
+	int maxConnectionsPerRoute() default HttpClientConfiguration.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+	/**
+	 * Get maximum keep-alive duration of idle connections, in milliseconds.
+	 * Zero means that value of "Keep-Alive" response header is used.
+	 *
+	 * @return Keep-alive duration.
+	 * @see HttpClientConfiguration#getKeepAlive()
+	 */
+	int keepAlive() default HttpClientConfiguration.DEFAULT_KEEP_ALIVE;
+
+	/**
+	 * Get connection time to live, in milliseconds.
+	 * Zero means no limit.
+	 *
+	 * @return Connection time to live.
+	 * @see HttpClientConfiguration#getConnectionTtl()
+	 */
+	int connectionTtl() default HttpClientConfiguration.DEFAULT_CONNECTION_TTL;
+
+	/**
+	 * Get period of inactivity, in milliseconds, after which persistent
+	 * connections are validated. Zero disables validation.
+	 *
+	 * @return Period of inactivity.
+	 * @see HttpClientConfiguration#getValidateAfterInactivity()
+	 */
+	int validateAfterInactivity() default HttpClientConfiguration.DEFAULT_VALIDATE_AFTER_INACTIVITY;
+
+	/**
+	 * Get connect timeout, in milliseconds.
+	 * Zero means no timeout.
+	 *
+	 * @return Connect timeout.
+	 * @see HttpClientConfiguration#getConnectTimeout()
+	 */
+	int connectTimeout() default HttpClientConfiguration.DEFAULT_CONNECT_TIMEOUT;
+
+	/**
+	 * Get socket timeout, in milliseconds.
+	 * Zero means no timeout.
+	 *
+	 * @return Socket timeout.
+	 * @see HttpClientConfiguration#getSocketTimeout()
+	 */
+	int socketTimeout() default HttpClientConfiguration.DEFAULT_SOCKET_TIMEOUT;
+
+	/**
+	 * Get request timeout (i.e maximum time to get complete response), in milliseconds.
+	 * Zero means no timeout.
+	 * This setting is only used by async-http-client.
+	 *
+	 * @return Request timeout.
+	 * @see HttpClientConfiguration#getRequestTimeout()
+	 */
+	int requestTimeout() default HttpClientConfiguration.DEFAULT_REQUEST_TIMEOUT;
+
+	/**
+	 * Get number of I/O threads, zero means that library default is used.
+	 * This setting is only used by async-http-client.
+	 *
+	 * @return Number of I/O threads.
+	 * @see HttpClientConfiguration#getIoThreads()
+	 */
+	int ioThreads() default HttpClientConfiguration.DEFAULT_IO_THREADS;
+
+	/**
+	 * Check if compressed responses should be requested.
+	 * This setting is only used by async-http-client.
+	 *
+	 * @return Compression flag.
+	 * @see HttpClientConfiguration#isCompressionEnforced()
+	 */
+	boolean compressionEnforced() default HttpClientConfiguration.DEFAULT_COMPRESSION_ENFORCED;
+
+	/**
+	 * Check if I/O event loop should be shared with other clients.
+	 * This setting is only used by async-http-client.
+	 *
+	 * @return Shared event loop flag.
+	 * @see HttpClientConfiguration#isSharedEventLoop()
+	 */
+	boolean sharedEventLoop() default HttpClientConfiguration.DEFAULT_SHARED_EVENT_LOOP;
 }
@@ -32,6 +32,9 @@ import java.lang.reflect.Field;
 
 import com.github.mjeanroy.junit.servers.annotations.TestHttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpClientCache;
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
+import com.github.mjeanroy.junit.servers.client.HttpClientScope;
 import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
 
@@ -48,7 +51,20 @@ public class HttpClientAnnotationHandler extends AbstractAnnotationHandler {
 	 * @throws NullPointerException if server is null.
 	 */
 	public static HttpClientAnnotationHandler newHttpClientAnnotationHandler(EmbeddedServer server) {
-		return new HttpClientAnnotationHandler(notNull(server, "server"));
+		return new HttpClientAnnotationHandler(notNull(server, "server"), null);
+	}
+
+	/**
+	 * Create new handler, clients with {@link HttpClientScope#CLASS} scope
+	 * will be retrieved from given cache.
+	 *
+	 * @param server Embedded server.
+	 * @param cache Cache of shared http clients.
+	 * @return Handler.
+	 * @throws NullPointerException if server or cache is null.
+	 */
+	public static HttpClientAnnotationHandler newHttpClientAnnotationHandler(EmbeddedServer server, HttpClientCache cache) {
+		return new HttpClientAnnotationHandler(notNull(server, "server"), notNull(cache, "cache"));
 	}
 
 	/**
@@ -56,23 +72,85 @@ public class HttpClientAnnotationHandler extends AbstractAnnotationHandler {
 	 */
 	private final EmbeddedServer server;
 
+	/**
+	 * Cache of shared http clients.
+	 * May be null: in this case, clients with {@link HttpClientScope#CLASS} scope are rejected.
+	 */
+	private final HttpClientCache cache;
+
 	// Use static factory instead
-	private HttpClientAnnotationHandler(EmbeddedServer server) {
+	private HttpClientAnnotationHandler(EmbeddedServer server, HttpClientCache cache) {
 		super(TestHttpClient.class);
 		this.server = server;
+		this.cache = cache;
 	}
 
 	@Override
 	public void before(Object target, Field field) {
 		TestHttpClient httpClient = field.getAnnotation(TestHttpClient.class);
 		HttpClientStrategy strategy = httpClient.strategy();
-		setter(target, field, strategy.build(server));
+		HttpClientConfiguration configuration = configuration(httpClient);
+
+		HttpClient client = isShared(httpClient) ?
+				cache.get(strategy, configuration) :
+				strategy.build(configuration, server);
+
+		setter(target, field, client);
 	}
 
 	@Override
 	public void after(Object target, Field field) {
+		TestHttpClient annotation = field.getAnnotation(TestHttpClient.class);
 		HttpClient httpClient = getter(target, field);
-		httpClient.destroy();
+
+		if (isShared(annotation)) {
+			// Client is destroyed when cache is cleared.
+			httpClient.reset();
+		} else {
+			httpClient.destroy();
+		}
+
 		setter(target, field, null);
 	}
+
+	private boolean isShared(TestHttpClient httpClient) {
+		if (httpClient.scope() != HttpClientScope.CLASS) {
+			return false;
+		}
+
+		if (cache == null) {
+			throw new IllegalStateException("Http client with CLASS scope can only be shared by tests running with JunitServerRunner");
+		}
+
+		return true;
+	}
+
+	/**
+	 * Create http client configuration from annotation settings.
+	 *
+	 * @param httpClient Annotation.
+	 * @return Http client configuration.
+	 */
+	private static HttpClientConfiguration configuration(TestHttpClient httpClient) {
+		HttpClientConfiguration.Builder builder = HttpClientConfiguration.builder()
+				.withMaxTotalConnections(httpClient.maxTotalConnections())
+				.withMaxConnectionsPerRoute(httpClient.maxConnectionsPerRoute())
+				.withKeepAlive(httpClient.keepAlive())
+				.withConnectionTtl(httpClient.connectionTtl())
+				.withValidateAfterInactivity(httpClient.validateAfterInactivity())
+				.withConnectTimeout(httpClient.connectTimeout())
+				.withSocketTimeout(httpClient.socketTimeout())
+				.withRequestTimeout(httpClient.requestTimeout())
+				.withIoThreads(httpClient.ioThreads());
+
+		if (httpClient.compressionEnforced()) {
+			builder.enableCompression();
+		}
+
+		if (httpClient.sharedEventLoop()) {
+			builder.enableSharedEventLoop();
+		}
+
+		return builder.build();
+	}
 }
@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.String.format;
+
+/**
+ * Digest of a body, computed while body is streamed:
+ * - Size, in bytes.
+ * - CRC32 checksum.
+ * - Time spent to read body.
+ *
+ * Two digests are equal if they have the same size and the same checksum:
+ * read duration is not part of digest identity.
+ */
+public final class BodyDigest {
+
+	/**
+	 * Size of buffer used to read stream.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Read given stream entirely and compute its digest.
+	 * Stream is never held in memory, but it is not closed.
+	 *
+	 * @param stream Body stream.
+	 * @return Body digest.
+	 * @throws IOException If stream cannot be read.
+	 * @throws NullPointerException if stream is null.
+	 */
+	public static BodyDigest digest(InputStream stream) throws IOException {
+		notNull(stream, "stream");
+
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long size = 0;
+		long start = System.nanoTime();
+
+		int n;
+		while ((n = stream.read(buffer)) != -1) {
+			crc.update(buffer, 0, n);
+			size += n;
+		}
+
+		return new BodyDigest(size, crc.getValue(), System.nanoTime() - start);
+	}
+
+	/**
+	 * Body size, in bytes.
+	 */
+	private final long size;
+
+	/**
+	 * CRC32 checksum.
+	 */
+	private final long checksum;
+
+	/**
+	 * Read duration, in nano seconds.
+	 */
+	private final long duration;
+
+	// Use static factory
+	private BodyDigest(long size, long checksum, long duration) {
+		this.size = size;
+		this.checksum = checksum;
+		this.duration = duration;
+	}
+
+	/**
+	 * Get body size.
+	 *
+	 * @return Body size, in bytes.
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Get CRC32 checksum of body.
+	 *
+	 * @return Checksum.
+	 */
+	public long getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * Get time spent to read body, in nano seconds.
+	 *
+	 * @return Read duration.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Get read throughput, in bytes per second.
+	 *
+	 * @return Throughput.
+	 */
+	public double getThroughput() {
+		return duration == 0 ? 0 : size * 1_000_000_000.0 / duration;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof BodyDigest) {
+			BodyDigest d = (BodyDigest) o;
+			return size == d.size && checksum == d.checksum;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.valueOf(size).hashCode() + Long.valueOf(checksum).hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return format("%s {size = %s, checksum = %s}", getClass().getSimpleName(), size, Long.toHexString(checksum));
+	}
+}
@@ -24,13 +24,10 @@
 
 package com.github.mjeanroy.junit.servers.client;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
-import static com.github.mjeanroy.junit.servers.commons.Dates.getTime;
+import static com.github.mjeanroy.junit.servers.commons.Dates.parseCookieDate;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
-import static com.github.mjeanroy.junit.servers.commons.Utils.firstNonNull;
 
 /**
  * Default implementation for cookie object.
@@ -39,60 +36,136 @@ public class Cookie {
 
 	/**
 	 * Create a cookie from header value.
+	 * Header value is parsed in a single pass: name is everything before
+	 * the first '=' and value everything up to the first ';', so that values
+	 * may contain '=' characters.
+	 * Unknown attributes, and invalid Expires or Max-Age attributes, are
+	 * ignored.
 	 *
 	 * @param rawValue Header value.
 	 * @return Cookie.
+	 * @throws IllegalArgumentException if cookie does not have a name and a value.
 	 */
 	public static Cookie read(String rawValue) {
-		rawValue = notBlank(rawValue, "Cookie value");
-
-		final String[] parts = rawValue.split(";");
+		notBlank(rawValue, "Cookie value");
 
 		// Extract name and value
-		final String[] nameAndValue = parts[0].split("=");
-		if (nameAndValue.length != 2) {
+		final int length = rawValue.length();
+		int end = endOfPart(rawValue, 0);
+		int separator = indexOf(rawValue, '=', 0, end);
+		if (separator < 0) {
 			throw new IllegalArgumentException("Cookie must have a valid name and a valid value");
 		}
 
-		final String name = nameAndValue[0].trim();
-		final String value = nameAndValue[1].trim();
+		final int nameStart = skipSpaces(rawValue, 0, separator);
+		final String name = rawValue.substring(nameStart, trimSpaces(rawValue, nameStart, separator));
 		if (name.isEmpty()) {
 			throw new IllegalArgumentException("Cookie must have a valid name");
 		}
 
-		// Extract other parts
-		Map<String, String> params = new HashMap<>();
-		if (parts.length > 1) {
-			for (String part : parts) {
-				String[] param = part.split("=");
-				params.put(
-						param[0].toLowerCase().trim(),
-						param.length == 2 ? param[1].trim() : ""
-				);
+		final int valueStart = skipSpaces(rawValue, separator + 1, end);
+		final String value = rawValue.substring(valueStart, trimSpaces(rawValue, valueStart, end));
+
+		// Extract attributes
+		String domain = null;
+		String path = null;
+		long expires = 0;
+		int maxAge = 0;
+		boolean secure = false;
+		boolean httpOnly = false;
+
+		int start = end + 1;
+		while (start < length) {
+			end = endOfPart(rawValue, start);
+			separator = indexOf(rawValue, '=', start, end);
+
+			int attrStart = skipSpaces(rawValue, start, separator < 0 ? end : separator);
+			int attrEnd = trimSpaces(rawValue, attrStart, separator < 0 ? end : separator);
+			int attrValueStart = separator < 0 ? end : skipSpaces(rawValue, separator + 1, end);
+			int attrValueEnd = trimSpaces(rawValue, attrValueStart, end);
+
+			if (is(rawValue, attrStart, attrEnd, "domain")) {
+				domain = rawValue.substring(attrValueStart, attrValueEnd);
+			}
+			else if (is(rawValue, attrStart, attrEnd, "path")) {
+				path = rawValue.substring(attrValueStart, attrValueEnd);
+			}
+			else if (is(rawValue, attrStart, attrEnd, "expires")) {
+				Long time = parseCookieDate(rawValue, attrValueStart, attrValueEnd);
+				if (time != null) {
+					expires = time;
+				}
+			}
+			else if (is(rawValue, attrStart, attrEnd, "max-age")) {
+				maxAge = parseMaxAge(rawValue, attrValueStart, attrValueEnd, maxAge);
+			}
+			else if (is(rawValue, attrStart, attrEnd, "secure")) {
+				secure = true;
+			}
+			else if (is(rawValue, attrStart, attrEnd, "httponly")) {
+				httpOnly = true;
 			}
-		}
 
-		final String domain = params.get("domain");
-		final String path = params.get("path");
-		final String expiresDate = params.get("expires");
-		final int maxAge = Integer.valueOf(firstNonNull(params.get("max-age"), "0"));
-		final boolean secure = params.containsKey("secure");
-		final boolean httpOnly = params.containsKey("httponly");
-
-		final long expires;
-		if (expiresDate != null) {
-			expires = getTime(expiresDate,
-					"EEE, d MMM yyyy HH:mm:ss Z",
-					"EEE, d-MMM-yyyy HH:mm:ss Z",
-					"EEE, d/MMM/yyyy HH:mm:ss Z"
-			);
-		} else {
-			expires = 0;
+			start = end + 1;
 		}
 
 		return new Cookie(name, value, domain, path, secure, httpOnly, expires, maxAge);
 	}
 
+	private static int endOfPart(String value, int start) {
+		int index = value.indexOf(';', start);
+		return index < 0 ? value.length() : index;
+	}
+
+	private static int indexOf(String value, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int skipSpaces(String value, int start, int end) {
+		int i = start;
+		while (i < end && Character.isWhitespace(value.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int trimSpaces(String value, int start, int end) {
+		int i = end;
+		while (i > start && Character.isWhitespace(value.charAt(i - 1))) {
+			i--;
+		}
+		return i;
+	}
+
+	private static boolean is(String value, int start, int end, String attribute) {
+		return end - start == attribute.length() && value.regionMatches(true, start, attribute, 0, attribute.length());
+	}
+
+	private static int parseMaxAge(String value, int start, int end, int defaultValue) {
+		boolean negative = start < end && value.charAt(start) == '-';
+		int i = negative ? start + 1 : start;
+		if (i == end) {
+			return defaultValue;
+		}
+
+		long result = 0;
+		for (; i < end; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return defaultValue;
+			}
+
+			result = Math.min(result * 10 + (c - '0'), Integer.MAX_VALUE);
+		}
+
+		return (int) (negative ? -result : result);
+	}
+
 	/**
 	 * Create cookie.
 	 *
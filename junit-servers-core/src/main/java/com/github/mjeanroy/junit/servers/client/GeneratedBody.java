@@ -0,0 +1,321 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+
+/**
+ * Request body generated lazily, while request is written: body
+ * is never held in memory, whatever its size.
+ *
+ * Generated content is deterministic: the same generator
+ * always produces the same bytes, so that server side (or response) can
+ * verify what has been received (see {@link #digest()}).
+ *
+ * Body can also be throttled to simulate a slow client, using
+ * {@link #withChunkRate(int, long, TimeUnit)}.
+ */
+public final class GeneratedBody extends RequestBody {
+
+	/**
+	 * Charset used to encode JSON records.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Create body of given size filled with a pseudo-random
+	 * pattern: given seed always produce the same content.
+	 *
+	 * @param size Body size, in bytes.
+	 * @param seed Seed of pseudo-random pattern.
+	 * @return Body.
+	 * @throws IllegalArgumentException if size is negative.
+	 */
+	public static GeneratedBody randomBody(long size, long seed) {
+		return new GeneratedBody(positive(size, "size"), new RandomContent(seed), 0, 0);
+	}
+
+	/**
+	 * Create body as a JSON array repeating given record: body is
+	 * {@code [record,record,...,record]}.
+	 *
+	 * @param record JSON record.
+	 * @param count Number of records.
+	 * @return Body.
+	 * @throws NullPointerException if record is null.
+	 * @throws IllegalArgumentException if record is blank or count is negative.
+	 */
+	public static GeneratedBody jsonRecords(String record, long count) {
+		byte[] bytes = notBlank(record, "record").getBytes(UTF_8);
+		positive(count, "count");
+
+		// Opening and closing brackets, records and separators.
+		long size = 2 + (count * bytes.length) + Math.max(0, count - 1);
+		return new GeneratedBody(size, new JsonRecordsContent(bytes), 0, 0);
+	}
+
+	/**
+	 * Body size.
+	 */
+	private final long size;
+
+	/**
+	 * Content generator.
+	 */
+	private final Content content;
+
+	/**
+	 * Size of chunks emitted at each interval, zero if
+	 * body is not throttled.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Interval between two chunks, in nano seconds.
+	 */
+	private final long chunkInterval;
+
+	// Use static factories
+	private GeneratedBody(long size, Content content, int chunkSize, long chunkInterval) {
+		this.size = size;
+		this.content = content;
+		this.chunkSize = chunkSize;
+		this.chunkInterval = chunkInterval;
+	}
+
+	/**
+	 * Create new body, with same content, that emits at most one chunk of
+	 * {@code chunkSize} bytes per interval.
+	 *
+	 * @param chunkSize Chunk size, in bytes.
+	 * @param interval Interval between two chunks.
+	 * @param unit Interval unit.
+	 * @return New body.
+	 * @throws IllegalArgumentException if chunk size is not strictly positive or interval is negative.
+	 * @throws NullPointerException if unit is null.
+	 */
+	public GeneratedBody withChunkRate(int chunkSize, long interval, TimeUnit unit) {
+		strictlyPositive(chunkSize, "chunkSize");
+		positive(interval, "interval");
+		notNull(unit, "unit");
+		return new GeneratedBody(size, content, chunkSize, unit.toNanos(interval));
+	}
+
+	/**
+	 * Compute digest of generated content: content is generated
+	 * again (without throttling), but never held in memory.
+	 *
+	 * @return Body digest.
+	 */
+	public BodyDigest digest() {
+		try (InputStream stream = new GeneratedInputStream(size, content, 0, 0)) {
+			return BodyDigest.digest(stream);
+		}
+		catch (IOException ex) {
+			// Cannot happen, generated content is never read from IO.
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Override
+	public long getContentLength() {
+		return size;
+	}
+
+	@Override
+	public InputStream openStream() {
+		return new GeneratedInputStream(size, content, chunkSize, chunkInterval);
+	}
+
+	/**
+	 * Generator of deterministic content: content must be
+	 * addressable by position, so that it can be generated by
+	 * chunks of any size.
+	 */
+	private interface Content {
+		/**
+		 * Write bytes starting at given position of content.
+		 *
+		 * @param position Position of first byte.
+		 * @param b Output.
+		 * @param off Offset in output.
+		 * @param len Number of bytes to write.
+		 * @param size Total size of content.
+		 */
+		void write(long position, byte[] b, int off, int len, long size);
+	}
+
+	/**
+	 * Pseudo-random content: each block of 8 bytes is produced
+	 * by mixing seed and block index (see SplitMix64).
+	 */
+	private static class RandomContent implements Content {
+		private final long seed;
+
+		private RandomContent(long seed) {
+			this.seed = seed;
+		}
+
+		@Override
+		public void write(long position, byte[] b, int off, int len, long size) {
+			int i = 0;
+			while (i < len) {
+				long p = position + i;
+				long block = mix(seed + (p >>> 3) * 0x9E3779B97F4A7C15L);
+
+				// Emit remaining bytes of current block (all of them once position is aligned)
+				for (int shift = (int) (p & 7) << 3; shift < 64 && i < len; shift += 8) {
+					b[off + i] = (byte) (block >>> shift);
+					i++;
+				}
+			}
+		}
+
+		private static long mix(long z) {
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			return z ^ (z >>> 31);
+		}
+	}
+
+	/**
+	 * JSON array repeating a record.
+	 */
+	private static class JsonRecordsContent implements Content {
+		private final byte[] record;
+
+		private JsonRecordsContent(byte[] record) {
+			this.record = record;
+		}
+
+		@Override
+		public void write(long position, byte[] b, int off, int len, long size) {
+			int period = record.length + 1;
+			for (int i = 0; i < len; i++) {
+				long p = position + i;
+				byte value;
+				if (p == 0) {
+					value = '[';
+				}
+				else if (p == size - 1) {
+					value = ']';
+				}
+				else {
+					int index = (int) ((p - 1) % period);
+					value = index == record.length ? (byte) ',' : record[index];
+				}
+
+				b[off + i] = value;
+			}
+		}
+	}
+
+	/**
+	 * Stream generating content while it is read.
+	 */
+	private static class GeneratedInputStream extends InputStream {
+		private final long size;
+		private final Content content;
+		private final int chunkSize;
+		private final long chunkInterval;
+		private long position;
+		private long start;
+
+		private GeneratedInputStream(long size, Content content, int chunkSize, long chunkInterval) {
+			this.size = size;
+			this.content = content;
+			this.chunkSize = chunkSize;
+			this.chunkInterval = chunkInterval;
+			this.position = 0;
+			this.start = -1;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+
+			if (position >= size) {
+				return -1;
+			}
+
+			int n = (int) Math.min(len, size - position);
+			if (chunkSize > 0) {
+				n = Math.min(n, awaitChunk());
+			}
+
+			content.write(position, b, off, n, size);
+			position += n;
+			return n;
+		}
+
+		/**
+		 * Wait until current chunk can be emitted.
+		 *
+		 * @return Number of bytes remaining in current chunk.
+		 */
+		private int awaitChunk() throws IOException {
+			long now = System.nanoTime();
+			if (start < 0) {
+				start = now;
+			}
+
+			long chunk = position / chunkSize;
+			long delay = start + (chunk * chunkInterval) - now;
+			if (delay > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(delay);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+			}
+
+			return (int) (((chunk + 1) * chunkSize) - position);
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(Integer.MAX_VALUE, size - position);
+		}
+	}
+}
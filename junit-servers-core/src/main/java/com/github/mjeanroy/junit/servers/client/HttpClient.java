@@ -24,6 +24,8 @@
 
 package com.github.mjeanroy.junit.servers.client;
 
+import java.util.Iterator;
+
 /**
  * Http client that can be used to query embedded server.
  * After test suite, client should be properly destroyed
@@ -72,6 +74,29 @@ public interface HttpClient {
 	 */
 	HttpRequest prepareRequest(HttpMethod httpMethod, String url);
 
+	/**
+	 * Execute all given requests, with at most {@code maxConcurrency} requests
+	 * executed at the same time.
+	 * Results are returned in completion order: iterator blocks until next
+	 * result is available, and new requests are submitted while results are
+	 * consumed.
+	 * Errors do not stop the batch: they are reported in failed results.
+	 *
+	 * @param requests Requests to execute.
+	 * @param maxConcurrency Maximum number of requests executed at the same time.
+	 * @return Results, in completion order.
+	 * @throws NullPointerException if requests is null.
+	 * @throws IllegalArgumentException if maxConcurrency is not strictly positive.
+	 */
+	Iterator<HttpResult> executeAll(Iterable<HttpRequest> requests, int maxConcurrency);
+
+	/**
+	 * Reset client state (such as cookies stored from previous
+	 * responses), so that client can be reused by another test.
+	 * Opened connections are kept alive.
+	 */
+	void reset();
+
 	/**
 	 * Destroy client.
 	 */
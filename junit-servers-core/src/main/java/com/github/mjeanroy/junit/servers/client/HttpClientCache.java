@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Cache of http clients querying the same embedded server: a client
+ * is created once for each strategy and configuration, and is kept
+ * until the cache is cleared.
+ * This class is thread safe.
+ */
+public class HttpClientCache {
+
+	/**
+	 * Create new cache.
+	 *
+	 * @param server Embedded server.
+	 * @return Cache.
+	 * @throws NullPointerException if server is null.
+	 */
+	public static HttpClientCache newHttpClientCache(EmbeddedServer server) {
+		return new HttpClientCache(notNull(server, "server"));
+	}
+
+	/**
+	 * Embedded server queried by http clients.
+	 */
+	private final EmbeddedServer server;
+
+	/**
+	 * Created clients.
+	 */
+	private final Map<Key, HttpClient> clients;
+
+	// Use static factory
+	private HttpClientCache(EmbeddedServer server) {
+		this.server = server;
+		this.clients = new HashMap<>();
+	}
+
+	/**
+	 * Get http client built with given strategy and configuration,
+	 * client is created if it does not exist yet.
+	 *
+	 * @param strategy Strategy.
+	 * @param configuration Configuration.
+	 * @return Http client.
+	 * @throws NullPointerException if strategy or configuration is null.
+	 */
+	public synchronized HttpClient get(HttpClientStrategy strategy, HttpClientConfiguration configuration) {
+		Key key = new Key(notNull(strategy, "strategy"), notNull(configuration, "configuration"));
+
+		HttpClient client = clients.get(key);
+		if (client == null) {
+			client = strategy.build(configuration, server);
+			clients.put(key, client);
+		}
+
+		return client;
+	}
+
+	/**
+	 * Destroy and remove all cached clients.
+	 */
+	public void clear() {
+		List<HttpClient> removed;
+		synchronized (this) {
+			removed = new ArrayList<>(clients.values());
+			clients.clear();
+		}
+
+		for (HttpClient client : removed) {
+			client.destroy();
+		}
+	}
+
+	private static class Key {
+		private final HttpClientStrategy strategy;
+		private final HttpClientConfiguration configuration;
+
+		private Key(HttpClientStrategy strategy, HttpClientConfiguration configuration) {
+			this.strategy = strategy;
+			this.configuration = configuration;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+
+			if (o instanceof Key) {
+				Key k = (Key) o;
+				return strategy == k.strategy && configuration.equals(k.configuration);
+			}
+
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * strategy.hashCode() + configuration.hashCode();
+		}
+	}
+}
@@ -0,0 +1,518 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+
+/**
+ * Http client configuration settings: connection pool
+ * sizing, connection lifecycle and timeouts.
+ * All durations are expressed in milliseconds.
+ *
+ * Some settings (I/O threads, request timeout, compression and shared
+ * event loop) are only used by async-http-client.
+ */
+public final class HttpClientConfiguration {
+
+	/**
+	 * Default maximum number of connections in the pool.
+	 */
+	public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 200;
+
+	/**
+	 * Default maximum number of connections per route: tests usually
+	 * query a single embedded server, so this is the effective
+	 * concurrency of the client.
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 100;
+
+	/**
+	 * Default keep-alive duration: the value of the
+	 * "Keep-Alive" response header is used.
+	 */
+	public static final int DEFAULT_KEEP_ALIVE = 0;
+
+	/**
+	 * Default connection time to live: connections
+	 * can be reused indefinitely.
+	 */
+	public static final int DEFAULT_CONNECTION_TTL = 0;
+
+	/**
+	 * Default period of inactivity after which persistent
+	 * connections are validated before being reused.
+	 */
+	public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+	/**
+	 * Default connect timeout: no timeout.
+	 */
+	public static final int DEFAULT_CONNECT_TIMEOUT = 0;
+
+	/**
+	 * Default socket timeout: no timeout.
+	 */
+	public static final int DEFAULT_SOCKET_TIMEOUT = 0;
+
+	/**
+	 * Default request timeout: no timeout.
+	 */
+	public static final int DEFAULT_REQUEST_TIMEOUT = 0;
+
+	/**
+	 * Default number of I/O threads: library default is used.
+	 */
+	public static final int DEFAULT_IO_THREADS = 0;
+
+	/**
+	 * Default compression flag: compressed responses are not
+	 * requested.
+	 */
+	public static final boolean DEFAULT_COMPRESSION_ENFORCED = false;
+
+	/**
+	 * Default shared event loop flag: each client use its own
+	 * event loop.
+	 */
+	public static final boolean DEFAULT_SHARED_EVENT_LOOP = false;
+
+	/**
+	 * Get configuration builder.
+	 *
+	 * @return Builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Get default configuration.
+	 *
+	 * @return Default configuration.
+	 */
+	public static HttpClientConfiguration defaultConfiguration() {
+		return new Builder().build();
+	}
+
+	/**
+	 * Maximum number of connections in the pool.
+	 */
+	private final int maxTotalConnections;
+
+	/**
+	 * Maximum number of connections per route.
+	 */
+	private final int maxConnectionsPerRoute;
+
+	/**
+	 * Maximum duration a connection may stay idle in the pool, zero
+	 * means that value of "Keep-Alive" response header is used.
+	 */
+	private final int keepAlive;
+
+	/**
+	 * Total time to live of a connection, zero means no limit.
+	 */
+	private final int connectionTtl;
+
+	/**
+	 * Period of inactivity after which a persistent connection must be
+	 * validated before being leased, zero disables validation.
+	 */
+	private final int validateAfterInactivity;
+
+	/**
+	 * Connect timeout, zero means no timeout.
+	 */
+	private final int connectTimeout;
+
+	/**
+	 * Socket (read) timeout, zero means no timeout.
+	 */
+	private final int socketTimeout;
+
+	/**
+	 * Request timeout (i.e maximum time to get complete
+	 * response), zero means no timeout.
+	 */
+	private final int requestTimeout;
+
+	/**
+	 * Number of I/O threads, zero means that library default is used.
+	 */
+	private final int ioThreads;
+
+	/**
+	 * Flag to request compressed responses.
+	 */
+	private final boolean compressionEnforced;
+
+	/**
+	 * Flag to use I/O event loop and timer shared by all
+	 * clients of the JVM.
+	 */
+	private final boolean sharedEventLoop;
+
+	// Private constructor, use static builder.
+	private HttpClientConfiguration(Builder builder) {
+		this.maxTotalConnections = builder.getMaxTotalConnections();
+		this.maxConnectionsPerRoute = builder.getMaxConnectionsPerRoute();
+		this.keepAlive = builder.getKeepAlive();
+		this.connectionTtl = builder.getConnectionTtl();
+		this.validateAfterInactivity = builder.getValidateAfterInactivity();
+		this.connectTimeout = builder.getConnectTimeout();
+		this.socketTimeout = builder.getSocketTimeout();
+		this.requestTimeout = builder.getRequestTimeout();
+		this.ioThreads = builder.getIoThreads();
+		this.compressionEnforced = builder.isCompressionEnforced();
+		this.sharedEventLoop = builder.isSharedEventLoop();
+	}
+
+	public int getMaxTotalConnections() {
+		return maxTotalConnections;
+	}
+
+	public int getMaxConnectionsPerRoute() {
+		return maxConnectionsPerRoute;
+	}
+
+	public int getKeepAlive() {
+		return keepAlive;
+	}
+
+	public int getConnectionTtl() {
+		return connectionTtl;
+	}
+
+	public int getValidateAfterInactivity() {
+		return validateAfterInactivity;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public int getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	public int getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	public int getIoThreads() {
+		return ioThreads;
+	}
+
+	public boolean isCompressionEnforced() {
+		return compressionEnforced;
+	}
+
+	public boolean isSharedEventLoop() {
+		return sharedEventLoop;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof HttpClientConfiguration) {
+			HttpClientConfiguration c = (HttpClientConfiguration) o;
+			return maxTotalConnections == c.maxTotalConnections
+					&& maxConnectionsPerRoute == c.maxConnectionsPerRoute
+					&& keepAlive == c.keepAlive
+					&& connectionTtl == c.connectionTtl
+					&& validateAfterInactivity == c.validateAfterInactivity
+					&& connectTimeout == c.connectTimeout
+					&& socketTimeout == c.socketTimeout
+					&& requestTimeout == c.requestTimeout
+					&& ioThreads == c.ioThreads
+					&& compressionEnforced == c.compressionEnforced
+					&& sharedEventLoop == c.sharedEventLoop;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = maxTotalConnections;
+		result = 31 * result + maxConnectionsPerRoute;
+		result = 31 * result + keepAlive;
+		result = 31 * result + connectionTtl;
+		result = 31 * result + validateAfterInactivity;
+		result = 31 * result + connectTimeout;
+		result = 31 * result + socketTimeout;
+		result = 31 * result + requestTimeout;
+		result = 31 * result + ioThreads;
+		result = 31 * result + (compressionEnforced ? 1 : 0);
+		result = 31 * result + (sharedEventLoop ? 1 : 0);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpClientConfiguration{" +
+				"maxTotalConnections=" + maxTotalConnections +
+				", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+				", keepAlive=" + keepAlive +
+				", connectionTtl=" + connectionTtl +
+				", validateAfterInactivity=" + validateAfterInactivity +
+				", connectTimeout=" + connectTimeout +
+				", socketTimeout=" + socketTimeout +
+				", requestTimeout=" + requestTimeout +
+				", ioThreads=" + ioThreads +
+				", compressionEnforced=" + compressionEnforced +
+				", sharedEventLoop=" + sharedEventLoop +
+				"}";
+	}
+
+	public static class Builder {
+
+		private int maxTotalConnections;
+
+		private int maxConnectionsPerRoute;
+
+		private int keepAlive;
+
+		private int connectionTtl;
+
+		private int validateAfterInactivity;
+
+		private int connectTimeout;
+
+		private int socketTimeout;
+
+		private int requestTimeout;
+
+		private int ioThreads;
+
+		private boolean compressionEnforced;
+
+		private boolean sharedEventLoop;
+
+		private Builder() {
+			maxTotalConnections = DEFAULT_MAX_TOTAL_CONNECTIONS;
+			maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+			keepAlive = DEFAULT_KEEP_ALIVE;
+			connectionTtl = DEFAULT_CONNECTION_TTL;
+			validateAfterInactivity = DEFAULT_VALIDATE_AFTER_INACTIVITY;
+			connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+			socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+			requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+			ioThreads = DEFAULT_IO_THREADS;
+			compressionEnforced = DEFAULT_COMPRESSION_ENFORCED;
+			sharedEventLoop = DEFAULT_SHARED_EVENT_LOOP;
+		}
+
+		public HttpClientConfiguration build() {
+			return new HttpClientConfiguration(this);
+		}
+
+		public int getMaxTotalConnections() {
+			return maxTotalConnections;
+		}
+
+		public int getMaxConnectionsPerRoute() {
+			return maxConnectionsPerRoute;
+		}
+
+		public int getKeepAlive() {
+			return keepAlive;
+		}
+
+		public int getConnectionTtl() {
+			return connectionTtl;
+		}
+
+		public int getValidateAfterInactivity() {
+			return validateAfterInactivity;
+		}
+
+		public int getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public int getSocketTimeout() {
+			return socketTimeout;
+		}
+
+		public int getRequestTimeout() {
+			return requestTimeout;
+		}
+
+		public int getIoThreads() {
+			return ioThreads;
+		}
+
+		public boolean isCompressionEnforced() {
+			return compressionEnforced;
+		}
+
+		public boolean isSharedEventLoop() {
+			return sharedEventLoop;
+		}
+
+		/**
+		 * Update maximum number of connections in the pool.
+		 *
+		 * @param maxTotalConnections New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is not strictly positive.
+		 */
+		public Builder withMaxTotalConnections(int maxTotalConnections) {
+			this.maxTotalConnections = strictlyPositive(maxTotalConnections, "maxTotalConnections");
+			return this;
+		}
+
+		/**
+		 * Update maximum number of connections per route.
+		 *
+		 * @param maxConnectionsPerRoute New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is not strictly positive.
+		 */
+		public Builder withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = strictlyPositive(maxConnectionsPerRoute, "maxConnectionsPerRoute");
+			return this;
+		}
+
+		/**
+		 * Update keep-alive duration, zero means that value of
+		 * "Keep-Alive" response header is used.
+		 *
+		 * @param keepAlive New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withKeepAlive(int keepAlive) {
+			this.keepAlive = positive(keepAlive, "keepAlive");
+			return this;
+		}
+
+		/**
+		 * Update connection time to live, zero means no limit.
+		 *
+		 * @param connectionTtl New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withConnectionTtl(int connectionTtl) {
+			this.connectionTtl = positive(connectionTtl, "connectionTtl");
+			return this;
+		}
+
+		/**
+		 * Update period of inactivity after which persistent connections
+		 * are validated, zero disables validation.
+		 *
+		 * @param validateAfterInactivity New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withValidateAfterInactivity(int validateAfterInactivity) {
+			this.validateAfterInactivity = positive(validateAfterInactivity, "validateAfterInactivity");
+			return this;
+		}
+
+		/**
+		 * Update connect timeout, zero means no timeout.
+		 *
+		 * @param connectTimeout New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withConnectTimeout(int connectTimeout) {
+			this.connectTimeout = positive(connectTimeout, "connectTimeout");
+			return this;
+		}
+
+		/**
+		 * Update socket timeout, zero means no timeout.
+		 *
+		 * @param socketTimeout New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withSocketTimeout(int socketTimeout) {
+			this.socketTimeout = positive(socketTimeout, "socketTimeout");
+			return this;
+		}
+
+		/**
+		 * Update request timeout, zero means no timeout.
+		 *
+		 * @param requestTimeout New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withRequestTimeout(int requestTimeout) {
+			this.requestTimeout = positive(requestTimeout, "requestTimeout");
+			return this;
+		}
+
+		/**
+		 * Update number of I/O threads, zero means that library
+		 * default is used.
+		 *
+		 * @param ioThreads New value.
+		 * @return this
+		 * @throws IllegalArgumentException if value is negative.
+		 */
+		public Builder withIoThreads(int ioThreads) {
+			this.ioThreads = positive(ioThreads, "ioThreads");
+			return this;
+		}
+
+		public Builder enableCompression() {
+			return toggleCompression(true);
+		}
+
+		public Builder disableCompression() {
+			return toggleCompression(false);
+		}
+
+		private Builder toggleCompression(boolean compressionEnforced) {
+			this.compressionEnforced = compressionEnforced;
+			return this;
+		}
+
+		public Builder enableSharedEventLoop() {
+			return toggleSharedEventLoop(true);
+		}
+
+		public Builder disableSharedEventLoop() {
+			return toggleSharedEventLoop(false);
+		}
+
+		private Builder toggleSharedEventLoop(boolean sharedEventLoop) {
+			this.sharedEventLoop = sharedEventLoop;
+			return this;
+		}
+	}
+}
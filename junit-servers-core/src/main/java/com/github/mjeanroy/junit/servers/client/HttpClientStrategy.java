@@ -28,7 +28,10 @@ import com.github.mjeanroy.junit.servers.commons.ClassUtils;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
 
 import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ApacheHttpClient.defaultApacheHttpClient;
+import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ApacheHttpClient.newApacheHttpClient;
 import static com.github.mjeanroy.junit.servers.client.impl.async_http_client.AsyncHttpClient.defaultAsyncHttpClient;
+import static com.github.mjeanroy.junit.servers.client.impl.async_http_client.AsyncHttpClient.newAsyncHttpClient;
+import static com.github.mjeanroy.junit.servers.client.impl.in_process.InProcessHttpClient.defaultInProcessHttpClient;
 
 /**
  * Available strategies that can be used to build
@@ -44,6 +47,11 @@ public enum HttpClientStrategy {
 		public HttpClient build(EmbeddedServer server) {
 			return defaultAsyncHttpClient(server);
 		}
+
+		@Override
+		public HttpClient build(HttpClientConfiguration configuration, EmbeddedServer server) {
+			return newAsyncHttpClient(server, configuration);
+		}
 	},
 
 	/**
@@ -54,6 +62,30 @@ public enum HttpClientStrategy {
 		public HttpClient build(EmbeddedServer server) {
 			return defaultApacheHttpClient(server);
 		}
+
+		@Override
+		public HttpClient build(HttpClientConfiguration configuration, EmbeddedServer server) {
+			return newApacheHttpClient(server, configuration);
+		}
+	},
+
+	/**
+	 * Build http client that does not use any network connection: requests
+	 * are handed directly to the embedded container.
+	 * Embedded server must implement {@link com.github.mjeanroy.junit.servers.servers.InProcessDispatcher}
+	 * (embedded jetty does).
+	 * Since no connection is opened, configuration is ignored.
+	 */
+	IN_PROCESS {
+		@Override
+		public HttpClient build(EmbeddedServer server) {
+			return defaultInProcessHttpClient(server);
+		}
+
+		@Override
+		public HttpClient build(HttpClientConfiguration configuration, EmbeddedServer server) {
+			return defaultInProcessHttpClient(server);
+		}
 	},
 
 	/**
@@ -73,6 +105,19 @@ public enum HttpClientStrategy {
 
 			throw new UnsupportedOperationException("Http client implementation cannot be found, please add AsyncHttpClient or ApacheHttpClient to your classpath");
 		}
+
+		@Override
+		public HttpClient build(HttpClientConfiguration configuration, EmbeddedServer server) {
+			if (ClassUtils.isPresent("com.ning.http.client.AsyncHttpClient")) {
+				return ASYNC_HTTP_CLIENT.build(configuration, server);
+			}
+
+			if (ClassUtils.isPresent("org.apache.http.impl.client.CloseableHttpClient")) {
+				return APACHE_HTTP_CLIENT.build(configuration, server);
+			}
+
+			throw new UnsupportedOperationException("Http client implementation cannot be found, please add AsyncHttpClient or ApacheHttpClient to your classpath");
+		}
 	};
 
 	/**
@@ -82,4 +127,14 @@ public enum HttpClientStrategy {
 	 * @return Http client.
 	 */
 	public abstract HttpClient build(EmbeddedServer server);
+
+	/**
+	 * Return http client implementation, using given configuration
+	 * to set up connection pool and timeouts.
+	 *
+	 * @param configuration Http client configuration.
+	 * @param server Embedded server.
+	 * @return Http client.
+	 */
+	public abstract HttpClient build(HttpClientConfiguration configuration, EmbeddedServer server);
 }
@@ -79,11 +79,12 @@ public class HttpHeader {
 	// Use static factories
 	private HttpHeader(String name, Collection<String> values) {
 		this.name = notBlank(name, "name");
-		this.values = new ArrayList<>(values.size());
-
-		for (String val : notEmpty(values, "values")) {
-			this.values.add(notNull(val, "value"));
+		List<String> copy = new ArrayList<>(notEmpty(values, "values").size());
+		for (String val : values) {
+			copy.add(notNull(val, "value"));
 		}
+
+		this.values = unmodifiableList(copy);
 	}
 
 	/**
@@ -102,7 +103,7 @@ public class HttpHeader {
 	 * @return Header values.
 	 */
 	public List<String> getValues() {
-		return unmodifiableList(values);
+		return values;
 	}
 
 	/**
@@ -59,10 +59,16 @@ public final class HttpHeaders {
 	public static final String IF_UNMODIFIED_SINCE = "If-Unmodified-Since";
 	public static final String X_HTTP_METHOD_OVERRIDE = "X-Http-Method-Override";
 	public static final String X_CSRF_TOKEN = "X-Csrf-Token";
+	public static final String HOST = "Host";
+	public static final String CONNECTION = "Connection";
+	public static final String CONTENT_LENGTH = "Content-Length";
+	public static final String TRANSFER_ENCODING = "Transfer-Encoding";
 
 	public static final String XML_HTTP_REQUEST = "XMLHttpRequest";
 	public static final String APPLICATION_JSON = "application/json";
 	public static final String APPLICATION_XML = "application/xml";
 	public static final String APPLICATION_FORM_URL_ENCODED = "application/x-www-form-urlencoded";
 	public static final String MULTIPART_FORM_DATA = "multipart/form-data";
+	public static final String CLOSE = "close";
+	public static final String CHUNKED = "chunked";
 }
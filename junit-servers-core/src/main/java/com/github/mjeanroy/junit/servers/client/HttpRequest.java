@@ -24,6 +24,10 @@
 
 package com.github.mjeanroy.junit.servers.client;
 
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Date;
 
 /**
@@ -104,6 +108,75 @@ public interface HttpRequest {
 	 */
 	HttpRequest setBody(String body);
 
+	/**
+	 * Set request body as raw bytes.
+	 * This method should be used for POST or PUT request only, otherwise
+	 * it will throw {@link UnsupportedOperationException} exception.
+	 *
+	 * @param body Body request.
+	 * @return Http request that can be used for chaining.
+	 * @throws UnsupportedOperationException if request is not POST or PUT request.
+	 */
+	HttpRequest setBody(byte[] body);
+
+	/**
+	 * Set request body as remaining bytes of given buffer.
+	 * This method should be used for POST or PUT request only, otherwise
+	 * it will throw {@link UnsupportedOperationException} exception.
+	 *
+	 * @param body Body request.
+	 * @return Http request that can be used for chaining.
+	 * @throws UnsupportedOperationException if request is not POST or PUT request.
+	 */
+	HttpRequest setBody(ByteBuffer body);
+
+	/**
+	 * Set request body as a stream: body is sent using chunked
+	 * transfer encoding, and stream is read while request is written.
+	 * This method should be used for POST or PUT request only, otherwise
+	 * it will throw {@link UnsupportedOperationException} exception.
+	 *
+	 * @param body Body request.
+	 * @return Http request that can be used for chaining.
+	 * @throws UnsupportedOperationException if request is not POST or PUT request.
+	 */
+	HttpRequest setBody(InputStream body);
+
+	/**
+	 * Set request body as content of given file: file is read
+	 * while request is written, without being loaded in memory.
+	 * This method should be used for POST or PUT request only, otherwise
+	 * it will throw {@link UnsupportedOperationException} exception.
+	 *
+	 * @param body Body request.
+	 * @return Http request that can be used for chaining.
+	 * @throws UnsupportedOperationException if request is not POST or PUT request.
+	 */
+	HttpRequest setBody(Path body);
+
+	/**
+	 * Set request body as content of given file: file is read
+	 * while request is written, without being loaded in memory.
+	 * This method should be used for POST or PUT request only, otherwise
+	 * it will throw {@link UnsupportedOperationException} exception.
+	 *
+	 * @param body Body request.
+	 * @return Http request that can be used for chaining.
+	 * @throws UnsupportedOperationException if request is not POST or PUT request.
+	 */
+	HttpRequest setBody(File body);
+
+	/**
+	 * Set request body.
+	 * This method should be used for POST or PUT request only, otherwise
+	 * it will throw {@link UnsupportedOperationException} exception.
+	 *
+	 * @param body Body request.
+	 * @return Http request that can be used for chaining.
+	 * @throws UnsupportedOperationException if request is not POST or PUT request.
+	 */
+	HttpRequest setBody(RequestBody body);
+
 	/**
 	 * Add header specific to standard js library.
 	 *
@@ -326,4 +399,17 @@ public interface HttpRequest {
 	 * @return Http response.
 	 */
 	HttpResponse executeXml();
+
+	/**
+	 * Execute request asynchronously: this method does not wait
+	 * for the response and returns immediately.
+	 * Request duration of returned response is computed once
+	 * response is complete.
+	 * Clients without native asynchronous support execute requests in a
+	 * bounded pool of threads: when it is saturated, this method executes
+	 * request in the calling thread and returns a completed future.
+	 *
+	 * @return Future response.
+	 */
+	HttpResponseFuture executeAsync();
 }
@@ -24,6 +24,9 @@
 
 package com.github.mjeanroy.junit.servers.client;
 
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -50,6 +53,18 @@ public interface HttpResponse {
 	 */
 	long getRequestDurationInMillis();
 
+	/**
+	 * Get breakdown of request execution duration: connection
+	 * wait, connect, TLS handshake, request write, time to first
+	 * byte and download.
+	 * Phases that cannot be observed by underlying client are
+	 * reported as {@link RequestTimings#UNKNOWN}; download duration
+	 * may only be known once response has been buffered.
+	 *
+	 * @return Request timings.
+	 */
+	RequestTimings getTimings();
+
 	/**
 	 * Http status code.
 	 *
@@ -59,11 +74,93 @@ public interface HttpResponse {
 
 	/**
 	 * Http response body.
+	 * Body is buffered (see {@link #buffer()}) and decoded once, using charset
+	 * defined in Content-Type header: subsequent calls return the same string.
 	 *
 	 * @return Body.
 	 */
 	String body();
 
+	/**
+	 * Read http response body entirely and keep it in a buffer: body
+	 * can then be read as many times as needed, with {@link #body()},
+	 * {@link #bodyAsBytes()} or {@link #bodyAsStream()}.
+	 * Body is kept on the heap up to a default threshold and written
+	 * to a memory-mapped temporary file beyond it.
+	 * Calling this method on a buffered response has no effect.
+	 *
+	 * @return Current response.
+	 */
+	HttpResponse buffer();
+
+	/**
+	 * Read http response body entirely and keep it in a buffer, with
+	 * at most {@code threshold} bytes kept on the heap: larger bodies are written
+	 * to a memory-mapped temporary file.
+	 * Calling this method on a buffered response has no effect.
+	 *
+	 * @param threshold Maximum number of bytes kept on the heap.
+	 * @return Current response.
+	 * @throws IllegalArgumentException if threshold is negative.
+	 */
+	HttpResponse buffer(long threshold);
+
+	/**
+	 * Check if response body has been buffered.
+	 *
+	 * @return True if body is buffered, false otherwise.
+	 */
+	boolean isBuffered();
+
+	/**
+	 * Http response body as a stream of bytes.
+	 * Depending on the implementation, body may be read from the
+	 * network while stream is consumed: in this case, body can be
+	 * read only once.
+	 * Stream should be closed once it has been consumed.
+	 *
+	 * @return Body stream.
+	 */
+	InputStream bodyAsStream();
+
+	/**
+	 * Http response body as a channel of bytes.
+	 * Same restrictions than {@link #bodyAsStream()} apply.
+	 *
+	 * @return Body channel.
+	 */
+	ReadableByteChannel bodyAsChannel();
+
+	/**
+	 * Http response body as raw bytes (i.e without
+	 * charset decoding).
+	 *
+	 * @return Body bytes.
+	 */
+	byte[] bodyAsBytes();
+
+	/**
+	 * Read http response body and compute its digest (size, checksum
+	 * and read duration) on the fly: body is never held in memory, unless
+	 * response has been buffered.
+	 * This method can be used to verify large downloads against an expected
+	 * digest (see {@link GeneratedBody#digest()}).
+	 *
+	 * @return Body digest.
+	 */
+	BodyDigest bodyDigest();
+
+	/**
+	 * Write http response body to given file: file is created if
+	 * it does not exist, truncated otherwise.
+	 * Body is written through a file channel, without being
+	 * entirely loaded in memory.
+	 *
+	 * @param path File path.
+	 * @return Number of bytes written.
+	 */
+	long transferTo(Path path);
+
 	/**
 	 * Check that given is available.
 	 *
@@ -81,6 +178,14 @@ public interface HttpResponse {
 	 */
 	HttpHeader getHeader(String name);
 
+	/**
+	 * Get all headers of http response: values of headers with
+	 * the same name (case insensitive) are merged.
+	 *
+	 * @return Headers, ordered by name.
+	 */
+	List<HttpHeader> getHeaders();
+
 	/**
 	 * Get cookie by its name.
 	 *
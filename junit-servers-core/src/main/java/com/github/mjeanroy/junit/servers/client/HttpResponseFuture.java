@@ -0,0 +1,54 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import java.util.concurrent.Future;
+
+/**
+ * Result of an asynchronous request: a {@link Future} that
+ * can notify listeners when response is available.
+ */
+public interface HttpResponseFuture extends Future<HttpResponse> {
+
+	/**
+	 * Register listener that will be notified once request is completed.
+	 * If request is already completed, listener is notified immediately
+	 * in the calling thread.
+	 *
+	 * @param listener Listener.
+	 * @return Current future that can be used for chaining.
+	 * @throws NullPointerException if listener is null.
+	 */
+	HttpResponseFuture addListener(HttpResponseListener listener);
+
+	/**
+	 * Wait until response is available and return it.
+	 * Unlike {@link #get()}, failures are translated into an instance
+	 * of {@link com.github.mjeanroy.junit.servers.exceptions.HttpClientException}.
+	 *
+	 * @return Http response.
+	 */
+	HttpResponse await();
+}
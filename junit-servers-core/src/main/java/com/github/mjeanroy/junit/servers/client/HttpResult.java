@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Result of a request executed in a batch: either an http
+ * response or the error that occurred during execution.
+ */
+public final class HttpResult {
+
+	/**
+	 * Create successful result.
+	 *
+	 * @param request Executed request.
+	 * @param response Http response.
+	 * @param duration Duration between submission and completion, in nano seconds.
+	 * @return Result.
+	 * @throws NullPointerException if request or response is null.
+	 */
+	public static HttpResult success(HttpRequest request, HttpResponse response, long duration) {
+		return new HttpResult(notNull(request, "request"), notNull(response, "response"), null, duration);
+	}
+
+	/**
+	 * Create failed result.
+	 *
+	 * @param request Executed request.
+	 * @param error Error.
+	 * @param duration Duration between submission and failure, in nano seconds.
+	 * @return Result.
+	 * @throws NullPointerException if request or error is null.
+	 */
+	public static HttpResult failure(HttpRequest request, Throwable error, long duration) {
+		return new HttpResult(notNull(request, "request"), null, notNull(error, "error"), duration);
+	}
+
+	/**
+	 * Executed request.
+	 */
+	private final HttpRequest request;
+
+	/**
+	 * Http response, null if request failed.
+	 */
+	private final HttpResponse response;
+
+	/**
+	 * Error, null if request succeeded.
+	 */
+	private final Throwable error;
+
+	/**
+	 * Duration between submission and completion, in nano seconds.
+	 * This duration includes the time spent waiting for a slot if
+	 * maximum concurrency was reached.
+	 */
+	private final long duration;
+
+	// Use static factory
+	private HttpResult(HttpRequest request, HttpResponse response, Throwable error, long duration) {
+		this.request = request;
+		this.response = response;
+		this.error = error;
+		this.duration = duration;
+	}
+
+	public HttpRequest getRequest() {
+		return request;
+	}
+
+	public HttpResponse getResponse() {
+		return response;
+	}
+
+	public Throwable getError() {
+		return error;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Get duration in milliseconds.
+	 *
+	 * @return Duration in milliseconds.
+	 */
+	public long getDurationInMillis() {
+		return duration / 1000000;
+	}
+
+	/**
+	 * Check if request succeeded.
+	 *
+	 * @return True if an http response has been received, false otherwise.
+	 */
+	public boolean isSuccess() {
+		return response != null;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpResult{" +
+				"request=" + request.getMethod() +
+				", status=" + (response == null ? null : response.status()) +
+				", error=" + error +
+				", duration=" + duration +
+				"}";
+	}
+}
@@ -0,0 +1,326 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Body of an http request.
+ * A body is defined by:
+ * - Its content, available as a stream of bytes.
+ * - Its length in bytes, or a negative value if length is unknown: in this
+ * case, body is sent using chunked transfer encoding.
+ *
+ * Http client implementations use the most efficient representation available
+ * for each kind of body (i.e a file body is never loaded entirely in memory).
+ */
+public abstract class RequestBody {
+
+	/**
+	 * Charset used to encode string bodies.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Create body from a string.
+	 *
+	 * @param value Body value.
+	 * @return Body.
+	 * @throws NullPointerException if value is null.
+	 */
+	public static StringBody stringBody(String value) {
+		return new StringBody(value);
+	}
+
+	/**
+	 * Create body from an array of bytes.
+	 * Array is not copied.
+	 *
+	 * @param bytes Body bytes.
+	 * @return Body.
+	 * @throws NullPointerException if bytes is null.
+	 */
+	public static BytesBody bytesBody(byte[] bytes) {
+		notNull(bytes, "bytes");
+		return new BytesBody(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Create body from remaining bytes of given buffer.
+	 * Buffer position is not modified; bytes are copied only if
+	 * buffer is not backed by an accessible array.
+	 *
+	 * @param buffer Body bytes.
+	 * @return Body.
+	 * @throws NullPointerException if buffer is null.
+	 */
+	public static BytesBody bytesBody(ByteBuffer buffer) {
+		notNull(buffer, "buffer");
+
+		if (buffer.hasArray()) {
+			return new BytesBody(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		}
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return new BytesBody(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Create body from a stream with an unknown length: body will be
+	 * sent using chunked transfer encoding.
+	 * Stream can be read only once, so request should not be executed twice.
+	 *
+	 * @param stream Body stream.
+	 * @return Body.
+	 * @throws NullPointerException if stream is null.
+	 */
+	public static StreamBody streamBody(InputStream stream) {
+		return new StreamBody(stream, -1);
+	}
+
+	/**
+	 * Create body from a stream with a known length.
+	 * Stream can be read only once, so request should not be executed twice.
+	 *
+	 * @param stream Body stream.
+	 * @param length Number of bytes of stream.
+	 * @return Body.
+	 * @throws NullPointerException if stream is null.
+	 */
+	public static StreamBody streamBody(InputStream stream, long length) {
+		return new StreamBody(stream, length);
+	}
+
+	/**
+	 * Create body from a file.
+	 * File is read while request is written.
+	 *
+	 * @param path File path.
+	 * @return Body.
+	 * @throws NullPointerException if path is null.
+	 */
+	public static FileBody fileBody(Path path) {
+		return new FileBody(path);
+	}
+
+	/**
+	 * Create body from a file.
+	 * File is read while request is written.
+	 *
+	 * @param file File.
+	 * @return Body.
+	 * @throws NullPointerException if file is null.
+	 */
+	public static FileBody fileBody(File file) {
+		return new FileBody(notNull(file, "file").toPath());
+	}
+
+	/**
+	 * Get body length in bytes.
+	 *
+	 * @return Body length, negative value if length is unknown.
+	 */
+	public abstract long getContentLength();
+
+	/**
+	 * Open stream reading body content.
+	 *
+	 * @return Body stream.
+	 * @throws IOException If body cannot be read.
+	 */
+	public abstract InputStream openStream() throws IOException;
+
+	/**
+	 * Check if body can be read several times (i.e if each call
+	 * to {@link #openStream()} returns a new stream reading entire body).
+	 *
+	 * @return True if body is repeatable, false otherwise.
+	 */
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	/**
+	 * Body defined by a string, encoded with UTF-8.
+	 */
+	public static final class StringBody extends RequestBody {
+		private final String value;
+
+		private StringBody(String value) {
+			this.value = notNull(value, "value");
+		}
+
+		/**
+		 * Get body value.
+		 *
+		 * @return Body value.
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		@Override
+		public long getContentLength() {
+			return value.getBytes(UTF_8).length;
+		}
+
+		@Override
+		public InputStream openStream() {
+			return new ByteArrayInputStream(value.getBytes(UTF_8));
+		}
+
+		@Override
+		public String toString() {
+			return value;
+		}
+	}
+
+	/**
+	 * Body defined by a region of an array of bytes.
+	 */
+	public static final class BytesBody extends RequestBody {
+		private final byte[] bytes;
+		private final int offset;
+		private final int length;
+
+		private BytesBody(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * Get body bytes: returned array is a copy if body is defined by
+		 * a region of a larger array.
+		 *
+		 * @return Body bytes.
+		 */
+		public byte[] getBytes() {
+			if (offset == 0 && length == bytes.length) {
+				return bytes;
+			}
+
+			byte[] copy = new byte[length];
+			System.arraycopy(bytes, offset, copy, 0, length);
+			return copy;
+		}
+
+		@Override
+		public long getContentLength() {
+			return length;
+		}
+
+		@Override
+		public InputStream openStream() {
+			return new ByteArrayInputStream(bytes, offset, length);
+		}
+	}
+
+	/**
+	 * Body defined by a stream, that can be read only once.
+	 */
+	public static final class StreamBody extends RequestBody {
+		private final InputStream stream;
+		private final long length;
+
+		private StreamBody(InputStream stream, long length) {
+			this.stream = notNull(stream, "stream");
+			this.length = length;
+		}
+
+		@Override
+		public long getContentLength() {
+			return length;
+		}
+
+		@Override
+		public InputStream openStream() {
+			return stream;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return false;
+		}
+	}
+
+	/**
+	 * Body defined by a file.
+	 */
+	public static final class FileBody extends RequestBody {
+		private final Path path;
+
+		private FileBody(Path path) {
+			this.path = notNull(path, "path");
+		}
+
+		/**
+		 * Get file path.
+		 *
+		 * @return File path.
+		 */
+		public Path getPath() {
+			return path;
+		}
+
+		/**
+		 * Check if file belongs to the default file system, i.e if
+		 * it can be used as a {@link java.io.File} (files of other file
+		 * systems, such as zip file systems, can only be streamed).
+		 *
+		 * @return True if file belongs to default file system, false otherwise.
+		 */
+		public boolean isDefaultFileSystem() {
+			return path.getFileSystem() == FileSystems.getDefault();
+		}
+
+		@Override
+		public long getContentLength() {
+			try {
+				return Files.size(path);
+			}
+			catch (IOException ex) {
+				// Length is unknown, file cannot be read anyway.
+				return -1;
+			}
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return Files.newInputStream(path);
+		}
+	}
+}
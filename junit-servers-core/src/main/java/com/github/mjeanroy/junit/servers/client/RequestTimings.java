@@ -0,0 +1,237 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import static java.lang.String.format;
+
+/**
+ * Breakdown of the time spent to execute an http request, in nano seconds:
+ * - Queue: time spent waiting for a connection (pool lease or new connection).
+ * - Connect: time spent to open TCP connection.
+ * - TLS: time spent in TLS handshake.
+ * - Write: time spent to write request (headers and body).
+ * - Time to first byte: time between end of request write and beginning of response.
+ * - Download: time spent to read response body.
+ * - Total: time to execute http request and produce http response.
+ *
+ * Phases that did not happen (for example, connect and TLS handshake
+ * when a pooled connection is reused) or that cannot be observed by
+ * underlying client are equal to {@link #UNKNOWN}.
+ */
+public final class RequestTimings {
+
+	/**
+	 * Value of phases that were not measured.
+	 */
+	public static final long UNKNOWN = -1;
+
+	/**
+	 * Create timings where only total duration is known.
+	 *
+	 * @param total Total duration, in nano seconds.
+	 * @return Timings.
+	 */
+	public static RequestTimings timings(long total) {
+		return new RequestTimings(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, total);
+	}
+
+	/**
+	 * Create timings.
+	 * Negative values are considered as {@link #UNKNOWN}.
+	 *
+	 * @param queue Time spent waiting for a connection.
+	 * @param connect Time spent to open connection.
+	 * @param tlsHandshake Time spent in TLS handshake.
+	 * @param requestWrite Time spent to write request.
+	 * @param timeToFirstByte Time to first byte of response.
+	 * @param download Time spent to read response body.
+	 * @param total Total duration.
+	 * @return Timings.
+	 */
+	public static RequestTimings timings(long queue, long connect, long tlsHandshake, long requestWrite, long timeToFirstByte, long download, long total) {
+		return new RequestTimings(queue, connect, tlsHandshake, requestWrite, timeToFirstByte, download, total);
+	}
+
+	/**
+	 * Time spent waiting for a connection.
+	 */
+	private final long queue;
+
+	/**
+	 * Time spent to open connection.
+	 */
+	private final long connect;
+
+	/**
+	 * Time spent in TLS handshake.
+	 */
+	private final long tlsHandshake;
+
+	/**
+	 * Time spent to write request.
+	 */
+	private final long requestWrite;
+
+	/**
+	 * Time between end of request write and first byte of response.
+	 */
+	private final long timeToFirstByte;
+
+	/**
+	 * Time spent to read response body.
+	 */
+	private final long download;
+
+	/**
+	 * Total duration.
+	 */
+	private final long total;
+
+	// Use static factory
+	private RequestTimings(long queue, long connect, long tlsHandshake, long requestWrite, long timeToFirstByte, long download, long total) {
+		this.queue = normalize(queue);
+		this.connect = normalize(connect);
+		this.tlsHandshake = normalize(tlsHandshake);
+		this.requestWrite = normalize(requestWrite);
+		this.timeToFirstByte = normalize(timeToFirstByte);
+		this.download = normalize(download);
+		this.total = normalize(total);
+	}
+
+	/**
+	 * Get time spent waiting for a connection: time to lease
+	 * a connection from the pool, or time before opening a new one.
+	 *
+	 * @return Queue duration, in nano seconds.
+	 */
+	public long getQueueDuration() {
+		return queue;
+	}
+
+	/**
+	 * Get time spent to open TCP connection.
+	 *
+	 * @return Connect duration, in nano seconds.
+	 */
+	public long getConnectDuration() {
+		return connect;
+	}
+
+	/**
+	 * Get time spent in TLS handshake.
+	 *
+	 * @return TLS handshake duration, in nano seconds.
+	 */
+	public long getTlsHandshakeDuration() {
+		return tlsHandshake;
+	}
+
+	/**
+	 * Get time spent to write request headers and body.
+	 *
+	 * @return Write duration, in nano seconds.
+	 */
+	public long getRequestWriteDuration() {
+		return requestWrite;
+	}
+
+	/**
+	 * Get time between end of request write and first byte of response.
+	 *
+	 * @return Time to first byte, in nano seconds.
+	 */
+	public long getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	/**
+	 * Get time spent to read response body.
+	 *
+	 * @return Download duration, in nano seconds.
+	 */
+	public long getDownloadDuration() {
+		return download;
+	}
+
+	/**
+	 * Get total time to execute http request and produce http response.
+	 *
+	 * @return Total duration, in nano seconds.
+	 */
+	public long getTotalDuration() {
+		return total;
+	}
+
+	/**
+	 * Get new timings, with given download duration.
+	 *
+	 * @param download Download duration, in nano seconds.
+	 * @return New timings.
+	 */
+	public RequestTimings withDownloadDuration(long download) {
+		return new RequestTimings(queue, connect, tlsHandshake, requestWrite, timeToFirstByte, download, total);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof RequestTimings) {
+			RequestTimings t = (RequestTimings) o;
+			return queue == t.queue
+				&& connect == t.connect
+				&& tlsHandshake == t.tlsHandshake
+				&& requestWrite == t.requestWrite
+				&& timeToFirstByte == t.timeToFirstByte
+				&& download == t.download
+				&& total == t.total;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		long[] values = {queue, connect, tlsHandshake, requestWrite, timeToFirstByte, download, total};
+		int hash = 1;
+		for (long value : values) {
+			hash = 31 * hash + Long.valueOf(value).hashCode();
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return format("%s {queue = %s, connect = %s, tlsHandshake = %s, requestWrite = %s, timeToFirstByte = %s, download = %s, total = %s}",
+			getClass().getSimpleName(), queue, connect, tlsHandshake, requestWrite, timeToFirstByte, download, total
+		);
+	}
+
+	private static long normalize(long value) {
+		return value < 0 ? UNKNOWN : value;
+	}
+}
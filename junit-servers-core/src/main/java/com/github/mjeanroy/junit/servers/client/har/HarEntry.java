@@ -0,0 +1,337 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.HttpParameter;
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static com.github.mjeanroy.junit.servers.client.HttpParameter.param;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.UNKNOWN;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
+import static com.github.mjeanroy.junit.servers.client.har.Json.quote;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+
+/**
+ * Entry of a HAR file: a request and its response.
+ * Only fields used to replay and compare requests are kept when
+ * a HAR file is read.
+ */
+final class HarEntry {
+
+	/**
+	 * HTTP version written in HAR entries.
+	 */
+	private static final String HTTP_VERSION = "HTTP/1.1";
+
+	/**
+	 * Create date format of HAR files (ISO 8601, in UTC).
+	 * Date formats are not thread safe, a new one is created each time.
+	 *
+	 * @return Date format.
+	 */
+	private static DateFormat dateFormat() {
+		DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.ENGLISH);
+		dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return dateFormat;
+	}
+
+	/**
+	 * Start time of request, in milliseconds since epoch.
+	 */
+	long startedDateTime;
+
+	/**
+	 * Request method.
+	 */
+	String method;
+
+	/**
+	 * Absolute request url, including query string.
+	 */
+	String url;
+
+	/**
+	 * Request headers (one entry per value), cookies excepted.
+	 */
+	final List<HttpParameter> requestHeaders = new ArrayList<>();
+
+	/**
+	 * Request cookies.
+	 */
+	final List<HttpParameter> requestCookies = new ArrayList<>();
+
+	/**
+	 * Query parameters.
+	 */
+	final List<HttpParameter> queryString = new ArrayList<>();
+
+	/**
+	 * Form parameters.
+	 */
+	final List<HttpParameter> postParams = new ArrayList<>();
+
+	/**
+	 * Mime type of request body, null if request does not have any body.
+	 */
+	String postMimeType;
+
+	/**
+	 * Request body, null if body is not textual.
+	 */
+	String postText;
+
+	/**
+	 * Response status, zero if request failed without response.
+	 */
+	int status;
+
+	/**
+	 * Response headers (one entry per value).
+	 */
+	final List<HttpParameter> responseHeaders = new ArrayList<>();
+
+	/**
+	 * Mime type of response body.
+	 */
+	String contentMimeType;
+
+	/**
+	 * Size of response body, in bytes.
+	 */
+	long contentSize;
+
+	/**
+	 * Response body, null if body is not textual.
+	 */
+	String contentText;
+
+	/**
+	 * Timings of request, in nano seconds.
+	 */
+	RequestTimings timings = timings(UNKNOWN);
+
+	/**
+	 * Append entry as a JSON object.
+	 *
+	 * @param sb Output.
+	 */
+	void toJson(StringBuilder sb) {
+		sb.append("{");
+		sb.append("\"startedDateTime\":");
+		quote(sb, dateFormat().format(new Date(startedDateTime)));
+		sb.append(",\"time\":").append(millis(Math.max(timings.getTotalDuration(), 0)));
+
+		sb.append(",\"request\":{\"method\":");
+		quote(sb, method);
+		sb.append(",\"url\":");
+		quote(sb, url);
+		sb.append(",\"httpVersion\":");
+		quote(sb, HTTP_VERSION);
+		sb.append(",\"cookies\":");
+		pairs(sb, requestCookies);
+		sb.append(",\"headers\":");
+		pairs(sb, requestHeaders);
+		sb.append(",\"queryString\":");
+		pairs(sb, queryString);
+		if (postMimeType != null) {
+			sb.append(",\"postData\":{\"mimeType\":");
+			quote(sb, postMimeType);
+			sb.append(",\"params\":");
+			pairs(sb, postParams);
+			sb.append(",\"text\":");
+			quote(sb, postText == null ? "" : postText);
+			sb.append("}");
+		}
+		sb.append(",\"headersSize\":-1,\"bodySize\":-1}");
+
+		sb.append(",\"response\":{\"status\":").append(status);
+		sb.append(",\"statusText\":\"\",\"httpVersion\":");
+		quote(sb, HTTP_VERSION);
+		sb.append(",\"cookies\":[],\"headers\":");
+		pairs(sb, responseHeaders);
+		sb.append(",\"content\":{\"size\":").append(contentSize).append(",\"mimeType\":");
+		quote(sb, contentMimeType == null ? "" : contentMimeType);
+		if (contentText != null) {
+			sb.append(",\"text\":");
+			quote(sb, contentText);
+		}
+		sb.append("},\"redirectURL\":\"\",\"headersSize\":-1,\"bodySize\":").append(contentSize).append("}");
+
+		sb.append(",\"cache\":{}");
+		sb.append(",\"timings\":{");
+		sb.append("\"blocked\":").append(optional(timings.getQueueDuration()));
+		sb.append(",\"dns\":-1");
+		sb.append(",\"connect\":").append(optional(timings.getConnectDuration()));
+		sb.append(",\"ssl\":").append(optional(timings.getTlsHandshakeDuration()));
+		sb.append(",\"send\":").append(required(timings.getRequestWriteDuration()));
+		sb.append(",\"wait\":").append(required(timings.getTimeToFirstByte()));
+		sb.append(",\"receive\":").append(required(timings.getDownloadDuration()));
+		sb.append("}");
+		sb.append("}");
+	}
+
+	/**
+	 * Read entry from parsed JSON object.
+	 *
+	 * @param json JSON object.
+	 * @return Entry.
+	 * @throws IllegalArgumentException if entry is not valid.
+	 */
+	static HarEntry fromJson(Map<String, Object> json) {
+		HarEntry entry = new HarEntry();
+		entry.startedDateTime = parseDate(string(json, "startedDateTime"));
+
+		Map<String, Object> request = object(json, "request");
+		entry.method = string(request, "method");
+		entry.url = string(request, "url");
+		if (entry.method == null || entry.url == null) {
+			throw new IllegalArgumentException("HAR entry must define request method and url");
+		}
+
+		readPairs(request, "headers", entry.requestHeaders);
+		readPairs(request, "cookies", entry.requestCookies);
+		readPairs(request, "queryString", entry.queryString);
+
+		Map<String, Object> postData = object(request, "postData");
+		if (postData != null) {
+			entry.postMimeType = string(postData, "mimeType");
+			entry.postText = string(postData, "text");
+			readPairs(postData, "params", entry.postParams);
+		}
+
+		Map<String, Object> response = object(json, "response");
+		if (response != null) {
+			entry.status = (int) number(response, "status", 0);
+			readPairs(response, "headers", entry.responseHeaders);
+
+			Map<String, Object> content = object(response, "content");
+			if (content != null) {
+				entry.contentSize = (long) number(content, "size", 0);
+				entry.contentMimeType = string(content, "mimeType");
+				entry.contentText = string(content, "text");
+			}
+		}
+
+		entry.timings = timings(nanos(number(json, "time", -1)));
+		return entry;
+	}
+
+	private static void pairs(StringBuilder sb, List<HttpParameter> pairs) {
+		sb.append("[");
+		for (int i = 0; i < pairs.size(); i++) {
+			if (i > 0) {
+				sb.append(",");
+			}
+
+			sb.append("{\"name\":");
+			quote(sb, pairs.get(i).getName());
+			sb.append(",\"value\":");
+			quote(sb, pairs.get(i).getValue());
+			sb.append("}");
+		}
+		sb.append("]");
+	}
+
+	private static void readPairs(Map<String, Object> json, String name, List<HttpParameter> pairs) {
+		Object array = json.get(name);
+		if (!(array instanceof List)) {
+			return;
+		}
+
+		for (Object item : (List<?>) array) {
+			if (item instanceof Map) {
+				Map<String, Object> pair = cast(item);
+				String key = string(pair, "name");
+				String value = string(pair, "value");
+				if (key != null && !key.trim().isEmpty()) {
+					pairs.add(param(key, value == null ? "" : value));
+				}
+			}
+		}
+	}
+
+	private static Map<String, Object> object(Map<String, Object> json, String name) {
+		Object value = json.get(name);
+		return value instanceof Map ? HarEntry.<Map<String, Object>>cast(value) : null;
+	}
+
+	private static String string(Map<String, Object> json, String name) {
+		Object value = json.get(name);
+		return value instanceof String ? (String) value : null;
+	}
+
+	private static double number(Map<String, Object> json, String name, double defaultValue) {
+		Object value = json.get(name);
+		return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object value) {
+		return (T) value;
+	}
+
+	private static long parseDate(String value) {
+		if (value == null) {
+			return 0;
+		}
+
+		// Fractions of seconds are truncated (or added) to milliseconds.
+		String normalized = value.replaceFirst("\\.(\\d{3})\\d+", ".$1").replaceFirst("(T\\d{2}:\\d{2}:\\d{2})([Z+-])", "$1.000$2");
+
+		try {
+			return dateFormat().parse(normalized).getTime();
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException("Invalid HAR date: " + value, ex);
+		}
+	}
+
+	private static long nanos(double millis) {
+		return millis < 0 ? UNKNOWN : (long) (millis * 1_000_000);
+	}
+
+	private static String millis(long nanos) {
+		return format(ROOT, "%.3f", nanos / 1_000_000.0);
+	}
+
+	private static String optional(long nanos) {
+		return nanos < 0 ? "-1" : millis(nanos);
+	}
+
+	private static String required(long nanos) {
+		return millis(Math.max(nanos, 0));
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Strings.removePrefix;
+
+/**
+ * Record requests executed through http clients, and their responses,
+ * in HAR format (HTTP Archive 1.2), with timings of each request.
+ *
+ * <pre><code>
+ *   HarRecorder recorder = HarRecorder.harRecorder(server);
+ *   HttpClient client = recorder.wrap(httpClient);
+ *   // ... execute requests with client
+ *   recorder.write(Paths.get("target/traffic.har"));
+ * </code></pre>
+ *
+ * Recorded request headers are the ones added to requests (default headers
+ * added by client libraries are not visible). Response bodies are buffered
+ * to be recorded: textual bodies (text, JSON, XML...) are written to HAR
+ * file, only the size of other bodies is kept.
+ *
+ * This class is thread safe.
+ */
+public final class HarRecorder {
+
+	/**
+	 * Charset of HAR files.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Create recorder of requests sent to given server.
+	 *
+	 * @param server Embedded server, used to resolve relative urls.
+	 * @return Recorder.
+	 * @throws NullPointerException if server is null.
+	 */
+	public static HarRecorder harRecorder(EmbeddedServer server) {
+		return new HarRecorder(notNull(server, "server"));
+	}
+
+	/**
+	 * Embedded server.
+	 */
+	private final EmbeddedServer server;
+
+	/**
+	 * Recorded entries, in completion order.
+	 */
+	private final List<HarEntry> entries;
+
+	// Use static factory
+	private HarRecorder(EmbeddedServer server) {
+		this.server = server;
+		this.entries = new ArrayList<>();
+	}
+
+	/**
+	 * Wrap given client: requests prepared with returned client
+	 * are recorded when they are executed.
+	 *
+	 * @param client Http client.
+	 * @return Recording client.
+	 * @throws NullPointerException if client is null.
+	 */
+	public HttpClient wrap(HttpClient client) {
+		return new RecordingHttpClient(this, notNull(client, "client"));
+	}
+
+	/**
+	 * Get number of recorded entries.
+	 *
+	 * @return Number of entries.
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Remove recorded entries.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Get recorded entries as a HAR document.
+	 *
+	 * @return HAR document.
+	 */
+	public synchronized String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"log\":{\"version\":\"1.2\",\"creator\":{\"name\":\"junit-servers\",\"version\":\"\"},\"pages\":[],\"entries\":[");
+		for (int i = 0; i < entries.size(); i++) {
+			if (i > 0) {
+				sb.append(",");
+			}
+
+			entries.get(i).toJson(sb);
+		}
+
+		return sb.append("]}}").toString();
+	}
+
+	/**
+	 * Write recorded entries to given HAR file.
+	 *
+	 * @param path File.
+	 * @throws IOException If file cannot be written.
+	 */
+	public void write(Path path) throws IOException {
+		notNull(path, "path");
+		String json = toJson();
+		try (Writer writer = Files.newBufferedWriter(path, UTF_8)) {
+			writer.write(json);
+		}
+	}
+
+	/**
+	 * Get copy of recorded entries.
+	 *
+	 * @return Entries.
+	 */
+	synchronized List<HarEntry> getEntries() {
+		return new ArrayList<>(entries);
+	}
+
+	/**
+	 * Add recorded entry.
+	 *
+	 * @param entry Entry.
+	 */
+	synchronized void add(HarEntry entry) {
+		entries.add(entry);
+	}
+
+	/**
+	 * Resolve given url against server url, the same way http clients do.
+	 *
+	 * @param url Url, full url or path relative to server url.
+	 * @return Absolute url.
+	 */
+	String absoluteUrl(String url) {
+		String path = removePrefix(url, server.getPath());
+		path = removePrefix(path, server.getUrl());
+		return server.getUrl() + path;
+	}
+}
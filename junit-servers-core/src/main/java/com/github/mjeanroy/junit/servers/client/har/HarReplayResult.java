@@ -0,0 +1,239 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.load.LoadResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.UNKNOWN;
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Locale.ROOT;
+
+/**
+ * Result of a {@link HarReplayer}: each replayed entry, compared
+ * to the recorded one, and load result of the replay.
+ */
+public final class HarReplayResult {
+
+	/**
+	 * Replayed entries, in HAR order.
+	 */
+	private final List<ReplayedEntry> entries;
+
+	/**
+	 * Load result of the replay.
+	 */
+	private final LoadResult result;
+
+	HarReplayResult(List<ReplayedEntry> entries, LoadResult result) {
+		this.entries = unmodifiableList(new ArrayList<>(entries));
+		this.result = result;
+	}
+
+	/**
+	 * Get replayed entries, in HAR order.
+	 *
+	 * @return Entries.
+	 */
+	public List<ReplayedEntry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Get load result of the replay (throughput, latency distribution and errors).
+	 *
+	 * @return Result.
+	 */
+	public LoadResult getResult() {
+		return result;
+	}
+
+	/**
+	 * Get entries whose replayed status is not the recorded one
+	 * (including entries that failed without response).
+	 *
+	 * @return Entries.
+	 */
+	public List<ReplayedEntry> getStatusMismatches() {
+		List<ReplayedEntry> mismatches = new ArrayList<>();
+		for (ReplayedEntry entry : entries) {
+			if (!entry.isStatusMatching()) {
+				mismatches.add(entry);
+			}
+		}
+
+		return mismatches;
+	}
+
+	/**
+	 * Get entries whose replay was slower than recorded latency
+	 * multiplied by given factor. Entries without recorded latency
+	 * are ignored.
+	 *
+	 * @param factor Factor, for example {@code 2} to get entries that were twice slower.
+	 * @return Entries.
+	 */
+	public List<ReplayedEntry> getSlowerThan(double factor) {
+		List<ReplayedEntry> slower = new ArrayList<>();
+		for (ReplayedEntry entry : entries) {
+			if (entry.recordedTime != UNKNOWN && entry.replayTime > entry.recordedTime * factor) {
+				slower.add(entry);
+			}
+		}
+
+		return slower;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(format(ROOT, "%-7s %-50s %8s %8s %12s %12s%n", "Method", "Url", "Expected", "Actual", "Recorded(ms)", "Replay(ms)"));
+		for (ReplayedEntry entry : entries) {
+			sb.append(entry).append(format("%n"));
+		}
+
+		return sb.append(result).toString();
+	}
+
+	/**
+	 * Entry replayed from a HAR file.
+	 */
+	public static final class ReplayedEntry {
+
+		/**
+		 * Http method.
+		 */
+		private final String method;
+
+		/**
+		 * Recorded url.
+		 */
+		private final String url;
+
+		/**
+		 * Recorded status.
+		 */
+		private final int expectedStatus;
+
+		/**
+		 * Replayed status, {@code -1} if request failed.
+		 */
+		private final int actualStatus;
+
+		/**
+		 * Recorded latency, in nano seconds.
+		 */
+		private final long recordedTime;
+
+		/**
+		 * Replay latency, in nano seconds.
+		 */
+		private final long replayTime;
+
+		ReplayedEntry(String method, String url, int expectedStatus, int actualStatus, long recordedTime, long replayTime) {
+			this.method = method;
+			this.url = url;
+			this.expectedStatus = expectedStatus;
+			this.actualStatus = actualStatus;
+			this.recordedTime = recordedTime;
+			this.replayTime = replayTime;
+		}
+
+		/**
+		 * Get http method.
+		 *
+		 * @return Method.
+		 */
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * Get recorded url.
+		 *
+		 * @return Url.
+		 */
+		public String getUrl() {
+			return url;
+		}
+
+		/**
+		 * Get recorded status.
+		 *
+		 * @return Status.
+		 */
+		public int getExpectedStatus() {
+			return expectedStatus;
+		}
+
+		/**
+		 * Get replayed status.
+		 *
+		 * @return Status, {@code -1} if request failed without response.
+		 */
+		public int getActualStatus() {
+			return actualStatus;
+		}
+
+		/**
+		 * Check if replayed status is the recorded one.
+		 *
+		 * @return True if statuses are equal, false otherwise.
+		 */
+		public boolean isStatusMatching() {
+			return expectedStatus == actualStatus;
+		}
+
+		/**
+		 * Get recorded latency.
+		 *
+		 * @param unit Output unit.
+		 * @return Latency, {@code -1} if unknown.
+		 */
+		public long getRecordedTime(TimeUnit unit) {
+			return recordedTime == UNKNOWN ? UNKNOWN : unit.convert(recordedTime, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Get replay latency, until response body has been read entirely.
+		 *
+		 * @param unit Output unit.
+		 * @return Latency, {@code -1} if request failed.
+		 */
+		public long getReplayTime(TimeUnit unit) {
+			return replayTime == UNKNOWN ? UNKNOWN : unit.convert(replayTime, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			return format(ROOT, "%-7s %-50s %8d %8d %12d %12d", method, url, expectedStatus, actualStatus,
+				getRecordedTime(TimeUnit.MILLISECONDS), getReplayTime(TimeUnit.MILLISECONDS));
+		}
+	}
+}
@@ -0,0 +1,396 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpParameter;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.har.HarReplayResult.ReplayedEntry;
+import com.github.mjeanroy.junit.servers.client.load.ResponseRecorder;
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.github.mjeanroy.junit.servers.client.Cookie.cookie;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONNECTION;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_LENGTH;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_TYPE;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.COOKIE;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.HOST;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.TRANSFER_ENCODING;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.stringBody;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.UNKNOWN;
+import static com.github.mjeanroy.junit.servers.client.load.ResponseRecorder.responseRecorder;
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Replay entries of a HAR file (HTTP Archive 1.2) against an embedded server,
+ * and compare replayed statuses and latencies with recorded ones.
+ *
+ * Only path and query string of recorded urls are used: requests are sent
+ * to the server of given client. Entries are replayed with their original
+ * pacing by default; pacing can be scaled, or disabled.
+ *
+ * <pre><code>
+ *   HarReplayResult result = HarReplayer.builder(client, Paths.get("src/test/resources/traffic.har"))
+ *     .withSpeed(2)
+ *     .withConcurrency(4)
+ *     .build()
+ *     .run();
+ *
+ *   assertThat(result.getStatusMismatches()).isEmpty();
+ * </code></pre>
+ */
+public final class HarReplayer {
+
+	/**
+	 * Charset of HAR files.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Headers that are not replayed: they are computed by http client
+	 * (cookies are replayed as cookies).
+	 */
+	private static final Set<String> IGNORED_HEADERS = new HashSet<>(Arrays.asList(
+		HOST.toLowerCase(), CONNECTION.toLowerCase(), CONTENT_LENGTH.toLowerCase(),
+		TRANSFER_ENCODING.toLowerCase(), COOKIE.toLowerCase()
+	));
+
+	/**
+	 * Create builder of replayer, replaying given HAR file.
+	 *
+	 * @param client Http client, requests are sent to its server.
+	 * @param har HAR file.
+	 * @return Builder.
+	 * @throws NullPointerException if client or har is null.
+	 * @throws IOException If file cannot be read.
+	 * @throws IllegalArgumentException If file is not a valid HAR file.
+	 */
+	public static Builder builder(HttpClient client, Path har) throws IOException {
+		notNull(har, "har");
+		String json = new String(Files.readAllBytes(har), UTF_8);
+		return new Builder(notNull(client, "client"), parse(json));
+	}
+
+	/**
+	 * Create builder of replayer, replaying entries recorded so far
+	 * by given recorder.
+	 *
+	 * @param client Http client, requests are sent to its server.
+	 * @param recorder Recorder.
+	 * @return Builder.
+	 * @throws NullPointerException if client or recorder is null.
+	 */
+	public static Builder builder(HttpClient client, HarRecorder recorder) {
+		return new Builder(notNull(client, "client"), notNull(recorder, "recorder").getEntries());
+	}
+
+	/**
+	 * Http client.
+	 */
+	private final HttpClient client;
+
+	/**
+	 * Entries, ordered by start date.
+	 */
+	private final List<HarEntry> entries;
+
+	/**
+	 * Pacing speed, {@code 0} to replay as fast as possible.
+	 */
+	private final double speed;
+
+	/**
+	 * Number of concurrent requests.
+	 */
+	private final int concurrency;
+
+	// Use builder
+	private HarReplayer(Builder builder) {
+		this.client = builder.client;
+		this.speed = builder.speed;
+		this.concurrency = builder.concurrency;
+		this.entries = new ArrayList<>(builder.entries);
+		Collections.sort(this.entries, new Comparator<HarEntry>() {
+			@Override
+			public int compare(HarEntry e1, HarEntry e2) {
+				return Long.compare(e1.startedDateTime, e2.startedDateTime);
+			}
+		});
+	}
+
+	/**
+	 * Replay entries.
+	 * This method blocks until all entries have been replayed.
+	 *
+	 * @return Result.
+	 * @throws LoadTestException if replay is interrupted.
+	 */
+	public HarReplayResult run() {
+		ResponseRecorder recorder = responseRecorder();
+		List<Future<ReplayedEntry>> futures = new ArrayList<>(entries.size());
+		ExecutorService executor = newFixedThreadPool(concurrency, daemonThreadFactory("junit-servers-har"));
+		try {
+			long start = nanoTime();
+			long origin = entries.isEmpty() ? 0 : entries.get(0).startedDateTime;
+			for (HarEntry entry : entries) {
+				if (speed > 0) {
+					long offset = (long) ((entry.startedDateTime - origin) * 1000000 / speed);
+					long delay = start + offset - nanoTime();
+					if (delay > 0) {
+						NANOSECONDS.sleep(delay);
+					}
+				}
+
+				futures.add(executor.submit(new Replay(entry, recorder)));
+			}
+
+			List<ReplayedEntry> replayed = new ArrayList<>(futures.size());
+			for (Future<ReplayedEntry> future : futures) {
+				replayed.add(future.get());
+			}
+
+			return new HarReplayResult(replayed, recorder.toResult());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoadTestException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw new LoadTestException(ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private HttpRequest prepare(HarEntry entry, HttpMethod method) {
+		URI uri = URI.create(entry.url);
+		String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+		HttpRequest request = client.prepareRequest(method, path);
+
+		for (HttpParameter param : entry.queryString) {
+			request.addQueryParam(param.getName(), param.getValue());
+		}
+
+		boolean form = !entry.postParams.isEmpty();
+		for (HttpParameter header : entry.requestHeaders) {
+			String name = header.getName().toLowerCase();
+			boolean contentType = name.equals(CONTENT_TYPE.toLowerCase());
+			if (!IGNORED_HEADERS.contains(name) && !(form && contentType)) {
+				request.addHeader(header.getName(), header.getValue());
+			}
+		}
+
+		for (HttpParameter cookie : entry.requestCookies) {
+			request.addCookie(cookie(cookie.getName(), cookie.getValue()));
+		}
+
+		if (form) {
+			for (HttpParameter param : entry.postParams) {
+				request.addFormParam(param.getName(), param.getValue());
+			}
+		}
+		else if (entry.postText != null && method.isBodyAllowed()) {
+			request.setBody(stringBody(entry.postText));
+		}
+
+		return request;
+	}
+
+	private static List<HarEntry> parse(String json) {
+		try {
+			Map<String, Object> har = cast(Json.parse(json));
+			Map<String, Object> log = cast(har.get("log"));
+			List<Object> items = cast(log.get("entries"));
+
+			List<HarEntry> entries = new ArrayList<>(items.size());
+			for (Object item : items) {
+				Map<String, Object> entry = cast(item);
+				entries.add(HarEntry.fromJson(entry));
+			}
+
+			return entries;
+		}
+		catch (ClassCastException | NullPointerException ex) {
+			throw new IllegalArgumentException("Invalid HAR file", ex);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object value) {
+		return (T) value;
+	}
+
+	private static HttpMethod method(String verb) {
+		for (HttpMethod method : HttpMethod.values()) {
+			if (method.getVerb().equalsIgnoreCase(verb)) {
+				return method;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Replay of a single entry.
+	 */
+	private class Replay implements Callable<ReplayedEntry> {
+
+		private final HarEntry entry;
+
+		private final ResponseRecorder recorder;
+
+		private Replay(HarEntry entry, ResponseRecorder recorder) {
+			this.entry = entry;
+			this.recorder = recorder;
+		}
+
+		@Override
+		public ReplayedEntry call() {
+			long recordedTime = entry.timings.getTotalDuration();
+			HttpMethod method = method(entry.method);
+			if (method == null) {
+				// Method not supported by http clients: request cannot be replayed.
+				recorder.recordFailure();
+				return new ReplayedEntry(entry.method, entry.url, entry.status, -1, recordedTime, UNKNOWN);
+			}
+
+			try {
+				HttpRequest request = prepare(entry, method);
+
+				long start = nanoTime();
+				HttpResponse response = request.execute();
+
+				// Body is read (but not kept in memory) to measure complete
+				// response time, and release connection.
+				response.bodyDigest();
+				long latency = nanoTime() - start;
+
+				recorder.record(response, latency);
+				return new ReplayedEntry(entry.method, entry.url, entry.status, response.status(), recordedTime, latency);
+			}
+			catch (RuntimeException ex) {
+				recorder.recordFailure();
+				return new ReplayedEntry(entry.method, entry.url, entry.status, -1, recordedTime, UNKNOWN);
+			}
+		}
+	}
+
+	/**
+	 * Builder for {@link HarReplayer}.
+	 */
+	public static class Builder {
+
+		private final HttpClient client;
+
+		private final List<HarEntry> entries;
+
+		private double speed;
+
+		private int concurrency;
+
+		// Use static factory
+		private Builder(HttpClient client, List<HarEntry> entries) {
+			this.client = client;
+			this.entries = entries;
+			this.speed = 1;
+			this.concurrency = 1;
+		}
+
+		/**
+		 * Scale original pacing: {@code 1} replays entries with their recorded
+		 * pacing, {@code 2} twice faster, {@code 0.5} twice slower.
+		 *
+		 * @param speed Speed factor.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if speed is not strictly positive.
+		 */
+		public Builder withSpeed(double speed) {
+			if (!(speed > 0)) {
+				throw new IllegalArgumentException("speed must be strictly positive");
+			}
+
+			this.speed = speed;
+			return this;
+		}
+
+		/**
+		 * Ignore original pacing: entries are replayed as fast as
+		 * possible (with configured concurrency).
+		 *
+		 * @return Current builder.
+		 */
+		public Builder asFastAsPossible() {
+			this.speed = 0;
+			return this;
+		}
+
+		/**
+		 * Set number of concurrent requests.
+		 *
+		 * @param concurrency Number of concurrent requests.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if concurrency is not strictly positive.
+		 */
+		public Builder withConcurrency(int concurrency) {
+			this.concurrency = strictlyPositive(concurrency, "concurrency");
+			return this;
+		}
+
+		/**
+		 * Create replayer.
+		 *
+		 * @return Replayer.
+		 */
+		public HarReplayer build() {
+			return new HarReplayer(this);
+		}
+	}
+}
@@ -0,0 +1,301 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Minimal JSON support, enough to write and read HAR files without
+ * any additional dependency:
+ * - Objects are parsed as {@link Map} (keeping key order).
+ * - Arrays are parsed as {@link List}.
+ * - Numbers are parsed as {@link Double}.
+ * - Strings, booleans and {@code null} are parsed as is.
+ */
+final class Json {
+
+	// Ensure non instantiation.
+	private Json() {
+	}
+
+	/**
+	 * Append given value as a quoted JSON string, {@code null} if value is null.
+	 *
+	 * @param sb Output.
+	 * @param value Value.
+	 * @return Output.
+	 */
+	static StringBuilder quote(StringBuilder sb, String value) {
+		if (value == null) {
+			return sb.append("null");
+		}
+
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						sb.append(format("\\u%04x", (int) c));
+					}
+					else {
+						sb.append(c);
+					}
+			}
+		}
+
+		return sb.append('"');
+	}
+
+	/**
+	 * Parse JSON document.
+	 *
+	 * @param json JSON document.
+	 * @return Parsed value.
+	 * @throws IllegalArgumentException if document is not valid.
+	 */
+	static Object parse(String json) {
+		Parser parser = new Parser(json);
+		Object value = parser.readValue();
+		parser.skipWhitespaces();
+		if (parser.position < json.length()) {
+			throw parser.error("Unexpected content");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Recursive descent parser.
+	 */
+	private static class Parser {
+
+		private final String json;
+
+		private int position;
+
+		private Parser(String json) {
+			this.json = json;
+			this.position = 0;
+		}
+
+		private Object readValue() {
+			skipWhitespaces();
+			if (position >= json.length()) {
+				throw error("Unexpected end of document");
+			}
+
+			char c = json.charAt(position);
+			switch (c) {
+				case '{':
+					return readObject();
+				case '[':
+					return readArray();
+				case '"':
+					return readString();
+				case 't':
+					return readLiteral("true", Boolean.TRUE);
+				case 'f':
+					return readLiteral("false", Boolean.FALSE);
+				case 'n':
+					return readLiteral("null", null);
+				default:
+					return readNumber();
+			}
+		}
+
+		private Map<String, Object> readObject() {
+			Map<String, Object> object = new LinkedHashMap<>();
+			position++;
+			skipWhitespaces();
+			if (peek() == '}') {
+				position++;
+				return object;
+			}
+
+			while (true) {
+				skipWhitespaces();
+				if (peek() != '"') {
+					throw error("Expected object key");
+				}
+
+				String key = readString();
+				skipWhitespaces();
+				expect(':');
+				object.put(key, readValue());
+				skipWhitespaces();
+				if (peek() == ',') {
+					position++;
+				}
+				else {
+					expect('}');
+					return object;
+				}
+			}
+		}
+
+		private List<Object> readArray() {
+			List<Object> array = new ArrayList<>();
+			position++;
+			skipWhitespaces();
+			if (peek() == ']') {
+				position++;
+				return array;
+			}
+
+			while (true) {
+				array.add(readValue());
+				skipWhitespaces();
+				if (peek() == ',') {
+					position++;
+				}
+				else {
+					expect(']');
+					return array;
+				}
+			}
+		}
+
+		private String readString() {
+			StringBuilder sb = new StringBuilder();
+			position++;
+			while (position < json.length()) {
+				char c = json.charAt(position++);
+				if (c == '"') {
+					return sb.toString();
+				}
+
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+
+				if (position >= json.length()) {
+					break;
+				}
+
+				char escaped = json.charAt(position++);
+				switch (escaped) {
+					case 'b':
+						sb.append('\b');
+						break;
+					case 'f':
+						sb.append('\f');
+						break;
+					case 'n':
+						sb.append('\n');
+						break;
+					case 'r':
+						sb.append('\r');
+						break;
+					case 't':
+						sb.append('\t');
+						break;
+					case 'u':
+						if (position + 4 > json.length()) {
+							throw error("Invalid unicode escape");
+						}
+
+						sb.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+						position += 4;
+						break;
+					default:
+						sb.append(escaped);
+				}
+			}
+
+			throw error("Unterminated string");
+		}
+
+		private Object readLiteral(String literal, Object value) {
+			if (!json.startsWith(literal, position)) {
+				throw error("Unexpected token");
+			}
+
+			position += literal.length();
+			return value;
+		}
+
+		private Double readNumber() {
+			int start = position;
+			while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+				position++;
+			}
+
+			try {
+				return Double.valueOf(json.substring(start, position));
+			}
+			catch (NumberFormatException ex) {
+				throw error("Invalid number");
+			}
+		}
+
+		private void skipWhitespaces() {
+			while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+				position++;
+			}
+		}
+
+		private char peek() {
+			if (position >= json.length()) {
+				throw error("Unexpected end of document");
+			}
+
+			return json.charAt(position);
+		}
+
+		private void expect(char c) {
+			if (peek() != c) {
+				throw error("Expected '" + c + "'");
+			}
+
+			position++;
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at position " + position);
+		}
+	}
+}
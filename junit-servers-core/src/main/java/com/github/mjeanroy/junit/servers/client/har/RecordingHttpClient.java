@@ -0,0 +1,98 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResult;
+
+import java.util.Iterator;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Http client recording requests prepared with it, and
+ * delegating everything else to the recorded client.
+ */
+class RecordingHttpClient implements HttpClient {
+
+	/**
+	 * Recorder.
+	 */
+	private final HarRecorder recorder;
+
+	/**
+	 * Recorded client.
+	 */
+	private final HttpClient delegate;
+
+	RecordingHttpClient(HarRecorder recorder, HttpClient delegate) {
+		this.recorder = recorder;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public HttpRequest prepareGet(String url) {
+		return prepareRequest(HttpMethod.GET, url);
+	}
+
+	@Override
+	public HttpRequest preparePost(String url) {
+		return prepareRequest(HttpMethod.POST, url);
+	}
+
+	@Override
+	public HttpRequest preparePut(String url) {
+		return prepareRequest(HttpMethod.PUT, url);
+	}
+
+	@Override
+	public HttpRequest prepareDelete(String url) {
+		return prepareRequest(HttpMethod.DELETE, url);
+	}
+
+	@Override
+	public HttpRequest prepareRequest(HttpMethod httpMethod, String url) {
+		notNull(url, "url");
+		return new RecordingHttpRequest(recorder, delegate.prepareRequest(httpMethod, url), recorder.absoluteUrl(url));
+	}
+
+	@Override
+	public Iterator<HttpResult> executeAll(Iterable<HttpRequest> requests, int maxConcurrency) {
+		// Requests prepared by this client are recorded when executed.
+		return delegate.executeAll(requests, maxConcurrency);
+	}
+
+	@Override
+	public void reset() {
+		delegate.reset();
+	}
+
+	@Override
+	public void destroy() {
+		delegate.destroy();
+	}
+}
@@ -0,0 +1,311 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpHeader;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpParameter;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseFuture;
+import com.github.mjeanroy.junit.servers.client.HttpResponseListener;
+import com.github.mjeanroy.junit.servers.client.RequestBody;
+import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpRequest;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.APPLICATION_FORM_URL_ENCODED;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_TYPE;
+import static com.github.mjeanroy.junit.servers.client.HttpParameter.param;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+
+/**
+ * Request recording what is sent and received, and delegating
+ * execution to the request of the recorded client.
+ */
+class RecordingHttpRequest extends AbstractHttpRequest {
+
+	/**
+	 * Charset used to decode bodies.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Default mime type of request bodies.
+	 */
+	private static final String OCTET_STREAM = "application/octet-stream";
+
+	/**
+	 * Recorder.
+	 */
+	private final HarRecorder recorder;
+
+	/**
+	 * Request of recorded client.
+	 */
+	private final HttpRequest delegate;
+
+	/**
+	 * Absolute request url, without query string.
+	 */
+	private final String url;
+
+	/**
+	 * Request headers.
+	 */
+	private final List<HttpParameter> headers;
+
+	/**
+	 * Request cookies.
+	 */
+	private final List<HttpParameter> cookies;
+
+	/**
+	 * Query parameters.
+	 */
+	private final List<HttpParameter> queryParams;
+
+	/**
+	 * Form parameters.
+	 */
+	private final List<HttpParameter> formParams;
+
+	/**
+	 * Request body, may be null.
+	 */
+	private RequestBody body;
+
+	RecordingHttpRequest(HarRecorder recorder, HttpRequest delegate, String url) {
+		this.recorder = recorder;
+		this.delegate = delegate;
+		this.url = url;
+		this.headers = new ArrayList<>();
+		this.cookies = new ArrayList<>();
+		this.queryParams = new ArrayList<>();
+		this.formParams = new ArrayList<>();
+	}
+
+	@Override
+	public HttpMethod getMethod() {
+		return delegate.getMethod();
+	}
+
+	@Override
+	public HttpRequest addHeader(String name, String value) {
+		delegate.addHeader(name, value);
+		headers.add(param(name, value));
+		return this;
+	}
+
+	@Override
+	public HttpRequest addFormParams(HttpParameter parameter, HttpParameter... parameters) {
+		// Form parameters are delegated at once, since delegate also adds content type header.
+		delegate.addFormParams(parameter, parameters);
+
+		formParams.add(parameter);
+		if (parameters != null) {
+			for (HttpParameter p : parameters) {
+				formParams.add(p);
+			}
+		}
+
+		headers.add(param(CONTENT_TYPE, APPLICATION_FORM_URL_ENCODED));
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyFormParameter(String name, String value) {
+		return addFormParams(param(name, value));
+	}
+
+	@Override
+	protected HttpRequest applyQueryParam(String name, String value) {
+		delegate.addQueryParam(name, value);
+		queryParams.add(param(name, value));
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyBody(RequestBody body) {
+		delegate.setBody(body);
+		this.body = body;
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyCookie(Cookie cookie) {
+		delegate.addCookie(cookie);
+		cookies.add(param(cookie.getName(), cookie.getValue()));
+		return this;
+	}
+
+	@Override
+	public HttpResponse execute() {
+		HarEntry entry = newEntry();
+		long start = nanoTime();
+		try {
+			HttpResponse response = delegate.execute();
+			recorder.add(complete(entry, response));
+			return response;
+		}
+		catch (RuntimeException ex) {
+			entry.timings = timings(nanoTime() - start);
+			recorder.add(entry);
+			throw ex;
+		}
+	}
+
+	@Override
+	public HttpResponseFuture executeAsync() {
+		final HarEntry entry = newEntry();
+		final long start = nanoTime();
+		return delegate.executeAsync().addListener(new HttpResponseListener() {
+			@Override
+			public void onSuccess(HttpResponse response) {
+				recorder.add(complete(entry, response));
+			}
+
+			@Override
+			public void onFailure(Throwable error) {
+				entry.timings = timings(nanoTime() - start);
+				recorder.add(entry);
+			}
+		});
+	}
+
+	@Override
+	protected HttpResponse doExecute() {
+		return execute();
+	}
+
+	@Override
+	protected HttpResponseFuture doExecuteAsync() {
+		return executeAsync();
+	}
+
+	private HarEntry newEntry() {
+		HarEntry entry = new HarEntry();
+		entry.startedDateTime = currentTimeMillis();
+		entry.method = getMethod().getVerb();
+		entry.requestHeaders.addAll(headers);
+		entry.requestCookies.addAll(cookies);
+		entry.queryString.addAll(queryParams);
+		entry.url = url + queryString(queryParams);
+
+		if (body != null || !formParams.isEmpty()) {
+			entry.postMimeType = contentType(headers);
+			entry.postParams.addAll(formParams);
+			entry.postText = formParams.isEmpty() ? bodyText(body, entry.postMimeType) : queryString(formParams).substring(1);
+		}
+
+		return entry;
+	}
+
+	private static HarEntry complete(HarEntry entry, HttpResponse response) {
+		entry.status = response.status();
+		for (HttpHeader header : response.getHeaders()) {
+			for (String value : header.getValues()) {
+				entry.responseHeaders.add(param(header.getName(), value));
+			}
+		}
+
+		HttpHeader contentType = response.getContentType();
+		entry.contentMimeType = contentType == null ? null : contentType.getFirstValue();
+
+		// Body is buffered first, so it can still be read by caller
+		// (and decoded below) once bytes have been recorded.
+		response.buffer();
+		byte[] bytes = response.bodyAsBytes();
+		entry.contentSize = bytes.length;
+		if (isText(entry.contentMimeType)) {
+			entry.contentText = response.body();
+		}
+
+		entry.timings = response.getTimings();
+		return entry;
+	}
+
+	private static String contentType(List<HttpParameter> headers) {
+		String contentType = OCTET_STREAM;
+		for (HttpParameter header : headers) {
+			if (header.getName().equalsIgnoreCase(CONTENT_TYPE)) {
+				contentType = header.getValue();
+			}
+		}
+
+		return contentType;
+	}
+
+	private static String bodyText(RequestBody body, String mimeType) {
+		if (body instanceof RequestBody.StringBody) {
+			return ((RequestBody.StringBody) body).getValue();
+		}
+
+		if (body instanceof RequestBody.BytesBody && isText(mimeType)) {
+			return new String(((RequestBody.BytesBody) body).getBytes(), UTF_8);
+		}
+
+		// Streams cannot be read twice, and files may be large.
+		return null;
+	}
+
+	private static boolean isText(String mimeType) {
+		if (mimeType == null) {
+			return false;
+		}
+
+		String type = mimeType.toLowerCase();
+		return type.startsWith("text/") || type.contains("json") || type.contains("xml") || type.contains("javascript") || type.contains(APPLICATION_FORM_URL_ENCODED);
+	}
+
+	private static String queryString(List<HttpParameter> parameters) {
+		if (parameters.isEmpty()) {
+			return "";
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (HttpParameter parameter : parameters) {
+			sb.append(sb.length() == 0 ? "?" : "&").append(encode(parameter.getName())).append("=").append(encode(parameter.getValue()));
+		}
+
+		return sb.toString();
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new AssertionError(ex);
+		}
+	}
+}
@@ -27,9 +27,13 @@ package com.github.mjeanroy.junit.servers.client.impl;
 import com.github.mjeanroy.junit.servers.client.HttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResult;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
 
+import java.util.Iterator;
+
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
 import static com.github.mjeanroy.junit.servers.commons.Strings.removePrefix;
 
 /**
@@ -52,6 +56,18 @@ public abstract class AbstractHttpClient implements HttpClient {
 		this.server = notNull(server, "server");
 	}
 
+	@Override
+	public Iterator<HttpResult> executeAll(Iterable<HttpRequest> requests, int maxConcurrency) {
+		notNull(requests, "requests");
+		strictlyPositive(maxConcurrency, "maxConcurrency");
+		return new BatchExecution(requests.iterator(), maxConcurrency);
+	}
+
+	@Override
+	public void reset() {
+		// Stateless by default.
+	}
+
 	@Override
 	public HttpRequest prepareDelete(String url) {
 		return prepareRequest(HttpMethod.DELETE, url);
@@ -28,9 +28,18 @@ import com.github.mjeanroy.junit.servers.client.Cookie;
 import com.github.mjeanroy.junit.servers.client.HttpParameter;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseFuture;
+import com.github.mjeanroy.junit.servers.client.RequestBody;
 import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
 
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.ACCEPT;
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.ACCEPT_ENCODING;
@@ -54,15 +63,33 @@ import static com.github.mjeanroy.junit.servers.client.HttpHeaders.X_HTTP_METHOD
 import static com.github.mjeanroy.junit.servers.client.HttpMethod.DELETE;
 import static com.github.mjeanroy.junit.servers.client.HttpMethod.PUT;
 import static com.github.mjeanroy.junit.servers.client.HttpParameter.param;
-import static com.github.mjeanroy.junit.servers.commons.Dates.format;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.bytesBody;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.fileBody;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.streamBody;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.stringBody;
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static com.github.mjeanroy.junit.servers.commons.Dates.formatHttpDate;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Abstract skeleton of {HttpRequest} interface.
  */
 public abstract class AbstractHttpRequest implements HttpRequest {
 
+	/**
+	 * Maximum number of blocking requests executed asynchronously
+	 * at the same time, additional requests are queued.
+	 */
+	public static final int MAX_ASYNC_THREADS = 64;
+
+	/**
+	 * Maximum number of blocking requests waiting for an asynchronous
+	 * execution, additional requests are executed by the calling thread.
+	 */
+	public static final int MAX_ASYNC_QUEUED_REQUESTS = 1024;
+
 	@Override
 	public HttpRequest asXmlHttpRequest() {
 		return addHeader(REQUESTED_WITH, XML_HTTP_REQUEST);
@@ -105,13 +132,13 @@ public abstract class AbstractHttpRequest implements HttpRequest {
 
 	@Override
 	public HttpRequest addIfModifiedSince(Date date) {
-		String value = format(notNull(date, "date"), "EEE, dd MMM yyyy HH:mm:ss zzz");
+		String value = formatHttpDate(notNull(date, "date"));
 		return addHeader(IF_MODIFIED_SINCE, value);
 	}
 
 	@Override
 	public HttpRequest addIfUnmodifiedSince(Date date) {
-		String value = format(notNull(date, "date"), "EEE, dd MMM yyyy HH:mm:ss zzz");
+		String value = formatHttpDate(notNull(date, "date"));
 		return addHeader(IF_UNMODIFIED_SINCE, value);
 	}
 
@@ -187,6 +214,36 @@ public abstract class AbstractHttpRequest implements HttpRequest {
 
 	@Override
 	public HttpRequest setBody(String body) {
+		return setBody(stringBody(body));
+	}
+
+	@Override
+	public HttpRequest setBody(byte[] body) {
+		return setBody(bytesBody(body));
+	}
+
+	@Override
+	public HttpRequest setBody(ByteBuffer body) {
+		return setBody(bytesBody(body));
+	}
+
+	@Override
+	public HttpRequest setBody(InputStream body) {
+		return setBody(streamBody(body));
+	}
+
+	@Override
+	public HttpRequest setBody(Path body) {
+		return setBody(fileBody(body));
+	}
+
+	@Override
+	public HttpRequest setBody(File body) {
+		return setBody(fileBody(body));
+	}
+
+	@Override
+	public HttpRequest setBody(RequestBody body) {
 		if (!getMethod().isBodyAllowed()) {
 			throw new UnsupportedOperationException("Http method " + getMethod() + " does not support request body");
 		}
@@ -234,6 +291,22 @@ public abstract class AbstractHttpRequest implements HttpRequest {
 		try {
 			return doExecute();
 		}
+		catch (HttpClientException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new HttpClientException(ex);
+		}
+	}
+
+	@Override
+	public HttpResponseFuture executeAsync() {
+		try {
+			return doExecuteAsync();
+		}
+		catch (HttpClientException ex) {
+			throw ex;
+		}
 		catch (Exception ex) {
 			throw new HttpClientException(ex);
 		}
@@ -259,6 +332,35 @@ public abstract class AbstractHttpRequest implements HttpRequest {
 	 */
 	protected abstract HttpResponse doExecute() throws Exception;
 
+	/**
+	 * Execute request asynchronously.
+	 * Default implementation runs blocking execution (i.e {#doExecute}) in
+	 * a bounded pool of threads, implementations should override this method
+	 * if underlying library supports asynchronous execution.
+	 * When pool and its queue are full, request is executed by the calling
+	 * thread: this slows down producers instead of queuing requests without limit.
+	 *
+	 * @return Future response.
+	 * @throws Exception
+	 */
+	protected HttpResponseFuture doExecuteAsync() throws Exception {
+		final DefaultHttpResponseFuture future = new DefaultHttpResponseFuture();
+
+		future.bind(AsyncExecutor.INSTANCE.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					future.complete(doExecute());
+				}
+				catch (Throwable ex) {
+					future.fail(ex);
+				}
+			}
+		}));
+
+		return future;
+	}
+
 	/**
 	 * Add form parameters.
 	 * This method will be called for POST or PUT request only.
@@ -290,7 +392,7 @@ public abstract class AbstractHttpRequest implements HttpRequest {
 	 * @param body Request body.
 	 * @return Current request.
 	 */
-	protected abstract HttpRequest applyBody(String body);
+	protected abstract HttpRequest applyBody(RequestBody body);
 
 	/**
 	 * Add cookie to http request.
@@ -300,4 +402,25 @@ public abstract class AbstractHttpRequest implements HttpRequest {
 	 * @return Current request.
 	 */
 	protected abstract HttpRequest applyCookie(Cookie cookie);
+
+	/**
+	 * Lazy holder of the pool of threads used to run
+	 * blocking requests asynchronously.
+	 */
+	private static class AsyncExecutor {
+		private static final ExecutorService INSTANCE = createExecutor();
+
+		private static ExecutorService createExecutor() {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(
+					MAX_ASYNC_THREADS, MAX_ASYNC_THREADS,
+					60, SECONDS,
+					new ArrayBlockingQueue<Runnable>(MAX_ASYNC_QUEUED_REQUESTS),
+					daemonThreadFactory("http-client-async"),
+					new ThreadPoolExecutor.CallerRunsPolicy()
+			);
+
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+	}
 }
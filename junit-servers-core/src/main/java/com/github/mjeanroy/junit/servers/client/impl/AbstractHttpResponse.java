@@ -24,14 +24,32 @@
 
 package com.github.mjeanroy.junit.servers.client.impl;
 
+import com.github.mjeanroy.junit.servers.client.BodyDigest;
 import com.github.mjeanroy.junit.servers.client.Cookie;
 import com.github.mjeanroy.junit.servers.client.HttpHeader;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import static com.github.mjeanroy.junit.servers.client.BodyDigest.digest;
 import static com.github.mjeanroy.junit.servers.client.Cookie.read;
+import static com.github.mjeanroy.junit.servers.client.HttpHeader.header;
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CACHE_CONTROL;
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_ENCODING;
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_SECURITY_POLICY;
@@ -46,17 +64,262 @@ import static com.github.mjeanroy.junit.servers.client.HttpHeaders.X_CONTENT_TYP
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.X_WEBKIT_CSP;
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.X_XSS_PROTECTION;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 
 /**
  * Abstract skeleton of {HttpResponse} interface.
  */
 public abstract class AbstractHttpResponse implements HttpResponse {
 
+	/**
+	 * Size of buffer used to read body stream.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Default maximum number of bytes kept on the heap
+	 * when response body is buffered: 1Mo.
+	 */
+	public static final long DEFAULT_BUFFER_THRESHOLD = 1024 * 1024;
+
+	/**
+	 * Default charset, as defined by HTTP/1.1 specification.
+	 */
+	private static final Charset DEFAULT_CHARSET = Charset.forName("ISO-8859-1");
+
+	/**
+	 * Charset used to decode JSON content.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Buffered body, null until response is buffered.
+	 */
+	private volatile BodyBuffer buffer;
+
+	/**
+	 * Time spent to buffer body, in nano seconds, negative
+	 * until response is buffered.
+	 */
+	private volatile long bufferDuration = RequestTimings.UNKNOWN;
+
+	/**
+	 * Body decoded with response charset, null until
+	 * body is requested for the first time.
+	 */
+	private volatile String decodedBody;
+
+	/**
+	 * Headers, indexed by case insensitive name, null until
+	 * a header is requested for the first time.
+	 */
+	private volatile Map<String, HttpHeader> headers;
+
+	/**
+	 * Cookies sent by server, null until cookies
+	 * are requested for the first time.
+	 */
+	private volatile List<Cookie> cookies;
+
+	/**
+	 * Cookies already parsed, indexed by name.
+	 */
+	private final ConcurrentMap<String, Cookie> cookiesByName = new ConcurrentHashMap<>();
+
 	@Override
 	public long getRequestDurationInMillis() {
-		return getRequestDuration() / 1000;
+		return getRequestDuration() / 1_000_000;
+	}
+
+	@Override
+	public RequestTimings getTimings() {
+		RequestTimings timings = readTimings();
+		long download = bufferDuration;
+		if (timings.getDownloadDuration() == RequestTimings.UNKNOWN && download >= 0) {
+			return timings.withDownloadDuration(download);
+		}
+
+		return timings;
+	}
+
+	/**
+	 * Get timings recorded by underlying client while executing request.
+	 * If download duration is unknown, time spent to buffer response
+	 * body is used instead.
+	 *
+	 * @return Request timings.
+	 */
+	protected abstract RequestTimings readTimings();
+
+	@Override
+	public HttpResponse buffer() {
+		return buffer(DEFAULT_BUFFER_THRESHOLD);
+	}
+
+	@Override
+	public synchronized HttpResponse buffer(long threshold) {
+		positive(threshold, "threshold");
+
+		if (buffer == null) {
+			try {
+				long start = System.nanoTime();
+				buffer = BodyBuffer.read(openBodyStream(), threshold);
+				bufferDuration = System.nanoTime() - start;
+			}
+			catch (IOException ex) {
+				throw new HttpClientException(ex);
+			}
+		}
+
+		return this;
+	}
+
+	@Override
+	public boolean isBuffered() {
+		return buffer != null;
+	}
+
+	@Override
+	public String body() {
+		String body = decodedBody;
+		if (body == null) {
+			synchronized (this) {
+				body = decodedBody;
+				if (body == null) {
+					buffer();
+					body = buffer.toString(getCharset());
+					decodedBody = body;
+				}
+			}
+		}
+
+		return body;
+	}
+
+	@Override
+	public InputStream bodyAsStream() {
+		BodyBuffer body = buffer;
+		if (body != null) {
+			return body.openStream();
+		}
+
+		try {
+			return openBodyStream();
+		}
+		catch (IOException ex) {
+			throw new HttpClientException(ex);
+		}
+	}
+
+	@Override
+	public ReadableByteChannel bodyAsChannel() {
+		return Channels.newChannel(bodyAsStream());
+	}
+
+	@Override
+	public byte[] bodyAsBytes() {
+		BodyBuffer body = buffer;
+		return body == null ? readBodyAsBytes() : body.toByteArray();
+	}
+
+	/**
+	 * Read response body as raw bytes, used when response has not been buffered.
+	 * Default implementation reads body stream.
+	 *
+	 * @return Body bytes.
+	 */
+	protected byte[] readBodyAsBytes() {
+		try (InputStream stream = bodyAsStream()) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream(BUFFER_SIZE);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int n;
+			while ((n = stream.read(buffer)) != -1) {
+				output.write(buffer, 0, n);
+			}
+
+			return output.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new HttpClientException(ex);
+		}
+	}
+
+	@Override
+	public BodyDigest bodyDigest() {
+		try (InputStream stream = bodyAsStream()) {
+			return digest(stream);
+		}
+		catch (IOException ex) {
+			throw new HttpClientException(ex);
+		}
+	}
+
+	@Override
+	public long transferTo(Path path) {
+		notNull(path, "path");
+
+		try (ReadableByteChannel body = bodyAsChannel(); FileChannel file = FileChannel.open(path, WRITE, CREATE, TRUNCATE_EXISTING)) {
+			return file.transferFrom(body, 0, Long.MAX_VALUE);
+		}
+		catch (IOException ex) {
+			throw new HttpClientException(ex);
+		}
+	}
+
+	/**
+	 * Open stream of response body.
+	 * Exception will be automatically catched and translated into
+	 * an instance of {HttpClientException}.
+	 *
+	 * @return Body stream.
+	 * @throws IOException If body cannot be read.
+	 */
+	protected abstract InputStream openBodyStream() throws IOException;
+
+	/**
+	 * Get charset defined in Content-Type header.
+	 * If no charset is specified, or if it is malformed or not supported, JSON is
+	 * decoded with UTF-8 (see RFC 7159) and other content with the HTTP/1.1 default charset.
+	 *
+	 * @return Response charset.
+	 */
+	private Charset getCharset() {
+		HttpHeader contentType = getContentType();
+		if (contentType == null) {
+			return DEFAULT_CHARSET;
+		}
+
+		String[] parts = contentType.getFirstValue().split(";");
+		for (int i = 1; i < parts.length; i++) {
+			String p = parts[i].trim();
+			if (p.regionMatches(true, 0, "charset=", 0, 8)) {
+				String charset = p.substring(8).replace("\"", "").trim();
+				if (isSupported(charset)) {
+					return Charset.forName(charset);
+				}
+			}
+		}
+
+		String mimeType = parts[0].trim().toLowerCase();
+		return mimeType.equals("application/json") || mimeType.endsWith("+json") ? UTF_8 : DEFAULT_CHARSET;
+	}
+
+	private static boolean isSupported(String charset) {
+		try {
+			return Charset.isSupported(charset);
+		}
+		catch (IllegalCharsetNameException ex) {
+			return false;
+		}
 	}
 
 	@Override
@@ -64,21 +327,95 @@ public abstract class AbstractHttpResponse implements HttpResponse {
 		return getHeader(name) != null;
 	}
 
+	@Override
+	public HttpHeader getHeader(String name) {
+		notNull(name, "name");
+		return headersIndex().get(name);
+	}
+
+	@Override
+	public List<HttpHeader> getHeaders() {
+		return unmodifiableList(new ArrayList<>(headersIndex().values()));
+	}
+
+	/**
+	 * Get headers index, indexed by case insensitive names.
+	 * Index is built once, the first time a header is requested.
+	 *
+	 * @return Headers index.
+	 */
+	private Map<String, HttpHeader> headersIndex() {
+		Map<String, HttpHeader> index = headers;
+		if (index == null) {
+			index = indexHeaders(readHeaders());
+			headers = index;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Read all headers of http response.
+	 * Header names may appear several times, with different cases: headers
+	 * are merged in a case insensitive way.
+	 *
+	 * @return Headers, may be null if response does not have any header.
+	 */
+	protected abstract Map<String, List<String>> readHeaders();
+
+	private static Map<String, HttpHeader> indexHeaders(Map<String, List<String>> rawHeaders) {
+		if (rawHeaders == null || rawHeaders.isEmpty()) {
+			return emptyMap();
+		}
+
+		// Merge values of headers with same name: first name
+		// found is kept as header name.
+		Map<String, List<String>> values = new TreeMap<>(CASE_INSENSITIVE_ORDER);
+		for (Map.Entry<String, List<String>> entry : rawHeaders.entrySet()) {
+			String name = entry.getKey();
+			List<String> headerValues = entry.getValue();
+			if (name == null || headerValues == null || headerValues.isEmpty()) {
+				continue;
+			}
+
+			List<String> current = values.get(name);
+			if (current == null) {
+				current = new ArrayList<>(headerValues.size());
+				values.put(name, current);
+			}
+
+			current.addAll(headerValues);
+		}
+
+		Map<String, HttpHeader> index = new TreeMap<>(CASE_INSENSITIVE_ORDER);
+		for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+			index.put(entry.getKey(), header(entry.getKey(), entry.getValue()));
+		}
+
+		return unmodifiableMap(index);
+	}
+
 	@Override
 	public Cookie getCookie(String name) {
 		notBlank(name, "name");
 
-		HttpHeader header = getHeader("Set-Cookie");
+		Cookie cookie = cookiesByName.get(name);
+		if (cookie != null) {
+			return cookie;
+		}
+
+		HttpHeader header = getHeader(SET_COOKIE);
 		if (header == null) {
 			// No cookie in response
 			return null;
 		}
 
-		// Check each cookie to find cookie by its name
+		// Only parse cookie with expected name
 		for (String value : header.getValues()) {
-			Cookie cookie = read(value);
-			if (cookie.getName().equals(name)) {
-				return cookie;
+			if (hasName(value, name)) {
+				cookie = read(value);
+				cookiesByName.putIfAbsent(name, cookie);
+				return cookiesByName.get(name);
 			}
 		}
 
@@ -88,20 +425,55 @@ public abstract class AbstractHttpResponse implements HttpResponse {
 
 	@Override
 	public List<Cookie> getCookies() {
+		List<Cookie> list = cookies;
+		if (list != null) {
+			return list;
+		}
+
 		HttpHeader header = getHeader(SET_COOKIE);
 		if (header == null) {
 			// No cookie in response
-			return emptyList();
+			list = emptyList();
+		}
+		else {
+			List<String> values = header.getValues();
+			List<Cookie> parsed = new ArrayList<>(values.size());
+			for (String value : values) {
+				parsed.add(read(value));
+			}
+
+			list = unmodifiableList(parsed);
+		}
+
+		cookies = list;
+		return list;
+	}
+
+	/**
+	 * Check if given Set-Cookie header value defines a cookie
+	 * with given name, without parsing it.
+	 *
+	 * @param value Set-Cookie header value.
+	 * @param name Cookie name.
+	 * @return True if value defines cookie, false otherwise.
+	 */
+	private static boolean hasName(String value, String name) {
+		int length = value.length();
+		int start = 0;
+		while (start < length && Character.isWhitespace(value.charAt(start))) {
+			start++;
+		}
+
+		if (!value.startsWith(name, start)) {
+			return false;
 		}
 
-		List<String> values = header.getValues();
-		List<Cookie> cookies = new ArrayList<>(values.size());
-		for (String value : values) {
-			Cookie cookie = read(value);
-			cookies.add(cookie);
+		int i = start + name.length();
+		while (i < length && Character.isWhitespace(value.charAt(i))) {
+			i++;
 		}
 
-		return unmodifiableList(cookies);
+		return i < length && value.charAt(i) == '=';
 	}
 
 	@Override
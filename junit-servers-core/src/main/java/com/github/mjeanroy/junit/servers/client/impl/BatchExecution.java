@@ -0,0 +1,156 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseListener;
+import com.github.mjeanroy.junit.servers.client.HttpResult;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.mjeanroy.junit.servers.client.HttpResult.failure;
+import static com.github.mjeanroy.junit.servers.client.HttpResult.success;
+import static java.lang.System.nanoTime;
+
+/**
+ * Execution of a batch of requests, exposed as an iterator over
+ * results in completion order.
+ * Requests are submitted asynchronously (see {HttpRequest#executeAsync}) from
+ * the consuming thread, with a bounded number of requests in flight.
+ * This class is not thread safe: results must be consumed by a single thread.
+ */
+class BatchExecution implements Iterator<HttpResult> {
+
+	/**
+	 * Requests that have not been submitted yet.
+	 */
+	private final Iterator<HttpRequest> requests;
+
+	/**
+	 * Maximum number of requests in flight.
+	 */
+	private final int maxConcurrency;
+
+	/**
+	 * Completed results, not consumed yet.
+	 */
+	private final BlockingQueue<HttpResult> results;
+
+	/**
+	 * Number of requests in flight (i.e submitted but not completed).
+	 */
+	private final AtomicInteger inFlight;
+
+	/**
+	 * Number of results that have not been consumed yet (in flight or
+	 * completed).
+	 */
+	private int remaining;
+
+	/**
+	 * Create batch execution.
+	 *
+	 * @param requests Requests to execute.
+	 * @param maxConcurrency Maximum number of requests in flight.
+	 */
+	BatchExecution(Iterator<HttpRequest> requests, int maxConcurrency) {
+		this.requests = requests;
+		this.maxConcurrency = maxConcurrency;
+		this.results = new LinkedBlockingQueue<>();
+		this.inFlight = new AtomicInteger(0);
+		this.remaining = 0;
+	}
+
+	@Override
+	public boolean hasNext() {
+		submit();
+		return remaining > 0;
+	}
+
+	@Override
+	public HttpResult next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		try {
+			HttpResult result = results.take();
+			remaining--;
+			submit();
+			return result;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new HttpClientException(ex);
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("remove");
+	}
+
+	/**
+	 * Submit pending requests, until maximum number of requests
+	 * in flight is reached.
+	 */
+	private void submit() {
+		while (inFlight.get() < maxConcurrency && requests.hasNext()) {
+			final HttpRequest request = requests.next();
+			final long start = nanoTime();
+
+			inFlight.incrementAndGet();
+			remaining++;
+
+			try {
+				request.executeAsync().addListener(new HttpResponseListener() {
+					@Override
+					public void onSuccess(HttpResponse response) {
+						complete(success(request, response, nanoTime() - start));
+					}
+
+					@Override
+					public void onFailure(Throwable error) {
+						complete(failure(request, error, nanoTime() - start));
+					}
+				});
+			}
+			catch (RuntimeException ex) {
+				complete(failure(request, ex, nanoTime() - start));
+			}
+		}
+	}
+
+	private void complete(HttpResult result) {
+		inFlight.decrementAndGet();
+		results.add(result);
+	}
+}
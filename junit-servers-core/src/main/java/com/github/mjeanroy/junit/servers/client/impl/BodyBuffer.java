@@ -0,0 +1,289 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Response body read entirely and kept in a buffer, so that it
+ * can be read several times.
+ *
+ * Body is kept in a byte array as long as its size does not exceed
+ * a given threshold, otherwise bytes are written to a temporary file that is
+ * then memory-mapped: heap usage stays bounded whatever the body size.
+ */
+final class BodyBuffer {
+
+	/**
+	 * Size of buffer used to copy body stream.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Prefix of temporary files.
+	 */
+	private static final String TMP_PREFIX = "junit-servers-";
+
+	/**
+	 * Suffix of temporary files.
+	 */
+	private static final String TMP_SUFFIX = ".body";
+
+	/**
+	 * Maximum size of a buffered body: a buffer
+	 * cannot be larger than 2GB.
+	 */
+	private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+	/**
+	 * Read body stream entirely.
+	 * Stream is closed once it has been read.
+	 *
+	 * @param stream Body stream.
+	 * @param threshold Maximum number of bytes kept on the heap.
+	 * @return Buffered body.
+	 * @throws IOException If stream cannot be read or temporary file cannot be written.
+	 * @throws NullPointerException if stream is null.
+	 * @throws IllegalArgumentException if threshold is negative.
+	 */
+	static BodyBuffer read(InputStream stream, long threshold) throws IOException {
+		return read(stream, threshold, MAX_SIZE);
+	}
+
+	/**
+	 * Read body stream entirely, failing as soon as more than {@code maxSize}
+	 * bytes have been read.
+	 * Stream is closed once it has been read.
+	 *
+	 * @param stream Body stream.
+	 * @param threshold Maximum number of bytes kept on the heap.
+	 * @param maxSize Maximum number of bytes of body.
+	 * @return Buffered body.
+	 * @throws IOException If stream cannot be read, temporary file cannot be written or body is larger than {@code maxSize}.
+	 * @throws NullPointerException if stream is null.
+	 * @throws IllegalArgumentException if threshold is negative.
+	 */
+	static BodyBuffer read(InputStream stream, long threshold, long maxSize) throws IOException {
+		notNull(stream, "stream");
+		positive(threshold, "threshold");
+
+		try (InputStream input = stream) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream((int) Math.min(threshold, BUFFER_SIZE));
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int n;
+			while ((n = input.read(buffer)) != -1) {
+				checkSize(output.size() + n, maxSize);
+				if (output.size() + n > threshold) {
+					return spill(output, buffer, n, input, maxSize);
+				}
+
+				output.write(buffer, 0, n);
+			}
+
+			return new BodyBuffer(ByteBuffer.wrap(output.toByteArray()), false);
+		}
+	}
+
+	/**
+	 * Write bytes already read, and the remaining of the stream, to
+	 * a temporary file and map this file in memory.
+	 * File is removed as soon as it is mapped (mapping stays valid), or when
+	 * JVM exits if platform does not allow it.
+	 */
+	private static BodyBuffer spill(ByteArrayOutputStream head, byte[] buffer, int n, InputStream input, long maxSize) throws IOException {
+		Path path = Files.createTempFile(TMP_PREFIX, TMP_SUFFIX);
+		try {
+			try (FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+				long size = head.size() + n;
+				write(channel, head.toByteArray(), head.size());
+				write(channel, buffer, n);
+
+				int read;
+				while ((read = input.read(buffer)) != -1) {
+					size += read;
+					checkSize(size, maxSize);
+					write(channel, buffer, read);
+				}
+
+				MappedByteBuffer mapped = channel.map(READ_ONLY, 0, size);
+				return new BodyBuffer(mapped, true);
+			}
+		}
+		finally {
+			try {
+				Files.deleteIfExists(path);
+			}
+			catch (IOException ex) {
+				path.toFile().deleteOnExit();
+			}
+		}
+	}
+
+	private static void checkSize(long size, long maxSize) throws IOException {
+		if (size > maxSize) {
+			throw new IOException("Response body is too large to be buffered: more than " + maxSize + " bytes");
+		}
+	}
+
+	private static void write(FileChannel channel, byte[] bytes, int length) throws IOException {
+		ByteBuffer src = ByteBuffer.wrap(bytes, 0, length);
+		while (src.hasRemaining()) {
+			channel.write(src);
+		}
+	}
+
+	/**
+	 * Body bytes, from position zero to limit.
+	 * This buffer is never read directly: a duplicate
+	 * is created for each read operation.
+	 */
+	private final ByteBuffer bytes;
+
+	/**
+	 * Flag set when body has been written to
+	 * a temporary file.
+	 */
+	private final boolean mapped;
+
+	private BodyBuffer(ByteBuffer bytes, boolean mapped) {
+		this.bytes = bytes;
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Body size, in bytes.
+	 *
+	 * @return Body size.
+	 */
+	long size() {
+		return bytes.limit();
+	}
+
+	/**
+	 * Check if body has been written to a temporary file
+	 * instead of being kept on the heap.
+	 *
+	 * @return True if body is memory-mapped, false otherwise.
+	 */
+	boolean isMapped() {
+		return mapped;
+	}
+
+	/**
+	 * Open new stream reading body from its first byte.
+	 *
+	 * @return Body stream.
+	 */
+	InputStream openStream() {
+		if (bytes.hasArray()) {
+			return new ByteArrayInputStream(bytes.array(), bytes.arrayOffset(), bytes.limit());
+		}
+
+		return new ByteBufferInputStream(bytes.duplicate());
+	}
+
+	/**
+	 * Copy body bytes.
+	 *
+	 * @return Body bytes.
+	 */
+	byte[] toByteArray() {
+		byte[] array = new byte[bytes.limit()];
+		bytes.duplicate().get(array);
+		return array;
+	}
+
+	/**
+	 * Decode body.
+	 *
+	 * @param charset Charset to use.
+	 * @return Decoded body.
+	 */
+	String toString(Charset charset) {
+		if (bytes.hasArray()) {
+			return new String(bytes.array(), bytes.arrayOffset(), bytes.limit(), charset);
+		}
+
+		return charset.decode(bytes.duplicate()).toString();
+	}
+
+	/**
+	 * Input stream reading bytes from a byte buffer.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
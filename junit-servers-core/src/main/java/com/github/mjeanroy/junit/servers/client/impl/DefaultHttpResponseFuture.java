@@ -0,0 +1,279 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseFuture;
+import com.github.mjeanroy.junit.servers.client.HttpResponseListener;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Default implementation of {HttpResponseFuture}: future is
+ * completed by the http client implementation, using
+ * {#complete} or {#fail} methods.
+ * This class is thread safe.
+ */
+public class DefaultHttpResponseFuture implements HttpResponseFuture {
+
+	/**
+	 * Http response, set once request is successfully completed.
+	 */
+	private HttpResponse response;
+
+	/**
+	 * Error, set once request failed.
+	 */
+	private Throwable error;
+
+	/**
+	 * Flag set once future is completed (successfully, with an
+	 * error or cancelled).
+	 */
+	private boolean done;
+
+	/**
+	 * Flag set if future has been cancelled.
+	 */
+	private boolean cancelled;
+
+	/**
+	 * Future of the underlying execution, cancelled if this
+	 * future is cancelled.
+	 */
+	private Future<?> underlying;
+
+	/**
+	 * Listeners waiting for completion.
+	 */
+	private final List<HttpResponseListener> listeners;
+
+	/**
+	 * Create future.
+	 */
+	public DefaultHttpResponseFuture() {
+		this.listeners = new ArrayList<>(1);
+	}
+
+	/**
+	 * Bind future of the underlying execution: it will be cancelled
+	 * if this future is cancelled.
+	 *
+	 * @param underlying Future of the underlying execution.
+	 * @throws NullPointerException if underlying future is null.
+	 */
+	public void bind(Future<?> underlying) {
+		notNull(underlying, "underlying");
+
+		boolean cancel;
+		synchronized (this) {
+			this.underlying = underlying;
+			cancel = cancelled;
+		}
+
+		if (cancel) {
+			underlying.cancel(true);
+		}
+	}
+
+	/**
+	 * Complete future with given http response.
+	 *
+	 * @param response Http response.
+	 * @return True if future has been completed by this call, false if it was already completed.
+	 */
+	public boolean complete(HttpResponse response) {
+		List<HttpResponseListener> toNotify;
+		synchronized (this) {
+			if (done) {
+				return false;
+			}
+
+			this.response = response;
+			toNotify = markDone();
+		}
+
+		for (HttpResponseListener listener : toNotify) {
+			listener.onSuccess(response);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Complete future with given error.
+	 *
+	 * @param error Error.
+	 * @return True if future has been completed by this call, false if it was already completed.
+	 */
+	public boolean fail(Throwable error) {
+		List<HttpResponseListener> toNotify;
+		synchronized (this) {
+			if (done) {
+				return false;
+			}
+
+			this.error = error;
+			toNotify = markDone();
+		}
+
+		for (HttpResponseListener listener : toNotify) {
+			listener.onFailure(error);
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		List<HttpResponseListener> toNotify;
+		Future<?> underlying;
+		synchronized (this) {
+			if (done) {
+				return false;
+			}
+
+			cancelled = true;
+			underlying = this.underlying;
+			toNotify = markDone();
+		}
+
+		if (underlying != null) {
+			underlying.cancel(mayInterruptIfRunning);
+		}
+
+		CancellationException ex = new CancellationException();
+		for (HttpResponseListener listener : toNotify) {
+			listener.onFailure(ex);
+		}
+
+		return true;
+	}
+
+	@Override
+	public synchronized boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public synchronized boolean isDone() {
+		return done;
+	}
+
+	@Override
+	public HttpResponseFuture addListener(HttpResponseListener listener) {
+		notNull(listener, "listener");
+
+		synchronized (this) {
+			if (!done) {
+				listeners.add(listener);
+				return this;
+			}
+		}
+
+		if (cancelled) {
+			listener.onFailure(new CancellationException());
+		}
+		else if (error != null) {
+			listener.onFailure(error);
+		}
+		else {
+			listener.onSuccess(response);
+		}
+
+		return this;
+	}
+
+	@Override
+	public synchronized HttpResponse get() throws InterruptedException, ExecutionException {
+		while (!done) {
+			wait();
+		}
+
+		return report();
+	}
+
+	@Override
+	public synchronized HttpResponse get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		long remaining = unit.toNanos(timeout);
+		long deadline = System.nanoTime() + remaining;
+
+		while (!done) {
+			if (remaining <= 0) {
+				throw new TimeoutException();
+			}
+
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			remaining = deadline - System.nanoTime();
+		}
+
+		return report();
+	}
+
+	@Override
+	public HttpResponse await() {
+		try {
+			return get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new HttpClientException(ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			throw cause instanceof HttpClientException ? (HttpClientException) cause : new HttpClientException(cause);
+		}
+	}
+
+	private List<HttpResponseListener> markDone() {
+		done = true;
+		notifyAll();
+
+		List<HttpResponseListener> toNotify = new ArrayList<>(listeners);
+		listeners.clear();
+		return toNotify;
+	}
+
+	private HttpResponse report() throws ExecutionException {
+		if (cancelled) {
+			throw new CancellationException();
+		}
+
+		if (error != null) {
+			throw new ExecutionException(error);
+		}
+
+		return response;
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
+
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.UNKNOWN;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
+
+/**
+ * Record events of an http request execution and turn them into
+ * a {@link RequestTimings} instance.
+ * Events may be notified from I/O threads: each event is an
+ * instant returned by {@link System#nanoTime()}, events that are not
+ * notified are reported as {@link RequestTimings#UNKNOWN}.
+ */
+public final class RequestTimingsRecorder {
+
+	/**
+	 * Value of an instant that has not been recorded.
+	 */
+	private static final long NONE = Long.MIN_VALUE;
+
+	/**
+	 * Name of the attribute used to share recorder through
+	 * a request execution context.
+	 */
+	public static final String ATTRIBUTE = RequestTimingsRecorder.class.getName();
+
+	/**
+	 * Instant of request execution start.
+	 */
+	private final long start;
+
+	// Instants of request events, NONE until event is notified.
+	private volatile long connectStart = NONE;
+	private volatile long connectEnd = NONE;
+	private volatile long tlsEnd = NONE;
+	private volatile long writeStart = NONE;
+	private volatile long writeEnd = NONE;
+	private volatile long firstByte = NONE;
+	private volatile long end = NONE;
+
+	/**
+	 * Create recorder: request execution starts now.
+	 */
+	public RequestTimingsRecorder() {
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * Notify that a new connection is being opened.
+	 */
+	public void onConnectStart() {
+		connectStart = System.nanoTime();
+	}
+
+	/**
+	 * Notify that TCP connection is opened.
+	 */
+	public void onConnectEnd() {
+		connectEnd = System.nanoTime();
+	}
+
+	/**
+	 * Notify that TLS handshake is completed.
+	 */
+	public void onTlsHandshakeEnd() {
+		tlsEnd = System.nanoTime();
+	}
+
+	/**
+	 * Notify that request is about to be written: a connection
+	 * has been leased or opened.
+	 * Only the first notification is kept (requests may be retried).
+	 */
+	public void onWriteStart() {
+		if (writeStart == NONE) {
+			writeStart = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Notify that request (headers and body) has been written.
+	 */
+	public void onWriteEnd() {
+		writeEnd = System.nanoTime();
+	}
+
+	/**
+	 * Notify that response starts to be received.
+	 * Only the first notification is kept.
+	 */
+	public void onFirstByte() {
+		if (firstByte == NONE) {
+			firstByte = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Notify that response has been entirely received.
+	 */
+	public void onEnd() {
+		end = System.nanoTime();
+	}
+
+	/**
+	 * Get timings of recorded events.
+	 * If end of request has not been notified, it is considered
+	 * as ended now and download duration is unknown.
+	 *
+	 * @return Timings.
+	 */
+	public RequestTimings toTimings() {
+		long connectStart = this.connectStart;
+		long connectEnd = this.connectEnd;
+		long tlsEnd = this.tlsEnd;
+		long writeStart = this.writeStart;
+		long writeEnd = this.writeEnd;
+		long firstByte = this.firstByte;
+		long end = this.end;
+
+		boolean ended = end != NONE;
+		if (!ended) {
+			end = System.nanoTime();
+		}
+
+		// A new connection has been opened: waiting time ends when
+		// connection starts, otherwise it ends when connection is leased.
+		long queue = between(start, connectStart != NONE ? connectStart : writeStart);
+		long connect = between(connectStart, connectEnd);
+		long tls = between(connectEnd, tlsEnd);
+		long write = between(writeStart, writeEnd);
+		long ttfb = between(writeEnd != NONE ? writeEnd : writeStart, firstByte);
+		long download = ended ? between(firstByte, end) : UNKNOWN;
+		return timings(queue, connect, tls, write, ttfb, download, end - start);
+	}
+
+	private static long between(long from, long to) {
+		return from == NONE || to == NONE ? UNKNOWN : Math.max(to - from, 0);
+	}
+}
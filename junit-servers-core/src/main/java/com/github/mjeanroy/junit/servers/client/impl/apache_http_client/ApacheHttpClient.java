@@ -24,17 +24,35 @@
 
 package com.github.mjeanroy.junit.servers.client.impl.apache_http_client;
 
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
 import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 
 import java.io.IOException;
 
+import static com.github.mjeanroy.junit.servers.client.HttpClientConfiguration.defaultConfiguration;
+import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ConnectionPoolStats.connectionPoolStats;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Implementation of http client using apache http client
@@ -52,20 +70,87 @@ public class ApacheHttpClient extends AbstractHttpClient {
 	 * @return Http client.
 	 */
 	public static ApacheHttpClient newApacheHttpClient(EmbeddedServer server, CloseableHttpClient client) {
-		return new ApacheHttpClient(server, client);
+		return new ApacheHttpClient(server, client, null, null);
+	}
+
+	/**
+	 * Create new http client using internal
+	 * http client from apache http-client library.
+	 * An instance of {CloseableHttpClient}, backed by a pool of
+	 * connections, will be created using given configuration.
+	 * Timings of each request (see {@link com.github.mjeanroy.junit.servers.client.RequestTimings})
+	 * are recorded by this internal client.
+	 *
+	 * @param server Embedded server.
+	 * @param configuration Http client configuration.
+	 * @return Http client.
+	 * @throws NullPointerException if configuration is null.
+	 */
+	public static ApacheHttpClient newApacheHttpClient(EmbeddedServer server, HttpClientConfiguration configuration) {
+		notNull(configuration, "configuration");
+
+		PlainConnectionSocketFactory plain = PlainConnectionSocketFactory.getSocketFactory();
+		Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", new TimedConnectionSocketFactory(plain, null))
+				.register("https", new TimedConnectionSocketFactory(plain, SSLConnectionSocketFactory.getSocketFactory()))
+				.build();
+
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactories, null, null, null, configuration.getConnectionTtl() > 0 ? configuration.getConnectionTtl() : -1, MILLISECONDS);
+		connectionManager.setMaxTotal(configuration.getMaxTotalConnections());
+		connectionManager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+		connectionManager.setValidateAfterInactivity(configuration.getValidateAfterInactivity() > 0 ? configuration.getValidateAfterInactivity() : -1);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(configuration.getConnectTimeout())
+				.setSocketTimeout(configuration.getSocketTimeout())
+				.build();
+
+		CookieStore cookieStore = new BasicCookieStore();
+
+		CloseableHttpClient client = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setRequestExecutor(new TimedHttpRequestExecutor())
+				.setDefaultCookieStore(cookieStore)
+				.setKeepAliveStrategy(keepAliveStrategy(configuration.getKeepAlive()))
+				.setDefaultRequestConfig(requestConfig)
+				.build();
+
+		return new ApacheHttpClient(server, client, connectionManager, cookieStore);
 	}
 
 	/**
 	 * Create new http client using internal
 	 * http client from apache http-client library.
 	 * An instance of {CloseableHttpClient} will be automatically
-	 * created.
+	 * created using default configuration.
 	 *
 	 * @param server Embedded server.
 	 * @return Http client.
 	 */
 	public static ApacheHttpClient defaultApacheHttpClient(EmbeddedServer server) {
-		return new ApacheHttpClient(server, HttpClients.createDefault());
+		return newApacheHttpClient(server, defaultConfiguration());
+	}
+
+	/**
+	 * Create keep-alive strategy: duration sent by the server in the
+	 * "Keep-Alive" header is used, and capped by given value (if it is
+	 * strictly positive).
+	 *
+	 * @param keepAlive Maximum keep-alive duration, in milliseconds.
+	 * @return Keep-alive strategy.
+	 */
+	private static ConnectionKeepAliveStrategy keepAliveStrategy(final long keepAlive) {
+		if (keepAlive <= 0) {
+			return DefaultConnectionKeepAliveStrategy.INSTANCE;
+		}
+
+		return new ConnectionKeepAliveStrategy() {
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+				return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+			}
+		};
 	}
 
 	/**
@@ -75,10 +160,42 @@ public class ApacheHttpClient extends AbstractHttpClient {
 	 */
 	private final CloseableHttpClient client;
 
+	/**
+	 * Pool of connections used by internal http client.
+	 * May be null if internal http client has not been
+	 * created by this class.
+	 */
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	/**
+	 * Cookies stored by internal http client.
+	 * May be null if internal http client has not been
+	 * created by this class.
+	 */
+	private final CookieStore cookieStore;
+
 	// Use static factory
-	private ApacheHttpClient(EmbeddedServer server, CloseableHttpClient client) {
+	private ApacheHttpClient(EmbeddedServer server, CloseableHttpClient client, PoolingHttpClientConnectionManager connectionManager, CookieStore cookieStore) {
 		super(server);
 		this.client = notNull(client, "client");
+		this.connectionManager = connectionManager;
+		this.cookieStore = cookieStore;
+	}
+
+	/**
+	 * Get statistics of the connection pool: number of leased connections,
+	 * available (idle) connections and pending requests waiting for a connection.
+	 *
+	 * @return Pool statistics.
+	 * @throws UnsupportedOperationException if internal http client has not been created by this class.
+	 */
+	public ConnectionPoolStats getPoolStats() {
+		if (connectionManager == null) {
+			throw new UnsupportedOperationException("Pool statistics are not available for a custom http client");
+		}
+
+		PoolStats stats = connectionManager.getTotalStats();
+		return connectionPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
 	}
 
 	@Override
@@ -86,6 +203,13 @@ public class ApacheHttpClient extends AbstractHttpClient {
 		return new ApacheHttpRequest(client, httpMethod, url);
 	}
 
+	@Override
+	public void reset() {
+		if (cookieStore != null) {
+			cookieStore.clear();
+		}
+	}
+
 	@Override
 	public void destroy() {
 		try {
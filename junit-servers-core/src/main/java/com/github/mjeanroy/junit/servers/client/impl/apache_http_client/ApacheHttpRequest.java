@@ -28,11 +28,17 @@ import com.github.mjeanroy.junit.servers.client.Cookie;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.RequestBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.BytesBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.FileBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StringBody;
 import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpRequest;
+import com.github.mjeanroy.junit.servers.client.impl.RequestTimingsRecorder;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
@@ -40,12 +46,18 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicNameValuePair;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -54,7 +66,6 @@ import java.util.Map;
 
 import static com.github.mjeanroy.junit.servers.client.HttpHeaders.COOKIE;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
-import static java.lang.System.nanoTime;
 
 /**
  * Implementation for {HttpRequest} that use apache http-client
@@ -65,6 +76,11 @@ public class ApacheHttpRequest extends AbstractHttpRequest {
 
 	private static final ApacheHttpRequestFactory FACTORY = new ApacheHttpRequestFactory();
 
+	/**
+	 * Charset used to encode string bodies.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
 	/**
 	 * Original http client.
 	 * It will be used to execute http request.
@@ -105,7 +121,7 @@ public class ApacheHttpRequest extends AbstractHttpRequest {
 	/**
 	 * Request body.
 	 */
-	private String body;
+	private RequestBody body;
 
 	/**
 	 * Create apache http request.
@@ -151,7 +167,7 @@ public class ApacheHttpRequest extends AbstractHttpRequest {
 	}
 
 	@Override
-	protected HttpRequest applyBody(String body) {
+	protected HttpRequest applyBody(RequestBody body) {
 		this.body = body;
 		return this;
 	}
@@ -187,9 +203,14 @@ public class ApacheHttpRequest extends AbstractHttpRequest {
 			}
 		}
 
-		long start = nanoTime();
-		org.apache.http.HttpResponse httpResponse = client.execute(httpRequest);
-		return new ApacheHttpResponse(httpResponse, nanoTime() - start);
+		// Timings are recorded by the internal client created by ApacheHttpClient,
+		// response body is streamed: download is measured when body is buffered.
+		HttpClientContext context = HttpClientContext.create();
+		RequestTimingsRecorder recorder = new RequestTimingsRecorder();
+		context.setAttribute(RequestTimingsRecorder.ATTRIBUTE, recorder);
+
+		org.apache.http.HttpResponse httpResponse = client.execute(httpRequest, context);
+		return new ApacheHttpResponse(httpResponse, recorder.toTimings());
 	}
 
 	/**
@@ -241,12 +262,28 @@ public class ApacheHttpRequest extends AbstractHttpRequest {
 
 	/**
 	 * Set request body value to http request.
+	 * Files are sent with a file entity (never loaded in memory) and
+	 * streams of unknown length are sent using chunked transfer encoding.
 	 *
 	 * @param httpRequest Http request in creation.
-	 * @throws UnsupportedEncodingException
+	 * @throws IOException If request body cannot be read.
 	 */
-	private void handleRequestBody(HttpEntityEnclosingRequestBase httpRequest) throws UnsupportedEncodingException {
-		HttpEntity entity = new StringEntity(body);
+	private void handleRequestBody(HttpEntityEnclosingRequestBase httpRequest) throws IOException {
+		HttpEntity entity;
+
+		if (body instanceof StringBody) {
+			entity = new StringEntity(((StringBody) body).getValue(), ContentType.create("text/plain", UTF_8));
+		}
+		else if (body instanceof BytesBody) {
+			entity = new ByteArrayEntity(((BytesBody) body).getBytes());
+		}
+		else if (body instanceof FileBody && ((FileBody) body).isDefaultFileSystem()) {
+			entity = new FileEntity(((FileBody) body).getPath().toFile());
+		}
+		else {
+			entity = new InputStreamEntity(body.openStream(), body.getContentLength());
+		}
+
 		httpRequest.setEntity(entity);
 	}
 
@@ -24,20 +24,22 @@
 
 package com.github.mjeanroy.junit.servers.client.impl.apache_http_client;
 
-import com.github.mjeanroy.junit.servers.client.HttpHeader;
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
 import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpResponse;
-import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
-import org.apache.http.util.EntityUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import static com.github.mjeanroy.junit.servers.client.HttpHeader.header;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
 
 /**
@@ -53,12 +55,11 @@ public class ApacheHttpResponse extends AbstractHttpResponse {
 	private final HttpResponse response;
 
 	/**
-	 * Request duration in nano seconds.
-	 * This is the time to execute http request and
-	 * produce http response.
-	 * This duration will always be a positive number.
+	 * Request timings, recorded while request was executed.
+	 * Total duration is the time to execute http request and
+	 * produce http response and will always be a positive number.
 	 */
-	private final long duration;
+	private final RequestTimings timings;
 
 	/**
 	 * Create apache http response.
@@ -69,13 +70,29 @@ public class ApacheHttpResponse extends AbstractHttpResponse {
 	 * @throws IllegalArgumentException if duration is not positive.
 	 */
 	ApacheHttpResponse(HttpResponse response, long duration) {
+		this(response, timings(positive(duration, "duration")));
+	}
+
+	/**
+	 * Create apache http response.
+	 *
+	 * @param response Original http response.
+	 * @param timings Request timings.
+	 * @throws NullPointerException if response or timings is null.
+	 */
+	ApacheHttpResponse(HttpResponse response, RequestTimings timings) {
 		this.response = notNull(response, "response");
-		this.duration = positive(duration, "duration");
+		this.timings = notNull(timings, "timings");
 	}
 
 	@Override
 	public long getRequestDuration() {
-		return duration;
+		return timings.getTotalDuration();
+	}
+
+	@Override
+	protected RequestTimings readTimings() {
+		return timings;
 	}
 
 	@Override
@@ -84,28 +101,29 @@ public class ApacheHttpResponse extends AbstractHttpResponse {
 	}
 
 	@Override
-	public String body() {
-		try {
-			HttpEntity entity = response.getEntity();
-			return EntityUtils.toString(entity);
-		}
-		catch (IOException ex) {
-			throw new HttpClientException(ex);
-		}
+	protected InputStream openBodyStream() throws IOException {
+		HttpEntity entity = response.getEntity();
+		return entity == null ? new ByteArrayInputStream(new byte[0]) : entity.getContent();
 	}
 
 	@Override
-	public HttpHeader getHeader(String name) {
-		Header[] headers = response.getHeaders(name);
-		if (headers == null || headers.length == 0) {
+	protected Map<String, List<String>> readHeaders() {
+		Header[] headers = response.getAllHeaders();
+		if (headers == null) {
 			return null;
 		}
 
-		List<String> values = new ArrayList<>(headers.length);
+		Map<String, List<String>> values = new LinkedHashMap<>();
 		for (Header h : headers) {
-			values.add(h.getValue());
+			List<String> current = values.get(h.getName());
+			if (current == null) {
+				current = new ArrayList<>(1);
+				values.put(h.getName(), current);
+			}
+
+			current.add(h.getValue());
 		}
 
-		return header(name, values);
+		return values;
 	}
 }
@@ -0,0 +1,147 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.apache_http_client;
+
+import static java.lang.String.format;
+
+/**
+ * Snapshot of connection pool statistics of an {@link ApacheHttpClient}:
+ * - Leased: connections currently used by a request.
+ * - Available: idle connections kept alive in the pool.
+ * - Pending: requests waiting for a connection.
+ * - Max: maximum number of connections in the pool.
+ */
+public final class ConnectionPoolStats {
+
+	/**
+	 * Create statistics.
+	 *
+	 * @param leased Number of leased connections.
+	 * @param available Number of available connections.
+	 * @param pending Number of pending requests.
+	 * @param max Maximum number of connections.
+	 * @return Statistics.
+	 */
+	static ConnectionPoolStats connectionPoolStats(int leased, int available, int pending, int max) {
+		return new ConnectionPoolStats(leased, available, pending, max);
+	}
+
+	/**
+	 * Number of leased connections.
+	 */
+	private final int leased;
+
+	/**
+	 * Number of available connections.
+	 */
+	private final int available;
+
+	/**
+	 * Number of pending requests.
+	 */
+	private final int pending;
+
+	/**
+	 * Maximum number of connections.
+	 */
+	private final int max;
+
+	// Use static factory
+	private ConnectionPoolStats(int leased, int available, int pending, int max) {
+		this.leased = leased;
+		this.available = available;
+		this.pending = pending;
+		this.max = max;
+	}
+
+	/**
+	 * Get number of connections currently used by a request.
+	 *
+	 * @return Number of leased connections.
+	 */
+	public int getLeased() {
+		return leased;
+	}
+
+	/**
+	 * Get number of idle connections kept alive in the pool.
+	 *
+	 * @return Number of available connections.
+	 */
+	public int getAvailable() {
+		return available;
+	}
+
+	/**
+	 * Get number of requests waiting for a connection.
+	 *
+	 * @return Number of pending requests.
+	 */
+	public int getPending() {
+		return pending;
+	}
+
+	/**
+	 * Get maximum number of connections in the pool.
+	 *
+	 * @return Maximum number of connections.
+	 */
+	public int getMax() {
+		return max;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ConnectionPoolStats) {
+			ConnectionPoolStats s = (ConnectionPoolStats) o;
+			return leased == s.leased
+				&& available == s.available
+				&& pending == s.pending
+				&& max == s.max;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = leased;
+		hash = 31 * hash + available;
+		hash = 31 * hash + pending;
+		hash = 31 * hash + max;
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return format("%s {leased = %s, available = %s, pending = %s, max = %s}",
+			getClass().getSimpleName(), leased, available, pending, max
+		);
+	}
+}
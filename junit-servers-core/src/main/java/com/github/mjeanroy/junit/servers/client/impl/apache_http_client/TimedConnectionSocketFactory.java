@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.apache_http_client;
+
+import com.github.mjeanroy.junit.servers.client.impl.RequestTimingsRecorder;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Socket factory recording connect and TLS handshake durations in
+ * the {@link RequestTimingsRecorder} found in request context.
+ * Secured connections are opened as plain sockets first, then layered
+ * with TLS, so that both phases can be measured separately.
+ */
+class TimedConnectionSocketFactory implements LayeredConnectionSocketFactory {
+
+	/**
+	 * Get recorder of current request.
+	 *
+	 * @param context Request context.
+	 * @return Recorder, null if request timings are not recorded.
+	 */
+	static RequestTimingsRecorder recorder(HttpContext context) {
+		Object recorder = context == null ? null : context.getAttribute(RequestTimingsRecorder.ATTRIBUTE);
+		return recorder instanceof RequestTimingsRecorder ? (RequestTimingsRecorder) recorder : null;
+	}
+
+	/**
+	 * Factory used to open plain sockets.
+	 */
+	private final ConnectionSocketFactory plain;
+
+	/**
+	 * Factory used to layer TLS over plain sockets, null
+	 * for plain connections.
+	 */
+	private final LayeredConnectionSocketFactory tls;
+
+	/**
+	 * Create factory.
+	 *
+	 * @param plain Factory used to open plain sockets.
+	 * @param tls Factory used to layer TLS over plain sockets, may be null.
+	 * @throws NullPointerException if plain is null.
+	 */
+	TimedConnectionSocketFactory(ConnectionSocketFactory plain, LayeredConnectionSocketFactory tls) {
+		this.plain = notNull(plain, "plain");
+		this.tls = tls;
+	}
+
+	@Override
+	public Socket createSocket(HttpContext context) throws IOException {
+		return plain.createSocket(context);
+	}
+
+	@Override
+	public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context) throws IOException {
+		RequestTimingsRecorder recorder = recorder(context);
+		if (recorder != null) {
+			recorder.onConnectStart();
+		}
+
+		Socket connected = plain.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+
+		if (recorder != null) {
+			recorder.onConnectEnd();
+		}
+
+		if (tls == null) {
+			return connected;
+		}
+
+		return createLayeredSocket(connected, host.getHostName(), remoteAddress.getPort(), context);
+	}
+
+	@Override
+	public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+		if (tls == null) {
+			throw new UnsupportedOperationException("TLS is not supported by plain socket factory");
+		}
+
+		Socket layered = tls.createLayeredSocket(socket, target, port, context);
+
+		RequestTimingsRecorder recorder = recorder(context);
+		if (recorder != null) {
+			recorder.onTlsHandshakeEnd();
+		}
+
+		return layered;
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.apache_http_client;
+
+import com.github.mjeanroy.junit.servers.client.impl.RequestTimingsRecorder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+
+import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.TimedConnectionSocketFactory.recorder;
+
+/**
+ * Request executor recording request write and time to first byte
+ * in the {@link RequestTimingsRecorder} found in request context.
+ * Response body is streamed lazily: its download duration is not
+ * recorded here.
+ */
+class TimedHttpRequestExecutor extends HttpRequestExecutor {
+
+	@Override
+	protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context) throws IOException, HttpException {
+		RequestTimingsRecorder recorder = recorder(context);
+		if (recorder != null) {
+			recorder.onWriteStart();
+		}
+
+		HttpResponse response = super.doSendRequest(request, conn, context);
+
+		if (recorder != null) {
+			recorder.onWriteEnd();
+		}
+
+		return response;
+	}
+
+	@Override
+	protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context) throws HttpException, IOException {
+		HttpResponse response = super.doReceiveResponse(request, conn, context);
+
+		// Status line and headers have been read.
+		RequestTimingsRecorder recorder = recorder(context);
+		if (recorder != null) {
+			recorder.onFirstByte();
+		}
+
+		return response;
+	}
+}
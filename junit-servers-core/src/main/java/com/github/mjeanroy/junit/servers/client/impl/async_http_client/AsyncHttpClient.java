@@ -24,11 +24,18 @@
 
 package com.github.mjeanroy.junit.servers.client.impl.async_http_client;
 
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
 import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.ning.http.client.providers.netty.NettyAsyncHttpProviderConfig;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
 
+import static com.github.mjeanroy.junit.servers.client.HttpClientConfiguration.defaultConfiguration;
+import static com.github.mjeanroy.junit.servers.client.impl.async_http_client.SharedNettyResources.newChannelFactory;
+import static com.github.mjeanroy.junit.servers.client.impl.async_http_client.SharedNettyResources.sharedProviderConfig;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
 
 /**
@@ -47,20 +54,91 @@ public class AsyncHttpClient extends AbstractHttpClient {
 	 * @return Http client.
 	 */
 	public static AsyncHttpClient newAsyncHttpClient(EmbeddedServer server, com.ning.http.client.AsyncHttpClient client) {
-		return new AsyncHttpClient(server, client);
+		return new AsyncHttpClient(server, client, null);
+	}
+
+	/**
+	 * Create new http client using internal
+	 * http client from async-http-client library.
+	 * An instance of {com.ning.http.client.AsyncHttpClient} will be
+	 * created using given configuration.
+	 * To share I/O threads with other clients, use provider configuration
+	 * returned by {@link SharedNettyResources#sharedProviderConfig()}.
+	 *
+	 * @param server Embedded server.
+	 * @param config Configuration of async-http-client.
+	 * @return Http client.
+	 * @throws NullPointerException if config is null.
+	 */
+	public static AsyncHttpClient newAsyncHttpClient(EmbeddedServer server, AsyncHttpClientConfig config) {
+		notNull(config, "config");
+		return new AsyncHttpClient(server, new com.ning.http.client.AsyncHttpClient(config), null);
+	}
+
+	/**
+	 * Create new http client using internal
+	 * http client from async-http-client library.
+	 * An instance of {com.ning.http.client.AsyncHttpClient} will be
+	 * created using given configuration.
+	 * Note that validation of inactive connections is not supported by
+	 * async-http-client and is ignored.
+	 * If shared event loop is enabled, I/O threads are shared with
+	 * other clients and number of I/O threads is ignored.
+	 *
+	 * @param server Embedded server.
+	 * @param configuration Http client configuration.
+	 * @return Http client.
+	 * @throws NullPointerException if configuration is null.
+	 */
+	public static AsyncHttpClient newAsyncHttpClient(EmbeddedServer server, HttpClientConfiguration configuration) {
+		notNull(configuration, "configuration");
+
+		AsyncHttpClientConfig.Builder builder = new AsyncHttpClientConfig.Builder()
+				.setMaxConnections(configuration.getMaxTotalConnections())
+				.setMaxConnectionsPerHost(configuration.getMaxConnectionsPerRoute())
+				.setPooledConnectionIdleTimeout(toTimeout(configuration.getKeepAlive()))
+				.setConnectionTTL(toTimeout(configuration.getConnectionTtl()))
+				.setConnectTimeout(toTimeout(configuration.getConnectTimeout()))
+				.setReadTimeout(toTimeout(configuration.getSocketTimeout()))
+				.setRequestTimeout(toTimeout(configuration.getRequestTimeout()))
+				.setCompressionEnforced(configuration.isCompressionEnforced());
+
+		NioClientSocketChannelFactory channelFactory = null;
+		if (configuration.isSharedEventLoop()) {
+			builder.setAsyncHttpClientProviderConfig(sharedProviderConfig());
+		}
+		else if (configuration.getIoThreads() > 0) {
+			channelFactory = newChannelFactory(configuration.getIoThreads());
+			NettyAsyncHttpProviderConfig providerConfig = new NettyAsyncHttpProviderConfig();
+			providerConfig.setSocketChannelFactory(channelFactory);
+			builder.setAsyncHttpClientProviderConfig(providerConfig);
+		}
+
+		return new AsyncHttpClient(server, new com.ning.http.client.AsyncHttpClient(builder.build()), channelFactory);
+	}
+
+	/**
+	 * Translate duration to async-http-client timeout: zero
+	 * is translated to -1 (i.e no timeout).
+	 *
+	 * @param duration Duration in milliseconds.
+	 * @return Timeout value.
+	 */
+	private static int toTimeout(int duration) {
+		return duration > 0 ? duration : -1;
 	}
 
 	/**
 	 * Create new http client using internal
 	 * http client from async-http-client library.
 	 * An instance of {com.ning.http.client.AsyncHttpClient} will be automatically
-	 * created.
+	 * created using default http client configuration.
 	 *
 	 * @param server Embedded server.
 	 * @return Http client.
 	 */
 	public static AsyncHttpClient defaultAsyncHttpClient(EmbeddedServer server) {
-		return new AsyncHttpClient(server, new com.ning.http.client.AsyncHttpClient());
+		return newAsyncHttpClient(server, defaultConfiguration());
 	}
 
 	/**
@@ -69,10 +147,21 @@ public class AsyncHttpClient extends AbstractHttpClient {
 	 */
 	private final com.ning.http.client.AsyncHttpClient client;
 
+	/**
+	 * I/O event loop created for internal client.
+	 * Since it is provided to async-http-client, it is not released when
+	 * internal client is closed and must be released when http client is
+	 * destroyed.
+	 * May be null if async-http-client manages its own event loop, or
+	 * if event loop is shared.
+	 */
+	private final NioClientSocketChannelFactory channelFactory;
+
 	// Use static factory
-	private AsyncHttpClient(EmbeddedServer server, com.ning.http.client.AsyncHttpClient client) {
+	private AsyncHttpClient(EmbeddedServer server, com.ning.http.client.AsyncHttpClient client, NioClientSocketChannelFactory channelFactory) {
 		super(server);
 		this.client = notNull(client, "client");
+		this.channelFactory = channelFactory;
 	}
 
 	@Override
@@ -83,5 +172,9 @@ public class AsyncHttpClient extends AbstractHttpClient {
 	@Override
 	public void destroy() {
 		client.close();
+
+		if (channelFactory != null) {
+			channelFactory.releaseExternalResources();
+		}
 	}
 }
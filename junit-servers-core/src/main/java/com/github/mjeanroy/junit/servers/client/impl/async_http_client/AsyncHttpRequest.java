@@ -28,7 +28,13 @@ import com.github.mjeanroy.junit.servers.client.Cookie;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseFuture;
+import com.github.mjeanroy.junit.servers.client.RequestBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.BytesBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.FileBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StringBody;
 import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpRequest;
+import com.github.mjeanroy.junit.servers.client.impl.DefaultHttpResponseFuture;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
@@ -36,7 +42,6 @@ import com.ning.http.client.Response;
 
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
-import static java.lang.System.nanoTime;
 
 /**
  * Implementation for {HttpRequest} that use async-http-client
@@ -45,6 +50,11 @@ import static java.lang.System.nanoTime;
  */
 public class AsyncHttpRequest extends AbstractHttpRequest {
 
+	/**
+	 * Charset used to encode string bodies.
+	 */
+	private static final String UTF_8 = "UTF-8";
+
 	/**
 	 * Original http client.
 	 * It will be used to execute http request.
@@ -104,8 +114,24 @@ public class AsyncHttpRequest extends AbstractHttpRequest {
 	}
 
 	@Override
-	protected HttpRequest applyBody(String body) {
-		builder.setBody(body);
+	protected HttpRequest applyBody(RequestBody body) {
+		if (body instanceof StringBody) {
+			// async-http-client encodes string bodies with ISO-8859-1 by default
+			builder.setBody(((StringBody) body).getValue());
+			builder.setBodyEncoding(UTF_8);
+		}
+		else if (body instanceof BytesBody) {
+			builder.setBody(((BytesBody) body).getBytes());
+		}
+		else if (body instanceof FileBody && ((FileBody) body).isDefaultFileSystem()) {
+			// File is sent using zero-copy transfer when possible
+			builder.setBody(((FileBody) body).getPath().toFile());
+		}
+		else {
+			// Stream is sent with its length when it is known, using chunked transfer encoding otherwise
+			builder.setBody(new RequestBodyGenerator(body));
+		}
+
 		return this;
 	}
 
@@ -131,8 +157,31 @@ public class AsyncHttpRequest extends AbstractHttpRequest {
 	protected HttpResponse doExecute() throws Exception {
 		Request request = builder.build();
 
-		long start = nanoTime();
-		Response response = client.executeRequest(request).get();
-		return new AsyncHttpResponse(response, nanoTime() - start);
+		TimedCompletionHandler handler = new TimedCompletionHandler();
+		Response response = client.executeRequest(request, handler).get();
+		return new AsyncHttpResponse(response, handler.getTimings());
+	}
+
+	@Override
+	protected HttpResponseFuture doExecuteAsync() throws Exception {
+		Request request = builder.build();
+
+		final DefaultHttpResponseFuture future = new DefaultHttpResponseFuture();
+
+		future.bind(client.executeRequest(request, new TimedCompletionHandler() {
+			@Override
+			public Response onCompleted(Response response) throws Exception {
+				super.onCompleted(response);
+				future.complete(new AsyncHttpResponse(response, getTimings()));
+				return response;
+			}
+
+			@Override
+			public void onThrowable(Throwable t) {
+				future.fail(t);
+			}
+		}));
+
+		return future;
 	}
 }
@@ -24,17 +24,18 @@
 
 package com.github.mjeanroy.junit.servers.client.impl.async_http_client;
 
-import com.github.mjeanroy.junit.servers.client.HttpHeader;
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
 import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpResponse;
 import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
 import com.ning.http.client.Response;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
-import static com.github.mjeanroy.junit.servers.client.HttpHeader.header;
-import static com.github.mjeanroy.junit.servers.commons.CollectionUtils.isEmpty;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
 
 /**
@@ -50,11 +51,11 @@ public class AsyncHttpResponse extends AbstractHttpResponse {
 	private final Response response;
 
 	/**
-	 * Request execution duration in nano seconds.
-	 * This is the time to produce http response.
-	 * The value must be strictly positive.
+	 * Request timings, recorded while request was executed.
+	 * Total duration is the time to produce http response and
+	 * will always be a positive number.
 	 */
-	private final long duration;
+	private final RequestTimings timings;
 
 	/**
 	 * Create http response.
@@ -65,13 +66,29 @@ public class AsyncHttpResponse extends AbstractHttpResponse {
 	 * @throws IllegalArgumentException if duration is not positive.
 	 */
 	AsyncHttpResponse(Response response, long duration) {
+		this(response, timings(positive(duration, "duration")));
+	}
+
+	/**
+	 * Create http response.
+	 *
+	 * @param response Original http response from async-http-client.
+	 * @param timings Request timings.
+	 * @throws NullPointerException if response or timings is null.
+	 */
+	AsyncHttpResponse(Response response, RequestTimings timings) {
 		this.response = notNull(response, "response");
-		this.duration = positive(duration, "duration");
+		this.timings = notNull(timings, "timings");
 	}
 
 	@Override
 	public long getRequestDuration() {
-		return duration;
+		return timings.getTotalDuration();
+	}
+
+	@Override
+	protected RequestTimings readTimings() {
+		return timings;
 	}
 
 	@Override
@@ -80,9 +97,14 @@ public class AsyncHttpResponse extends AbstractHttpResponse {
 	}
 
 	@Override
-	public String body() {
+	protected InputStream openBodyStream() throws IOException {
+		return response.getResponseBodyAsStream();
+	}
+
+	@Override
+	protected byte[] readBodyAsBytes() {
 		try {
-			return response.getResponseBody();
+			return response.getResponseBodyAsBytes();
 		}
 		catch (IOException ex) {
 			throw new HttpClientException(ex);
@@ -90,12 +112,7 @@ public class AsyncHttpResponse extends AbstractHttpResponse {
 	}
 
 	@Override
-	public HttpHeader getHeader(String name) {
-		List<String> headers = response.getHeaders(name);
-		if (isEmpty(headers)) {
-			return null;
-		}
-
-		return header(name, headers);
+	protected Map<String, List<String>> readHeaders() {
+		return response.getHeaders();
 	}
 }
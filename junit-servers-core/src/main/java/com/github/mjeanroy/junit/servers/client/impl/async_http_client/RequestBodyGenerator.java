@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.async_http_client;
+
+import com.github.mjeanroy.junit.servers.client.RequestBody;
+import com.ning.http.client.Body;
+import com.ning.http.client.BodyGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Body generator streaming a {@link RequestBody}: body is sent with
+ * its content length when it is known, with chunked transfer
+ * encoding otherwise.
+ */
+class RequestBodyGenerator implements BodyGenerator {
+
+	/**
+	 * Request body.
+	 */
+	private final RequestBody body;
+
+	RequestBodyGenerator(RequestBody body) {
+		this.body = body;
+	}
+
+	/**
+	 * Get request body.
+	 *
+	 * @return Request body.
+	 */
+	RequestBody getBody() {
+		return body;
+	}
+
+	@Override
+	public Body createBody() throws IOException {
+		final long length = body.getContentLength();
+		final ReadableByteChannel channel = Channels.newChannel(body.openStream());
+		return new Body() {
+			@Override
+			public long getContentLength() {
+				return length;
+			}
+
+			@Override
+			public long read(ByteBuffer buffer) throws IOException {
+				return channel.read(buffer);
+			}
+
+			@Override
+			public void close() throws IOException {
+				channel.close();
+			}
+		};
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.async_http_client;
+
+import com.ning.http.client.providers.netty.NettyAsyncHttpProviderConfig;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.jboss.netty.util.Timer;
+
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
+/**
+ * Netty resources (I/O event loop and timer) shared by all
+ * async-http-client instances of the JVM that use them.
+ * Resources are created on first use, and use daemon threads, so they
+ * never need to be released.
+ */
+public final class SharedNettyResources {
+
+	// Ensure non instantiation
+	private SharedNettyResources() {
+	}
+
+	/**
+	 * Create new provider configuration using shared event loop and timer.
+	 * Since these resources are provided, async-http-client instances
+	 * will not release them when they are closed.
+	 *
+	 * @return Provider configuration.
+	 */
+	public static NettyAsyncHttpProviderConfig sharedProviderConfig() {
+		NettyAsyncHttpProviderConfig providerConfig = new NettyAsyncHttpProviderConfig();
+		providerConfig.setSocketChannelFactory(Holder.CHANNEL_FACTORY);
+		providerConfig.setNettyTimer(Holder.TIMER);
+		return providerConfig;
+	}
+
+	/**
+	 * Create new socket channel factory, this factory must be released
+	 * by caller once it is not used anymore.
+	 *
+	 * @param ioThreads Number of I/O threads.
+	 * @return Socket channel factory.
+	 */
+	static NioClientSocketChannelFactory newChannelFactory(int ioThreads) {
+		return new NioClientSocketChannelFactory(
+				newCachedThreadPool(daemonThreadFactory("async-http-client-boss")),
+				newCachedThreadPool(daemonThreadFactory("async-http-client-io")),
+				1,
+				ioThreads
+		);
+	}
+
+	/**
+	 * Lazy holder of shared resources.
+	 */
+	private static class Holder {
+		private static final NioClientSocketChannelFactory CHANNEL_FACTORY = newChannelFactory(Runtime.getRuntime().availableProcessors() * 2);
+		private static final Timer TIMER = new HashedWheelTimer(daemonThreadFactory("async-http-client-timer"));
+	}
+}
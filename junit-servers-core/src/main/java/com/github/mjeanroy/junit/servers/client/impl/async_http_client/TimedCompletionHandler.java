@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.async_http_client;
+
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
+import com.github.mjeanroy.junit.servers.client.impl.RequestTimingsRecorder;
+import com.ning.http.client.AsyncCompletionHandler;
+import com.ning.http.client.AsyncHandlerExtensions;
+import com.ning.http.client.HttpResponseStatus;
+import com.ning.http.client.Response;
+
+/**
+ * Completion handler recording timings of request execution, using
+ * connection and progress callbacks of async-http-client.
+ * Recording starts when handler is created.
+ */
+class TimedCompletionHandler extends AsyncCompletionHandler<Response> implements AsyncHandlerExtensions {
+
+	/**
+	 * Recorder of request events.
+	 */
+	private final RequestTimingsRecorder recorder = new RequestTimingsRecorder();
+
+	/**
+	 * Get timings recorded so far.
+	 *
+	 * @return Request timings.
+	 */
+	RequestTimings getTimings() {
+		return recorder.toTimings();
+	}
+
+	@Override
+	public void onOpenConnection() {
+		recorder.onConnectStart();
+	}
+
+	@Override
+	public void onConnectionOpen() {
+		recorder.onConnectEnd();
+	}
+
+	@Override
+	public void onSslHandshakeCompleted() {
+		recorder.onTlsHandshakeEnd();
+	}
+
+	@Override
+	public void onSendRequest(Object request) {
+		recorder.onWriteStart();
+	}
+
+	@Override
+	public STATE onHeaderWriteCompleted() {
+		recorder.onWriteEnd();
+		return super.onHeaderWriteCompleted();
+	}
+
+	@Override
+	public STATE onContentWriteCompleted() {
+		recorder.onWriteEnd();
+		return super.onContentWriteCompleted();
+	}
+
+	@Override
+	public STATE onStatusReceived(HttpResponseStatus status) throws Exception {
+		recorder.onFirstByte();
+		return super.onStatusReceived(status);
+	}
+
+	@Override
+	public Response onCompleted(Response response) throws Exception {
+		recorder.onEnd();
+		return response;
+	}
+
+	@Override
+	public void onPoolConnection() {
+	}
+
+	@Override
+	public void onConnectionPooled() {
+	}
+
+	@Override
+	public void onRetry() {
+	}
+
+	@Override
+	public void onDnsResolved() {
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpClient;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.github.mjeanroy.junit.servers.servers.InProcessDispatcher;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Http client implementation that does not use any network
+ * connection: requests are handed directly to the embedded
+ * container.
+ * Embedded server must implement {@link InProcessDispatcher}.
+ */
+public class InProcessHttpClient extends AbstractHttpClient {
+
+	/**
+	 * Create new http client using given dispatcher to
+	 * send requests to embedded server.
+	 *
+	 * @param server Embedded server.
+	 * @param dispatcher Dispatcher.
+	 * @return Http client.
+	 * @throws NullPointerException if server or dispatcher is null.
+	 */
+	public static InProcessHttpClient newInProcessHttpClient(EmbeddedServer server, InProcessDispatcher dispatcher) {
+		return new InProcessHttpClient(server, dispatcher);
+	}
+
+	/**
+	 * Create new http client that will send requests directly
+	 * to given embedded server.
+	 *
+	 * @param server Embedded server.
+	 * @return Http client.
+	 * @throws NullPointerException if server is null.
+	 * @throws UnsupportedOperationException if server does not support in-process dispatching.
+	 */
+	public static InProcessHttpClient defaultInProcessHttpClient(EmbeddedServer server) {
+		notNull(server, "server");
+		if (!(server instanceof InProcessDispatcher)) {
+			throw new UnsupportedOperationException("Embedded server " + server.getClass().getName() + " does not support in-process requests");
+		}
+
+		return new InProcessHttpClient(server, (InProcessDispatcher) server);
+	}
+
+	/**
+	 * Dispatcher used to send requests.
+	 */
+	private final InProcessDispatcher dispatcher;
+
+	// Use static factory
+	private InProcessHttpClient(EmbeddedServer server, InProcessDispatcher dispatcher) {
+		super(server);
+		this.dispatcher = notNull(dispatcher, "dispatcher");
+	}
+
+	@Override
+	protected HttpRequest buildRequest(HttpMethod httpMethod, String url) {
+		return new InProcessHttpRequest(dispatcher, httpMethod, url);
+	}
+
+	@Override
+	public void destroy() {
+		// No resources to release.
+	}
+}
@@ -0,0 +1,318 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.RequestBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.BytesBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StringBody;
+import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpRequest;
+import com.github.mjeanroy.junit.servers.servers.InProcessDispatcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CLOSE;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONNECTION;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_LENGTH;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.COOKIE;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.HOST;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.System.nanoTime;
+
+/**
+ * Implementation for {HttpRequest} that serializes request
+ * as a raw HTTP/1.1 message and hands it directly to the
+ * embedded container.
+ */
+public class InProcessHttpRequest extends AbstractHttpRequest {
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String CRLF = "\r\n";
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Dispatcher used to execute request.
+	 */
+	private final InProcessDispatcher dispatcher;
+
+	/**
+	 * Http request method (i.e GET, POST,
+	 * PUT, DELETE).
+	 */
+	private final HttpMethod httpMethod;
+
+	/**
+	 * Http request url.
+	 */
+	private final String url;
+
+	/**
+	 * Map of query parameters.
+	 */
+	private final Map<String, String> queryParams;
+
+	/**
+	 * Map of form parameters.
+	 */
+	private final Map<String, String> formParams;
+
+	/**
+	 * Map of headers.
+	 */
+	private final Map<String, String> headers;
+
+	/**
+	 * List of cookies.
+	 */
+	private final List<Cookie> cookies;
+
+	/**
+	 * Request body.
+	 */
+	private RequestBody body;
+
+	/**
+	 * Create in-process http request.
+	 *
+	 * @param dispatcher Dispatcher.
+	 * @param httpMethod Http method.
+	 * @param url Http request url.
+	 */
+	InProcessHttpRequest(InProcessDispatcher dispatcher, HttpMethod httpMethod, String url) {
+		this.dispatcher = notNull(dispatcher, "dispatcher");
+		this.httpMethod = notNull(httpMethod, "httpMethod");
+		this.url = notBlank(url, "url");
+		this.queryParams = new LinkedHashMap<>();
+		this.formParams = new LinkedHashMap<>();
+		this.headers = new LinkedHashMap<>();
+		this.cookies = new LinkedList<>();
+	}
+
+	@Override
+	public HttpMethod getMethod() {
+		return httpMethod;
+	}
+
+	@Override
+	public HttpRequest addHeader(String name, String value) {
+		headers.put(
+				notBlank(name, "name"),
+				notBlank(value, "value")
+		);
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyQueryParam(String name, String value) {
+		queryParams.put(name, value);
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyFormParameter(String name, String value) {
+		formParams.put(name, value);
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyBody(RequestBody body) {
+		this.body = body;
+		return this;
+	}
+
+	@Override
+	protected HttpRequest applyCookie(Cookie cookie) {
+		cookies.add(cookie);
+		return this;
+	}
+
+	@Override
+	protected HttpResponse doExecute() throws Exception {
+		ByteBuffer request = createRawRequest();
+
+		long start = nanoTime();
+		ByteBuffer response = dispatcher.dispatch(request);
+		long duration = nanoTime() - start;
+
+		return new InProcessHttpResponse(RawHttpResponse.parse(response), duration);
+	}
+
+	/**
+	 * Serialize request as a raw HTTP/1.1 message.
+	 * Connection is always closed once request has been processed, so
+	 * that dispatcher does not wait for a next request.
+	 *
+	 * @return Raw http request.
+	 * @throws Exception If request URI is not valid.
+	 */
+	private ByteBuffer createRawRequest() throws Exception {
+		URI uri = new URI(url);
+		byte[] payload = createPayload();
+
+		StringBuilder head = new StringBuilder();
+		head.append(httpMethod.getVerb()).append(' ').append(createRequestTarget(uri)).append(" HTTP/1.1").append(CRLF);
+		appendHeader(head, HOST, uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost());
+
+		for (Map.Entry<String, String> h : headers.entrySet()) {
+			appendHeader(head, h.getKey(), h.getValue());
+		}
+
+		if (!cookies.isEmpty()) {
+			appendHeader(head, COOKIE, createCookieHeader());
+		}
+
+		if (payload != null) {
+			appendHeader(head, CONTENT_LENGTH, String.valueOf(payload.length));
+		}
+
+		appendHeader(head, CONNECTION, CLOSE);
+		head.append(CRLF);
+
+		byte[] headBytes = head.toString().getBytes(UTF_8);
+		int size = headBytes.length + (payload == null ? 0 : payload.length);
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.put(headBytes);
+		if (payload != null) {
+			buffer.put(payload);
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Create request target (i.e path and query string).
+	 * Each additional query parameters will be appended to the query
+	 * string of the original url.
+	 *
+	 * @param uri Request URI.
+	 * @return Request target.
+	 * @throws UnsupportedEncodingException
+	 */
+	private String createRequestTarget(URI uri) throws UnsupportedEncodingException {
+		String path = uri.getRawPath();
+
+		StringBuilder target = new StringBuilder(path == null || path.isEmpty() ? "/" : path);
+		String query = uri.getRawQuery();
+		boolean hasQuery = query != null && !query.isEmpty();
+		if (hasQuery) {
+			target.append('?').append(query);
+		}
+
+		if (!queryParams.isEmpty()) {
+			target.append(hasQuery ? '&' : '?').append(encode(queryParams));
+		}
+
+		return target.toString();
+	}
+
+	/**
+	 * Create request payload: form parameters are sent as form url encoded
+	 * content, otherwise request body is used (if any).
+	 * Since raw request is dispatched at once, streamed bodies are
+	 * entirely read here.
+	 *
+	 * @return Request payload, null if request does not have any body.
+	 * @throws IOException If request body cannot be read.
+	 */
+	private byte[] createPayload() throws IOException {
+		if (!httpMethod.isBodyAllowed()) {
+			return null;
+		}
+
+		if (!formParams.isEmpty()) {
+			return encode(formParams).getBytes(ASCII);
+		}
+
+		if (body == null) {
+			return null;
+		}
+
+		if (body instanceof StringBody) {
+			return ((StringBody) body).getValue().getBytes(UTF_8);
+		}
+
+		if (body instanceof BytesBody) {
+			return ((BytesBody) body).getBytes();
+		}
+
+		try (InputStream stream = body.openStream()) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int n;
+			while ((n = stream.read(buffer)) != -1) {
+				output.write(buffer, 0, n);
+			}
+
+			return output.toByteArray();
+		}
+	}
+
+	private String createCookieHeader() {
+		StringBuilder builder = new StringBuilder();
+		for (Cookie cookie : cookies) {
+			if (builder.length() > 0) {
+				builder.append("; ");
+			}
+			builder.append(cookie.toHeaderValue());
+		}
+		return builder.toString();
+	}
+
+	private static String encode(Map<String, String> parameters) throws UnsupportedEncodingException {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<String, String> p : parameters.entrySet()) {
+			if (builder.length() > 0) {
+				builder.append('&');
+			}
+
+			builder.append(URLEncoder.encode(p.getKey(), UTF_8.name()))
+					.append('=')
+					.append(URLEncoder.encode(p.getValue(), UTF_8.name()));
+		}
+		return builder.toString();
+	}
+
+	private static void appendHeader(StringBuilder builder, String name, String value) {
+		builder.append(name).append(": ").append(value).append(CRLF);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
+import com.github.mjeanroy.junit.servers.client.impl.AbstractHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+
+/**
+ * Implementation of {HttpResponse} for responses produced
+ * by in-process dispatching.
+ */
+public class InProcessHttpResponse extends AbstractHttpResponse {
+
+	/**
+	 * Response parsed from raw bytes produced by the container.
+	 */
+	private final RawHttpResponse response;
+
+	/**
+	 * Request execution duration in nano seconds.
+	 * This is the time spent by the container to produce
+	 * http response.
+	 */
+	private final long duration;
+
+	/**
+	 * Create http response.
+	 *
+	 * @param response Parsed http response.
+	 * @param duration Duration of request execution.
+	 * @throws NullPointerException if response is null.
+	 * @throws IllegalArgumentException if duration is not positive.
+	 */
+	InProcessHttpResponse(RawHttpResponse response, long duration) {
+		this.response = notNull(response, "response");
+		this.duration = positive(duration, "duration");
+	}
+
+	@Override
+	public long getRequestDuration() {
+		return duration;
+	}
+
+	/**
+	 * Request is dispatched in-process: there is no connection and
+	 * nothing is written to the network, so only total duration is known.
+	 *
+	 * @return Request timings.
+	 */
+	@Override
+	protected RequestTimings readTimings() {
+		return timings(duration);
+	}
+
+	@Override
+	public int status() {
+		return response.getStatus();
+	}
+
+	@Override
+	protected InputStream openBodyStream() {
+		return new ByteArrayInputStream(response.getBody());
+	}
+
+	@Override
+	protected Map<String, List<String>> readHeaders() {
+		return response.getHeaders();
+	}
+}
@@ -0,0 +1,295 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CHUNKED;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_LENGTH;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.CONTENT_TYPE;
+import static com.github.mjeanroy.junit.servers.client.HttpHeaders.TRANSFER_ENCODING;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+
+/**
+ * Http response read from raw bytes returned by
+ * an {@link com.github.mjeanroy.junit.servers.servers.InProcessDispatcher}.
+ *
+ * Parser supports responses with a fixed content length,
+ * chunked responses and responses delimited by connection close.
+ *
+ * Dispatchers return output written so far when they time out: a response
+ * whose body is shorter than its content length, or a chunked response without
+ * last chunk, is rejected instead of being returned as a shorter response.
+ */
+class RawHttpResponse {
+
+	/**
+	 * Default charset, as defined by HTTP/1.1 specification.
+	 */
+	private static final Charset DEFAULT_CHARSET = Charset.forName("ISO-8859-1");
+
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	/**
+	 * Parse raw http response.
+	 *
+	 * @param buffer Raw bytes.
+	 * @return Http response.
+	 * @throws NullPointerException if buffer is null.
+	 * @throws IllegalArgumentException if buffer is not a valid http response.
+	 * @throws HttpClientException if buffer is empty or if response is truncated.
+	 */
+	static RawHttpResponse parse(ByteBuffer buffer) {
+		notNull(buffer, "buffer");
+		if (!buffer.hasRemaining()) {
+			throw new HttpClientException("Server did not write any response before in-process dispatch timed out");
+		}
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+
+		// Status line
+		int position = 0;
+		int eol = indexOfLineEnd(bytes, position);
+		if (eol < 0) {
+			throw new IllegalArgumentException("Http response must contain a status line");
+		}
+
+		int status = parseStatus(new String(bytes, position, eol - position, DEFAULT_CHARSET));
+		position = nextLine(bytes, eol);
+
+		// Headers, until an empty line is found
+		Map<String, List<String>> headers = new TreeMap<>(CASE_INSENSITIVE_ORDER);
+		while (true) {
+			eol = indexOfLineEnd(bytes, position);
+			if (eol < 0) {
+				throw new IllegalArgumentException("Http response headers must be terminated by an empty line");
+			}
+
+			if (eol == position) {
+				position = nextLine(bytes, eol);
+				break;
+			}
+
+			String line = new String(bytes, position, eol - position, DEFAULT_CHARSET);
+			int separator = line.indexOf(':');
+			if (separator > 0) {
+				String name = line.substring(0, separator).trim();
+				String value = line.substring(separator + 1).trim();
+
+				List<String> values = headers.get(name);
+				if (values == null) {
+					values = new ArrayList<>(1);
+					headers.put(name, values);
+				}
+
+				values.add(value);
+			}
+
+			position = nextLine(bytes, eol);
+		}
+
+		return new RawHttpResponse(status, headers, readBody(bytes, position, headers));
+	}
+
+	private static byte[] readBody(byte[] bytes, int position, Map<String, List<String>> headers) {
+		List<String> transferEncoding = headers.get(TRANSFER_ENCODING);
+		if (transferEncoding != null && transferEncoding.get(transferEncoding.size() - 1).equalsIgnoreCase(CHUNKED)) {
+			return readChunkedBody(bytes, position);
+		}
+
+		int length = bytes.length - position;
+
+		List<String> contentLength = headers.get(CONTENT_LENGTH);
+		if (contentLength != null) {
+			int expected = Integer.parseInt(contentLength.get(0));
+			if (expected > length) {
+				throw new HttpClientException("Http response body is truncated: expected " + expected + " bytes, got " + length);
+			}
+
+			length = expected;
+		}
+
+		byte[] body = new byte[length];
+		System.arraycopy(bytes, position, body, 0, length);
+		return body;
+	}
+
+	private static byte[] readChunkedBody(byte[] bytes, int position) {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		int current = position;
+		while (true) {
+			int eol = indexOfLineEnd(bytes, current);
+			if (eol < 0) {
+				throw new HttpClientException("Chunked http response body is truncated: last chunk is missing");
+			}
+
+			// Chunk size may be followed by chunk extensions
+			String sizeLine = new String(bytes, current, eol - current, DEFAULT_CHARSET);
+			int extension = sizeLine.indexOf(';');
+			if (extension >= 0) {
+				sizeLine = sizeLine.substring(0, extension);
+			}
+
+			int size = Integer.parseInt(sizeLine.trim(), 16);
+			if (size == 0) {
+				// Last chunk, ignore trailers
+				break;
+			}
+
+			int start = nextLine(bytes, eol);
+			if (size > bytes.length - start) {
+				throw new HttpClientException("Chunked http response body is truncated: expected chunk of " + size + " bytes, got " + Math.max(bytes.length - start, 0));
+			}
+
+			body.write(bytes, start, size);
+			current = nextLine(bytes, start + size);
+		}
+
+		return body.toByteArray();
+	}
+
+	private static int parseStatus(String statusLine) {
+		// Status line is: HTTP-Version SP Status-Code SP Reason-Phrase
+		String[] parts = statusLine.split(" ", 3);
+		if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+			throw new IllegalArgumentException("Http response status line is not valid: " + statusLine);
+		}
+
+		return Integer.parseInt(parts[1]);
+	}
+
+	private static int indexOfLineEnd(byte[] bytes, int from) {
+		for (int i = from; i < bytes.length; i++) {
+			if (bytes[i] == LF) {
+				return i > from && bytes[i - 1] == CR ? i - 1 : i;
+			}
+		}
+		return -1;
+	}
+
+	private static int nextLine(byte[] bytes, int eol) {
+		return eol < bytes.length && bytes[eol] == CR ? eol + 2 : eol + 1;
+	}
+
+	/**
+	 * Http status code.
+	 */
+	private final int status;
+
+	/**
+	 * Http headers, indexed by case insensitive name.
+	 */
+	private final Map<String, List<String>> headers;
+
+	/**
+	 * Decoded response body (i.e without transfer encoding).
+	 */
+	private final byte[] body;
+
+	// Use static factory
+	private RawHttpResponse(int status, Map<String, List<String>> headers, byte[] body) {
+		this.status = status;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	/**
+	 * Get http status code.
+	 *
+	 * @return Status code.
+	 */
+	int getStatus() {
+		return status;
+	}
+
+	/**
+	 * Get values of given header, header name is case insensitive.
+	 *
+	 * @param name Header name.
+	 * @return Header values, empty list if header is not in response.
+	 */
+	List<String> getHeaders(String name) {
+		List<String> values = headers.get(name);
+		return values == null ? Collections.<String>emptyList() : Collections.unmodifiableList(values);
+	}
+
+	/**
+	 * Get all headers, indexed by case insensitive name.
+	 *
+	 * @return Headers.
+	 */
+	Map<String, List<String>> getHeaders() {
+		return Collections.unmodifiableMap(headers);
+	}
+
+	/**
+	 * Get response body as raw bytes.
+	 *
+	 * @return Response body.
+	 */
+	byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * Get response body decoded with charset found in
+	 * "Content-Type" header (ISO-8859-1 is used by default).
+	 *
+	 * @return Response body.
+	 */
+	String getBodyAsString() {
+		return new String(body, getCharset());
+	}
+
+	private Charset getCharset() {
+		List<String> contentType = getHeaders(CONTENT_TYPE);
+		if (!contentType.isEmpty()) {
+			for (String param : contentType.get(0).split(";")) {
+				String p = param.trim();
+				if (p.regionMatches(true, 0, "charset=", 0, 8)) {
+					String charset = p.substring(8).replace("\"", "").trim();
+					if (Charset.isSupported(charset)) {
+						return Charset.forName(charset);
+					}
+				}
+			}
+		}
+
+		return DEFAULT_CHARSET;
+	}
+}
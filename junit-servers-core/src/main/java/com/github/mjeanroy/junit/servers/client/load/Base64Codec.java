@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+/**
+ * Base64 encoding (RFC 4648, with padding), used to write
+ * histograms in text logs.
+ */
+final class Base64Codec {
+
+	/**
+	 * Base64 alphabet.
+	 */
+	private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+	/**
+	 * Index of ASCII characters in alphabet, -1 for
+	 * characters outside of alphabet.
+	 */
+	private static final int[] INDEXES = new int[128];
+
+	static {
+		for (int i = 0; i < INDEXES.length; i++) {
+			INDEXES[i] = -1;
+		}
+
+		for (int i = 0; i < ALPHABET.length; i++) {
+			INDEXES[ALPHABET[i]] = i;
+		}
+	}
+
+	// Ensure non instantiation.
+	private Base64Codec() {
+	}
+
+	/**
+	 * Encode bytes.
+	 *
+	 * @param bytes Bytes.
+	 * @return Base64 string.
+	 */
+	static String encode(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(((bytes.length + 2) / 3) * 4);
+		for (int i = 0; i < bytes.length; i += 3) {
+			int remaining = bytes.length - i;
+			int b = (bytes[i] & 0xFF) << 16;
+			if (remaining > 1) {
+				b |= (bytes[i + 1] & 0xFF) << 8;
+			}
+			if (remaining > 2) {
+				b |= bytes[i + 2] & 0xFF;
+			}
+
+			sb.append(ALPHABET[(b >> 18) & 0x3F]);
+			sb.append(ALPHABET[(b >> 12) & 0x3F]);
+			sb.append(remaining > 1 ? ALPHABET[(b >> 6) & 0x3F] : '=');
+			sb.append(remaining > 2 ? ALPHABET[b & 0x3F] : '=');
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Decode base64 string.
+	 *
+	 * @param value Base64 string.
+	 * @return Decoded bytes.
+	 * @throws IllegalArgumentException if value is not a valid base64 string.
+	 */
+	static byte[] decode(String value) {
+		String s = value.trim();
+		if (s.length() % 4 != 0) {
+			throw new IllegalArgumentException("Invalid base64 string: " + value);
+		}
+
+		int padding = s.endsWith("==") ? 2 : (s.endsWith("=") ? 1 : 0);
+		byte[] bytes = new byte[s.length() / 4 * 3 - padding];
+
+		int j = 0;
+		for (int i = 0; i < s.length(); i += 4) {
+			int b = 0;
+			for (int k = 0; k < 4; k++) {
+				char c = s.charAt(i + k);
+				int index = c == '=' ? 0 : (c < 128 ? INDEXES[c] : -1);
+				if (index < 0) {
+					throw new IllegalArgumentException("Invalid base64 string: " + value);
+				}
+
+				b = (b << 6) | index;
+			}
+
+			for (int k = 2; k >= 0 && j < bytes.length; k--) {
+				bytes[j++] = (byte) (b >> (8 * k));
+			}
+		}
+
+		return bytes;
+	}
+}
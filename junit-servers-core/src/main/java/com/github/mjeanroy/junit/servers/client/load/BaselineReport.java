@@ -0,0 +1,212 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Locale.ROOT;
+
+/**
+ * Comparison of the measurements of a test run with their baseline,
+ * computed by {@link BaselineStore}.
+ */
+public final class BaselineReport {
+
+	/**
+	 * Create report.
+	 *
+	 * @param testId Test identifier.
+	 * @param comparisons Comparison of each measurement.
+	 * @return Report.
+	 */
+	static BaselineReport baselineReport(String testId, List<Comparison> comparisons) {
+		return new BaselineReport(testId, comparisons);
+	}
+
+	/**
+	 * Test identifier.
+	 */
+	private final String testId;
+
+	/**
+	 * Comparison of each measurement.
+	 */
+	private final List<Comparison> comparisons;
+
+	// Use static factory
+	private BaselineReport(String testId, List<Comparison> comparisons) {
+		this.testId = testId;
+		this.comparisons = unmodifiableList(new ArrayList<>(comparisons));
+	}
+
+	/**
+	 * Get test identifier.
+	 *
+	 * @return Test identifier.
+	 */
+	public String getTestId() {
+		return testId;
+	}
+
+	/**
+	 * Get comparison of each measurement.
+	 *
+	 * @return Comparisons.
+	 */
+	public List<Comparison> getComparisons() {
+		return comparisons;
+	}
+
+	/**
+	 * Get comparisons of regressed measurements.
+	 *
+	 * @return Regressions.
+	 */
+	public List<Comparison> getRegressions() {
+		List<Comparison> regressions = new ArrayList<>();
+		for (Comparison comparison : comparisons) {
+			if (comparison.isRegression()) {
+				regressions.add(comparison);
+			}
+		}
+
+		return regressions;
+	}
+
+	/**
+	 * Check if at least one measurement regressed.
+	 *
+	 * @return True if a measurement regressed, false otherwise.
+	 */
+	public boolean hasRegressions() {
+		return !getRegressions().isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Performance baseline of ").append(testId);
+		sb.append(format(ROOT, "%n%-24s %12s %12s %12s %8s %s", "Measurement", "Value", "Baseline", "StdDev", "Samples", ""));
+		for (Comparison comparison : comparisons) {
+			sb.append(format(ROOT, "%n%-24s %12.3f %12.3f %12.3f %8d %s",
+				comparison.getMeasurement().getName(),
+				comparison.getMeasurement().getValue(),
+				comparison.getBaseline(),
+				comparison.getStandardDeviation(),
+				comparison.getSamples(),
+				comparison.isRegression() ? "REGRESSION" : ""
+			));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Comparison of a measurement with its baseline.
+	 */
+	public static final class Comparison {
+
+		/**
+		 * Measurement.
+		 */
+		private final Measurement measurement;
+
+		/**
+		 * Baseline: mean of previous values.
+		 */
+		private final double baseline;
+
+		/**
+		 * Standard deviation of previous values.
+		 */
+		private final double standardDeviation;
+
+		/**
+		 * Number of previous values.
+		 */
+		private final int samples;
+
+		/**
+		 * Regression flag.
+		 */
+		private final boolean regression;
+
+		Comparison(Measurement measurement, double baseline, double standardDeviation, int samples, boolean regression) {
+			this.measurement = measurement;
+			this.baseline = baseline;
+			this.standardDeviation = standardDeviation;
+			this.samples = samples;
+			this.regression = regression;
+		}
+
+		/**
+		 * Get measurement of current run.
+		 *
+		 * @return Measurement.
+		 */
+		public Measurement getMeasurement() {
+			return measurement;
+		}
+
+		/**
+		 * Get baseline value, i.e mean value of previous runs.
+		 *
+		 * @return Baseline, {@link Double#NaN} if there is no previous run.
+		 */
+		public double getBaseline() {
+			return baseline;
+		}
+
+		/**
+		 * Get standard deviation of previous runs.
+		 *
+		 * @return Standard deviation, {@link Double#NaN} if there is no previous run.
+		 */
+		public double getStandardDeviation() {
+			return standardDeviation;
+		}
+
+		/**
+		 * Get number of previous runs used to compute baseline.
+		 *
+		 * @return Number of runs.
+		 */
+		public int getSamples() {
+			return samples;
+		}
+
+		/**
+		 * Check if measurement regressed compared to baseline.
+		 *
+		 * @return True if measurement regressed, false otherwise.
+		 */
+		public boolean isRegression() {
+			return regression;
+		}
+	}
+}
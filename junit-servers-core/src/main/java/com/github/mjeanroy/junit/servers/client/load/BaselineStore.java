@@ -0,0 +1,510 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+import org.junit.runner.Description;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.client.load.BaselineReport.baselineReport;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+
+/**
+ * File-based history of performance measurements, used as a regression gate
+ * across builds.
+ *
+ * Measurements of each test are appended to a CSV file (named after the test
+ * identifier, characters other than letters, digits, dots and dashes being
+ * escaped) in a configured directory. Each new run is compared to a rolling
+ * baseline, made of the last runs: a measurement regresses when it is worse
+ * than the baseline mean by more than a relative threshold <strong>and</strong>
+ * by more than a number of standard deviations (so that noisy measurements do
+ * not fail builds). Regressions either fail the test with an {@link AssertionError},
+ * or are only reported by the returned {@link BaselineReport}.
+ *
+ * Runs with regressions are not appended to history by default, so that a
+ * regression never becomes part of the baseline it is compared to (see
+ * {@link Builder#withRegressionsRecorded(boolean)} to accept a new baseline).
+ *
+ * History must outlive builds: directory must not be part of the build output
+ * (such as {@code target}), otherwise clean builds wipe history and regressions
+ * are never detected. It is defined explicitly, or with system property
+ * {@code junit-servers.baseline.dir}.
+ */
+public final class BaselineStore {
+
+	/**
+	 * System property that can be used to define history directory.
+	 */
+	public static final String DIRECTORY_PROPERTY = "junit-servers.baseline.dir";
+
+	/**
+	 * Default number of previous runs used to compute baseline.
+	 */
+	public static final int DEFAULT_HISTORY_SIZE = 10;
+
+	/**
+	 * Default minimum number of previous runs required to detect regressions.
+	 */
+	public static final int DEFAULT_MIN_HISTORY = 3;
+
+	/**
+	 * Default relative threshold: 10%.
+	 */
+	public static final double DEFAULT_THRESHOLD = 0.1;
+
+	/**
+	 * Default number of standard deviations.
+	 */
+	public static final double DEFAULT_STANDARD_DEVIATIONS = 3;
+
+	/**
+	 * Charset of history files.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Header of history files.
+	 */
+	private static final String HEADER = "timestamp,measurement,value,lowerIsBetter";
+
+	/**
+	 * Action executed when a measurement regresses.
+	 */
+	public enum OnRegression {
+		/**
+		 * Fail with an {@link AssertionError}.
+		 */
+		FAIL,
+
+		/**
+		 * Do not fail: regressions are only reported by returned {@link BaselineReport},
+		 * callers decide how to report them (see {@link BaselineReport#hasRegressions()}).
+		 */
+		WARN
+	}
+
+	/**
+	 * Get builder of baseline store, using directory defined by
+	 * system property {@link #DIRECTORY_PROPERTY}.
+	 *
+	 * @return Builder.
+	 * @throws IllegalStateException if system property is not defined.
+	 */
+	public static Builder builder() {
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		if (directory == null || directory.trim().isEmpty()) {
+			throw new IllegalStateException(
+				"History directory of performance baselines must be defined with system property " + DIRECTORY_PROPERTY + ", " +
+				"outside of build output so that it is not wiped by clean builds"
+			);
+		}
+
+		return builder(Paths.get(directory));
+	}
+
+	/**
+	 * Get builder of baseline store.
+	 *
+	 * @param directory History directory, created if it does not exist.
+	 * @return Builder.
+	 * @throws NullPointerException if directory is null.
+	 */
+	public static Builder builder(Path directory) {
+		return new Builder(notNull(directory, "directory"));
+	}
+
+	/**
+	 * Get identifier of given test: class name and method name, separated by {@code #}.
+	 *
+	 * @param description Test description.
+	 * @return Test identifier.
+	 */
+	static String testId(Description description) {
+		String methodName = description.getMethodName();
+		return methodName == null ? description.getClassName() : description.getClassName() + "#" + methodName;
+	}
+
+	/**
+	 * History directory.
+	 */
+	private final Path directory;
+
+	/**
+	 * Number of previous runs used to compute baseline.
+	 */
+	private final int historySize;
+
+	/**
+	 * Minimum number of previous runs required to detect regressions.
+	 */
+	private final int minHistory;
+
+	/**
+	 * Relative threshold.
+	 */
+	private final double threshold;
+
+	/**
+	 * Number of standard deviations.
+	 */
+	private final double standardDeviations;
+
+	/**
+	 * Action executed on regressions.
+	 */
+	private final OnRegression onRegression;
+
+	/**
+	 * Flag indicating if runs with regressions are appended to history.
+	 */
+	private final boolean recordRegressions;
+
+	// Use builder
+	private BaselineStore(Builder builder) {
+		this.directory = builder.directory;
+		this.historySize = builder.historySize;
+		this.minHistory = builder.minHistory;
+		this.threshold = builder.threshold;
+		this.standardDeviations = builder.standardDeviations;
+		this.onRegression = builder.onRegression;
+		this.recordRegressions = builder.recordRegressions;
+	}
+
+	/**
+	 * Compare measurements of given load result to baseline of given test,
+	 * then append them to test history (unless they regressed).
+	 *
+	 * @param description Test description.
+	 * @param result Load result.
+	 * @return Report.
+	 * @throws AssertionError if a measurement regressed and store is configured to fail.
+	 * @throws LoadTestException if history cannot be read or written.
+	 * @see Measurement#of(LoadResult)
+	 */
+	public BaselineReport record(Description description, LoadResult result) {
+		return record(testId(notNull(description, "description")), Measurement.of(result));
+	}
+
+	/**
+	 * Compare measurements of given load result to baseline of given test,
+	 * then append them to test history (unless they regressed).
+	 *
+	 * @param testId Test identifier.
+	 * @param result Load result.
+	 * @return Report.
+	 * @throws AssertionError if a measurement regressed and store is configured to fail.
+	 * @throws LoadTestException if history cannot be read or written.
+	 * @see Measurement#of(LoadResult)
+	 */
+	public BaselineReport record(String testId, LoadResult result) {
+		return record(testId, Measurement.of(result));
+	}
+
+	/**
+	 * Compare given measurements to baseline of given test, then append
+	 * them to test history (unless they regressed).
+	 *
+	 * @param testId Test identifier.
+	 * @param measurements Measurements of current run.
+	 * @return Report.
+	 * @throws AssertionError if a measurement regressed and store is configured to fail.
+	 * @throws LoadTestException if history cannot be read or written.
+	 */
+	public synchronized BaselineReport record(String testId, List<Measurement> measurements) {
+		notBlank(testId, "testId");
+		notNull(measurements, "measurements");
+
+		Path file = directory.resolve(fileName(testId));
+		BaselineReport report;
+		try {
+			Map<String, LinkedList<Double>> history = read(file);
+
+			List<BaselineReport.Comparison> comparisons = new ArrayList<>(measurements.size());
+			for (Measurement measurement : measurements) {
+				comparisons.add(compare(measurement, history.get(measurement.getName())));
+			}
+
+			report = baselineReport(testId, comparisons);
+			if (recordRegressions || !report.hasRegressions()) {
+				append(file, measurements);
+			}
+		}
+		catch (IOException ex) {
+			throw new LoadTestException(ex);
+		}
+
+		if (report.hasRegressions() && onRegression == OnRegression.FAIL) {
+			throw new AssertionError(report.toString());
+		}
+
+		return report;
+	}
+
+	private BaselineReport.Comparison compare(Measurement measurement, List<Double> previous) {
+		int samples = previous == null ? 0 : previous.size();
+		if (samples == 0) {
+			return new BaselineReport.Comparison(measurement, Double.NaN, Double.NaN, 0, false);
+		}
+
+		double sum = 0;
+		for (double value : previous) {
+			sum += value;
+		}
+
+		double mean = sum / samples;
+		double squares = 0;
+		for (double value : previous) {
+			squares += (value - mean) * (value - mean);
+		}
+
+		double stdDev = samples > 1 ? Math.sqrt(squares / (samples - 1)) : 0;
+
+		// Positive delta means measurement is worse than baseline.
+		double delta = measurement.isLowerBetter() ? measurement.getValue() - mean : mean - measurement.getValue();
+		boolean regression = samples >= minHistory
+			&& delta > Math.abs(mean) * threshold
+			&& delta > stdDev * standardDeviations;
+
+		return new BaselineReport.Comparison(measurement, mean, stdDev, samples, regression);
+	}
+
+	private Map<String, LinkedList<Double>> read(Path file) throws IOException {
+		Map<String, LinkedList<Double>> history = new HashMap<>();
+		if (!Files.exists(file)) {
+			return history;
+		}
+
+		for (String line : Files.readAllLines(file, UTF_8)) {
+			String[] columns = line.split(",");
+			if (columns.length < 3 || line.equals(HEADER)) {
+				continue;
+			}
+
+			double value;
+			try {
+				value = Double.parseDouble(columns[2]);
+			}
+			catch (NumberFormatException ex) {
+				continue;
+			}
+
+			LinkedList<Double> values = history.get(columns[1]);
+			if (values == null) {
+				values = new LinkedList<>();
+				history.put(columns[1], values);
+			}
+
+			values.add(value);
+			if (values.size() > historySize) {
+				values.removeFirst();
+			}
+		}
+
+		return history;
+	}
+
+	private void append(Path file, List<Measurement> measurements) throws IOException {
+		Files.createDirectories(directory);
+		boolean created = !Files.exists(file);
+		long timestamp = System.currentTimeMillis();
+
+		try (Writer writer = Files.newBufferedWriter(file, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			if (created) {
+				writer.write(HEADER);
+				writer.write(System.lineSeparator());
+			}
+
+			for (Measurement measurement : measurements) {
+				writer.write(format(ROOT, "%d,%s,%s,%s%n", timestamp, measurement.getName(), measurement.getValue(), measurement.isLowerBetter()));
+			}
+		}
+	}
+
+	/**
+	 * Get name of history file of given test: characters other than letters, digits,
+	 * dots and dashes are escaped with {@code _} followed by the hexadecimal value of
+	 * each of their UTF-8 bytes, so that two test identifiers never share a file.
+	 *
+	 * @param testId Test identifier.
+	 * @return File name.
+	 */
+	static String fileName(String testId) {
+		StringBuilder sb = new StringBuilder(testId.length() + 4);
+		for (byte b : testId.getBytes(UTF_8)) {
+			char c = (char) (b & 0xFF);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-') {
+				sb.append(c);
+			}
+			else {
+				sb.append('_').append(format(ROOT, "%02X", b & 0xFF));
+			}
+		}
+
+		return sb.append(".csv").toString();
+	}
+
+	/**
+	 * Builder for {@link BaselineStore}.
+	 */
+	public static class Builder {
+
+		private final Path directory;
+
+		private int historySize;
+
+		private int minHistory;
+
+		private double threshold;
+
+		private double standardDeviations;
+
+		private OnRegression onRegression;
+
+		private boolean recordRegressions;
+
+		// Use static factory
+		private Builder(Path directory) {
+			this.directory = directory;
+			this.historySize = DEFAULT_HISTORY_SIZE;
+			this.minHistory = DEFAULT_MIN_HISTORY;
+			this.threshold = DEFAULT_THRESHOLD;
+			this.standardDeviations = DEFAULT_STANDARD_DEVIATIONS;
+			this.onRegression = OnRegression.FAIL;
+			this.recordRegressions = false;
+		}
+
+		/**
+		 * Set number of previous runs used to compute baseline.
+		 *
+		 * @param historySize Number of runs.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if history size is not strictly positive.
+		 */
+		public Builder withHistorySize(int historySize) {
+			this.historySize = strictlyPositive(historySize, "historySize");
+			return this;
+		}
+
+		/**
+		 * Set minimum number of previous runs required to detect regressions.
+		 *
+		 * @param minHistory Number of runs.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if number of runs is not strictly positive.
+		 */
+		public Builder withMinHistory(int minHistory) {
+			this.minHistory = strictlyPositive(minHistory, "minHistory");
+			return this;
+		}
+
+		/**
+		 * Set relative threshold: a measurement regresses only if it is worse
+		 * than baseline by more than this ratio (0.1 means 10%).
+		 *
+		 * @param threshold Threshold.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if threshold is negative.
+		 */
+		public Builder withThreshold(double threshold) {
+			if (threshold < 0) {
+				throw new IllegalArgumentException("Threshold must be positive");
+			}
+
+			this.threshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Set statistical tolerance: a measurement regresses only if it is
+		 * worse than baseline by more than this number of standard deviations.
+		 *
+		 * @param standardDeviations Number of standard deviations.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if number of standard deviations is negative.
+		 */
+		public Builder withStandardDeviations(double standardDeviations) {
+			if (standardDeviations < 0) {
+				throw new IllegalArgumentException("Number of standard deviations must be positive");
+			}
+
+			this.standardDeviations = standardDeviations;
+			return this;
+		}
+
+		/**
+		 * Set action executed on regressions: fail the test with an {@link AssertionError}
+		 * (default), or only report them in returned {@link BaselineReport}. Store never
+		 * prints anything: with {@link OnRegression#WARN}, callers log the report.
+		 *
+		 * @param onRegression Action.
+		 * @return Current builder.
+		 * @throws NullPointerException if action is null.
+		 */
+		public Builder onRegression(OnRegression onRegression) {
+			this.onRegression = notNull(onRegression, "onRegression");
+			return this;
+		}
+
+		/**
+		 * Set whether runs with regressions are appended to history. By default, they
+		 * are not: a regression would otherwise shift the baseline and hide itself after
+		 * a few builds. Enable it to accept a new performance level (for example after
+		 * an intended change), runs will then gradually become the new baseline.
+		 *
+		 * @param recordRegressions True to append runs with regressions to history.
+		 * @return Current builder.
+		 */
+		public Builder withRegressionsRecorded(boolean recordRegressions) {
+			this.recordRegressions = recordRegressions;
+			return this;
+		}
+
+		/**
+		 * Create store.
+		 *
+		 * @return Store.
+		 */
+		public BaselineStore build() {
+			return new BaselineStore(this);
+		}
+	}
+}
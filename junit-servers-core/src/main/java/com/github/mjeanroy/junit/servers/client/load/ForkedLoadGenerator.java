@@ -0,0 +1,511 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpParameter;
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.mjeanroy.junit.servers.client.HttpParameter.param;
+import static com.github.mjeanroy.junit.servers.client.load.LoadGenerator.DEFAULT_DURATION;
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Closed-loop load generator running its workers in separate JVMs,
+ * so that CPU usage and garbage collections of the load do not
+ * compete with the embedded server running in the test JVM.
+ *
+ * Worker processes are forked on the local machine, with the classpath
+ * of the test JVM: each process runs its own workers (see {@link Builder#withConcurrency(int)})
+ * against the url of the embedded server, and streams snapshots of recorded
+ * values back to the test JVM over a loopback socket. Snapshots are merged
+ * into a single {@link LoadResult}.
+ *
+ * <pre><code>
+ *   LoadResult result = ForkedLoadGenerator.builder(server)
+ *     .withRequest(HttpMethod.GET, "/api/people")
+ *     .withProcesses(4)
+ *     .withConcurrency(8)
+ *     .withDuration(30, TimeUnit.SECONDS)
+ *     .build()
+ *     .run();
+ * </code></pre>
+ *
+ * Since requests are executed in other processes, they are described by a method,
+ * an url and headers (instead of a {@link RequestTemplate}).
+ */
+public final class ForkedLoadGenerator {
+
+	/**
+	 * Default number of worker processes.
+	 */
+	public static final int DEFAULT_PROCESSES = 2;
+
+	/**
+	 * Default delay between two snapshots sent by worker processes: 1 second.
+	 */
+	public static final long DEFAULT_SNAPSHOT_INTERVAL = SECONDS.toNanos(1);
+
+	/**
+	 * Maximum delay to wait for worker processes to start, or
+	 * to complete their load once duration is over.
+	 */
+	private static final long TIMEOUT = SECONDS.toNanos(60);
+
+	/**
+	 * Get builder of load generator.
+	 *
+	 * @param server Embedded server, requests are sent to its url.
+	 * @return Builder.
+	 * @throws NullPointerException if server is null.
+	 */
+	public static Builder builder(EmbeddedServer server) {
+		return new Builder(notNull(server, "server"));
+	}
+
+	/**
+	 * Embedded server.
+	 */
+	private final EmbeddedServer server;
+
+	/**
+	 * Strategy used by worker processes to create http clients.
+	 */
+	private final HttpClientStrategy strategy;
+
+	/**
+	 * Http method of requests.
+	 */
+	private final HttpMethod method;
+
+	/**
+	 * Url of requests.
+	 */
+	private final String url;
+
+	/**
+	 * Headers added to requests.
+	 */
+	private final List<HttpParameter> headers;
+
+	/**
+	 * Number of worker processes.
+	 */
+	private final int processes;
+
+	/**
+	 * Number of workers in each process.
+	 */
+	private final int concurrency;
+
+	/**
+	 * Duration of warmup phase, in nano seconds.
+	 */
+	private final long warmup;
+
+	/**
+	 * Duration of measured phase, in nano seconds.
+	 */
+	private final long duration;
+
+	/**
+	 * Delay between two snapshots, in nano seconds.
+	 */
+	private final long snapshotInterval;
+
+	/**
+	 * Options of worker JVMs.
+	 */
+	private final List<String> jvmOptions;
+
+	// Use builder
+	private ForkedLoadGenerator(Builder builder) {
+		this.server = builder.server;
+		this.strategy = builder.strategy;
+		this.method = notNull(builder.method, "method");
+		this.url = builder.url;
+		this.headers = new ArrayList<>(builder.headers);
+		this.processes = builder.processes;
+		this.concurrency = builder.concurrency;
+		this.warmup = builder.warmup;
+		this.duration = builder.duration;
+		this.snapshotInterval = builder.snapshotInterval;
+		this.jvmOptions = new ArrayList<>(builder.jvmOptions);
+	}
+
+	/**
+	 * Run load: fork worker processes, and wait for them to
+	 * complete warmup and measured phases.
+	 * This method blocks until load is over.
+	 *
+	 * @return Result of measured phase, merged from all worker processes.
+	 * @throws LoadTestException if a worker process cannot be started or fails, or if load is interrupted.
+	 */
+	public LoadResult run() {
+		WorkerTask task = new WorkerTask(strategy, server.getUrl(), server.getPath(), method, url, headers, concurrency, warmup, duration, snapshotInterval);
+		List<Process> forks = new ArrayList<>(processes);
+		List<Closeable> resources = new ArrayList<>(processes + 1);
+		ExecutorService executor = newFixedThreadPool(processes, daemonThreadFactory("junit-servers-coordinator"));
+		try {
+			ServerSocket serverSocket = new ServerSocket(0, processes, InetAddress.getLoopbackAddress());
+			resources.add(serverSocket);
+			serverSocket.setSoTimeout((int) NANOSECONDS.toMillis(TIMEOUT));
+
+			for (int i = 0; i < processes; i++) {
+				forks.add(fork(serverSocket));
+			}
+
+			List<Socket> sockets = new ArrayList<>(processes);
+			for (int i = 0; i < processes; i++) {
+				Socket socket = serverSocket.accept();
+				resources.add(socket);
+				sockets.add(socket);
+			}
+
+			// Every worker is connected: start load in all processes at once.
+			LoadRecorder recorder = new LoadRecorder();
+			long startTime = currentTimeMillis() + NANOSECONDS.toMillis(warmup);
+			List<Future<Long>> futures = new ArrayList<>(processes);
+			for (Socket socket : sockets) {
+				futures.add(executor.submit(new Collector(socket, task, recorder)));
+			}
+
+			long deadline = nanoTime() + warmup + duration + TIMEOUT;
+			long measured = 0;
+			for (Future<Long> future : futures) {
+				measured = Math.max(measured, future.get(Math.max(deadline - nanoTime(), 0), NANOSECONDS));
+			}
+
+			return recorder.toResult(startTime, measured);
+		}
+		catch (SocketTimeoutException ex) {
+			throw new LoadTestException("Worker processes did not connect in time, check their output");
+		}
+		catch (TimeoutException ex) {
+			throw new LoadTestException("Worker processes did not complete load in time");
+		}
+		catch (IOException ex) {
+			throw new LoadTestException(ex);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoadTestException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw ex.getCause() instanceof LoadTestException ? (LoadTestException) ex.getCause() : new LoadTestException(ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+			for (Closeable resource : resources) {
+				closeQuietly(resource);
+			}
+
+			for (Process fork : forks) {
+				fork.destroy();
+			}
+		}
+	}
+
+	private Process fork(ServerSocket serverSocket) throws IOException {
+		String javaHome = System.getProperty("java.home");
+
+		List<String> command = new ArrayList<>();
+		command.add(javaHome + File.separator + "bin" + File.separator + "java");
+		command.addAll(jvmOptions);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(LoadWorker.class.getName());
+		command.add(serverSocket.getInetAddress().getHostAddress());
+		command.add(String.valueOf(serverSocket.getLocalPort()));
+
+		return new ProcessBuilder(command)
+			.redirectOutput(ProcessBuilder.Redirect.INHERIT)
+			.redirectError(ProcessBuilder.Redirect.INHERIT)
+			.start();
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		}
+		catch (IOException ex) {
+			// Nothing to do, load is over.
+		}
+	}
+
+	/**
+	 * Send task to a worker process, and merge snapshots it
+	 * sends until load is over.
+	 */
+	private static class Collector implements Callable<Long> {
+
+		private final Socket socket;
+
+		private final WorkerTask task;
+
+		private final LoadRecorder recorder;
+
+		private Collector(Socket socket, WorkerTask task, LoadRecorder recorder) {
+			this.socket = socket;
+			this.task = task;
+			this.recorder = recorder;
+		}
+
+		@Override
+		public Long call() throws IOException {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			task.writeTo(output);
+			output.flush();
+
+			DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			try {
+				while (true) {
+					byte message = input.readByte();
+					if (message == LoadWorker.SNAPSHOT) {
+						recorder.add(LoadRecorder.readFrom(input));
+					}
+					else if (message == LoadWorker.DONE) {
+						return input.readLong();
+					}
+					else if (message == LoadWorker.FAILURE) {
+						throw new LoadTestException("Worker process failed: " + LoadWorker.readFailure(input));
+					}
+					else {
+						throw new LoadTestException("Unexpected message from worker process: " + message);
+					}
+				}
+			}
+			catch (EOFException ex) {
+				throw new LoadTestException("Worker process exited before completing load");
+			}
+		}
+	}
+
+	/**
+	 * Builder for {@link ForkedLoadGenerator}.
+	 */
+	public static class Builder {
+
+		private final EmbeddedServer server;
+
+		private HttpClientStrategy strategy;
+
+		private HttpMethod method;
+
+		private String url;
+
+		private final List<HttpParameter> headers;
+
+		private int processes;
+
+		private int concurrency;
+
+		private long warmup;
+
+		private long duration;
+
+		private long snapshotInterval;
+
+		private final List<String> jvmOptions;
+
+		// Use static factory
+		private Builder(EmbeddedServer server) {
+			this.server = server;
+			this.strategy = HttpClientStrategy.AUTO;
+			this.headers = new ArrayList<>();
+			this.processes = DEFAULT_PROCESSES;
+			this.concurrency = LoadGenerator.DEFAULT_CONCURRENCY;
+			this.warmup = 0;
+			this.duration = DEFAULT_DURATION;
+			this.snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+			this.jvmOptions = new ArrayList<>();
+		}
+
+		/**
+		 * Execute requests with given method and url (a path relative to
+		 * server url, or an absolute url).
+		 *
+		 * @param method Http method.
+		 * @param url Request url.
+		 * @return Current builder.
+		 * @throws NullPointerException if method or url is null.
+		 * @throws IllegalArgumentException if url is blank.
+		 */
+		public Builder withRequest(HttpMethod method, String url) {
+			this.method = notNull(method, "method");
+			this.url = notBlank(url, "url");
+			return this;
+		}
+
+		/**
+		 * Add header to requests.
+		 *
+		 * @param name Header name.
+		 * @param value Header value.
+		 * @return Current builder.
+		 * @throws NullPointerException if name or value is null.
+		 * @throws IllegalArgumentException if name is blank.
+		 */
+		public Builder withHeader(String name, String value) {
+			this.headers.add(param(notBlank(name, "name"), notNull(value, "value")));
+			return this;
+		}
+
+		/**
+		 * Set strategy used by worker processes to create their http client.
+		 *
+		 * @param strategy Http client strategy.
+		 * @return Current builder.
+		 * @throws NullPointerException if strategy is null.
+		 * @throws IllegalArgumentException if strategy is {@link HttpClientStrategy#IN_PROCESS}, since server is not in worker processes.
+		 */
+		public Builder withHttpClient(HttpClientStrategy strategy) {
+			if (notNull(strategy, "strategy") == HttpClientStrategy.IN_PROCESS) {
+				throw new IllegalArgumentException("In process http client cannot be used by worker processes");
+			}
+
+			this.strategy = strategy;
+			return this;
+		}
+
+		/**
+		 * Set number of worker processes.
+		 *
+		 * @param processes Number of processes.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if processes is not strictly positive.
+		 */
+		public Builder withProcesses(int processes) {
+			this.processes = strictlyPositive(processes, "processes");
+			return this;
+		}
+
+		/**
+		 * Set number of workers executing requests concurrently
+		 * in each process.
+		 *
+		 * @param concurrency Number of workers per process.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if concurrency is not strictly positive.
+		 */
+		public Builder withConcurrency(int concurrency) {
+			this.concurrency = strictlyPositive(concurrency, "concurrency");
+			return this;
+		}
+
+		/**
+		 * Set duration of warmup phase.
+		 *
+		 * @param warmup Warmup duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is negative.
+		 */
+		public Builder withWarmup(long warmup, TimeUnit unit) {
+			this.warmup = notNull(unit, "unit").toNanos(positive(warmup, "warmup"));
+			return this;
+		}
+
+		/**
+		 * Set duration of measured phase.
+		 *
+		 * @param duration Duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is not strictly positive.
+		 */
+		public Builder withDuration(long duration, TimeUnit unit) {
+			this.duration = notNull(unit, "unit").toNanos(strictlyPositive(duration, "duration"));
+			return this;
+		}
+
+		/**
+		 * Set delay between two snapshots sent by worker processes.
+		 *
+		 * @param interval Delay.
+		 * @param unit Delay unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if delay is not strictly positive.
+		 */
+		public Builder withSnapshotInterval(long interval, TimeUnit unit) {
+			this.snapshotInterval = notNull(unit, "unit").toNanos(strictlyPositive(interval, "interval"));
+			return this;
+		}
+
+		/**
+		 * Add options to worker JVMs (for example {@code -Xmx256m}).
+		 *
+		 * @param options JVM options.
+		 * @return Current builder.
+		 */
+		public Builder withJvmOptions(String... options) {
+			Collections.addAll(this.jvmOptions, options);
+			return this;
+		}
+
+		/**
+		 * Create load generator.
+		 *
+		 * @return Load generator.
+		 * @throws NullPointerException if request has not been set.
+		 */
+		public ForkedLoadGenerator build() {
+			return new ForkedLoadGenerator(this);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.io.IOException;
+
+import static com.github.mjeanroy.junit.servers.client.load.Base64Codec.encode;
+import static com.github.mjeanroy.junit.servers.commons.Dates.formatHttpTime;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+
+/**
+ * Writer of histogram logs, using HdrHistogram log format (version 1.3):
+ * logs can be processed with HdrHistogram tools (such as HistogramLogProcessor
+ * or HdrHistogram plotter).
+ *
+ * Each interval is written as a line with start time (relative to log
+ * start time), length and maximum value in seconds and milliseconds, followed
+ * by the compressed histogram encoded in base64.
+ */
+public final class HistogramLogWriter {
+
+	/**
+	 * Number of nano seconds in a second.
+	 */
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	/**
+	 * Number of nano seconds in a milli second: values are
+	 * reported in milliseconds.
+	 */
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	/**
+	 * Create writer.
+	 *
+	 * @param output Output.
+	 * @return Writer.
+	 * @throws NullPointerException if output is null.
+	 */
+	public static HistogramLogWriter histogramLogWriter(Appendable output) {
+		return new HistogramLogWriter(notNull(output, "output"));
+	}
+
+	/**
+	 * Log output.
+	 */
+	private final Appendable output;
+
+	// Use static factory
+	private HistogramLogWriter(Appendable output) {
+		this.output = output;
+	}
+
+	/**
+	 * Write log header: format version, start time and columns legend.
+	 *
+	 * @param startTime Log start time, in milliseconds since epoch.
+	 * @throws IOException If header cannot be written.
+	 */
+	public void writeHeader(long startTime) throws IOException {
+		output.append("#[Histogram log format version 1.3]\n");
+		output.append(format(ROOT, "#[StartTime: %.3f (seconds since epoch), %s]\n", startTime / 1000.0, formatHttpTime(startTime)));
+		output.append("\"StartTimestamp\",\"Interval_Length\",\"Interval_Max\",\"Interval_Compressed_Histogram\"\n");
+	}
+
+	/**
+	 * Write interval histogram.
+	 *
+	 * @param tag Interval tag, may be null.
+	 * @param start Interval start, in nano seconds since log start time.
+	 * @param length Interval length, in nano seconds.
+	 * @param histogram Histogram of interval.
+	 * @throws IOException If interval cannot be written.
+	 */
+	public void writeInterval(String tag, long start, long length, LatencyHistogram histogram) throws IOException {
+		positive(start, "start");
+		positive(length, "length");
+		notNull(histogram, "histogram");
+
+		if (tag != null) {
+			if (tag.indexOf(',') >= 0 || tag.indexOf(' ') >= 0) {
+				throw new IllegalArgumentException("Tag must not contain commas or spaces");
+			}
+
+			output.append("Tag=").append(tag).append(',');
+		}
+
+		output.append(format(ROOT, "%.3f,%.3f,%.3f,%s\n",
+			start / NANOS_PER_SECOND,
+			length / NANOS_PER_SECOND,
+			histogram.getMaxValue() / NANOS_PER_MILLI,
+			encode(histogram.encode())
+		));
+	}
+}
@@ -0,0 +1,274 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Closed-loop load of an arbitrary {@link Invocation}: a fixed number of
+ * threads execute invocation in a loop, during an optional warmup phase
+ * (whose results are discarded) then during a measured phase.
+ *
+ * Latency of each invocation is recorded, and failed invocations are
+ * counted as errors: first failures are kept and available once load
+ * is over (see {@link #getFailures()}).
+ */
+public final class InvocationLoad {
+
+	/**
+	 * Default number of threads.
+	 */
+	public static final int DEFAULT_THREADS = 1;
+
+	/**
+	 * Default duration of measured phase: 10 seconds.
+	 */
+	public static final long DEFAULT_DURATION = SECONDS.toNanos(10);
+
+	/**
+	 * Maximum number of failures that are kept.
+	 */
+	private static final int MAX_FAILURES = 10;
+
+	/**
+	 * Get builder of invocation load.
+	 *
+	 * @param invocation Invocation to execute.
+	 * @return Builder.
+	 * @throws NullPointerException if invocation is null.
+	 */
+	public static Builder builder(Invocation invocation) {
+		return new Builder(notNull(invocation, "invocation"));
+	}
+
+	/**
+	 * Invocation.
+	 */
+	private final Invocation invocation;
+
+	/**
+	 * Number of threads.
+	 */
+	private final int threads;
+
+	/**
+	 * Duration of warmup phase, in nano seconds.
+	 */
+	private final long warmup;
+
+	/**
+	 * Duration of measured phase, in nano seconds.
+	 */
+	private final long duration;
+
+	/**
+	 * First failures, of both phases.
+	 */
+	private final List<Throwable> failures;
+
+	// Use builder
+	private InvocationLoad(Builder builder) {
+		this.invocation = builder.invocation;
+		this.threads = builder.threads;
+		this.warmup = builder.warmup;
+		this.duration = builder.duration;
+		this.failures = Collections.synchronizedList(new ArrayList<Throwable>());
+	}
+
+	/**
+	 * Run load: warmup phase first, then measured phase.
+	 * This method blocks until load is over.
+	 *
+	 * @return Result of measured phase.
+	 * @throws LoadTestException if load is interrupted.
+	 */
+	public LoadResult run() {
+		ExecutorService executor = newFixedThreadPool(threads, daemonThreadFactory("junit-servers-invocation"));
+		try {
+			if (warmup > 0) {
+				runPhase(executor, warmup);
+			}
+
+			long startTime = currentTimeMillis();
+			long start = nanoTime();
+			LoadRecorder recorder = runPhase(executor, duration);
+			return recorder.toResult(startTime, nanoTime() - start);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoadTestException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw new LoadTestException(ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Get first failures (at most 10) of invocations executed by
+	 * previous runs, including warmup phases.
+	 *
+	 * @return Failures.
+	 */
+	public List<Throwable> getFailures() {
+		synchronized (failures) {
+			return unmodifiableList(new ArrayList<>(failures));
+		}
+	}
+
+	private LoadRecorder runPhase(ExecutorService executor, long duration) throws InterruptedException, ExecutionException {
+		final long deadline = nanoTime() + duration;
+
+		List<Callable<LoadRecorder>> workers = new ArrayList<>(threads);
+		for (int i = 0; i < threads; i++) {
+			workers.add(new Callable<LoadRecorder>() {
+				@Override
+				public LoadRecorder call() {
+					LoadRecorder recorder = new LoadRecorder();
+					while (!Thread.currentThread().isInterrupted() && nanoTime() - deadline < 0) {
+						invoke(recorder);
+					}
+
+					return recorder;
+				}
+			});
+		}
+
+		LoadRecorder recorder = new LoadRecorder();
+		for (Future<LoadRecorder> result : executor.invokeAll(workers)) {
+			recorder.add(result.get());
+		}
+
+		return recorder;
+	}
+
+	private void invoke(LoadRecorder recorder) {
+		long start = nanoTime();
+		try {
+			invocation.invoke();
+			recorder.recordSuccess(nanoTime() - start);
+		}
+		catch (Throwable ex) {
+			recorder.recordFailure();
+			synchronized (failures) {
+				if (failures.size() < MAX_FAILURES) {
+					failures.add(ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builder for {@link InvocationLoad}.
+	 */
+	public static class Builder {
+
+		private final Invocation invocation;
+
+		private int threads;
+
+		private long warmup;
+
+		private long duration;
+
+		// Use static factory
+		private Builder(Invocation invocation) {
+			this.invocation = invocation;
+			this.threads = DEFAULT_THREADS;
+			this.warmup = 0;
+			this.duration = DEFAULT_DURATION;
+		}
+
+		/**
+		 * Set number of threads executing invocation concurrently.
+		 *
+		 * @param threads Number of threads.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if threads is not strictly positive.
+		 */
+		public Builder withThreads(int threads) {
+			this.threads = strictlyPositive(threads, "threads");
+			return this;
+		}
+
+		/**
+		 * Set duration of warmup phase.
+		 *
+		 * @param warmup Warmup duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws NullPointerException if unit is null.
+		 * @throws IllegalArgumentException if duration is negative.
+		 */
+		public Builder withWarmup(long warmup, TimeUnit unit) {
+			this.warmup = notNull(unit, "unit").toNanos(positive(warmup, "warmup"));
+			return this;
+		}
+
+		/**
+		 * Set duration of measured phase.
+		 *
+		 * @param duration Duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws NullPointerException if unit is null.
+		 * @throws IllegalArgumentException if duration is not strictly positive.
+		 */
+		public Builder withDuration(long duration, TimeUnit unit) {
+			this.duration = notNull(unit, "unit").toNanos(strictlyPositive(duration, "duration"));
+			return this;
+		}
+
+		/**
+		 * Create invocation load.
+		 *
+		 * @return Invocation load.
+		 */
+		public InvocationLoad build() {
+			return new InvocationLoad(this);
+		}
+	}
+}
@@ -0,0 +1,634 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+/**
+ * Histogram of latencies, in nano seconds, with a fixed relative precision.
+ *
+ * Values are stored in log-linear buckets, using the same layout as
+ * HdrHistogram: a histogram with {@code n} significant digits keeps values
+ * with a relative error lower than {@code 10^-n}, whatever the magnitude
+ * of values. Encoded histograms (see {@link #encode()}) use the compressed
+ * HdrHistogram V2 format and can be read by HdrHistogram tools.
+ *
+ * This class is not thread safe.
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Default highest value that can be recorded: one hour.
+	 */
+	public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = HOURS.toNanos(1);
+
+	/**
+	 * Default number of significant digits.
+	 */
+	public static final int DEFAULT_SIGNIFICANT_DIGITS = 3;
+
+	/**
+	 * Cookie of HdrHistogram V2 encoding: the word size nibble
+	 * indicates a ZigZag LEB128 encoding of counts.
+	 */
+	private static final int ENCODING_COOKIE = 0x1c849303 | 0x10;
+
+	/**
+	 * Cookie of HdrHistogram V2 compressed encoding.
+	 */
+	private static final int COMPRESSED_ENCODING_COOKIE = 0x1c849304 | 0x10;
+
+	/**
+	 * Size of encoding header, in bytes.
+	 */
+	private static final int ENCODING_HEADER_SIZE = 40;
+
+	/**
+	 * Maximum size of an encoded count, in bytes.
+	 */
+	private static final int MAX_ENCODED_COUNT_SIZE = 9;
+
+	/**
+	 * Percentiles reported in percentile distributions.
+	 */
+	private static final double[] DISTRIBUTION_PERCENTILES = {0, 50, 75, 90, 95, 99, 99.9, 99.99, 100};
+
+	/**
+	 * Create histogram with default settings.
+	 *
+	 * @return Histogram.
+	 */
+	public static LatencyHistogram latencyHistogram() {
+		return new LatencyHistogram(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SIGNIFICANT_DIGITS);
+	}
+
+	/**
+	 * Create histogram.
+	 *
+	 * @param highestTrackableValue Highest value that can be recorded, in nano seconds.
+	 * @param significantDigits Number of significant digits, between 0 and 5.
+	 * @return Histogram.
+	 * @throws IllegalArgumentException if highest trackable value is lower than 2 or if number of significant digits is not valid.
+	 */
+	public static LatencyHistogram latencyHistogram(long highestTrackableValue, int significantDigits) {
+		if (highestTrackableValue < 2) {
+			throw new IllegalArgumentException("highestTrackableValue must be greater than 1");
+		}
+
+		if (significantDigits < 0 || significantDigits > 5) {
+			throw new IllegalArgumentException("significantDigits must be between 0 and 5");
+		}
+
+		return new LatencyHistogram(highestTrackableValue, significantDigits);
+	}
+
+	/**
+	 * Decode histogram encoded with {@link #encode()} (or with
+	 * HdrHistogram compressed encoding, with a unit resolution).
+	 *
+	 * @param bytes Encoded histogram.
+	 * @return Histogram.
+	 * @throws IllegalArgumentException if bytes are not a valid encoded histogram.
+	 */
+	public static LatencyHistogram decode(byte[] bytes) {
+		notNull(bytes, "bytes");
+
+		ByteBuffer compressed = ByteBuffer.wrap(bytes);
+		if (bytes.length < 8 || compressed.getInt() != COMPRESSED_ENCODING_COOKIE) {
+			throw new IllegalArgumentException("Encoded histogram must use HdrHistogram V2 compressed format");
+		}
+
+		int compressedLength = compressed.getInt();
+		if (compressedLength != compressed.remaining()) {
+			throw new IllegalArgumentException("Encoded histogram is truncated");
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(inflate(bytes, 8, compressedLength));
+		if (buffer.remaining() < ENCODING_HEADER_SIZE || buffer.getInt() != ENCODING_COOKIE) {
+			throw new IllegalArgumentException("Encoded histogram must use HdrHistogram V2 format");
+		}
+
+		int payloadLength = buffer.getInt();
+		int normalizingIndexOffset = buffer.getInt();
+		int significantDigits = buffer.getInt();
+		long lowestDiscernibleValue = buffer.getLong();
+		long highestTrackableValue = buffer.getLong();
+		buffer.getDouble();
+
+		if (normalizingIndexOffset != 0 || lowestDiscernibleValue != 1) {
+			throw new IllegalArgumentException("Only histograms with a unit resolution can be decoded");
+		}
+
+		LatencyHistogram histogram = latencyHistogram(highestTrackableValue, significantDigits);
+		int end = buffer.position() + payloadLength;
+		int index = 0;
+		while (buffer.position() < end) {
+			long count = getZigZag(buffer);
+			if (count <= 0) {
+				// Empty bucket, or run of empty buckets
+				index += count == 0 ? 1 : (int) -count;
+			}
+			else {
+				if (index >= histogram.counts.length) {
+					throw new IllegalArgumentException("Encoded histogram contains out of range values");
+				}
+
+				histogram.addCount(index++, count);
+			}
+		}
+
+		return histogram;
+	}
+
+	/**
+	 * Highest value that can be recorded.
+	 */
+	private final long highestTrackableValue;
+
+	/**
+	 * Number of significant digits kept for each value.
+	 */
+	private final int significantDigits;
+
+	// Layout of buckets, see HdrHistogram for details.
+	private final int subBucketHalfCountMagnitude;
+	private final int subBucketCount;
+	private final int subBucketHalfCount;
+	private final long subBucketMask;
+	private final int leadingZeroCountBase;
+
+	/**
+	 * Count of values, indexed by bucket.
+	 */
+	private final long[] counts;
+
+	/**
+	 * Total number of recorded values.
+	 */
+	private long totalCount;
+
+	/**
+	 * Index of lowest non empty bucket, -1 if histogram is empty.
+	 */
+	private int minIndex;
+
+	/**
+	 * Index of highest non empty bucket, -1 if histogram is empty.
+	 */
+	private int maxIndex;
+
+	// Use static factory
+	private LatencyHistogram(long highestTrackableValue, int significantDigits) {
+		this.highestTrackableValue = highestTrackableValue;
+		this.significantDigits = significantDigits;
+
+		long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+		int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestValueWithSingleUnitResolution) / Math.log(2));
+		this.subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+		this.subBucketCount = 1 << (subBucketHalfCountMagnitude + 1);
+		this.subBucketHalfCount = subBucketCount / 2;
+		this.subBucketMask = subBucketCount - 1;
+		this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+		long smallestUntrackableValue = subBucketCount;
+		int bucketCount = 1;
+		while (smallestUntrackableValue <= highestTrackableValue) {
+			if (smallestUntrackableValue > Long.MAX_VALUE / 2) {
+				bucketCount++;
+				break;
+			}
+
+			smallestUntrackableValue <<= 1;
+			bucketCount++;
+		}
+
+		this.counts = new long[(bucketCount + 1) * subBucketHalfCount];
+		this.minIndex = -1;
+		this.maxIndex = -1;
+	}
+
+	/**
+	 * Record value.
+	 * Values greater than highest trackable value are recorded
+	 * as highest trackable value.
+	 *
+	 * @param value Value, in nano seconds.
+	 * @throws IllegalArgumentException if value is negative.
+	 */
+	public void recordValue(long value) {
+		recordValues(value, 1);
+	}
+
+	/**
+	 * Record value several times.
+	 * Values greater than highest trackable value are recorded
+	 * as highest trackable value.
+	 *
+	 * @param value Value, in nano seconds.
+	 * @param count Number of occurrences.
+	 * @throws IllegalArgumentException if value or count is negative.
+	 */
+	public void recordValues(long value, long count) {
+		positive(value, "value");
+		positive(count, "count");
+		if (count > 0) {
+			addCount(countsIndex(Math.min(value, highestTrackableValue)), count);
+		}
+	}
+
+	/**
+	 * Add all values recorded in given histogram.
+	 *
+	 * @param histogram Histogram.
+	 */
+	public void add(LatencyHistogram histogram) {
+		notNull(histogram, "histogram");
+
+		boolean sameLayout = histogram.counts.length == counts.length && histogram.significantDigits == significantDigits;
+		for (int i = Math.max(histogram.minIndex, 0); i <= histogram.maxIndex; i++) {
+			long count = histogram.counts[i];
+			if (count > 0) {
+				if (sameLayout) {
+					addCount(i, count);
+				}
+				else {
+					recordValues(Math.min(histogram.valueFromIndex(i), highestTrackableValue), count);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create a copy of this histogram.
+	 *
+	 * @return Copy.
+	 */
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram(highestTrackableValue, significantDigits);
+		copy.add(this);
+		return copy;
+	}
+
+	/**
+	 * Remove all recorded values.
+	 */
+	public void reset() {
+		for (int i = Math.max(minIndex, 0); i <= maxIndex; i++) {
+			counts[i] = 0;
+		}
+
+		totalCount = 0;
+		minIndex = -1;
+		maxIndex = -1;
+	}
+
+	public long getHighestTrackableValue() {
+		return highestTrackableValue;
+	}
+
+	public int getSignificantDigits() {
+		return significantDigits;
+	}
+
+	/**
+	 * Get number of recorded values.
+	 *
+	 * @return Number of values.
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Get lowest recorded value (up to histogram precision).
+	 *
+	 * @return Lowest value, zero if histogram is empty.
+	 */
+	public long getMinValue() {
+		return minIndex < 0 ? 0 : lowestEquivalentValue(valueFromIndex(minIndex));
+	}
+
+	/**
+	 * Get highest recorded value (up to histogram precision).
+	 *
+	 * @return Highest value, zero if histogram is empty.
+	 */
+	public long getMaxValue() {
+		return maxIndex < 0 ? 0 : highestEquivalentValue(valueFromIndex(maxIndex));
+	}
+
+	/**
+	 * Get mean of recorded values (up to histogram precision).
+	 *
+	 * @return Mean value, zero if histogram is empty.
+	 */
+	public double getMean() {
+		if (totalCount == 0) {
+			return 0;
+		}
+
+		double total = 0;
+		for (int i = minIndex; i <= maxIndex; i++) {
+			if (counts[i] > 0) {
+				total += medianEquivalentValue(valueFromIndex(i)) * (double) counts[i];
+			}
+		}
+
+		return total / totalCount;
+	}
+
+	/**
+	 * Get value at given percentile: at least given percentage
+	 * of recorded values are lower or equal to returned value.
+	 *
+	 * @param percentile Percentile, between 0 and 100.
+	 * @return Value at percentile, zero if histogram is empty.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+
+		double requested = Math.min(Math.max(percentile, 0), 100);
+		long countAtPercentile = Math.max((long) Math.ceil(requested / 100 * totalCount), 1);
+
+		long total = 0;
+		for (int i = minIndex; i <= maxIndex; i++) {
+			total += counts[i];
+			if (total >= countAtPercentile) {
+				long value = valueFromIndex(i);
+				return requested == 0 ? lowestEquivalentValue(value) : highestEquivalentValue(value);
+			}
+		}
+
+		return getMaxValue();
+	}
+
+	/**
+	 * Get number of values recorded between two values (inclusive),
+	 * up to histogram precision.
+	 *
+	 * @param lowValue Lowest value.
+	 * @param highValue Highest value.
+	 * @return Number of values.
+	 */
+	public long getCountBetweenValues(long lowValue, long highValue) {
+		if (totalCount == 0 || highValue < lowValue) {
+			return 0;
+		}
+
+		int low = Math.max(countsIndex(Math.min(Math.max(lowValue, 0), highestTrackableValue)), minIndex);
+		int high = Math.min(countsIndex(Math.min(Math.max(highValue, 0), highestTrackableValue)), maxIndex);
+
+		long total = 0;
+		for (int i = low; i <= high; i++) {
+			total += counts[i];
+		}
+
+		return total;
+	}
+
+	/**
+	 * Encode histogram using HdrHistogram V2 compressed format.
+	 *
+	 * @return Encoded histogram.
+	 */
+	public byte[] encode() {
+		int relevantLength = maxIndex + 1;
+		ByteBuffer buffer = ByteBuffer.allocate(ENCODING_HEADER_SIZE + relevantLength * MAX_ENCODED_COUNT_SIZE);
+		buffer.putInt(ENCODING_COOKIE);
+		buffer.putInt(0);
+		buffer.putInt(0);
+		buffer.putInt(significantDigits);
+		buffer.putLong(1);
+		buffer.putLong(highestTrackableValue);
+		buffer.putDouble(1.0);
+
+		int i = 0;
+		while (i < relevantLength) {
+			long count = counts[i++];
+			if (count == 0) {
+				long zeros = 1;
+				while (i < relevantLength && counts[i] == 0) {
+					zeros++;
+					i++;
+				}
+
+				putZigZag(buffer, zeros > 1 ? -zeros : 0);
+			}
+			else {
+				putZigZag(buffer, count);
+			}
+		}
+
+		buffer.putInt(4, buffer.position() - ENCODING_HEADER_SIZE);
+
+		Deflater deflater = new Deflater();
+		try {
+			deflater.setInput(buffer.array(), 0, buffer.position());
+			deflater.finish();
+
+			// Header (cookie and compressed length) is written once
+			// content is compressed.
+			ByteArrayOutputStream output = new ByteArrayOutputStream(buffer.position() + 8);
+			output.write(new byte[8], 0, 8);
+
+			byte[] chunk = new byte[1024];
+			while (!deflater.finished()) {
+				int n = deflater.deflate(chunk);
+				output.write(chunk, 0, n);
+			}
+
+			byte[] bytes = output.toByteArray();
+			ByteBuffer header = ByteBuffer.wrap(bytes);
+			header.putInt(COMPRESSED_ENCODING_COOKIE);
+			header.putInt(bytes.length - 8);
+			return bytes;
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Get percentile distribution of recorded values, as a text table with
+	 * values converted to given unit (one line per reported percentile, with
+	 * the number of values lower or equal to reported value).
+	 *
+	 * @param unit Unit of recorded values.
+	 * @param outputUnit Unit of reported values.
+	 * @return Percentile distribution.
+	 */
+	public String toPercentileDistribution(TimeUnit unit, TimeUnit outputUnit) {
+		notNull(unit, "unit");
+		notNull(outputUnit, "outputUnit");
+		double ratio = (double) unit.toNanos(1) / outputUnit.toNanos(1);
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(format(ROOT, "%12s %12s %12s%n", "Value", "Percentile", "TotalCount"));
+		for (double percentile : DISTRIBUTION_PERCENTILES) {
+			long value = getValueAtPercentile(percentile);
+			long count = percentile == 100 ? totalCount : getCountBetweenValues(0, value);
+			sb.append(format(ROOT, "%12.3f %12.4f %12d%n", value * ratio, percentile / 100, count));
+		}
+
+		sb.append(format(ROOT, "#[Mean = %.3f, Max = %.3f, Total count = %d]", getMean() * ratio, getMaxValue() * ratio, totalCount));
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return format("%s {count = %s, min = %s, p50 = %s, p90 = %s, p99 = %s, p99.9 = %s, max = %s}",
+			getClass().getSimpleName(),
+			totalCount,
+			getMinValue(),
+			getValueAtPercentile(50),
+			getValueAtPercentile(90),
+			getValueAtPercentile(99),
+			getValueAtPercentile(99.9),
+			getMaxValue()
+		);
+	}
+
+	private void addCount(int index, long count) {
+		counts[index] += count;
+		totalCount += count;
+
+		if (minIndex < 0 || index < minIndex) {
+			minIndex = index;
+		}
+
+		if (index > maxIndex) {
+			maxIndex = index;
+		}
+	}
+
+	private int countsIndex(long value) {
+		int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+		int subBucketIndex = (int) (value >>> bucketIndex);
+		int bucketBaseIndex = (bucketIndex + 1) << subBucketHalfCountMagnitude;
+		return bucketBaseIndex + subBucketIndex - subBucketHalfCount;
+	}
+
+	private long valueFromIndex(int index) {
+		int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+		int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+		if (bucketIndex < 0) {
+			subBucketIndex -= subBucketHalfCount;
+			bucketIndex = 0;
+		}
+
+		return ((long) subBucketIndex) << bucketIndex;
+	}
+
+	private long sizeOfEquivalentValueRange(long value) {
+		int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+		int subBucketIndex = (int) (value >>> bucketIndex);
+		return 1L << (subBucketIndex >= subBucketCount ? bucketIndex + 1 : bucketIndex);
+	}
+
+	private long lowestEquivalentValue(long value) {
+		int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+		int subBucketIndex = (int) (value >>> bucketIndex);
+		return ((long) subBucketIndex) << bucketIndex;
+	}
+
+	private long highestEquivalentValue(long value) {
+		return lowestEquivalentValue(value) + sizeOfEquivalentValueRange(value) - 1;
+	}
+
+	private long medianEquivalentValue(long value) {
+		return lowestEquivalentValue(value) + (sizeOfEquivalentValueRange(value) >> 1);
+	}
+
+	private static byte[] inflate(byte[] bytes, int offset, int length) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(bytes, offset, length);
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream(length * 4);
+			byte[] chunk = new byte[1024];
+			while (!inflater.finished()) {
+				int n = inflater.inflate(chunk);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalArgumentException("Encoded histogram is truncated");
+				}
+
+				output.write(chunk, 0, n);
+			}
+
+			return output.toByteArray();
+		}
+		catch (DataFormatException ex) {
+			throw new IllegalArgumentException("Encoded histogram is not valid", ex);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	// ZigZag LEB128 encoding, as used by HdrHistogram: at most 8 groups
+	// of 7 bits, the 9th byte holds the 8 most significant bits.
+	private static void putZigZag(ByteBuffer buffer, long value) {
+		long v = (value << 1) ^ (value >> 63);
+		for (int shift = 0; shift < 56; shift += 7) {
+			if ((v >>> (shift + 7)) == 0) {
+				buffer.put((byte) (v >>> shift));
+				return;
+			}
+
+			buffer.put((byte) (((v >>> shift) & 0x7F) | 0x80));
+		}
+
+		buffer.put((byte) (v >>> 56));
+	}
+
+	private static long getZigZag(ByteBuffer buffer) {
+		long v = 0;
+		boolean done = false;
+		for (int shift = 0; shift < 56 && !done; shift += 7) {
+			int b = buffer.get();
+			v |= ((long) (b & 0x7F)) << shift;
+			done = (b & 0x80) == 0;
+		}
+
+		if (!done) {
+			v |= ((long) (buffer.get() & 0xFF)) << 56;
+		}
+
+		return (v >>> 1) ^ (-(v & 1));
+	}
+}
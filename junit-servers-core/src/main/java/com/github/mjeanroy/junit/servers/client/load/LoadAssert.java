@@ -0,0 +1,304 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.percentileName;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Assertions on a {@link LoadResult}.
+ * Each metric (latency percentile, throughput, error rate) returns an object
+ * whose assertions return this object, so assertions can be chained.
+ */
+public final class LoadAssert {
+
+	/**
+	 * Result under test.
+	 */
+	private final LoadResult result;
+
+	/**
+	 * Create assertions.
+	 *
+	 * @param result Result under test.
+	 */
+	LoadAssert(LoadResult result) {
+		this.result = result;
+	}
+
+	/**
+	 * Get result under test.
+	 *
+	 * @return Result.
+	 */
+	public LoadResult getResult() {
+		return result;
+	}
+
+	/**
+	 * Assert on median latency.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert p50() {
+		return percentile(50);
+	}
+
+	/**
+	 * Assert on 90th percentile of latencies.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert p90() {
+		return percentile(90);
+	}
+
+	/**
+	 * Assert on 95th percentile of latencies.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert p95() {
+		return percentile(95);
+	}
+
+	/**
+	 * Assert on 99th percentile of latencies.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert p99() {
+		return percentile(99);
+	}
+
+	/**
+	 * Assert on 99.9th percentile of latencies.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert p999() {
+		return percentile(99.9);
+	}
+
+	/**
+	 * Assert on given percentile of latencies.
+	 *
+	 * @param percentile Percentile, between 0 and 100.
+	 * @return Latency assertions.
+	 * @throws IllegalArgumentException if percentile is not between 0 and 100.
+	 */
+	public LatencyAssert percentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100");
+		}
+
+		return new LatencyAssert("p" + percentileName(percentile), result.getLatencyAtPercentile(percentile));
+	}
+
+	/**
+	 * Assert on highest latency.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert maxLatency() {
+		return new LatencyAssert("max", result.getMaxLatency());
+	}
+
+	/**
+	 * Assert on mean latency.
+	 *
+	 * @return Latency assertions.
+	 */
+	public LatencyAssert meanLatency() {
+		return new LatencyAssert("mean", (long) result.getMeanLatency());
+	}
+
+	/**
+	 * Assert on throughput, in requests per second.
+	 *
+	 * @return Throughput assertions.
+	 */
+	public MetricAssert throughput() {
+		return new MetricAssert("throughput", result.getThroughput(), " req/s");
+	}
+
+	/**
+	 * Assert on error rate, between 0 and 1.
+	 *
+	 * @return Error rate assertions.
+	 */
+	public MetricAssert errorRate() {
+		return new MetricAssert("error rate", result.getErrorRate(), "");
+	}
+
+	/**
+	 * Assert that no request failed.
+	 *
+	 * @return Current assertions.
+	 */
+	public LoadAssert hasNoErrors() {
+		if (result.getErrorCount() > 0) {
+			fail(format(ROOT, "Expected no errors but got %d errors out of %d requests", result.getErrorCount(), result.getRequestCount()));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Assert that all requests were sent on schedule (see {@link LoadResult#isBehindSchedule()}).
+	 *
+	 * @return Current assertions.
+	 */
+	public LoadAssert isOnSchedule() {
+		if (result.isBehindSchedule()) {
+			fail(format(ROOT, "Expected requests to be sent on schedule but %d requests were late", result.getLateRequestCount()));
+		}
+
+		return this;
+	}
+
+	private void fail(String message) {
+		throw new AssertionError(message + System.lineSeparator()
+			+ result + System.lineSeparator()
+			+ result.getHistogram().toPercentileDistribution(NANOSECONDS, MILLISECONDS));
+	}
+
+	private static String millis(long nanos) {
+		return format(ROOT, "%.3f ms", nanos / 1_000_000.0);
+	}
+
+	/**
+	 * Assertions on a latency.
+	 */
+	public final class LatencyAssert {
+
+		/**
+		 * Name of latency, used in failure messages.
+		 */
+		private final String name;
+
+		/**
+		 * Latency, in nano seconds.
+		 */
+		private final long actual;
+
+		private LatencyAssert(String name, long actual) {
+			this.name = name;
+			this.actual = actual;
+		}
+
+		/**
+		 * Assert that latency is strictly lower than given value.
+		 *
+		 * @param value Expected upper bound.
+		 * @param unit Unit of upper bound.
+		 * @return Load assertions, to chain assertions.
+		 */
+		public LoadAssert isLessThan(long value, TimeUnit unit) {
+			long expected = unit.toNanos(value);
+			if (actual >= expected) {
+				fail(format(ROOT, "Expected %s latency to be less than %s but was %s", name, millis(expected), millis(actual)));
+			}
+
+			return LoadAssert.this;
+		}
+
+		/**
+		 * Assert that latency is lower or equal to given value.
+		 *
+		 * @param value Expected upper bound.
+		 * @param unit Unit of upper bound.
+		 * @return Load assertions, to chain assertions.
+		 */
+		public LoadAssert isAtMost(long value, TimeUnit unit) {
+			long expected = unit.toNanos(value);
+			if (actual > expected) {
+				fail(format(ROOT, "Expected %s latency to be at most %s but was %s", name, millis(expected), millis(actual)));
+			}
+
+			return LoadAssert.this;
+		}
+	}
+
+	/**
+	 * Assertions on a numeric metric, such as throughput.
+	 */
+	public final class MetricAssert {
+
+		/**
+		 * Name of metric, used in failure messages.
+		 */
+		private final String name;
+
+		/**
+		 * Metric value.
+		 */
+		private final double actual;
+
+		/**
+		 * Suffix of values in failure messages.
+		 */
+		private final String unit;
+
+		private MetricAssert(String name, double actual, String unit) {
+			this.name = name;
+			this.actual = actual;
+			this.unit = unit;
+		}
+
+		/**
+		 * Assert that metric is greater or equal to given value.
+		 *
+		 * @param value Expected lower bound.
+		 * @return Load assertions, to chain assertions.
+		 */
+		public LoadAssert isAtLeast(double value) {
+			if (actual < value) {
+				fail(format(ROOT, "Expected %s to be at least %.3f%s but was %.3f%s", name, value, unit, actual, unit));
+			}
+
+			return LoadAssert.this;
+		}
+
+		/**
+		 * Assert that metric is lower or equal to given value.
+		 *
+		 * @param value Expected upper bound.
+		 * @return Load assertions, to chain assertions.
+		 */
+		public LoadAssert isAtMost(double value) {
+			if (actual > value) {
+				fail(format(ROOT, "Expected %s to be at most %.3f%s but was %.3f%s", name, value, unit, actual, unit));
+			}
+
+			return LoadAssert.this;
+		}
+	}
+}
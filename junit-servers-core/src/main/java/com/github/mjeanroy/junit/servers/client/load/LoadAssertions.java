@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+/**
+ * Entry point of assertions on load results, for example:
+ *
+ * <pre><code>
+ *   assertThatLoad(result)
+ *     .p99().isLessThan(50, MILLISECONDS)
+ *     .throughput().isAtLeast(2000)
+ *     .errorRate().isAtMost(0.001);
+ * </code></pre>
+ *
+ * Failed assertions throw {@link AssertionError} with a summary of the
+ * result and the latency distribution, so they are reported as regular
+ * test failures.
+ */
+public final class LoadAssertions {
+
+	// Ensure non instantiation.
+	private LoadAssertions() {
+	}
+
+	/**
+	 * Create assertions on given result.
+	 *
+	 * @param result Load result.
+	 * @return Assertions.
+	 * @throws NullPointerException if result is null.
+	 */
+	public static LoadAssert assertThatLoad(LoadResult result) {
+		return new LoadAssert(notNull(result, "result"));
+	}
+
+	/**
+	 * Create assertions on responses recorded by given recorder.
+	 *
+	 * @param recorder Response recorder.
+	 * @return Assertions.
+	 * @throws NullPointerException if recorder is null.
+	 */
+	public static LoadAssert assertThatLoad(ResponseRecorder recorder) {
+		return assertThatLoad(notNull(recorder, "recorder").toResult());
+	}
+}
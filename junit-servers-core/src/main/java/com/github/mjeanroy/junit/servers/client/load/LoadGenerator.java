@@ -0,0 +1,390 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Closed-loop load generator: a fixed number of workers execute
+ * requests in a loop, each worker sending a new request as soon as
+ * previous response has been entirely read.
+ *
+ * Load is executed in two phases: an optional warmup phase, whose results
+ * are discarded, and a measured phase limited by a duration and/or a number
+ * of iterations (i.e requests).
+ *
+ * Note that closed-loop workers slow down when server slows down: latencies
+ * measured this way hide queueing delays, use {@link OpenLoopLoadGenerator}
+ * to measure latencies at a given arrival rate.
+ */
+public final class LoadGenerator {
+
+	/**
+	 * Default number of workers.
+	 */
+	public static final int DEFAULT_CONCURRENCY = 1;
+
+	/**
+	 * Default duration of measured phase, used when neither duration
+	 * nor number of iterations is defined: 10 seconds.
+	 */
+	public static final long DEFAULT_DURATION = SECONDS.toNanos(10);
+
+	/**
+	 * Value of limits that are not defined.
+	 */
+	private static final long UNLIMITED = -1;
+
+	/**
+	 * Get builder of load generator.
+	 *
+	 * @param client Http client used to execute requests.
+	 * @return Builder.
+	 * @throws NullPointerException if client is null.
+	 */
+	public static Builder builder(HttpClient client) {
+		return new Builder(notNull(client, "client"));
+	}
+
+	/**
+	 * Create template of requests with given method and url.
+	 *
+	 * @param method Http method.
+	 * @param url Request url.
+	 * @return Request template.
+	 * @throws NullPointerException if method or url is null.
+	 * @throws IllegalArgumentException if url is blank.
+	 */
+	static RequestTemplate template(final HttpMethod method, final String url) {
+		notNull(method, "method");
+		notBlank(url, "url");
+		return new RequestTemplate() {
+			@Override
+			public HttpRequest prepare(HttpClient client) {
+				return client.prepareRequest(method, url);
+			}
+		};
+	}
+
+	/**
+	 * Execute given request template and record its outcome.
+	 *
+	 * @param client Http client.
+	 * @param template Request template.
+	 * @param recorder Recorder.
+	 */
+	static void execute(HttpClient client, RequestTemplate template, LoadRecorder recorder) {
+		HttpRequest request;
+		try {
+			request = template.prepare(client);
+		}
+		catch (RuntimeException ex) {
+			recorder.recordFailure();
+			return;
+		}
+
+		long start = nanoTime();
+		try {
+			HttpResponse response = request.execute();
+
+			// Body is read (but not kept in memory) to measure complete
+			// response time, and release connection.
+			response.bodyDigest();
+
+			recorder.recordResponse(response.status(), nanoTime() - start);
+		}
+		catch (RuntimeException ex) {
+			recorder.recordFailure();
+		}
+	}
+
+	/**
+	 * Http client used to execute requests.
+	 */
+	private final HttpClient client;
+
+	/**
+	 * Template of requests to execute.
+	 */
+	private final RequestTemplate template;
+
+	/**
+	 * Number of workers.
+	 */
+	private final int concurrency;
+
+	/**
+	 * Duration of warmup phase, in nano seconds.
+	 */
+	private final long warmup;
+
+	/**
+	 * Duration of measured phase, in nano seconds, negative if
+	 * measured phase is only limited by number of iterations.
+	 */
+	private final long duration;
+
+	/**
+	 * Number of requests executed during measured phase, negative
+	 * if measured phase is only limited by duration.
+	 */
+	private final long iterations;
+
+	// Use builder
+	private LoadGenerator(Builder builder) {
+		this.client = builder.client;
+		this.template = notNull(builder.template, "template");
+		this.concurrency = builder.concurrency;
+		this.warmup = builder.warmup;
+
+		boolean unlimited = builder.duration == UNLIMITED && builder.iterations == UNLIMITED;
+		this.duration = unlimited ? DEFAULT_DURATION : builder.duration;
+		this.iterations = builder.iterations;
+	}
+
+	/**
+	 * Run load: warmup phase first, then measured phase.
+	 * This method blocks until load is over.
+	 *
+	 * @return Result of measured phase.
+	 * @throws LoadTestException if load is interrupted.
+	 */
+	public LoadResult run() {
+		ExecutorService executor = newFixedThreadPool(concurrency, daemonThreadFactory("junit-servers-load"));
+		try {
+			if (warmup > 0) {
+				runPhase(executor, warmup, UNLIMITED);
+			}
+
+			long startTime = currentTimeMillis();
+			long start = nanoTime();
+			LoadRecorder recorder = runPhase(executor, duration, iterations);
+			return recorder.toResult(startTime, nanoTime() - start);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoadTestException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw new LoadTestException(ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private LoadRecorder runPhase(ExecutorService executor, long duration, long iterations) throws InterruptedException, ExecutionException {
+		boolean timed = duration != UNLIMITED;
+		long deadline = nanoTime() + duration;
+		AtomicLong remaining = new AtomicLong(iterations);
+
+		List<Callable<LoadRecorder>> workers = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			workers.add(new Worker(timed, deadline, iterations != UNLIMITED ? remaining : null));
+		}
+
+		LoadRecorder recorder = new LoadRecorder();
+		for (Future<LoadRecorder> result : executor.invokeAll(workers)) {
+			recorder.add(result.get());
+		}
+
+		return recorder;
+	}
+
+	/**
+	 * Worker executing requests in a loop, until deadline is reached
+	 * or all iterations have been executed.
+	 */
+	private class Worker implements Callable<LoadRecorder> {
+
+		/**
+		 * Flag indicating if deadline must be checked.
+		 */
+		private final boolean timed;
+
+		/**
+		 * Deadline, compared to {@link System#nanoTime()}.
+		 */
+		private final long deadline;
+
+		/**
+		 * Remaining iterations, shared by all workers, null
+		 * if number of iterations is not limited.
+		 */
+		private final AtomicLong remaining;
+
+		private Worker(boolean timed, long deadline, AtomicLong remaining) {
+			this.timed = timed;
+			this.deadline = deadline;
+			this.remaining = remaining;
+		}
+
+		@Override
+		public LoadRecorder call() {
+			LoadRecorder recorder = new LoadRecorder();
+			while (!Thread.currentThread().isInterrupted() && (!timed || nanoTime() - deadline < 0) && (remaining == null || remaining.getAndDecrement() > 0)) {
+				execute(client, template, recorder);
+			}
+
+			return recorder;
+		}
+	}
+
+	/**
+	 * Builder for {@link LoadGenerator}.
+	 */
+	public static class Builder {
+
+		private final HttpClient client;
+
+		private RequestTemplate template;
+
+		private int concurrency;
+
+		private long warmup;
+
+		private long duration;
+
+		private long iterations;
+
+		// Use static factory
+		private Builder(HttpClient client) {
+			this.client = client;
+			this.concurrency = DEFAULT_CONCURRENCY;
+			this.warmup = 0;
+			this.duration = UNLIMITED;
+			this.iterations = UNLIMITED;
+		}
+
+		/**
+		 * Set template of requests to execute.
+		 *
+		 * @param template Request template.
+		 * @return Current builder.
+		 * @throws NullPointerException if template is null.
+		 */
+		public Builder withRequest(RequestTemplate template) {
+			this.template = notNull(template, "template");
+			return this;
+		}
+
+		/**
+		 * Execute requests with given method and url (a path relative to
+		 * server url, or an absolute url).
+		 *
+		 * @param method Http method.
+		 * @param url Request url.
+		 * @return Current builder.
+		 * @throws NullPointerException if method or url is null.
+		 * @throws IllegalArgumentException if url is blank.
+		 */
+		public Builder withRequest(HttpMethod method, String url) {
+			return withRequest(template(method, url));
+		}
+
+		/**
+		 * Set number of workers executing requests concurrently.
+		 *
+		 * @param concurrency Number of workers.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if concurrency is not strictly positive.
+		 */
+		public Builder withConcurrency(int concurrency) {
+			this.concurrency = strictlyPositive(concurrency, "concurrency");
+			return this;
+		}
+
+		/**
+		 * Set duration of warmup phase.
+		 *
+		 * @param warmup Warmup duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is negative.
+		 */
+		public Builder withWarmup(long warmup, TimeUnit unit) {
+			this.warmup = notNull(unit, "unit").toNanos(positive(warmup, "warmup"));
+			return this;
+		}
+
+		/**
+		 * Set duration of measured phase.
+		 *
+		 * @param duration Duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is not strictly positive.
+		 */
+		public Builder withDuration(long duration, TimeUnit unit) {
+			this.duration = notNull(unit, "unit").toNanos(strictlyPositive(duration, "duration"));
+			return this;
+		}
+
+		/**
+		 * Set number of requests executed during measured phase.
+		 *
+		 * @param iterations Number of requests.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if iterations is not strictly positive.
+		 */
+		public Builder withIterations(long iterations) {
+			this.iterations = strictlyPositive(iterations, "iterations");
+			return this;
+		}
+
+		/**
+		 * Create load generator.
+		 *
+		 * @return Load generator.
+		 * @throws NullPointerException if request template has not been set.
+		 */
+		public LoadGenerator build() {
+			return new LoadGenerator(this);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+
+/**
+ * Load level executed by a {@link SaturationFinder}: requested
+ * arrival rate, result of the load, and whether result met the
+ * service level objective.
+ */
+public final class LoadLevel {
+
+	/**
+	 * Create load level.
+	 *
+	 * @param rate Requested arrival rate, in requests per second.
+	 * @param result Result of load.
+	 * @param passed Flag indicating if result met objective.
+	 * @return Load level.
+	 * @throws NullPointerException if result is null.
+	 */
+	static LoadLevel loadLevel(double rate, LoadResult result, boolean passed) {
+		return new LoadLevel(rate, notNull(result, "result"), passed);
+	}
+
+	/**
+	 * Requested arrival rate, in requests per second.
+	 */
+	private final double rate;
+
+	/**
+	 * Result of load.
+	 */
+	private final LoadResult result;
+
+	/**
+	 * Flag indicating if result met objective.
+	 */
+	private final boolean passed;
+
+	// Use static factory
+	private LoadLevel(double rate, LoadResult result, boolean passed) {
+		this.rate = rate;
+		this.result = result;
+		this.passed = passed;
+	}
+
+	/**
+	 * Get requested arrival rate.
+	 *
+	 * @return Number of requests per second.
+	 */
+	public double getRate() {
+		return rate;
+	}
+
+	public LoadResult getResult() {
+		return result;
+	}
+
+	/**
+	 * Check if result met objective (latency and error rate).
+	 *
+	 * @return True if objective was met, false otherwise.
+	 */
+	public boolean isPassed() {
+		return passed;
+	}
+
+	@Override
+	public String toString() {
+		return format(ROOT, "%s {rate = %.1f, throughput = %.1f, p99 = %.3f ms, errorRate = %.4f, passed = %s}",
+			getClass().getSimpleName(),
+			rate,
+			result.getThroughput(),
+			result.getLatencyAtPercentile(99) / 1_000_000.0,
+			result.getErrorRate(),
+			passed
+		);
+	}
+}
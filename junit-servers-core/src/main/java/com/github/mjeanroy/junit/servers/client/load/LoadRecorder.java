@@ -0,0 +1,236 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.loadResult;
+
+/**
+ * Recorder of request outcomes during a load test.
+ * A recorder may be shared by several threads: asynchronous callbacks of
+ * {@link OpenLoopLoadGenerator}, users of {@link ResponseRecorder} and
+ * collectors of {@link ForkedLoadGenerator} all record into the same
+ * instance, so methods are synchronized to record values concurrently.
+ * Closed-loop workers use their own recorder, merged once load is over.
+ */
+final class LoadRecorder {
+
+	/**
+	 * Http status from which a response is considered as an error.
+	 */
+	private static final int ERROR_STATUS = 400;
+
+	/**
+	 * Delay after which a request sent later than its intended
+	 * send time is considered as late: 1ms.
+	 */
+	private static final long SCHEDULE_TOLERANCE = 1_000_000;
+
+	/**
+	 * Histogram of latencies.
+	 */
+	private final LatencyHistogram histogram = latencyHistogram();
+
+	/**
+	 * Number of responses per http status.
+	 */
+	private final Map<Integer, Long> statusCounts = new TreeMap<>();
+
+	/**
+	 * Number of executed requests.
+	 */
+	private long requestCount;
+
+	/**
+	 * Number of errors.
+	 */
+	private long errorCount;
+
+	/**
+	 * Number of requests sent later than their intended send time.
+	 */
+	private long lateCount;
+
+	/**
+	 * Highest delay between intended and actual send time.
+	 */
+	private long maxScheduleLag;
+
+	/**
+	 * Record a response.
+	 *
+	 * @param status Http status.
+	 * @param latency Latency, in nano seconds.
+	 */
+	synchronized void recordResponse(int status, long latency) {
+		histogram.recordValue(Math.max(latency, 0));
+		requestCount++;
+
+		if (status >= ERROR_STATUS) {
+			errorCount++;
+		}
+
+		Long count = statusCounts.get(status);
+		statusCounts.put(status, count == null ? 1 : count + 1);
+	}
+
+	/**
+	 * Record a successful operation that does not have any http status.
+	 *
+	 * @param latency Latency, in nano seconds.
+	 */
+	synchronized void recordSuccess(long latency) {
+		histogram.recordValue(Math.max(latency, 0));
+		requestCount++;
+	}
+
+	/**
+	 * Record a request that failed without response.
+	 */
+	synchronized void recordFailure() {
+		requestCount++;
+		errorCount++;
+	}
+
+	/**
+	 * Record delay between intended send time of a request and
+	 * the time it was actually sent.
+	 *
+	 * @param lag Delay, in nano seconds.
+	 */
+	synchronized void recordScheduleLag(long lag) {
+		if (lag > SCHEDULE_TOLERANCE) {
+			lateCount++;
+		}
+
+		maxScheduleLag = Math.max(maxScheduleLag, lag);
+	}
+
+	/**
+	 * Add values recorded by another recorder.
+	 *
+	 * @param recorder Recorder.
+	 */
+	synchronized void add(LoadRecorder recorder) {
+		synchronized (recorder) {
+			histogram.add(recorder.histogram);
+			requestCount += recorder.requestCount;
+			errorCount += recorder.errorCount;
+			lateCount += recorder.lateCount;
+			maxScheduleLag = Math.max(maxScheduleLag, recorder.maxScheduleLag);
+
+			for (Map.Entry<Integer, Long> entry : recorder.statusCounts.entrySet()) {
+				Long count = statusCounts.get(entry.getKey());
+				statusCounts.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Move recorded values to a new recorder: this recorder
+	 * is reset.
+	 *
+	 * @return Recorder with values recorded so far.
+	 */
+	synchronized LoadRecorder drain() {
+		LoadRecorder recorder = new LoadRecorder();
+		recorder.add(this);
+
+		histogram.reset();
+		statusCounts.clear();
+		requestCount = 0;
+		errorCount = 0;
+		lateCount = 0;
+		maxScheduleLag = 0;
+
+		return recorder;
+	}
+
+	/**
+	 * Write recorded values, histogram is written in its
+	 * compressed encoding (see {@link LatencyHistogram#encode()}).
+	 *
+	 * @param output Output.
+	 * @throws IOException If values cannot be written.
+	 */
+	synchronized void writeTo(DataOutput output) throws IOException {
+		output.writeLong(requestCount);
+		output.writeLong(errorCount);
+		output.writeLong(lateCount);
+		output.writeLong(maxScheduleLag);
+
+		output.writeInt(statusCounts.size());
+		for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+			output.writeInt(entry.getKey());
+			output.writeLong(entry.getValue());
+		}
+
+		byte[] bytes = histogram.encode();
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Read values written with {@link #writeTo(DataOutput)}.
+	 *
+	 * @param input Input.
+	 * @return Recorder.
+	 * @throws IOException If values cannot be read.
+	 */
+	static LoadRecorder readFrom(DataInput input) throws IOException {
+		LoadRecorder recorder = new LoadRecorder();
+		recorder.requestCount = input.readLong();
+		recorder.errorCount = input.readLong();
+		recorder.lateCount = input.readLong();
+		recorder.maxScheduleLag = input.readLong();
+
+		int size = input.readInt();
+		for (int i = 0; i < size; i++) {
+			recorder.statusCounts.put(input.readInt(), input.readLong());
+		}
+
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		recorder.histogram.add(LatencyHistogram.decode(bytes));
+		return recorder;
+	}
+
+	/**
+	 * Create result of recorded values.
+	 *
+	 * @param startTime Start time of measured phase, in milliseconds since epoch.
+	 * @param duration Duration of measured phase, in nano seconds.
+	 * @return Result.
+	 */
+	synchronized LoadResult toResult(long startTime, long duration) {
+		return loadResult(startTime, duration, requestCount, errorCount, new TreeMap<>(statusCounts), histogram.copy(), lateCount, maxScheduleLag);
+	}
+}
@@ -0,0 +1,371 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.client.load.HistogramLogWriter.histogramLogWriter;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Locale.ROOT;
+
+/**
+ * Result of a load test:
+ * - Number of executed requests, and number of errors (requests that
+ * failed with an exception or with an http status greater or equal to 400).
+ * - Number of responses per http status.
+ * - Histogram of latencies of received responses.
+ * - Throughput: number of requests executed per second.
+ * - For open-loop load, number of requests that could not be sent on
+ * schedule, and highest delay (see {@link OpenLoopLoadGenerator}).
+ *
+ * All durations are expressed in nano seconds.
+ */
+public final class LoadResult {
+
+	/**
+	 * Charset used to write exported results.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Percentiles reported in summaries.
+	 */
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	/**
+	 * Create result.
+	 *
+	 * @param startTime Start time of measured phase, in milliseconds since epoch.
+	 * @param duration Duration of measured phase.
+	 * @param requestCount Number of executed requests.
+	 * @param errorCount Number of errors.
+	 * @param statusCounts Number of responses per http status.
+	 * @param histogram Histogram of latencies.
+	 * @param lateCount Number of requests sent later than scheduled.
+	 * @param maxScheduleLag Highest delay between intended and actual send time.
+	 * @return Result.
+	 */
+	static LoadResult loadResult(long startTime, long duration, long requestCount, long errorCount, Map<Integer, Long> statusCounts, LatencyHistogram histogram, long lateCount, long maxScheduleLag) {
+		return new LoadResult(startTime, duration, requestCount, errorCount, statusCounts, histogram, lateCount, maxScheduleLag);
+	}
+
+	/**
+	 * Start time of measured phase, in milliseconds since epoch.
+	 */
+	private final long startTime;
+
+	/**
+	 * Duration of measured phase.
+	 */
+	private final long duration;
+
+	/**
+	 * Number of executed requests.
+	 */
+	private final long requestCount;
+
+	/**
+	 * Number of requests that failed.
+	 */
+	private final long errorCount;
+
+	/**
+	 * Number of responses per http status.
+	 */
+	private final Map<Integer, Long> statusCounts;
+
+	/**
+	 * Histogram of latencies.
+	 */
+	private final LatencyHistogram histogram;
+
+	/**
+	 * Number of requests sent later than scheduled.
+	 */
+	private final long lateCount;
+
+	/**
+	 * Highest delay between intended and actual send time.
+	 */
+	private final long maxScheduleLag;
+
+	// Use static factory
+	private LoadResult(long startTime, long duration, long requestCount, long errorCount, Map<Integer, Long> statusCounts, LatencyHistogram histogram, long lateCount, long maxScheduleLag) {
+		this.startTime = startTime;
+		this.duration = duration;
+		this.requestCount = requestCount;
+		this.errorCount = errorCount;
+		this.statusCounts = unmodifiableMap(statusCounts);
+		this.histogram = histogram;
+		this.lateCount = lateCount;
+		this.maxScheduleLag = maxScheduleLag;
+	}
+
+	/**
+	 * Get start time of measured phase.
+	 *
+	 * @return Start time, in milliseconds since epoch.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Get duration of measured phase.
+	 *
+	 * @return Duration, in nano seconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	public long getRequestCount() {
+		return requestCount;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * Get ratio of requests that failed.
+	 *
+	 * @return Error rate, between 0 and 1.
+	 */
+	public double getErrorRate() {
+		return requestCount == 0 ? 0 : errorCount / (double) requestCount;
+	}
+
+	/**
+	 * Get number of responses per http status.
+	 *
+	 * @return Number of responses, indexed by http status.
+	 */
+	public Map<Integer, Long> getStatusCounts() {
+		return statusCounts;
+	}
+
+	/**
+	 * Get throughput of measured phase.
+	 *
+	 * @return Number of requests per second.
+	 */
+	public double getThroughput() {
+		return duration == 0 ? 0 : requestCount * 1_000_000_000.0 / duration;
+	}
+
+	/**
+	 * Get histogram of latencies.
+	 *
+	 * @return Copy of latency histogram.
+	 */
+	public LatencyHistogram getHistogram() {
+		return histogram.copy();
+	}
+
+	/**
+	 * Get number of requests that were sent later than their intended
+	 * send time: load generator could not keep up with requested rate.
+	 * Always zero for closed-loop load.
+	 *
+	 * @return Number of late requests.
+	 */
+	public long getLateRequestCount() {
+		return lateCount;
+	}
+
+	/**
+	 * Get highest delay between intended and actual send time of
+	 * a request. Always zero for closed-loop load.
+	 *
+	 * @return Delay, in nano seconds.
+	 */
+	public long getMaxScheduleLag() {
+		return maxScheduleLag;
+	}
+
+	/**
+	 * Check if load generator fell behind its schedule.
+	 *
+	 * @return True if some requests were sent late, false otherwise.
+	 */
+	public boolean isBehindSchedule() {
+		return lateCount > 0;
+	}
+
+	/**
+	 * Get latency at given percentile.
+	 *
+	 * @param percentile Percentile, between 0 and 100.
+	 * @return Latency, in nano seconds.
+	 */
+	public long getLatencyAtPercentile(double percentile) {
+		return histogram.getValueAtPercentile(percentile);
+	}
+
+	/**
+	 * Get highest latency.
+	 *
+	 * @return Latency, in nano seconds.
+	 */
+	public long getMaxLatency() {
+		return histogram.getMaxValue();
+	}
+
+	/**
+	 * Get mean latency.
+	 *
+	 * @return Latency, in nano seconds.
+	 */
+	public double getMeanLatency() {
+		return histogram.getMean();
+	}
+
+	/**
+	 * Export result as a JSON document, latencies are
+	 * expressed in milliseconds.
+	 *
+	 * @return JSON document.
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		sb.append("\"startTime\":").append(startTime).append(",");
+		sb.append("\"durationMs\":").append(millis(duration)).append(",");
+		sb.append("\"requests\":").append(requestCount).append(",");
+		sb.append("\"errors\":").append(errorCount).append(",");
+		sb.append("\"errorRate\":").append(decimal(getErrorRate())).append(",");
+		sb.append("\"throughput\":").append(decimal(getThroughput())).append(",");
+		sb.append("\"lateRequests\":").append(lateCount).append(",");
+		sb.append("\"maxScheduleLagMs\":").append(millis(maxScheduleLag)).append(",");
+
+		sb.append("\"statuses\":{");
+		boolean first = true;
+		for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+			if (!first) {
+				sb.append(",");
+			}
+
+			sb.append("\"").append(entry.getKey()).append("\":").append(entry.getValue());
+			first = false;
+		}
+		sb.append("},");
+
+		sb.append("\"latencyMs\":{");
+		sb.append("\"min\":").append(millis(histogram.getMinValue())).append(",");
+		sb.append("\"mean\":").append(millis(histogram.getMean())).append(",");
+		for (double percentile : PERCENTILES) {
+			sb.append("\"p").append(percentileName(percentile)).append("\":").append(millis(histogram.getValueAtPercentile(percentile))).append(",");
+		}
+		sb.append("\"max\":").append(millis(histogram.getMaxValue()));
+		sb.append("}");
+
+		sb.append("}");
+		return sb.toString();
+	}
+
+	/**
+	 * Write result as a JSON document to given file.
+	 *
+	 * @param path File.
+	 * @throws IOException If file cannot be written.
+	 */
+	public void writeJson(Path path) throws IOException {
+		notNull(path, "path");
+		try (Writer writer = Files.newBufferedWriter(path, UTF_8)) {
+			writer.write(toJson());
+		}
+	}
+
+	/**
+	 * Write latency histogram using HdrHistogram log format.
+	 *
+	 * @param output Output.
+	 * @throws IOException If log cannot be written.
+	 */
+	public void writeHistogramLog(Appendable output) throws IOException {
+		HistogramLogWriter writer = histogramLogWriter(output);
+		writer.writeHeader(startTime);
+		writer.writeInterval(null, 0, duration, histogram);
+	}
+
+	/**
+	 * Write latency histogram to given file, using HdrHistogram log format.
+	 *
+	 * @param path File.
+	 * @throws IOException If file cannot be written.
+	 */
+	public void writeHistogramLog(Path path) throws IOException {
+		notNull(path, "path");
+		try (Writer writer = Files.newBufferedWriter(path, UTF_8)) {
+			writeHistogramLog(writer);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(format(ROOT, "%s {requests = %s, errors = %s, duration = %s ms, throughput = %.1f req/s, latency (ms): min = %s, mean = %s",
+			getClass().getSimpleName(), requestCount, errorCount, millis(duration), getThroughput(), millis(histogram.getMinValue()), millis(histogram.getMean())
+		));
+
+		for (double percentile : PERCENTILES) {
+			sb.append(", p").append(percentileName(percentile)).append(" = ").append(millis(histogram.getValueAtPercentile(percentile)));
+		}
+
+		sb.append(", max = ").append(millis(histogram.getMaxValue()));
+
+		if (lateCount > 0) {
+			sb.append(", late requests = ").append(lateCount).append(", max schedule lag = ").append(millis(maxScheduleLag)).append(" ms");
+		}
+
+		return sb.append("}").toString();
+	}
+
+	private static String millis(double nanos) {
+		return decimal(nanos / 1_000_000.0);
+	}
+
+	private static String decimal(double value) {
+		return format(ROOT, "%.3f", value);
+	}
+
+	/**
+	 * Get name of percentile, without decimals for integer percentiles (such as 99 or 99.9).
+	 *
+	 * @param percentile Percentile.
+	 * @return Name.
+	 */
+	static String percentileName(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+	}
+}
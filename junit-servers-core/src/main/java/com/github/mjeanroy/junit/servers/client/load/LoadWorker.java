@@ -0,0 +1,231 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.mjeanroy.junit.servers.client.load.LoadGenerator.execute;
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Entry point of worker processes forked by {@link ForkedLoadGenerator}:
+ * worker connects to the coordinator, receives its part of the load, runs it
+ * and streams snapshots of recorded values until load is over.
+ *
+ * This class is not meant to be used directly.
+ */
+public final class LoadWorker {
+
+	/**
+	 * Message sent with values recorded since previous snapshot.
+	 */
+	static final byte SNAPSHOT = 1;
+
+	/**
+	 * Message sent once load is over, with duration of measured phase.
+	 */
+	static final byte DONE = 2;
+
+	/**
+	 * Message sent if load cannot be executed, with error details.
+	 */
+	static final byte FAILURE = 3;
+
+	/**
+	 * Charset of error details.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	// Ensure non instantiation.
+	private LoadWorker() {
+	}
+
+	/**
+	 * Run worker.
+	 *
+	 * @param args Host and port of coordinator.
+	 * @throws IOException If coordinator cannot be reached.
+	 */
+	public static void main(String[] args) throws IOException {
+		int status = 0;
+		try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			try {
+				run(WorkerTask.readFrom(input), output);
+			}
+			catch (Exception ex) {
+				status = 1;
+				StringWriter details = new StringWriter();
+				ex.printStackTrace(new PrintWriter(details));
+				writeFailure(output, details.toString());
+				output.flush();
+			}
+		}
+
+		// Http clients may have started non daemon threads.
+		System.exit(status);
+	}
+
+	/**
+	 * Write failure message.
+	 * Details are written as a length-prefixed byte array: {@link DataOutput#writeUTF(String)}
+	 * is limited to 64KB, that a nested stack trace may exceed.
+	 *
+	 * @param output Output.
+	 * @param details Error details.
+	 * @throws IOException If message cannot be written.
+	 */
+	static void writeFailure(DataOutput output, String details) throws IOException {
+		byte[] bytes = details.getBytes(UTF_8);
+		output.writeByte(FAILURE);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Read error details of a failure message (message type has already been read).
+	 *
+	 * @param input Input.
+	 * @return Error details.
+	 * @throws IOException If message cannot be read.
+	 */
+	static String readFailure(DataInput input) throws IOException {
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static void run(WorkerTask task, DataOutputStream output) throws Exception {
+		HttpClient client = task.strategy.build(new RemoteServer(task.serverUrl, task.serverPath));
+		ExecutorService executor = newFixedThreadPool(task.concurrency, daemonThreadFactory("junit-servers-worker"));
+		try {
+			RequestTemplate template = task.template();
+			if (task.warmup > 0) {
+				runPhase(executor, client, template, task.concurrency, nanoTime() + task.warmup, new ArrayList<LoadRecorder>(), null, 0);
+			}
+
+			long start = nanoTime();
+			List<LoadRecorder> recorders = new ArrayList<>(task.concurrency);
+			runPhase(executor, client, template, task.concurrency, start + task.duration, recorders, output, task.snapshotInterval);
+			long duration = nanoTime() - start;
+
+			snapshot(recorders, output);
+			output.writeByte(DONE);
+			output.writeLong(duration);
+			output.flush();
+		}
+		finally {
+			executor.shutdownNow();
+			client.destroy();
+		}
+	}
+
+	private static void runPhase(ExecutorService executor, HttpClient client, RequestTemplate template, int concurrency, long deadline, List<LoadRecorder> recorders, DataOutputStream output, long interval) throws Exception {
+		List<Future<Void>> futures = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			LoadRecorder recorder = new LoadRecorder();
+			recorders.add(recorder);
+			futures.add(executor.submit(new Worker(client, template, recorder, deadline)));
+		}
+
+		for (Future<Void> future : futures) {
+			// Send snapshots while waiting for workers.
+			while (output != null) {
+				try {
+					future.get(interval, TimeUnit.NANOSECONDS);
+					break;
+				}
+				catch (TimeoutException ex) {
+					snapshot(recorders, output);
+				}
+			}
+
+			future.get();
+		}
+	}
+
+	private static void snapshot(List<LoadRecorder> recorders, DataOutputStream output) throws IOException {
+		LoadRecorder snapshot = new LoadRecorder();
+		for (LoadRecorder recorder : recorders) {
+			snapshot.add(recorder.drain());
+		}
+
+		output.writeByte(SNAPSHOT);
+		snapshot.writeTo(output);
+		output.flush();
+	}
+
+	/**
+	 * Worker executing requests in a loop, until deadline is reached.
+	 */
+	private static class Worker implements Callable<Void> {
+
+		private final HttpClient client;
+
+		private final RequestTemplate template;
+
+		private final LoadRecorder recorder;
+
+		private final long deadline;
+
+		private Worker(HttpClient client, RequestTemplate template, LoadRecorder recorder, long deadline) {
+			this.client = client;
+			this.template = template;
+			this.recorder = recorder;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public Void call() {
+			while (!Thread.currentThread().isInterrupted() && nanoTime() - deadline < 0) {
+				execute(client, template, recorder);
+			}
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.percentileName;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+
+/**
+ * A named performance measurement (such as a latency percentile, a
+ * throughput or a startup duration) stored by {@link BaselineStore}.
+ * Each measurement knows if lower values are better (latencies,
+ * durations) or if higher values are better (throughput).
+ */
+public final class Measurement {
+
+	/**
+	 * Allowed characters in measurement names.
+	 */
+	private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+	/**
+	 * Percentiles of latency extracted from load results.
+	 */
+	private static final double[] PERCENTILES = {50, 90, 99};
+
+	/**
+	 * Create measurement whose lower values are better (for example a duration).
+	 *
+	 * @param name Measurement name.
+	 * @param value Value.
+	 * @return Measurement.
+	 * @throws NullPointerException if name is null.
+	 * @throws IllegalArgumentException if name is blank or contains characters other than letters, digits, '.', '_' or '-'.
+	 */
+	public static Measurement lowerIsBetter(String name, double value) {
+		return new Measurement(checkName(name), value, true);
+	}
+
+	/**
+	 * Create measurement whose higher values are better (for example a throughput).
+	 *
+	 * @param name Measurement name.
+	 * @param value Value.
+	 * @return Measurement.
+	 * @throws NullPointerException if name is null.
+	 * @throws IllegalArgumentException if name is blank or contains characters other than letters, digits, '.', '_' or '-'.
+	 */
+	public static Measurement higherIsBetter(String name, double value) {
+		return new Measurement(checkName(name), value, false);
+	}
+
+	/**
+	 * Extract measurements of a load result: latency percentiles and mean
+	 * latency (in milliseconds), throughput (in requests per second) and
+	 * error rate.
+	 *
+	 * @param result Load result.
+	 * @return Measurements.
+	 * @throws NullPointerException if result is null.
+	 */
+	public static List<Measurement> of(LoadResult result) {
+		notNull(result, "result");
+
+		List<Measurement> measurements = new ArrayList<>();
+		for (double percentile : PERCENTILES) {
+			measurements.add(lowerIsBetter("latency.p" + percentileName(percentile) + ".ms", millis(result.getLatencyAtPercentile(percentile))));
+		}
+
+		measurements.add(lowerIsBetter("latency.mean.ms", millis(result.getMeanLatency())));
+		measurements.add(higherIsBetter("throughput", result.getThroughput()));
+		measurements.add(lowerIsBetter("errorRate", result.getErrorRate()));
+		return measurements;
+	}
+
+	private static String checkName(String name) {
+		if (!NAME.matcher(notBlank(name, "name")).matches()) {
+			throw new IllegalArgumentException("Measurement name must only contain letters, digits, '.', '_' or '-'");
+		}
+
+		return name;
+	}
+
+	private static double millis(double nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	/**
+	 * Measurement name.
+	 */
+	private final String name;
+
+	/**
+	 * Measurement value.
+	 */
+	private final double value;
+
+	/**
+	 * Flag indicating if lower values are better.
+	 */
+	private final boolean lowerIsBetter;
+
+	// Use static factories
+	private Measurement(String name, double value, boolean lowerIsBetter) {
+		this.name = name;
+		this.value = value;
+		this.lowerIsBetter = lowerIsBetter;
+	}
+
+	/**
+	 * Get measurement name.
+	 *
+	 * @return Name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get measurement value.
+	 *
+	 * @return Value.
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * Check if lower values are better.
+	 *
+	 * @return True if lower values are better, false if higher values are better.
+	 */
+	public boolean isLowerBetter() {
+		return lowerIsBetter;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof Measurement) {
+			Measurement m = (Measurement) o;
+			return name.equals(m.name) && Double.compare(value, m.value) == 0 && lowerIsBetter == m.lowerIsBetter;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, value, lowerIsBetter);
+	}
+
+	@Override
+	public String toString() {
+		return format(ROOT, "Measurement{name: %s, value: %.3f, lowerIsBetter: %s}", name, value, lowerIsBetter);
+	}
+}
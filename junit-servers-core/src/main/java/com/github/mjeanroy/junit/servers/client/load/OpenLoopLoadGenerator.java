@@ -0,0 +1,378 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseFuture;
+import com.github.mjeanroy.junit.servers.client.HttpResponseListener;
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.mjeanroy.junit.servers.client.load.LoadGenerator.template;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Open-loop load generator: requests are sent at a given arrival rate
+ * (constant, or linearly ramped during the measured phase), whatever the
+ * time needed by the server to answer.
+ *
+ * Requests are executed asynchronously (see {@link com.github.mjeanroy.junit.servers.client.HttpRequest#executeAsync()})
+ * and latency is measured from the intended send time of each request, not
+ * from the time it was actually sent: when server (or load generator) cannot
+ * keep up with the schedule, waiting time is part of reported latencies and
+ * tail latencies are not hidden (i.e coordinated omission is corrected).
+ * Requests sent late are reported in {@link LoadResult#getLateRequestCount()}.
+ */
+public final class OpenLoopLoadGenerator {
+
+	/**
+	 * Default maximum number of requests in flight: when it is reached,
+	 * new requests wait (and are reported as late).
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+
+	/**
+	 * Default duration of measured phase: 10 seconds.
+	 */
+	public static final long DEFAULT_DURATION = SECONDS.toNanos(10);
+
+	/**
+	 * Number of nano seconds in a second.
+	 */
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	/**
+	 * Get builder of load generator.
+	 *
+	 * @param client Http client used to execute requests.
+	 * @return Builder.
+	 * @throws NullPointerException if client is null.
+	 */
+	public static Builder builder(HttpClient client) {
+		return new Builder(notNull(client, "client"));
+	}
+
+	/**
+	 * Http client used to execute requests.
+	 */
+	private final HttpClient client;
+
+	/**
+	 * Template of requests to execute.
+	 */
+	private final RequestTemplate template;
+
+	/**
+	 * Arrival rate at the beginning of measured phase, in requests per second.
+	 */
+	private final double startRate;
+
+	/**
+	 * Arrival rate at the end of measured phase, in requests per second.
+	 */
+	private final double endRate;
+
+	/**
+	 * Duration of warmup phase (executed at start rate), in nano seconds.
+	 */
+	private final long warmup;
+
+	/**
+	 * Duration of measured phase, in nano seconds.
+	 */
+	private final long duration;
+
+	/**
+	 * Maximum number of requests in flight.
+	 */
+	private final int maxInFlight;
+
+	// Use builder
+	private OpenLoopLoadGenerator(Builder builder) {
+		this.client = builder.client;
+		this.template = notNull(builder.template, "template");
+		this.startRate = builder.startRate;
+		this.endRate = builder.endRate;
+		this.warmup = builder.warmup;
+		this.duration = builder.duration;
+		this.maxInFlight = builder.maxInFlight;
+	}
+
+	/**
+	 * Run load: warmup phase first, then measured phase.
+	 * This method blocks until all requests have completed.
+	 *
+	 * @return Result of measured phase.
+	 * @throws LoadTestException if load is interrupted.
+	 */
+	public LoadResult run() {
+		try {
+			if (warmup > 0) {
+				runPhase(nanoTime(), warmup, startRate, startRate, new LoadRecorder());
+			}
+
+			LoadRecorder recorder = new LoadRecorder();
+			long startTime = currentTimeMillis();
+			long start = nanoTime();
+			runPhase(start, duration, startRate, endRate, recorder);
+			return recorder.toResult(startTime, nanoTime() - start);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoadTestException(ex);
+		}
+	}
+
+	private void runPhase(long start, long duration, double from, double to, LoadRecorder recorder) throws InterruptedException {
+		Semaphore slots = new Semaphore(maxInFlight);
+
+		for (long i = 0; ; i++) {
+			long offset = offset(i, duration, from, to);
+			if (offset >= duration) {
+				break;
+			}
+
+			long intended = start + offset;
+			long delay = intended - nanoTime();
+			while (delay > 0) {
+				LockSupport.parkNanos(delay);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+
+				delay = intended - nanoTime();
+			}
+
+			slots.acquire();
+			recorder.recordScheduleLag(nanoTime() - intended);
+			send(intended, recorder, slots);
+		}
+
+		// Wait for requests in flight.
+		slots.acquire(maxInFlight);
+	}
+
+	/**
+	 * Compute intended send time of a request, relative to the beginning of
+	 * a phase: the number of requests sent at time {@code t} is the integral
+	 * of the arrival rate, linear between start and end rates.
+	 *
+	 * @param i Index of request.
+	 * @param duration Phase duration.
+	 * @param from Arrival rate at the beginning of the phase.
+	 * @param to Arrival rate at the end of the phase.
+	 * @return Intended send time, in nano seconds.
+	 */
+	static long offset(long i, long duration, double from, double to) {
+		double acceleration = (to - from) / (duration / NANOS_PER_SECOND);
+		double seconds = acceleration == 0 ? i / from : (Math.sqrt(from * from + 2 * acceleration * i) - from) / acceleration;
+		return Double.isNaN(seconds) ? Long.MAX_VALUE : (long) (seconds * NANOS_PER_SECOND);
+	}
+
+	private void send(final long intended, final LoadRecorder recorder, final Semaphore slots) {
+		HttpResponseFuture future;
+		try {
+			future = template.prepare(client).executeAsync();
+		}
+		catch (RuntimeException ex) {
+			recorder.recordFailure();
+			slots.release();
+			return;
+		}
+
+		future.addListener(new HttpResponseListener() {
+			@Override
+			public void onSuccess(HttpResponse response) {
+				try {
+					// Body is read (but not kept in memory) to measure complete
+					// response time, and release connection.
+					response.bodyDigest();
+					recorder.recordResponse(response.status(), nanoTime() - intended);
+				}
+				catch (RuntimeException ex) {
+					recorder.recordFailure();
+				}
+				finally {
+					slots.release();
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable error) {
+				recorder.recordFailure();
+				slots.release();
+			}
+		});
+	}
+
+	/**
+	 * Builder for {@link OpenLoopLoadGenerator}.
+	 */
+	public static class Builder {
+
+		private final HttpClient client;
+
+		private RequestTemplate template;
+
+		private double startRate;
+
+		private double endRate;
+
+		private long warmup;
+
+		private long duration;
+
+		private int maxInFlight;
+
+		// Use static factory
+		private Builder(HttpClient client) {
+			this.client = client;
+			this.startRate = 1;
+			this.endRate = 1;
+			this.warmup = 0;
+			this.duration = DEFAULT_DURATION;
+			this.maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+		}
+
+		/**
+		 * Set template of requests to execute.
+		 *
+		 * @param template Request template.
+		 * @return Current builder.
+		 * @throws NullPointerException if template is null.
+		 */
+		public Builder withRequest(RequestTemplate template) {
+			this.template = notNull(template, "template");
+			return this;
+		}
+
+		/**
+		 * Execute requests with given method and url (a path relative to
+		 * server url, or an absolute url).
+		 *
+		 * @param method Http method.
+		 * @param url Request url.
+		 * @return Current builder.
+		 * @throws NullPointerException if method or url is null.
+		 * @throws IllegalArgumentException if url is blank.
+		 */
+		public Builder withRequest(HttpMethod method, String url) {
+			return withRequest(template(method, url));
+		}
+
+		/**
+		 * Set constant arrival rate.
+		 *
+		 * @param rate Number of requests per second.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if rate is not strictly positive.
+		 */
+		public Builder withRate(double rate) {
+			return withRampedRate(rate, rate);
+		}
+
+		/**
+		 * Set arrival rate, increased (or decreased) linearly during
+		 * measured phase. Warmup phase is executed at start rate.
+		 *
+		 * @param startRate Number of requests per second at the beginning of measured phase.
+		 * @param endRate Number of requests per second at the end of measured phase.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if a rate is not strictly positive.
+		 */
+		public Builder withRampedRate(double startRate, double endRate) {
+			this.startRate = checkRate(startRate, "startRate");
+			this.endRate = checkRate(endRate, "endRate");
+			return this;
+		}
+
+		/**
+		 * Set duration of warmup phase.
+		 *
+		 * @param warmup Warmup duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is negative.
+		 */
+		public Builder withWarmup(long warmup, TimeUnit unit) {
+			this.warmup = notNull(unit, "unit").toNanos(positive(warmup, "warmup"));
+			return this;
+		}
+
+		/**
+		 * Set duration of measured phase.
+		 *
+		 * @param duration Duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is not strictly positive.
+		 */
+		public Builder withDuration(long duration, TimeUnit unit) {
+			this.duration = notNull(unit, "unit").toNanos(strictlyPositive(duration, "duration"));
+			return this;
+		}
+
+		/**
+		 * Set maximum number of requests in flight.
+		 *
+		 * @param maxInFlight Maximum number of requests in flight.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if value is not strictly positive.
+		 */
+		public Builder withMaxInFlight(int maxInFlight) {
+			this.maxInFlight = strictlyPositive(maxInFlight, "maxInFlight");
+			return this;
+		}
+
+		/**
+		 * Create load generator.
+		 *
+		 * @return Load generator.
+		 * @throws NullPointerException if request template has not been set.
+		 */
+		public OpenLoopLoadGenerator build() {
+			return new OpenLoopLoadGenerator(this);
+		}
+
+		private static double checkRate(double rate, String name) {
+			if (!(rate > 0) || Double.isInfinite(rate)) {
+				throw new IllegalArgumentException(format("%s must be strictly positive", name));
+			}
+
+			return rate;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.github.mjeanroy.junit.servers.servers.configuration.AbstractConfiguration;
+
+import javax.servlet.ServletContext;
+import java.net.URI;
+
+/**
+ * Embedded server running in another process: it can only be
+ * used to create http clients sending requests to its url.
+ */
+final class RemoteServer implements EmbeddedServer<AbstractConfiguration> {
+
+	/**
+	 * Server url.
+	 */
+	private final String url;
+
+	/**
+	 * Server path.
+	 */
+	private final String path;
+
+	/**
+	 * Server port.
+	 */
+	private final int port;
+
+	RemoteServer(String url, String path) {
+		this.url = url;
+		this.path = path;
+		this.port = URI.create(url).getPort();
+	}
+
+	@Override
+	public void start() {
+		throw new UnsupportedOperationException("Remote server cannot be started");
+	}
+
+	@Override
+	public void stop() {
+		throw new UnsupportedOperationException("Remote server cannot be stopped");
+	}
+
+	@Override
+	public void restart() {
+		throw new UnsupportedOperationException("Remote server cannot be restarted");
+	}
+
+	@Override
+	public AbstractConfiguration getConfiguration() {
+		return null;
+	}
+
+	@Override
+	public boolean isStarted() {
+		return true;
+	}
+
+	@Override
+	public int getPort() {
+		return port;
+	}
+
+	@Override
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public String getUrl() {
+		return url;
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return null;
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+
+/**
+ * Aggregate responses of requests executed by a test (for example in a
+ * loop, without any load generator), to assert on their latencies with
+ * {@link LoadAssertions}.
+ * Latency of a response is its request duration (see {@link HttpResponse#getRequestDuration()}),
+ * and throughput is computed since recorder creation.
+ *
+ * This class is thread safe.
+ */
+public final class ResponseRecorder {
+
+	/**
+	 * Create recorder, started now.
+	 *
+	 * @return Recorder.
+	 */
+	public static ResponseRecorder responseRecorder() {
+		return new ResponseRecorder();
+	}
+
+	/**
+	 * Start time, in milliseconds since epoch.
+	 */
+	private final long startTime;
+
+	/**
+	 * Start time, compared to {@link System#nanoTime()}.
+	 */
+	private final long start;
+
+	/**
+	 * Recorder.
+	 */
+	private final LoadRecorder recorder;
+
+	// Use static factory
+	private ResponseRecorder() {
+		this.startTime = currentTimeMillis();
+		this.start = nanoTime();
+		this.recorder = new LoadRecorder();
+	}
+
+	/**
+	 * Record given response.
+	 *
+	 * @param response Http response.
+	 * @return Recorded response.
+	 * @throws NullPointerException if response is null.
+	 */
+	public HttpResponse record(HttpResponse response) {
+		notNull(response, "response");
+		recorder.recordResponse(response.status(), response.getRequestDuration());
+		return response;
+	}
+
+	/**
+	 * Record given response, with latency measured by caller (for example
+	 * to include time spent to read response body).
+	 *
+	 * @param response Http response.
+	 * @param latency Latency, in nano seconds.
+	 * @return Recorded response.
+	 * @throws NullPointerException if response is null.
+	 */
+	public HttpResponse record(HttpResponse response, long latency) {
+		notNull(response, "response");
+		recorder.recordResponse(response.status(), latency);
+		return response;
+	}
+
+	/**
+	 * Record a request that failed without response.
+	 */
+	public void recordFailure() {
+		recorder.recordFailure();
+	}
+
+	/**
+	 * Create result of responses recorded so far.
+	 *
+	 * @return Result.
+	 */
+	public LoadResult toResult() {
+		return recorder.toResult(startTime, nanoTime() - start);
+	}
+}
@@ -0,0 +1,438 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.junit.servers.client.load.LoadGenerator.template;
+import static com.github.mjeanroy.junit.servers.client.load.LoadLevel.loadLevel;
+import static com.github.mjeanroy.junit.servers.client.load.SaturationResult.saturationResult;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Search the highest arrival rate sustained by a server under a
+ * service level objective: latency at a given percentile (p99 by
+ * default) and error rate must stay under given thresholds.
+ *
+ * Each load level is executed with an {@link OpenLoopLoadGenerator}, so that
+ * latencies are not hidden by coordinated omission. Two strategies are
+ * available:
+ * - Stepped: rate is increased by a fixed step, from minimum to maximum rate,
+ * until objective is not met anymore.
+ * - Binary search: rate is searched between minimum and maximum rate, until
+ * search interval is lower than given resolution. This assumes that once
+ * objective is not met, it is not met at higher rates.
+ */
+public final class SaturationFinder {
+
+	/**
+	 * Default percentile of latency objective.
+	 */
+	public static final double DEFAULT_PERCENTILE = 99;
+
+	/**
+	 * Default maximum error rate: 1%.
+	 */
+	public static final double DEFAULT_MAX_ERROR_RATE = 0.01;
+
+	/**
+	 * Default duration of each load level: 5 seconds.
+	 */
+	public static final long DEFAULT_LEVEL_DURATION = SECONDS.toNanos(5);
+
+	/**
+	 * Get builder of saturation finder.
+	 *
+	 * @param client Http client used to execute requests.
+	 * @return Builder.
+	 * @throws NullPointerException if client is null.
+	 */
+	public static Builder builder(HttpClient client) {
+		return new Builder(notNull(client, "client"));
+	}
+
+	/**
+	 * Runner of a load level.
+	 */
+	interface LevelRunner {
+
+		/**
+		 * Run load at given rate.
+		 *
+		 * @param rate Number of requests per second.
+		 * @return Result.
+		 */
+		LoadResult run(double rate);
+	}
+
+	/**
+	 * Runner of load levels.
+	 */
+	private final LevelRunner runner;
+
+	/**
+	 * Latency objective, in nano seconds.
+	 */
+	private final long latency;
+
+	/**
+	 * Percentile of latency objective.
+	 */
+	private final double percentile;
+
+	/**
+	 * Maximum error rate.
+	 */
+	private final double maxErrorRate;
+
+	/**
+	 * Lowest rate.
+	 */
+	private final double minRate;
+
+	/**
+	 * Highest rate.
+	 */
+	private final double maxRate;
+
+	/**
+	 * Rate increment of stepped strategy, negative if
+	 * binary search is used.
+	 */
+	private final double step;
+
+	/**
+	 * Resolution of binary search, negative if stepped
+	 * strategy is used.
+	 */
+	private final double resolution;
+
+	// Use builder
+	private SaturationFinder(Builder builder, LevelRunner runner) {
+		if (builder.latency < 0) {
+			throw new IllegalArgumentException("Latency objective must be defined");
+		}
+
+		if (builder.maxRate < builder.minRate) {
+			throw new IllegalArgumentException("maxRate must be greater or equal to minRate");
+		}
+
+		this.runner = runner;
+		this.latency = builder.latency;
+		this.percentile = builder.percentile;
+		this.maxErrorRate = builder.maxErrorRate;
+		this.minRate = builder.minRate;
+		this.maxRate = builder.maxRate;
+		this.step = builder.step;
+		this.resolution = builder.resolution;
+	}
+
+	/**
+	 * Run load levels until highest rate meeting objective is found.
+	 * This method blocks until search is over.
+	 *
+	 * @return Result.
+	 */
+	public SaturationResult run() {
+		List<LoadLevel> levels = new ArrayList<>();
+		if (step > 0) {
+			runSteps(levels);
+		}
+		else {
+			runBinarySearch(levels);
+		}
+
+		return saturationResult(levels, percentile);
+	}
+
+	private void runSteps(List<LoadLevel> levels) {
+		for (int i = 0; ; i++) {
+			double rate = minRate + i * step;
+			if (rate > maxRate || !runLevel(rate, levels).isPassed()) {
+				return;
+			}
+		}
+	}
+
+	private void runBinarySearch(List<LoadLevel> levels) {
+		double low = minRate;
+		double high = maxRate;
+
+		if (!runLevel(low, levels).isPassed() || runLevel(high, levels).isPassed()) {
+			return;
+		}
+
+		while (high - low > resolution) {
+			double rate = (low + high) / 2;
+			if (runLevel(rate, levels).isPassed()) {
+				low = rate;
+			}
+			else {
+				high = rate;
+			}
+		}
+	}
+
+	private LoadLevel runLevel(double rate, List<LoadLevel> levels) {
+		LoadResult result = runner.run(rate);
+		boolean passed = result.getLatencyAtPercentile(percentile) <= latency && result.getErrorRate() <= maxErrorRate;
+		LoadLevel level = loadLevel(rate, result, passed);
+		levels.add(level);
+		return level;
+	}
+
+	/**
+	 * Builder for {@link SaturationFinder}.
+	 */
+	public static class Builder {
+
+		private final HttpClient client;
+
+		private RequestTemplate template;
+
+		private long latency;
+
+		private double percentile;
+
+		private double maxErrorRate;
+
+		private double minRate;
+
+		private double maxRate;
+
+		private double step;
+
+		private double resolution;
+
+		private long levelDuration;
+
+		private long warmup;
+
+		// Use static factory
+		private Builder(HttpClient client) {
+			this.client = client;
+			this.latency = -1;
+			this.percentile = DEFAULT_PERCENTILE;
+			this.maxErrorRate = DEFAULT_MAX_ERROR_RATE;
+			this.minRate = 1;
+			this.maxRate = 1;
+			this.step = 1;
+			this.resolution = -1;
+			this.levelDuration = DEFAULT_LEVEL_DURATION;
+			this.warmup = 0;
+		}
+
+		/**
+		 * Set template of requests to execute.
+		 *
+		 * @param template Request template.
+		 * @return Current builder.
+		 * @throws NullPointerException if template is null.
+		 */
+		public Builder withRequest(RequestTemplate template) {
+			this.template = notNull(template, "template");
+			return this;
+		}
+
+		/**
+		 * Execute requests with given method and url (a path relative to
+		 * server url, or an absolute url).
+		 *
+		 * @param method Http method.
+		 * @param url Request url.
+		 * @return Current builder.
+		 * @throws NullPointerException if method or url is null.
+		 * @throws IllegalArgumentException if url is blank.
+		 */
+		public Builder withRequest(HttpMethod method, String url) {
+			return withRequest(template(method, url));
+		}
+
+		/**
+		 * Set latency objective, at default percentile (p99).
+		 *
+		 * @param latency Highest latency.
+		 * @param unit Latency unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if latency is negative.
+		 */
+		public Builder withLatencyObjective(long latency, TimeUnit unit) {
+			return withLatencyObjective(DEFAULT_PERCENTILE, latency, unit);
+		}
+
+		/**
+		 * Set latency objective: latency at given percentile must
+		 * be lower or equal to given value.
+		 *
+		 * @param percentile Percentile, between 0 and 100.
+		 * @param latency Highest latency.
+		 * @param unit Latency unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if latency is negative or if percentile is not valid.
+		 */
+		public Builder withLatencyObjective(double percentile, long latency, TimeUnit unit) {
+			if (!(percentile >= 0 && percentile <= 100)) {
+				throw new IllegalArgumentException("percentile must be between 0 and 100");
+			}
+
+			this.percentile = percentile;
+			this.latency = notNull(unit, "unit").toNanos(positive(latency, "latency"));
+			return this;
+		}
+
+		/**
+		 * Set highest error rate.
+		 *
+		 * @param maxErrorRate Error rate, between 0 and 1.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if error rate is not valid.
+		 */
+		public Builder withMaxErrorRate(double maxErrorRate) {
+			if (!(maxErrorRate >= 0 && maxErrorRate <= 1)) {
+				throw new IllegalArgumentException("maxErrorRate must be between 0 and 1");
+			}
+
+			this.maxErrorRate = maxErrorRate;
+			return this;
+		}
+
+		/**
+		 * Use stepped strategy: rate is increased by given step,
+		 * from minimum to maximum rate.
+		 *
+		 * @param minRate Lowest rate, in requests per second.
+		 * @param maxRate Highest rate, in requests per second.
+		 * @param step Rate increment, in requests per second.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if a rate is not strictly positive.
+		 */
+		public Builder withSteps(double minRate, double maxRate, double step) {
+			this.minRate = checkRate(minRate, "minRate");
+			this.maxRate = checkRate(maxRate, "maxRate");
+			this.step = checkRate(step, "step");
+			this.resolution = -1;
+			return this;
+		}
+
+		/**
+		 * Use binary search strategy: rate is searched between minimum
+		 * and maximum rate, with given resolution.
+		 *
+		 * @param minRate Lowest rate, in requests per second.
+		 * @param maxRate Highest rate, in requests per second.
+		 * @param resolution Search resolution, in requests per second.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if a rate is not strictly positive.
+		 */
+		public Builder withBinarySearch(double minRate, double maxRate, double resolution) {
+			this.minRate = checkRate(minRate, "minRate");
+			this.maxRate = checkRate(maxRate, "maxRate");
+			this.resolution = checkRate(resolution, "resolution");
+			this.step = -1;
+			return this;
+		}
+
+		/**
+		 * Set duration of each load level.
+		 *
+		 * @param duration Duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is not strictly positive.
+		 */
+		public Builder withLevelDuration(long duration, TimeUnit unit) {
+			this.levelDuration = notNull(unit, "unit").toNanos(strictlyPositive(duration, "duration"));
+			return this;
+		}
+
+		/**
+		 * Set duration of warmup executed before each load level.
+		 *
+		 * @param warmup Warmup duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if duration is negative.
+		 */
+		public Builder withWarmup(long warmup, TimeUnit unit) {
+			this.warmup = notNull(unit, "unit").toNanos(positive(warmup, "warmup"));
+			return this;
+		}
+
+		/**
+		 * Create saturation finder.
+		 *
+		 * @return Saturation finder.
+		 * @throws NullPointerException if request template has not been set.
+		 * @throws IllegalArgumentException if latency objective has not been set.
+		 */
+		public SaturationFinder build() {
+			notNull(template, "template");
+			final RequestTemplate template = this.template;
+			final HttpClient client = this.client;
+			final long duration = this.levelDuration;
+			final long warmup = this.warmup;
+
+			return build(new LevelRunner() {
+				@Override
+				public LoadResult run(double rate) {
+					return OpenLoopLoadGenerator.builder(client)
+						.withRequest(template)
+						.withRate(rate)
+						.withWarmup(warmup, TimeUnit.NANOSECONDS)
+						.withDuration(duration, TimeUnit.NANOSECONDS)
+						.build()
+						.run();
+				}
+			});
+		}
+
+		/**
+		 * Create saturation finder executing load levels with given runner.
+		 *
+		 * @param runner Runner.
+		 * @return Saturation finder.
+		 */
+		SaturationFinder build(LevelRunner runner) {
+			return new SaturationFinder(this, runner);
+		}
+
+		private static double checkRate(double rate, String name) {
+			if (!(rate > 0) || Double.isInfinite(rate)) {
+				throw new IllegalArgumentException(format("%s must be strictly positive", name));
+			}
+
+			return rate;
+		}
+	}
+}
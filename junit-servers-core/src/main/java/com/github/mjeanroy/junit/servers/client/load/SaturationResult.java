@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Locale.ROOT;
+
+/**
+ * Result of a {@link SaturationFinder}: load levels executed (i.e the
+ * latency/throughput curve, ordered by rate) and knee point, the
+ * highest level that met the objective.
+ */
+public final class SaturationResult {
+
+	/**
+	 * Create result.
+	 *
+	 * @param levels Executed levels, in execution order.
+	 * @param percentile Percentile of latency objective.
+	 * @return Result.
+	 */
+	static SaturationResult saturationResult(List<LoadLevel> levels, double percentile) {
+		return new SaturationResult(levels, percentile);
+	}
+
+	/**
+	 * Executed levels, ordered by rate.
+	 */
+	private final List<LoadLevel> curve;
+
+	/**
+	 * Highest level that met objective, null if no level met objective.
+	 */
+	private final LoadLevel knee;
+
+	/**
+	 * Percentile of latency objective.
+	 */
+	private final double percentile;
+
+	// Use static factory
+	private SaturationResult(List<LoadLevel> levels, double percentile) {
+		List<LoadLevel> curve = new ArrayList<>(levels);
+		Collections.sort(curve, new Comparator<LoadLevel>() {
+			@Override
+			public int compare(LoadLevel l1, LoadLevel l2) {
+				return Double.compare(l1.getRate(), l2.getRate());
+			}
+		});
+
+		LoadLevel knee = null;
+		for (LoadLevel level : curve) {
+			if (level.isPassed()) {
+				knee = level;
+			}
+		}
+
+		this.curve = unmodifiableList(curve);
+		this.knee = knee;
+		this.percentile = percentile;
+	}
+
+	/**
+	 * Get executed levels, ordered by rate.
+	 *
+	 * @return Load levels.
+	 */
+	public List<LoadLevel> getCurve() {
+		return curve;
+	}
+
+	/**
+	 * Get knee point: highest level that met objective.
+	 *
+	 * @return Load level, null if no level met objective.
+	 */
+	public LoadLevel getKnee() {
+		return knee;
+	}
+
+	/**
+	 * Get highest arrival rate that met objective.
+	 *
+	 * @return Number of requests per second, zero if no level met objective.
+	 */
+	public double getMaxRate() {
+		return knee == null ? 0 : knee.getRate();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(format(ROOT, "%s {maxRate = %.1f}%n", getClass().getSimpleName(), getMaxRate()));
+		sb.append(format(ROOT, "%12s %12s %12s %12s %8s%n", "rate", "throughput", "p" + percentile + " (ms)", "errors", "passed"));
+		for (LoadLevel level : curve) {
+			LoadResult result = level.getResult();
+			sb.append(format(ROOT, "%12.1f %12.1f %12.3f %12.4f %8s%n",
+				level.getRate(),
+				result.getThroughput(),
+				result.getLatencyAtPercentile(percentile) / 1_000_000.0,
+				result.getErrorRate(),
+				level.isPassed() ? (level == knee ? "knee" : "yes") : "no"
+			));
+		}
+
+		return sb.toString();
+	}
+}
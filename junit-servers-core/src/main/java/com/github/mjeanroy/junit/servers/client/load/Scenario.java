@@ -0,0 +1,468 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpHeader;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Scenario: a user journey made of several steps (for example: get login page,
+ * submit credentials with CSRF token extracted from login page, browse...).
+ *
+ * Each step executes a request, then may extract values from the response
+ * into the session of virtual user (used by following steps), then may wait
+ * for a given "think time" before next step.
+ *
+ * Scenarios are executed by many virtual users with {@link ScenarioLoad}.
+ */
+public final class Scenario {
+
+	/**
+	 * Get builder of scenario.
+	 *
+	 * @param name Scenario name.
+	 * @return Builder.
+	 * @throws NullPointerException if name is null.
+	 * @throws IllegalArgumentException if name is blank.
+	 */
+	public static Builder builder(String name) {
+		return new Builder(notBlank(name, "name"));
+	}
+
+	/**
+	 * Scenario name.
+	 */
+	private final String name;
+
+	/**
+	 * Scenario steps.
+	 */
+	private final List<Step> steps;
+
+	// Use builder
+	private Scenario(Builder builder) {
+		this.name = builder.name;
+		this.steps = unmodifiableList(new ArrayList<>(builder.steps));
+	}
+
+	/**
+	 * Get scenario name.
+	 *
+	 * @return Name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get names of scenario steps, in execution order.
+	 *
+	 * @return Step names.
+	 */
+	public List<String> getStepNames() {
+		List<String> names = new ArrayList<>(steps.size());
+		for (Step step : steps) {
+			names.add(step.name);
+		}
+
+		return names;
+	}
+
+	/**
+	 * Get scenario steps.
+	 *
+	 * @return Steps.
+	 */
+	List<Step> getSteps() {
+		return steps;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Scenario{name: %s, steps: %s}", name, getStepNames());
+	}
+
+	/**
+	 * Step of a scenario.
+	 */
+	static final class Step {
+
+		/**
+		 * Step name.
+		 */
+		private final String name;
+
+		/**
+		 * Step request.
+		 */
+		private final StepRequest request;
+
+		/**
+		 * Extractors applied on step response.
+		 */
+		private final List<Extractor> extractors;
+
+		/**
+		 * Minimum think time after step, in nano seconds.
+		 */
+		private long minThinkTime;
+
+		/**
+		 * Maximum think time after step, in nano seconds.
+		 */
+		private long maxThinkTime;
+
+		private Step(String name, StepRequest request) {
+			this.name = name;
+			this.request = request;
+			this.extractors = new ArrayList<>();
+		}
+
+		/**
+		 * Get step name.
+		 *
+		 * @return Name.
+		 */
+		String getName() {
+			return name;
+		}
+
+		/**
+		 * Get minimum think time after step.
+		 *
+		 * @return Think time, in nano seconds.
+		 */
+		long getMinThinkTime() {
+			return minThinkTime;
+		}
+
+		/**
+		 * Get maximum think time after step.
+		 *
+		 * @return Think time, in nano seconds.
+		 */
+		long getMaxThinkTime() {
+			return maxThinkTime;
+		}
+
+		/**
+		 * Prepare step request, with session cookies.
+		 *
+		 * @param client Http client.
+		 * @param session Session of virtual user.
+		 * @return Request.
+		 */
+		HttpRequest prepare(HttpClient client, Session session) {
+			HttpRequest rq = request.prepare(client, session);
+			for (Cookie cookie : session.getCookies()) {
+				rq.addCookie(cookie);
+			}
+
+			return rq;
+		}
+
+		/**
+		 * Store response cookies in session, and apply extractors.
+		 *
+		 * @param response Step response.
+		 * @param session Session of virtual user.
+		 */
+		void extract(HttpResponse response, Session session) {
+			session.storeCookies(response);
+			for (Extractor extractor : extractors) {
+				extractor.extract(response, session);
+			}
+		}
+	}
+
+	/**
+	 * Builder for {@link Scenario}.
+	 */
+	public static class Builder {
+
+		private final String name;
+
+		private final List<Step> steps;
+
+		// Use static factory
+		private Builder(String name) {
+			this.name = name;
+			this.steps = new ArrayList<>();
+		}
+
+		/**
+		 * Add step.
+		 *
+		 * @param name Step name, used to report step metrics.
+		 * @param request Step request.
+		 * @return Current builder.
+		 * @throws NullPointerException if name or request is null.
+		 * @throws IllegalArgumentException if name is blank or already used.
+		 */
+		public Builder step(String name, StepRequest request) {
+			notBlank(name, "name");
+			notNull(request, "request");
+			for (Step step : steps) {
+				if (step.name.equals(name)) {
+					throw new IllegalArgumentException("Step " + name + " is already defined");
+				}
+			}
+
+			steps.add(new Step(name, request));
+			return this;
+		}
+
+		/**
+		 * Add step executing a request with given method and url: url may
+		 * contain placeholders of session variables (such as {@code /users/${id}}).
+		 *
+		 * @param name Step name, used to report step metrics.
+		 * @param method Http method.
+		 * @param url Request url.
+		 * @return Current builder.
+		 * @throws NullPointerException if name, method or url is null.
+		 * @throws IllegalArgumentException if name or url is blank, or if name is already used.
+		 */
+		public Builder step(String name, final HttpMethod method, final String url) {
+			notNull(method, "method");
+			notBlank(url, "url");
+			return step(name, new StepRequest() {
+				@Override
+				public HttpRequest prepare(HttpClient client, Session session) {
+					return client.prepareRequest(method, session.resolve(url));
+				}
+			});
+		}
+
+		/**
+		 * Apply extractor on response of last step.
+		 *
+		 * @param extractor Extractor.
+		 * @return Current builder.
+		 * @throws NullPointerException if extractor is null.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder extract(Extractor extractor) {
+			lastStep().extractors.add(notNull(extractor, "extractor"));
+			return this;
+		}
+
+		/**
+		 * Store value of response header of last step in a session variable.
+		 * Step fails if header is missing.
+		 *
+		 * @param header Header name.
+		 * @param variable Variable name.
+		 * @return Current builder.
+		 * @throws NullPointerException if header or variable is null.
+		 * @throws IllegalArgumentException if header or variable is blank.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder extractHeader(final String header, final String variable) {
+			notBlank(header, "header");
+			notBlank(variable, "variable");
+			return extract(new Extractor() {
+				@Override
+				public void extract(HttpResponse response, Session session) {
+					HttpHeader value = response.getHeader(header);
+					if (value == null) {
+						throw new IllegalStateException("Missing header: " + header);
+					}
+
+					session.set(variable, value.getFirstValue());
+				}
+			});
+		}
+
+		/**
+		 * Store value of cookie sent in response of last step in a session variable.
+		 * Step fails if cookie is missing.
+		 *
+		 * @param cookie Cookie name.
+		 * @param variable Variable name.
+		 * @return Current builder.
+		 * @throws NullPointerException if cookie or variable is null.
+		 * @throws IllegalArgumentException if cookie or variable is blank.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder extractCookie(final String cookie, final String variable) {
+			notBlank(cookie, "cookie");
+			notBlank(variable, "variable");
+			return extract(new Extractor() {
+				@Override
+				public void extract(HttpResponse response, Session session) {
+					Cookie value = response.getCookie(cookie);
+					if (value == null) {
+						throw new IllegalStateException("Missing cookie: " + cookie);
+					}
+
+					session.set(variable, value.getValue());
+				}
+			});
+		}
+
+		/**
+		 * Store part of response body of last step in a session variable: value
+		 * is the first group of given regular expression (or the whole match if
+		 * expression does not define any group).
+		 * Step fails if body does not match.
+		 *
+		 * @param regex Regular expression.
+		 * @param variable Variable name.
+		 * @return Current builder.
+		 * @throws NullPointerException if regex or variable is null.
+		 * @throws IllegalArgumentException if regex or variable is blank.
+		 * @throws java.util.regex.PatternSyntaxException if regex is not valid.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder extractBody(String regex, final String variable) {
+			final Pattern pattern = Pattern.compile(notBlank(regex, "regex"));
+			notBlank(variable, "variable");
+			return extract(new Extractor() {
+				@Override
+				public void extract(HttpResponse response, Session session) {
+					Matcher matcher = pattern.matcher(response.body());
+					if (!matcher.find()) {
+						throw new IllegalStateException("Response body does not match: " + pattern);
+					}
+
+					session.set(variable, matcher.group(matcher.groupCount() > 0 ? 1 : 0));
+				}
+			});
+		}
+
+		/**
+		 * Add CSRF token stored in given session variable to request of last
+		 * step (see {@link HttpRequest#addCsrfToken(String)}).
+		 * Step fails if variable is not defined.
+		 *
+		 * @param variable Variable name.
+		 * @return Current builder.
+		 * @throws NullPointerException if variable is null.
+		 * @throws IllegalArgumentException if variable is blank.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder withCsrfToken(final String variable) {
+			notBlank(variable, "variable");
+			Step step = lastStep();
+			final StepRequest request = step.request;
+			Step csrfStep = new Step(step.name, new StepRequest() {
+				@Override
+				public HttpRequest prepare(HttpClient client, Session session) {
+					String token = session.get(variable);
+					if (token == null) {
+						throw new IllegalStateException("Missing CSRF token: " + variable);
+					}
+
+					HttpRequest rq = request.prepare(client, session);
+					rq.addCsrfToken(token);
+					return rq;
+				}
+			});
+
+			csrfStep.extractors.addAll(step.extractors);
+			csrfStep.minThinkTime = step.minThinkTime;
+			csrfStep.maxThinkTime = step.maxThinkTime;
+			steps.set(steps.size() - 1, csrfStep);
+			return this;
+		}
+
+		/**
+		 * Wait for given think time after last step.
+		 *
+		 * @param thinkTime Think time.
+		 * @param unit Think time unit.
+		 * @return Current builder.
+		 * @throws NullPointerException if unit is null.
+		 * @throws IllegalArgumentException if think time is negative.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder thinkTime(long thinkTime, TimeUnit unit) {
+			return thinkTime(thinkTime, thinkTime, unit);
+		}
+
+		/**
+		 * Wait for a random think time, between given bounds, after last step.
+		 *
+		 * @param min Minimum think time.
+		 * @param max Maximum think time.
+		 * @param unit Think time unit.
+		 * @return Current builder.
+		 * @throws NullPointerException if unit is null.
+		 * @throws IllegalArgumentException if think times are negative, or if min is greater than max.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Builder thinkTime(long min, long max, TimeUnit unit) {
+			notNull(unit, "unit");
+			positive(min, "min");
+			positive(max, "max");
+			if (min > max) {
+				throw new IllegalArgumentException("Minimum think time must be lower than maximum think time");
+			}
+
+			Step step = lastStep();
+			step.minThinkTime = unit.toNanos(min);
+			step.maxThinkTime = unit.toNanos(max);
+			return this;
+		}
+
+		private Step lastStep() {
+			if (steps.isEmpty()) {
+				throw new IllegalStateException("A step must be defined first");
+			}
+
+			return steps.get(steps.size() - 1);
+		}
+
+		/**
+		 * Create scenario.
+		 *
+		 * @return Scenario.
+		 * @throws IllegalStateException if no step has been defined.
+		 */
+		public Scenario build() {
+			if (steps.isEmpty()) {
+				throw new IllegalStateException("Scenario must define at least one step");
+			}
+
+			return new Scenario(this);
+		}
+	}
+}
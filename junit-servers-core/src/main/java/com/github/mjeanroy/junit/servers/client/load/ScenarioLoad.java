@@ -0,0 +1,449 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.mjeanroy.junit.servers.client.load.ScenarioResult.scenarioResult;
+import static com.github.mjeanroy.junit.servers.commons.DaemonThreadFactory.daemonThreadFactory;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Execute a {@link Scenario} with many virtual users: each virtual user
+ * executes the scenario in a loop, each iteration starting with a new
+ * session (variables and cookies), until duration is elapsed or all
+ * iterations have been executed.
+ *
+ * When a step fails (exception, http error or failed extraction), following
+ * steps of the iteration are skipped, and the user starts a new iteration.
+ *
+ * Note that each virtual user is bound to a thread: think times are
+ * implemented with {@link Thread#sleep(long)}, so the number of users
+ * should stay reasonable (a few hundreds).
+ */
+public final class ScenarioLoad {
+
+	/**
+	 * Default number of virtual users.
+	 */
+	public static final int DEFAULT_USERS = 1;
+
+	/**
+	 * Default duration, used when neither duration nor number
+	 * of iterations is defined: 10 seconds.
+	 */
+	public static final long DEFAULT_DURATION = SECONDS.toNanos(10);
+
+	/**
+	 * Value of limits that are not defined.
+	 */
+	private static final long UNLIMITED = -1;
+
+	/**
+	 * Http status from which a step is considered as failed.
+	 */
+	private static final int ERROR_STATUS = 400;
+
+	/**
+	 * Status recorded for steps failing without response.
+	 */
+	private static final int NO_RESPONSE = -1;
+
+	/**
+	 * Get builder of scenario load.
+	 *
+	 * @param client Http client used to execute requests.
+	 * @param scenario Scenario executed by each virtual user.
+	 * @return Builder.
+	 * @throws NullPointerException if client or scenario is null.
+	 */
+	public static Builder builder(HttpClient client, Scenario scenario) {
+		return new Builder(notNull(client, "client"), notNull(scenario, "scenario"));
+	}
+
+	/**
+	 * Http client used to execute requests.
+	 */
+	private final HttpClient client;
+
+	/**
+	 * Scenario.
+	 */
+	private final Scenario scenario;
+
+	/**
+	 * Number of virtual users.
+	 */
+	private final int users;
+
+	/**
+	 * Delay between start of first and last user, in nano seconds.
+	 */
+	private final long rampUp;
+
+	/**
+	 * Duration, in nano seconds, negative if load is
+	 * only limited by number of iterations.
+	 */
+	private final long duration;
+
+	/**
+	 * Number of scenario iterations, negative if load is
+	 * only limited by duration.
+	 */
+	private final long iterations;
+
+	// Use builder
+	private ScenarioLoad(Builder builder) {
+		this.client = builder.client;
+		this.scenario = builder.scenario;
+		this.users = builder.users;
+		this.rampUp = builder.rampUp;
+
+		boolean unlimited = builder.duration == UNLIMITED && builder.iterations == UNLIMITED;
+		this.duration = unlimited ? DEFAULT_DURATION : builder.duration;
+		this.iterations = builder.iterations;
+	}
+
+	/**
+	 * Run load.
+	 * This method blocks until load is over.
+	 *
+	 * @return Result.
+	 * @throws LoadTestException if load is interrupted.
+	 */
+	public ScenarioResult run() {
+		ExecutorService executor = newFixedThreadPool(users, daemonThreadFactory("junit-servers-scenario"));
+		try {
+			long startTime = currentTimeMillis();
+			long start = nanoTime();
+			long deadline = start + duration;
+			AtomicLong remaining = iterations == UNLIMITED ? null : new AtomicLong(iterations);
+
+			List<VirtualUser> virtualUsers = new ArrayList<>(users);
+			for (int i = 0; i < users; i++) {
+				long delay = users > 1 ? rampUp * i / (users - 1) : 0;
+				virtualUsers.add(new VirtualUser(i, start + delay, duration != UNLIMITED, deadline, remaining));
+			}
+
+			LoadRecorder journey = new LoadRecorder();
+			List<LoadRecorder> steps = newRecorders();
+			for (Future<VirtualUser> result : executor.invokeAll(virtualUsers)) {
+				VirtualUser user = result.get();
+				journey.add(user.journey);
+				for (int i = 0; i < steps.size(); i++) {
+					steps.get(i).add(user.steps.get(i));
+				}
+			}
+
+			long elapsed = nanoTime() - start;
+			Map<String, LoadResult> stepResults = new LinkedHashMap<>();
+			List<Scenario.Step> scenarioSteps = scenario.getSteps();
+			for (int i = 0; i < scenarioSteps.size(); i++) {
+				stepResults.put(scenarioSteps.get(i).getName(), steps.get(i).toResult(startTime, elapsed));
+			}
+
+			return scenarioResult(scenario.getName(), users, journey.toResult(startTime, elapsed), stepResults);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoadTestException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw new LoadTestException(ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<LoadRecorder> newRecorders() {
+		int size = scenario.getSteps().size();
+		List<LoadRecorder> recorders = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			recorders.add(new LoadRecorder());
+		}
+
+		return recorders;
+	}
+
+	/**
+	 * Virtual user, executing scenario in a loop.
+	 */
+	private class VirtualUser implements Callable<VirtualUser> {
+
+		/**
+		 * User index.
+		 */
+		private final int id;
+
+		/**
+		 * Start time of user, compared to {@link System#nanoTime()}.
+		 */
+		private final long startAt;
+
+		/**
+		 * Flag indicating if deadline must be checked.
+		 */
+		private final boolean timed;
+
+		/**
+		 * Deadline, compared to {@link System#nanoTime()}.
+		 */
+		private final long deadline;
+
+		/**
+		 * Remaining iterations, shared by all users, null
+		 * if number of iterations is not limited.
+		 */
+		private final AtomicLong remaining;
+
+		/**
+		 * Recorder of journeys.
+		 */
+		private final LoadRecorder journey;
+
+		/**
+		 * Recorders of steps, in scenario order.
+		 */
+		private final List<LoadRecorder> steps;
+
+		/**
+		 * Latency of last executed step, in nano seconds.
+		 */
+		private long lastLatency;
+
+		private VirtualUser(int id, long startAt, boolean timed, long deadline, AtomicLong remaining) {
+			this.id = id;
+			this.startAt = startAt;
+			this.timed = timed;
+			this.deadline = deadline;
+			this.remaining = remaining;
+			this.journey = new LoadRecorder();
+			this.steps = newRecorders();
+		}
+
+		@Override
+		public VirtualUser call() throws InterruptedException {
+			NANOSECONDS.sleep(startAt - nanoTime());
+			while (!Thread.currentThread().isInterrupted() && !isOver() && (remaining == null || remaining.getAndDecrement() > 0)) {
+				iterate(new Session(id));
+			}
+
+			return this;
+		}
+
+		private void iterate(Session session) throws InterruptedException {
+			List<Scenario.Step> scenarioSteps = scenario.getSteps();
+			long latency = 0;
+			for (int i = 0; i < scenarioSteps.size(); i++) {
+				Scenario.Step step = scenarioSteps.get(i);
+				int status = execute(step, session, steps.get(i));
+				latency += lastLatency;
+
+				boolean failed = status == NO_RESPONSE || status >= ERROR_STATUS;
+				if (failed || i == scenarioSteps.size() - 1) {
+					if (status == NO_RESPONSE) {
+						journey.recordFailure();
+					}
+					else {
+						journey.recordResponse(status, latency);
+					}
+
+					return;
+				}
+
+				think(step);
+				if (isOver()) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Execute step and record its outcome, latency of step is
+		 * stored in {@link #lastLatency}.
+		 *
+		 * @param step Step.
+		 * @param session Session of virtual user.
+		 * @param recorder Recorder of step.
+		 * @return Http status, {@link #NO_RESPONSE} if step failed without response or if extraction failed.
+		 */
+		private int execute(Scenario.Step step, Session session, LoadRecorder recorder) {
+			long start = nanoTime();
+			try {
+				HttpRequest request = step.prepare(client, session);
+				start = nanoTime();
+
+				HttpResponse response = request.execute();
+
+				// Body is buffered so that extractors can read it.
+				response.body();
+				lastLatency = nanoTime() - start;
+
+				// Extractors are not applied on error responses: journey is aborted anyway.
+				int status = response.status();
+				if (status < ERROR_STATUS) {
+					step.extract(response, session);
+				}
+
+				recorder.recordResponse(status, lastLatency);
+				return status;
+			}
+			catch (RuntimeException ex) {
+				lastLatency = nanoTime() - start;
+				recorder.recordFailure();
+				return NO_RESPONSE;
+			}
+		}
+
+		private void think(Scenario.Step step) throws InterruptedException {
+			long min = step.getMinThinkTime();
+			long max = step.getMaxThinkTime();
+			long thinkTime = min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+			if (timed) {
+				thinkTime = Math.min(thinkTime, deadline - nanoTime());
+			}
+
+			NANOSECONDS.sleep(thinkTime);
+		}
+
+		private boolean isOver() {
+			return timed && nanoTime() - deadline >= 0;
+		}
+	}
+
+	/**
+	 * Builder for {@link ScenarioLoad}.
+	 */
+	public static class Builder {
+
+		private final HttpClient client;
+
+		private final Scenario scenario;
+
+		private int users;
+
+		private long rampUp;
+
+		private long duration;
+
+		private long iterations;
+
+		// Use static factory
+		private Builder(HttpClient client, Scenario scenario) {
+			this.client = client;
+			this.scenario = scenario;
+			this.users = DEFAULT_USERS;
+			this.rampUp = 0;
+			this.duration = UNLIMITED;
+			this.iterations = UNLIMITED;
+		}
+
+		/**
+		 * Set number of virtual users executing scenario concurrently.
+		 *
+		 * @param users Number of users.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if users is not strictly positive.
+		 */
+		public Builder withUsers(int users) {
+			this.users = strictlyPositive(users, "users");
+			return this;
+		}
+
+		/**
+		 * Start virtual users progressively: users are started at regular
+		 * intervals, last user being started after given delay.
+		 *
+		 * @param rampUp Delay between start of first and last user.
+		 * @param unit Delay unit.
+		 * @return Current builder.
+		 * @throws NullPointerException if unit is null.
+		 * @throws IllegalArgumentException if delay is negative.
+		 */
+		public Builder withRampUp(long rampUp, TimeUnit unit) {
+			this.rampUp = notNull(unit, "unit").toNanos(positive(rampUp, "rampUp"));
+			return this;
+		}
+
+		/**
+		 * Set duration of load (ramp-up included).
+		 *
+		 * @param duration Duration.
+		 * @param unit Duration unit.
+		 * @return Current builder.
+		 * @throws NullPointerException if unit is null.
+		 * @throws IllegalArgumentException if duration is not strictly positive.
+		 */
+		public Builder withDuration(long duration, TimeUnit unit) {
+			this.duration = notNull(unit, "unit").toNanos(strictlyPositive(duration, "duration"));
+			return this;
+		}
+
+		/**
+		 * Set number of scenario iterations, shared by all users.
+		 *
+		 * @param iterations Number of iterations.
+		 * @return Current builder.
+		 * @throws IllegalArgumentException if iterations is not strictly positive.
+		 */
+		public Builder withIterations(long iterations) {
+			this.iterations = strictlyPositive(iterations, "iterations");
+			return this;
+		}
+
+		/**
+		 * Create scenario load.
+		 *
+		 * @return Scenario load.
+		 */
+		public ScenarioLoad build() {
+			return new ScenarioLoad(this);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Result of a {@link ScenarioLoad}:
+ * - Result of each step, in scenario order: a step failing with an
+ * exception, an http error, or a failed extraction is counted as an error.
+ * - Result of journeys: one entry per scenario iteration, whose latency is
+ * the sum of latencies of executed steps (think times are excluded). A
+ * journey aborted by a failing step is counted as an error.
+ */
+public final class ScenarioResult {
+
+	/**
+	 * Create result.
+	 *
+	 * @param scenario Scenario name.
+	 * @param users Number of virtual users.
+	 * @param journey Result of journeys.
+	 * @param steps Result of each step, in scenario order.
+	 * @return Result.
+	 */
+	static ScenarioResult scenarioResult(String scenario, int users, LoadResult journey, Map<String, LoadResult> steps) {
+		return new ScenarioResult(scenario, users, journey, steps);
+	}
+
+	/**
+	 * Scenario name.
+	 */
+	private final String scenario;
+
+	/**
+	 * Number of virtual users.
+	 */
+	private final int users;
+
+	/**
+	 * Result of journeys.
+	 */
+	private final LoadResult journey;
+
+	/**
+	 * Result of each step.
+	 */
+	private final Map<String, LoadResult> steps;
+
+	// Use static factory
+	private ScenarioResult(String scenario, int users, LoadResult journey, Map<String, LoadResult> steps) {
+		this.scenario = scenario;
+		this.users = users;
+		this.journey = journey;
+		this.steps = unmodifiableMap(new LinkedHashMap<>(steps));
+	}
+
+	/**
+	 * Get scenario name.
+	 *
+	 * @return Name.
+	 */
+	public String getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * Get number of virtual users.
+	 *
+	 * @return Number of users.
+	 */
+	public int getUsers() {
+		return users;
+	}
+
+	/**
+	 * Get result of journeys (i.e complete scenario iterations).
+	 *
+	 * @return Result.
+	 */
+	public LoadResult getJourney() {
+		return journey;
+	}
+
+	/**
+	 * Get result of each step, in scenario order.
+	 *
+	 * @return Step results, indexed by step name.
+	 */
+	public Map<String, LoadResult> getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Get result of given step.
+	 *
+	 * @param step Step name.
+	 * @return Step result, null if step does not exist.
+	 */
+	public LoadResult getStep(String step) {
+		return steps.get(step);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Scenario ").append(scenario).append(" (").append(users).append(" users)");
+		sb.append(System.lineSeparator()).append("  journey: ").append(journey);
+		for (Map.Entry<String, LoadResult> entry : steps.entrySet()) {
+			sb.append(System.lineSeparator()).append("  ").append(entry.getKey()).append(": ").append(entry.getValue());
+		}
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+import static java.util.Collections.unmodifiableCollection;
+
+/**
+ * State of a virtual user during a scenario iteration: variables
+ * extracted from responses (such as CSRF tokens or identifiers) and
+ * cookies sent by the server.
+ * A session is used by a single thread.
+ */
+public final class Session {
+
+	/**
+	 * Index of virtual user.
+	 */
+	private final int userId;
+
+	/**
+	 * Session variables.
+	 */
+	private final Map<String, String> variables;
+
+	/**
+	 * Cookies, indexed by name.
+	 */
+	private final Map<String, Cookie> cookies;
+
+	/**
+	 * Create session.
+	 *
+	 * @param userId Index of virtual user.
+	 */
+	Session(int userId) {
+		this.userId = userId;
+		this.variables = new HashMap<>();
+		this.cookies = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Get index of virtual user, between zero and number of users.
+	 *
+	 * @return User index.
+	 */
+	public int getUserId() {
+		return userId;
+	}
+
+	/**
+	 * Get value of session variable.
+	 *
+	 * @param name Variable name.
+	 * @return Variable value, null if variable is not defined.
+	 */
+	public String get(String name) {
+		return variables.get(name);
+	}
+
+	/**
+	 * Set value of session variable.
+	 *
+	 * @param name Variable name.
+	 * @param value Variable value.
+	 * @return Current session.
+	 * @throws NullPointerException if name or value is null.
+	 * @throws IllegalArgumentException if name is blank.
+	 */
+	public Session set(String name, String value) {
+		variables.put(notBlank(name, "name"), notNull(value, "value"));
+		return this;
+	}
+
+	/**
+	 * Check if session variable is defined.
+	 *
+	 * @param name Variable name.
+	 * @return True if variable is defined, false otherwise.
+	 */
+	public boolean contains(String name) {
+		return variables.containsKey(name);
+	}
+
+	/**
+	 * Replace placeholders ({@code ${name}}) with value of session variables.
+	 * Placeholders of undefined variables are kept as is.
+	 *
+	 * @param value Value with placeholders.
+	 * @return Resolved value.
+	 */
+	public String resolve(String value) {
+		int start = value.indexOf("${");
+		if (start < 0) {
+			return value;
+		}
+
+		StringBuilder sb = new StringBuilder(value.length());
+		int current = 0;
+		while (start >= 0) {
+			int end = value.indexOf('}', start + 2);
+			if (end < 0) {
+				break;
+			}
+
+			String variable = variables.get(value.substring(start + 2, end));
+			sb.append(value, current, start).append(variable == null ? value.substring(start, end + 1) : variable);
+			current = end + 1;
+			start = value.indexOf("${", current);
+		}
+
+		return sb.append(value, current, value.length()).toString();
+	}
+
+	/**
+	 * Get cookies sent by the server during this session.
+	 *
+	 * @return Cookies.
+	 */
+	public Collection<Cookie> getCookies() {
+		return unmodifiableCollection(cookies.values());
+	}
+
+	/**
+	 * Store cookies of given response: cookies with an empty
+	 * value are removed from session.
+	 *
+	 * @param response Http response.
+	 */
+	void storeCookies(HttpResponse response) {
+		for (Cookie cookie : response.getCookies()) {
+			if (cookie.getValue().isEmpty()) {
+				cookies.remove(cookie.getName());
+			}
+			else {
+				cookies.put(cookie.getName(), cookie);
+			}
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpParameter;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.mjeanroy.junit.servers.client.HttpParameter.param;
+
+/**
+ * Part of a load sent by a {@link ForkedLoadGenerator} to
+ * a {@link LoadWorker} process.
+ */
+final class WorkerTask {
+
+	/**
+	 * Strategy used by worker to create its http client.
+	 */
+	final HttpClientStrategy strategy;
+
+	/**
+	 * Url of embedded server.
+	 */
+	final String serverUrl;
+
+	/**
+	 * Path of embedded server.
+	 */
+	final String serverPath;
+
+	/**
+	 * Http method of requests.
+	 */
+	final HttpMethod method;
+
+	/**
+	 * Url of requests.
+	 */
+	final String url;
+
+	/**
+	 * Headers added to requests.
+	 */
+	final List<HttpParameter> headers;
+
+	/**
+	 * Number of concurrent requests in worker.
+	 */
+	final int concurrency;
+
+	/**
+	 * Duration of warmup phase, in nano seconds.
+	 */
+	final long warmup;
+
+	/**
+	 * Duration of measured phase, in nano seconds.
+	 */
+	final long duration;
+
+	/**
+	 * Delay between two snapshots sent by worker, in nano seconds.
+	 */
+	final long snapshotInterval;
+
+	WorkerTask(HttpClientStrategy strategy, String serverUrl, String serverPath, HttpMethod method, String url, List<HttpParameter> headers, int concurrency, long warmup, long duration, long snapshotInterval) {
+		this.strategy = strategy;
+		this.serverUrl = serverUrl;
+		this.serverPath = serverPath;
+		this.method = method;
+		this.url = url;
+		this.headers = headers;
+		this.concurrency = concurrency;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	/**
+	 * Create template of requests of this task.
+	 *
+	 * @return Request template.
+	 */
+	RequestTemplate template() {
+		return new RequestTemplate() {
+			@Override
+			public HttpRequest prepare(HttpClient client) {
+				HttpRequest request = client.prepareRequest(method, url);
+				for (HttpParameter header : headers) {
+					request.addHeader(header.getName(), header.getValue());
+				}
+
+				return request;
+			}
+		};
+	}
+
+	/**
+	 * Write task.
+	 *
+	 * @param output Output.
+	 * @throws IOException If task cannot be written.
+	 */
+	void writeTo(DataOutput output) throws IOException {
+		output.writeUTF(strategy.name());
+		output.writeUTF(serverUrl);
+		output.writeUTF(serverPath);
+		output.writeUTF(method.name());
+		output.writeUTF(url);
+
+		output.writeInt(headers.size());
+		for (HttpParameter header : headers) {
+			output.writeUTF(header.getName());
+			output.writeUTF(header.getValue());
+		}
+
+		output.writeInt(concurrency);
+		output.writeLong(warmup);
+		output.writeLong(duration);
+		output.writeLong(snapshotInterval);
+	}
+
+	/**
+	 * Read task written with {@link #writeTo(DataOutput)}.
+	 *
+	 * @param input Input.
+	 * @return Task.
+	 * @throws IOException If task cannot be read.
+	 */
+	static WorkerTask readFrom(DataInput input) throws IOException {
+		HttpClientStrategy strategy = HttpClientStrategy.valueOf(input.readUTF());
+		String serverUrl = input.readUTF();
+		String serverPath = input.readUTF();
+		HttpMethod method = HttpMethod.valueOf(input.readUTF());
+		String url = input.readUTF();
+
+		int size = input.readInt();
+		List<HttpParameter> headers = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			headers.add(param(input.readUTF(), input.readUTF()));
+		}
+
+		int concurrency = input.readInt();
+		long warmup = input.readLong();
+		long duration = input.readLong();
+		long snapshotInterval = input.readLong();
+		return new WorkerTask(strategy, serverUrl, serverPath, method, url, headers, concurrency, warmup, duration, snapshotInterval);
+	}
+}
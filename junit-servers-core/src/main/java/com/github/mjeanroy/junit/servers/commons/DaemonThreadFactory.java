@@ -0,0 +1,73 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.commons;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notBlank;
+
+/**
+ * Thread factory creating named daemon threads: threads
+ * created by this factory never prevent the JVM from exiting
+ * once tests are over.
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+	/**
+	 * Create new thread factory.
+	 *
+	 * @param prefix Prefix of thread names.
+	 * @return Thread factory.
+	 * @throws NullPointerException if prefix is null.
+	 * @throws IllegalArgumentException if prefix is empty or blank.
+	 */
+	public static DaemonThreadFactory daemonThreadFactory(String prefix) {
+		return new DaemonThreadFactory(notBlank(prefix, "prefix"));
+	}
+
+	/**
+	 * Prefix of thread names.
+	 */
+	private final String prefix;
+
+	/**
+	 * Number of created threads, used to generate thread names.
+	 */
+	private final AtomicInteger counter;
+
+	// Use static factory
+	private DaemonThreadFactory(String prefix) {
+		this.prefix = prefix;
+		this.counter = new AtomicInteger(0);
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
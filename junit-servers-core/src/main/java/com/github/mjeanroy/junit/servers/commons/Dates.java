@@ -28,18 +28,60 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.Locale;
-import java.util.Set;
 import java.util.TimeZone;
-
-import static java.util.Collections.addAll;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Static date utilities.
+ *
+ * Date formats are compiled once per pattern and per thread, and
+ * kept in a small cache: formatting and parsing dates is thread-safe.
  */
 public final class Dates {
 
+	/**
+	 * Pattern of dates used in http headers (RFC 1123).
+	 */
+	public static final String RFC_1123 = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+	/**
+	 * Maximum number of patterns kept in cache: patterns
+	 * are expected to be constants.
+	 */
+	private static final int MAX_CACHED_PATTERNS = 32;
+
+	/**
+	 * Time zone of http dates.
+	 */
+	private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
+	/**
+	 * Date formats, indexed by pattern.
+	 * Date formats are not thread-safe, so each thread gets its own instance.
+	 */
+	private static final ConcurrentMap<String, ThreadLocal<DateFormat>> FORMATS = new ConcurrentHashMap<>();
+
+	/**
+	 * Last formatted RFC 1123 date, formatting is made only once per second.
+	 */
+	private static volatile CachedDate lastHttpDate = new CachedDate(Long.MIN_VALUE, null);
+
+	/**
+	 * Day names, as found in RFC 1123 dates (first day is a sunday).
+	 */
+	private static final String[] DAYS = {
+			"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"
+	};
+
+	/**
+	 * Month names, as found in http and cookie dates.
+	 */
+	private static final String[] MONTHS = {
+			"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+	};
+
 	private Dates() {
 	}
 
@@ -54,24 +96,31 @@ public final class Dates {
 	 * @return Date, null if pattern is not valid.
 	 */
 	public static Date parse(String date, String pattern, String... patterns) {
-		Set<String> set = new HashSet<>();
-		set.add(pattern);
-		if (patterns != null) {
-			addAll(set, patterns);
+		Date result = tryParse(date, pattern);
+		if (result != null || patterns == null) {
+			return result;
 		}
 
-		for (String p : set) {
-			try {
-				return df(p).parse(date);
-			}
-			catch (ParseException ex) {
-				// Skip pattern
+		for (String p : patterns) {
+			result = tryParse(date, p);
+			if (result != null) {
+				return result;
 			}
 		}
 
 		return null;
 	}
 
+	private static Date tryParse(String date, String pattern) {
+		try {
+			return df(pattern).parse(date);
+		}
+		catch (ParseException ex) {
+			// Skip pattern
+			return null;
+		}
+	}
+
 	/**
 	 * Parse date using given pattern and return time value.
 	 * Note that this method will return null if pattern is not
@@ -106,14 +155,323 @@ public final class Dates {
 	 * @return Formatted date.
 	 */
 	public static String formatTime(long time, String pattern) {
-		Date date = new Date();
-		date.setTime(time);
-		return format(date, pattern);
+		return format(new Date(time), pattern);
+	}
+
+	/**
+	 * Format date as an http date (RFC 1123), such as
+	 * {@code Wed, 13 Jan 2021 22:23:01 GMT}.
+	 * Result is cached for the current second, so formatting dates
+	 * in a same second (such as current date) is allocation free.
+	 *
+	 * @param date Date.
+	 * @return Formatted date.
+	 */
+	public static String formatHttpDate(Date date) {
+		return formatHttpTime(date.getTime());
+	}
+
+	/**
+	 * Format timestamp as an http date (RFC 1123).
+	 *
+	 * @param time Timestamp.
+	 * @return Formatted date.
+	 * @see #formatHttpDate(Date)
+	 */
+	public static String formatHttpTime(long time) {
+		long second = floorDiv(time, 1000);
+
+		CachedDate cached = lastHttpDate;
+		if (cached.second == second) {
+			return cached.value;
+		}
+
+		String value = rfc1123(second);
+		lastHttpDate = new CachedDate(second, value);
+		return value;
+	}
+
+	/**
+	 * Format RFC 1123 date without date format.
+	 *
+	 * @param epochSecond Number of seconds since epoch.
+	 * @return Formatted date.
+	 */
+	private static String rfc1123(long epochSecond) {
+		long days = floorDiv(epochSecond, 86400);
+		int secondOfDay = (int) (epochSecond - days * 86400);
+
+		// See: http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+		long z = days + 719468;
+		long era = floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+		int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+		long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+		int dayOfWeek = (int) floorMod(days + 4, 7);
+
+		StringBuilder builder = new StringBuilder(29)
+				.append(DAYS[dayOfWeek]).append(", ");
+		pad(builder, day, 2).append(' ')
+				.append(MONTHS[month - 1]).append(' ');
+		pad(builder, year, 4).append(' ');
+		pad(builder, secondOfDay / 3600, 2).append(':');
+		pad(builder, (secondOfDay / 60) % 60, 2).append(':');
+		pad(builder, secondOfDay % 60, 2).append(" GMT");
+		return builder.toString();
+	}
+
+	private static StringBuilder pad(StringBuilder builder, long value, int width) {
+		String digits = Long.toString(value);
+		for (int i = digits.length(); i < width; i++) {
+			builder.append('0');
+		}
+		return builder.append(digits);
+	}
+
+	private static long floorDiv(long x, long y) {
+		long r = x / y;
+		return (x % y != 0 && ((x ^ y) < 0)) ? r - 1 : r;
+	}
+
+	private static long floorMod(long x, long y) {
+		return x - floorDiv(x, y) * y;
+	}
+
+	/**
+	 * Parse cookie date, as defined by RFC 6265 (section 5.1.1) and
+	 * return time value.
+	 * This parser does not use any date format: it is thread-safe and does
+	 * not allocate any intermediate object.
+	 *
+	 * @param date Cookie date.
+	 * @return Time value, null if date is not a valid cookie date.
+	 */
+	public static Long parseCookieDate(String date) {
+		return parseCookieDate(date, 0, date.length());
+	}
+
+	/**
+	 * Parse cookie date between given indexes of a string and return
+	 * time value.
+	 *
+	 * @param value String containing cookie date.
+	 * @param start Index of first character of date (inclusive).
+	 * @param end Index of last character of date (exclusive).
+	 * @return Time value, null if date is not a valid cookie date.
+	 * @see #parseCookieDate(String)
+	 */
+	public static Long parseCookieDate(String value, int start, int end) {
+		int hour = -1;
+		int minute = -1;
+		int second = -1;
+		int day = -1;
+		int month = -1;
+		int year = -1;
+
+		int i = start;
+		while (i < end) {
+			// Skip delimiters
+			while (i < end && isCookieDateDelimiter(value.charAt(i))) {
+				i++;
+			}
+
+			int tokenStart = i;
+			while (i < end && !isCookieDateDelimiter(value.charAt(i))) {
+				i++;
+			}
+
+			int tokenEnd = i;
+			if (tokenStart == tokenEnd) {
+				break;
+			}
+
+			if (hour < 0 && parseTime(value, tokenStart, tokenEnd)) {
+				hour = digits(value, tokenStart, 2);
+				int m = tokenStart + digitsCount(value, tokenStart, 2) + 1;
+				minute = digits(value, m, 2);
+				int s = m + digitsCount(value, m, 2) + 1;
+				second = digits(value, s, 2);
+			}
+			else if (day < 0 && isNumber(value, tokenStart, tokenEnd, 1, 2)) {
+				day = digits(value, tokenStart, 2);
+			}
+			else if (month < 0 && parseMonth(value, tokenStart, tokenEnd) > 0) {
+				month = parseMonth(value, tokenStart, tokenEnd);
+			}
+			else if (year < 0 && isNumber(value, tokenStart, tokenEnd, 2, 4)) {
+				year = digits(value, tokenStart, 4);
+				if (year >= 70 && year <= 99) {
+					year += 1900;
+				}
+				else if (year >= 0 && year <= 69) {
+					year += 2000;
+				}
+			}
+		}
+
+		if (hour < 0 || day < 0 || month < 0 || year < 0) {
+			return null;
+		}
+
+		if (day < 1 || day > daysInMonth(month, year) || year < 1601 || hour > 23 || minute > 59 || second > 59) {
+			return null;
+		}
+
+		long days = daysFromEpoch(year, month, day);
+		return ((days * 24 + hour) * 60 + minute) * 60000L + second * 1000L;
+	}
+
+	private static boolean isCookieDateDelimiter(char c) {
+		return c == 0x09 ||
+				(c >= 0x20 && c <= 0x2F) ||
+				(c >= 0x3B && c <= 0x40) ||
+				(c >= 0x5B && c <= 0x60) ||
+				(c >= 0x7B && c <= 0x7E);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Check that token starts with {@code min} to {@code max} digits, followed by an optional
+	 * non digit suffix (see "day-of-month" and "year" grammar of RFC 6265).
+	 */
+	private static boolean isNumber(String value, int start, int end, int min, int max) {
+		int count = digitsCount(value, start, end - start);
+		return count >= min && count <= max && (start + count == end || !isDigit(value.charAt(start + count)));
+	}
+
+	/**
+	 * Check that token matches "time" grammar of RFC 6265, i.e
+	 * hh:mm:ss (each part having one or two digits).
+	 */
+	private static boolean parseTime(String value, int start, int end) {
+		int i = start;
+		for (int part = 0; part < 3; part++) {
+			int count = digitsCount(value, i, Math.min(2, end - i));
+			if (count == 0) {
+				return false;
+			}
+
+			i += count;
+			if (part < 2) {
+				if (i >= end || value.charAt(i) != ':') {
+					return false;
+				}
+				i++;
+			}
+		}
+
+		return i == end || !isDigit(value.charAt(i));
+	}
+
+	private static int parseMonth(String value, int start, int end) {
+		if (end - start < 3) {
+			return -1;
+		}
+
+		for (int i = 0; i < MONTHS.length; i++) {
+			if (value.regionMatches(true, start, MONTHS[i], 0, 3)) {
+				return i + 1;
+			}
+		}
+
+		return -1;
+	}
+
+	private static int digitsCount(String value, int start, int max) {
+		int count = 0;
+		while (count < max && start + count < value.length() && isDigit(value.charAt(start + count))) {
+			count++;
+		}
+		return count;
+	}
+
+	private static int digits(String value, int start, int max) {
+		int result = 0;
+		for (int i = start; i < start + max && i < value.length() && isDigit(value.charAt(i)); i++) {
+			result = result * 10 + (value.charAt(i) - '0');
+		}
+		return result;
+	}
+
+	private static int daysInMonth(int month, int year) {
+		if (month == 2) {
+			boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+			return leap ? 29 : 28;
+		}
+
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	/**
+	 * Compute number of days since epoch of given date in
+	 * the proleptic gregorian calendar.
+	 */
+	private static long daysFromEpoch(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = y / 400;
+		long yoe = y - era * 400;
+		long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097 + doe - 719468;
 	}
 
-	private static DateFormat df(String pattern) {
+	/**
+	 * Get date format of given pattern for current thread.
+	 *
+	 * @param pattern Pattern.
+	 * @return Date format.
+	 */
+	private static DateFormat df(final String pattern) {
+		ThreadLocal<DateFormat> format = FORMATS.get(pattern);
+		if (format == null) {
+			if (FORMATS.size() >= MAX_CACHED_PATTERNS) {
+				// Cache is full, do not cache unexpected patterns
+				return newDateFormat(pattern);
+			}
+
+			// Compile pattern now, so that an invalid pattern is never cached.
+			final DateFormat initialValue = newDateFormat(pattern);
+			ThreadLocal<DateFormat> newFormat = new ThreadLocal<DateFormat>() {
+				@Override
+				protected DateFormat initialValue() {
+					return newDateFormat(pattern);
+				}
+			};
+
+			newFormat.set(initialValue);
+			format = FORMATS.putIfAbsent(pattern, newFormat);
+			if (format == null) {
+				return initialValue;
+			}
+		}
+
+		return format.get();
+	}
+
+	private static DateFormat newDateFormat(String pattern) {
 		DateFormat df = new SimpleDateFormat(pattern, Locale.ENGLISH);
-		df.setTimeZone(TimeZone.getTimeZone("GMT"));
+		df.setTimeZone(GMT);
 		return df;
 	}
+
+	/**
+	 * Formatted date, with a precision of one second.
+	 */
+	private static class CachedDate {
+		private final long second;
+		private final String value;
+
+		private CachedDate(long second, String value) {
+			this.second = second;
+			this.value = value;
+		}
+	}
 }
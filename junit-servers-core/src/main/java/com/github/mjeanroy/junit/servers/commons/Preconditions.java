@@ -118,6 +118,38 @@ public final class Preconditions {
 		return checkPositiveNumber(value, name);
 	}
 
+	/**
+	 * Check that a given integer is strictly positive.
+	 * If integer value is negative or zero, it throws an {@link IllegalArgumentException} exception,
+	 * otherwise integer value is returned.
+	 *
+	 * @param value Value to check.
+	 * @param name Name of value.
+	 * @return Integer value if value is strictly positive.
+	 */
+	public static int strictlyPositive(int value, String name) {
+		if (value <= 0) {
+			throw new IllegalArgumentException(format("%s must be strictly positive", name));
+		}
+		return value;
+	}
+
+	/**
+	 * Check that a given long value is strictly positive.
+	 * If long value is negative or zero, it throws an {@link IllegalArgumentException} exception,
+	 * otherwise long value is returned.
+	 *
+	 * @param value Value to check.
+	 * @param name Name of value.
+	 * @return Long value if value is strictly positive.
+	 */
+	public static long strictlyPositive(long value, String name) {
+		if (value <= 0) {
+			throw new IllegalArgumentException(format("%s must be strictly positive", name));
+		}
+		return value;
+	}
+
 	private static <T extends Number> T checkPositiveNumber(T value, String name) {
 		if (value.doubleValue() < 0) {
 			throw new IllegalArgumentException(format("%s must be positive", name));
@@ -38,4 +38,13 @@ public class HttpClientException extends AbstractEmbeddedServerException {
 	public HttpClientException(Throwable throwable) {
 		super(throwable);
 	}
+
+	/**
+	 * Create exception with specific message.
+	 *
+	 * @param msg Message.
+	 */
+	public HttpClientException(String msg) {
+		super(msg);
+	}
 }
@@ -27,14 +27,22 @@ package com.github.mjeanroy.junit.servers.runner;
 import static com.github.mjeanroy.junit.servers.annotations.handlers.ConfigurationAnnotationHandler.newConfigurationAnnotationHandler;
 import static com.github.mjeanroy.junit.servers.annotations.handlers.HttpClientAnnotationHandler.newHttpClientAnnotationHandler;
 import static com.github.mjeanroy.junit.servers.annotations.handlers.ServerAnnotationHandler.newServerAnnotationHandler;
+import static com.github.mjeanroy.junit.servers.client.HttpClientCache.newHttpClientCache;
 import static com.github.mjeanroy.junit.servers.servers.utils.Servers.instantiate;
 
 import java.util.List;
 
 import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
 
+import com.github.mjeanroy.junit.servers.annotations.LoadTest;
+import com.github.mjeanroy.junit.servers.client.HttpClientCache;
+import com.github.mjeanroy.junit.servers.rules.AbstractRule;
 import com.github.mjeanroy.junit.servers.rules.HandlersRule;
 import com.github.mjeanroy.junit.servers.rules.ServerRule;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
@@ -45,6 +53,8 @@ import com.github.mjeanroy.junit.servers.servers.configuration.AbstractConfigura
  * before tests.
  * This runner will also add some custom rules to
  * inject data to test classes.
+ * Test methods annotated with {@link LoadTest} are executed
+ * repeatedly and concurrently.
  */
 public class JunitServerRunner extends BlockJUnit4ClassRunner {
 
@@ -58,6 +68,11 @@ public class JunitServerRunner extends BlockJUnit4ClassRunner {
 	 */
 	private final AbstractConfiguration configuration;
 
+	/**
+	 * Http clients shared by test methods of running class.
+	 */
+	private final HttpClientCache httpClients;
+
 	/**
 	 * Create runner.
 	 *
@@ -68,12 +83,21 @@ public class JunitServerRunner extends BlockJUnit4ClassRunner {
 		super(klass);
 		this.server = instantiate(klass);
 		this.configuration = this.server.getConfiguration();
+		this.httpClients = newHttpClientCache(server);
 	}
 
 	@Override
 	protected List<TestRule> classRules() {
 		List<TestRule> classRules = super.classRules();
 
+		// Shared clients are destroyed before server is stopped.
+		classRules.add(new AbstractRule() {
+			@Override
+			protected void after(Description description) {
+				httpClients.clear();
+			}
+		});
+
 		ServerRule classRule = new ServerRule(server);
 		classRules.add(classRule);
 
@@ -87,11 +111,29 @@ public class JunitServerRunner extends BlockJUnit4ClassRunner {
 		HandlersRule rule = new HandlersRule(target,
 				newServerAnnotationHandler(server),
 				newConfigurationAnnotationHandler(configuration),
-				newHttpClientAnnotationHandler(server)
+				newHttpClientAnnotationHandler(server, httpClients)
 		);
 
 		testRules.add(rule);
 
 		return testRules;
 	}
+
+	@Override
+	protected void runChild(FrameworkMethod method, RunNotifier notifier) {
+		try {
+			super.runChild(method, notifier);
+		}
+		finally {
+			// Listeners have been notified: report is not needed anymore.
+			LoadTestReports.remove(describeChild(method));
+		}
+	}
+
+	@Override
+	protected Statement methodInvoker(FrameworkMethod method, Object test) {
+		Statement statement = super.methodInvoker(method, test);
+		LoadTest loadTest = method.getAnnotation(LoadTest.class);
+		return loadTest == null ? statement : new LoadTestStatement(statement, loadTest, describeChild(method));
+	}
 }
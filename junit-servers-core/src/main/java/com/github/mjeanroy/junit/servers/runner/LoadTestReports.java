@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.runner;
+
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.notNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.runner.Description;
+
+import com.github.mjeanroy.junit.servers.client.load.LoadResult;
+
+/**
+ * Reports of test methods annotated with {@link com.github.mjeanroy.junit.servers.annotations.LoadTest},
+ * indexed by test description.
+ * A report is registered before test is finished, so it can be read by a
+ * {@link org.junit.runner.notification.RunListener} in {@code testFinished} or
+ * {@code testFailure} events: it is removed once listeners have been notified,
+ * so that reports (and their histograms) are not retained until JVM exits.
+ */
+public final class LoadTestReports {
+
+	/**
+	 * Reports, indexed by test description.
+	 */
+	private static final Map<Description, LoadResult> REPORTS = new ConcurrentHashMap<>();
+
+	// Ensure non instantiation.
+	private LoadTestReports() {
+	}
+
+	/**
+	 * Get report of given test.
+	 *
+	 * @param description Test description.
+	 * @return Report, null if test is not a load test or is not being executed.
+	 */
+	public static LoadResult get(Description description) {
+		return REPORTS.get(notNull(description, "description"));
+	}
+
+	/**
+	 * Register report of given test.
+	 *
+	 * @param description Test description.
+	 * @param result Report.
+	 */
+	static void put(Description description, LoadResult result) {
+		REPORTS.put(description, result);
+	}
+
+	/**
+	 * Remove report of given test.
+	 *
+	 * @param description Test description.
+	 */
+	static void remove(Description description) {
+		REPORTS.remove(description);
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.runner;
+
+import static com.github.mjeanroy.junit.servers.client.load.InvocationLoad.builder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import com.github.mjeanroy.junit.servers.annotations.LoadTest;
+import com.github.mjeanroy.junit.servers.client.load.Invocation;
+import com.github.mjeanroy.junit.servers.client.load.InvocationLoad;
+import com.github.mjeanroy.junit.servers.client.load.LoadResult;
+
+/**
+ * Statement executing test method repeatedly and concurrently,
+ * as described by {@link LoadTest} annotation.
+ */
+class LoadTestStatement extends Statement {
+
+	/**
+	 * Statement invoking test method once.
+	 */
+	private final Statement next;
+
+	/**
+	 * Load settings.
+	 */
+	private final LoadTest loadTest;
+
+	/**
+	 * Test description, used to register report.
+	 */
+	private final Description description;
+
+	/**
+	 * Create statement.
+	 *
+	 * @param next Statement invoking test method once.
+	 * @param loadTest Load settings.
+	 * @param description Test description.
+	 */
+	LoadTestStatement(Statement next, LoadTest loadTest, Description description) {
+		this.next = next;
+		this.loadTest = loadTest;
+		this.description = description;
+	}
+
+	@Override
+	public void evaluate() throws Throwable {
+		Invocation invocation = new Invocation() {
+			@Override
+			public void invoke() throws Throwable {
+				next.evaluate();
+			}
+		};
+
+		TimeUnit unit = loadTest.unit();
+		InvocationLoad load = builder(invocation)
+			.withThreads(loadTest.threads())
+			.withWarmup(loadTest.warmup(), unit)
+			.withDuration(loadTest.duration(), unit)
+			.build();
+
+		LoadResult result = load.run();
+		LoadTestReports.put(description, result);
+
+		// Report first failure only: following failures are often the same.
+		List<Throwable> failures = load.getFailures();
+		if (!failures.isEmpty()) {
+			Throwable failure = failures.get(0);
+			for (Throwable other : failures.subList(1, failures.size())) {
+				// Same instance may be thrown several times (e.g a cached exception), and cannot suppress itself.
+				if (other != failure) {
+					failure.addSuppressed(other);
+				}
+			}
+
+			throw failure;
+		}
+	}
+}
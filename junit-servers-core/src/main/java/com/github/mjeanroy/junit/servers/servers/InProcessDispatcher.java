@@ -0,0 +1,56 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.servers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Specification of an embedded server that can process http
+ * requests without any network connection.
+ *
+ * Request is given as raw bytes of an HTTP/1.1 message (request line,
+ * headers and optional body) and must be handed directly to the
+ * container. Raw bytes of http response are returned once the
+ * container has processed the request.
+ *
+ * This can be used to run functional tests without opening
+ * any socket.
+ */
+public interface InProcessDispatcher {
+
+	/**
+	 * Dispatch raw http request to the container and return
+	 * raw http response.
+	 * Request should be sent with "Connection: close" header: dispatcher
+	 * is allowed to wait until the connection is closed to return
+	 * the response.
+	 *
+	 * @param request Raw http request.
+	 * @return Raw http response.
+	 * @throws IllegalStateException if server is not started.
+	 * @throws Exception If an error occurred while processing request.
+	 */
+	ByteBuffer dispatch(ByteBuffer request) throws Exception;
+}
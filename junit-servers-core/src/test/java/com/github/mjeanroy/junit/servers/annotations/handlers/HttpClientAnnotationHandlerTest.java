@@ -36,6 +36,12 @@ import org.junit.Test;
 
 import com.github.mjeanroy.junit.servers.annotations.TestHttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpClientCache;
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
+import com.github.mjeanroy.junit.servers.client.HttpClientScope;
+import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
+import com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ApacheHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
 
 public class HttpClientAnnotationHandlerTest {
@@ -72,6 +78,75 @@ public class HttpClientAnnotationHandlerTest {
 		assertThat(foo.client).isNull();
 	}
 
+	@Test
+	public void it_should_configure_client_instance() throws Exception {
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		Bar bar = new Bar();
+		Field field = Bar.class.getDeclaredField("client");
+
+		HttpClientAnnotationHandler handler = newHttpClientAnnotationHandler(server);
+
+		handler.before(bar, field);
+		assertThat(bar.client).isExactlyInstanceOf(ApacheHttpClient.class);
+
+		PoolingHttpClientConnectionManager connectionManager = (PoolingHttpClientConnectionManager) FieldUtils.readField(bar.client, "connectionManager", true);
+		assertThat(connectionManager.getMaxTotal()).isEqualTo(10);
+		assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(5);
+
+		handler.after(bar, field);
+		assertThat(bar.client).isNull();
+	}
+
+	@Test
+	public void it_should_set_shared_client_instance() throws Exception {
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		HttpClientCache cache = mock(HttpClientCache.class);
+		HttpClient client = mock(HttpClient.class);
+		when(cache.get(any(HttpClientStrategy.class), any(HttpClientConfiguration.class))).thenReturn(client);
+
+		Baz baz = new Baz();
+		Field field = Baz.class.getDeclaredField("client");
+
+		HttpClientAnnotationHandler handler = newHttpClientAnnotationHandler(server, cache);
+
+		handler.before(baz, field);
+		assertThat(baz.client).isSameAs(client);
+		verify(cache).get(HttpClientStrategy.AUTO, HttpClientConfiguration.defaultConfiguration());
+
+		handler.after(baz, field);
+		verify(client).reset();
+		verify(client, never()).destroy();
+		assertThat(baz.client).isNull();
+	}
+
+	@Test
+	public void it_should_fail_to_set_shared_client_instance_without_cache() throws Exception {
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		Baz baz = new Baz();
+		Field field = Baz.class.getDeclaredField("client");
+
+		HttpClientAnnotationHandler handler = newHttpClientAnnotationHandler(server);
+
+		try {
+			handler.before(baz, field);
+			fail("Shared client should not be created without cache");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(ex.getMessage()).contains("JunitServerRunner");
+			assertThat(baz.client).isNull();
+		}
+	}
+
+	private static class Baz {
+		@TestHttpClient(scope = HttpClientScope.CLASS)
+		private HttpClient client;
+	}
+
+	private static class Bar {
+		@TestHttpClient(strategy = HttpClientStrategy.APACHE_HTTP_CLIENT, maxTotalConnections = 10, maxConnectionsPerRoute = 5)
+		private HttpClient client;
+	}
+
 	private static class Foo {
 		@TestHttpClient
 		private HttpClient client;
@@ -345,6 +345,22 @@ public abstract class BaseHttpRequestTest {
 		);
 	}
 
+	@Test
+	public void it_should_execute_request_asynchronously() throws Exception {
+		HttpRequest request = createDefaultRequest();
+
+		HttpResponse httpResponse = fakeExecution(request, new ExecutionStrategy() {
+			@Override
+			public HttpResponse execute(HttpRequest request) {
+				return request.executeAsync().await();
+			}
+		});
+
+		assertThat(httpResponse).isNotNull();
+		assertThat(httpResponse.getRequestDuration()).isPositive();
+		checkExecution(httpResponse);
+	}
+
 	/**
 	 * Should create mock data during test setup.
 	 *
@@ -24,10 +24,20 @@
 
 package com.github.mjeanroy.junit.servers.client;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +50,9 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public abstract class BaseHttpResponseTest {
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	@Before
 	public void setUp() throws Exception {
 		onSetUp();
@@ -56,7 +69,27 @@ public abstract class BaseHttpResponseTest {
 	public void it_should_get_request_duration_in_millis() throws Exception {
 		HttpResponse rsp = createHttpResponse();
 		long duration = rsp.getRequestDurationInMillis();
-		assertThat(duration).isEqualTo(1_000);
+		assertThat(duration).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_get_request_timings() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		RequestTimings timings = rsp.getTimings();
+		assertThat(timings.getTotalDuration()).isEqualTo(1_000_000);
+		assertThat(timings.getDownloadDuration()).isEqualTo(RequestTimings.UNKNOWN);
+	}
+
+	@Test
+	public void it_should_get_download_duration_once_response_is_buffered() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		rsp.buffer();
+
+		RequestTimings timings = rsp.getTimings();
+		assertThat(timings.getTotalDuration()).isEqualTo(1_000_000);
+		assertThat(timings.getDownloadDuration()).isGreaterThanOrEqualTo(0);
 	}
 
 	@Test
@@ -87,6 +120,152 @@ public abstract class BaseHttpResponseTest {
 		assertThat(responseBody).isEqualTo(body);
 	}
 
+	@Test
+	public void it_should_decode_response_body_once() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		String b1 = rsp.body();
+		String b2 = rsp.body();
+
+		assertThat(b1).isEqualTo("foo");
+		assertThat(b2).isSameAs(b1);
+		assertThat(rsp.bodyAsBytes()).isEqualTo("foo".getBytes("UTF-8"));
+	}
+
+	@Test
+	public void it_should_decode_response_body_with_charset_of_content_type() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Content-Type", "text/plain; charset=UTF-8");
+		mockInternals(200, "caf\u00e9", headers);
+
+		assertThat(rsp.body()).isEqualTo("caf\u00e9");
+	}
+
+	@Test
+	public void it_should_decode_json_response_body_with_utf8_by_default() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Content-Type", "application/json");
+		mockInternals(200, "\"caf\u00e9\"", headers);
+
+		assertThat(rsp.body()).isEqualTo("\"caf\u00e9\"");
+	}
+
+	@Test
+	public void it_should_decode_response_body_with_default_charset() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Content-Type", "text/plain");
+		mockInternals(200, "caf\u00e9", headers);
+
+		assertThat(rsp.body()).isEqualTo(new String("caf\u00e9".getBytes("UTF-8"), "ISO-8859-1"));
+	}
+
+	@Test
+	public void it_should_decode_response_body_with_default_charset_if_charset_is_malformed() throws Exception {
+		for (String charset : new String[] {"\"\"", "utf 8"}) {
+			HttpResponse rsp = createHttpResponse();
+
+			Map<String, String> headers = new HashMap<>();
+			headers.put("Content-Type", "application/json; charset=" + charset);
+			mockInternals(200, "\"caf\u00e9\"", headers);
+
+			assertThat(rsp.body()).isEqualTo("\"caf\u00e9\"");
+		}
+	}
+
+	@Test
+	public void it_should_return_response_body_as_bytes() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		assertThat(rsp.bodyAsBytes()).isEqualTo("foo".getBytes("UTF-8"));
+	}
+
+	@Test
+	public void it_should_return_response_body_as_stream() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		try (InputStream stream = rsp.bodyAsStream()) {
+			assertThat(IOUtils.toString(stream, "UTF-8")).isEqualTo("foo");
+		}
+	}
+
+	@Test
+	public void it_should_return_response_body_as_channel() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		ByteBuffer buffer = ByteBuffer.allocate(10);
+		try (ReadableByteChannel channel = rsp.bodyAsChannel()) {
+			while (channel.read(buffer) != -1) {
+				// Read until end of stream
+			}
+		}
+
+		buffer.flip();
+		assertThat(buffer.remaining()).isEqualTo(3);
+		assertThat(new String(buffer.array(), 0, 3, "UTF-8")).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_compute_response_body_digest() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		BodyDigest digest = rsp.bodyDigest();
+
+		assertThat(digest.getSize()).isEqualTo(3);
+		assertThat(digest).isEqualTo(BodyDigest.digest(new ByteArrayInputStream("foo".getBytes("UTF-8"))));
+	}
+
+	@Test
+	public void it_should_transfer_response_body_to_file() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		File file = tmp.newFile();
+		long size = rsp.transferTo(file.toPath());
+
+		assertThat(size).isEqualTo(3);
+		assertThat(new String(Files.readAllBytes(file.toPath()), "UTF-8")).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_buffer_response_body() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		assertThat(rsp.isBuffered()).isFalse();
+		assertThat(rsp.buffer()).isSameAs(rsp);
+		assertThat(rsp.isBuffered()).isTrue();
+
+		assertThat(rsp.body()).isEqualTo("foo");
+		assertThat(rsp.body()).isEqualTo("foo");
+		assertThat(rsp.bodyAsBytes()).isEqualTo("foo".getBytes("UTF-8"));
+		try (InputStream stream = rsp.bodyAsStream()) {
+			assertThat(IOUtils.toString(stream, "UTF-8")).isEqualTo("foo");
+		}
+	}
+
+	@Test
+	public void it_should_buffer_response_body_in_temporary_file() throws Exception {
+		HttpResponse rsp = createHttpResponse();
+		mockInternals(200, "foo", new HashMap<String, String>());
+
+		rsp.buffer(1);
+
+		assertThat(rsp.body()).isEqualTo("foo");
+		assertThat(rsp.body()).isEqualTo("foo");
+		assertThat(rsp.bodyAsBytes()).isEqualTo("foo".getBytes("UTF-8"));
+	}
+
 	@Test
 	public void it_should_return_header_value() throws Exception {
 		String headerName = "foo";
@@ -115,6 +294,23 @@ public abstract class BaseHttpResponseTest {
 		assertThat(responseHeaderValue).isNull();
 	}
 
+	@Test
+	public void it_should_return_all_headers() throws Exception {
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put("x-foo", "foo");
+		headers.put("x-bar", "bar");
+		mockInternals(200, "", headers);
+
+		HttpResponse rsp = createHttpResponse();
+		List<HttpHeader> responseHeaders = rsp.getHeaders();
+
+		assertThat(responseHeaders).hasSize(2);
+		assertThat(responseHeaders.get(0).getName()).isEqualToIgnoringCase("x-bar");
+		assertThat(responseHeaders.get(0).getValues()).isEqualTo(asList("bar"));
+		assertThat(responseHeaders.get(1).getName()).isEqualToIgnoringCase("x-foo");
+		assertThat(responseHeaders.get(1).getValues()).isEqualTo(asList("foo"));
+	}
+
 	@Test
 	public void it_should_return_false_if_header_is_not_available() throws Exception {
 		HttpResponse rsp = createHttpResponse();
@@ -337,6 +533,29 @@ public abstract class BaseHttpResponseTest {
 		assertThat(cookie).isNull();
 	}
 
+	@Test
+	public void it_should_get_header_with_case_insensitive_name() throws Exception {
+		HttpResponse rsp = mockHeader("X-Foo", "bar");
+
+		HttpHeader header = rsp.getHeader("x-foo");
+
+		assertThat(header).isNotNull();
+		assertThat(header.getName()).isEqualTo("X-Foo");
+		assertThat(header.getValues()).containsExactly("bar");
+		assertThat(rsp.getHeader("X-FOO")).isSameAs(header);
+	}
+
+	@Test
+	public void it_should_cache_cookies() throws Exception {
+		HttpResponse rsp = mockHeader("Set-Cookie", "foo=bar; Path=/");
+
+		Cookie cookie = rsp.getCookie("foo");
+		assertThat(cookie).isNotNull();
+		assertThat(rsp.getCookie("foo")).isSameAs(cookie);
+		assertThat(rsp.getCookie("fo")).isNull();
+		assertThat(rsp.getCookies()).isSameAs(rsp.getCookies());
+	}
+
 	private HttpResponse mockHeader(String name, String value) throws Exception {
 		HttpResponse rsp = createHttpResponse();
 		Map<String, String> headers = new HashMap<>();
@@ -0,0 +1,67 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.CRC32;
+
+import static com.github.mjeanroy.junit.servers.client.BodyDigest.digest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BodyDigestTest {
+
+	@Test
+	public void it_should_compute_digest_of_stream() throws Exception {
+		byte[] bytes = "foo".getBytes("UTF-8");
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+
+		BodyDigest digest = digest(new ByteArrayInputStream(bytes));
+
+		assertThat(digest.getSize()).isEqualTo(3);
+		assertThat(digest.getChecksum()).isEqualTo(crc.getValue());
+		assertThat(digest.getDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(digest.getThroughput()).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	public void it_should_implement_equals_hash_code() throws Exception {
+		BodyDigest d1 = digest(new ByteArrayInputStream("foo".getBytes("UTF-8")));
+		BodyDigest d2 = digest(new ByteArrayInputStream("foo".getBytes("UTF-8")));
+		BodyDigest d3 = digest(new ByteArrayInputStream("bar".getBytes("UTF-8")));
+
+		assertThat(d1).isEqualTo(d2);
+		assertThat(d1.hashCode()).isEqualTo(d2.hashCode());
+		assertThat(d1).isNotEqualTo(d3);
+	}
+
+	@Test
+	public void it_should_implement_to_string() throws Exception {
+		BodyDigest digest = digest(new ByteArrayInputStream("foo".getBytes("UTF-8")));
+		assertThat(digest.toString()).isEqualTo("BodyDigest {size = 3, checksum = " + Long.toHexString(digest.getChecksum()) + "}");
+	}
+}
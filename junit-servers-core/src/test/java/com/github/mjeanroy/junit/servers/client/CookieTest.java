@@ -180,6 +180,48 @@ public class CookieTest {
 		assertThat(cookie.getMaxAge()).isEqualTo(3600);
 	}
 
+	@Test
+	public void it_should_read_cookie_with_equal_sign_in_value() {
+		Cookie cookie = read("token=a=b==; Path=/");
+
+		assertThat(cookie.getName()).isEqualTo("token");
+		assertThat(cookie.getValue()).isEqualTo("a=b==");
+		assertThat(cookie.getPath()).isEqualTo("/");
+	}
+
+	@Test
+	public void it_should_read_cookie_with_rfc1123_expires_date() {
+		Cookie cookie = read("name=value; expires=Wed, 13 Jan 2021 22:23:01 GMT");
+		assertThat(cookie.getExpires()).isEqualTo(1610576581000L);
+	}
+
+	@Test
+	public void it_should_ignore_invalid_expires_and_max_age() {
+		Cookie cookie = read("name=value; Expires=foo; Max-Age=bar");
+
+		assertThat(cookie.getExpires()).isZero();
+		assertThat(cookie.getMaxAge()).isZero();
+	}
+
+	@Test
+	public void it_should_read_cookie_with_empty_value() {
+		Cookie cookie = read("name=; Secure");
+
+		assertThat(cookie.getName()).isEqualTo("name");
+		assertThat(cookie.getValue()).isEmpty();
+		assertThat(cookie.isSecure()).isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_read_cookie_without_value() {
+		read("name; Secure");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_read_cookie_without_name() {
+		read(" =value");
+	}
+
 	@Test
 	public void it_should_create_cookie_header_value_with_name_value() {
 		Cookie cookie = cookie("foo", "bar", null, null, 0, 0, false, false);
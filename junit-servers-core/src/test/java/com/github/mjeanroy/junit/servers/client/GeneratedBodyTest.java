@@ -0,0 +1,124 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import static com.github.mjeanroy.junit.servers.client.GeneratedBody.jsonRecords;
+import static com.github.mjeanroy.junit.servers.client.GeneratedBody.randomBody;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeneratedBodyTest {
+
+	@Test
+	public void it_should_generate_random_body_of_given_size() throws Exception {
+		GeneratedBody body = randomBody(10_000, 42);
+
+		assertThat(body.getContentLength()).isEqualTo(10_000);
+		assertThat(body.isRepeatable()).isTrue();
+		assertThat(IOUtils.toByteArray(body.openStream())).hasSize(10_000);
+	}
+
+	@Test
+	public void it_should_generate_deterministic_random_body() throws Exception {
+		byte[] b1 = IOUtils.toByteArray(randomBody(1000, 42).openStream());
+		byte[] b2 = IOUtils.toByteArray(randomBody(1000, 42).openStream());
+		byte[] b3 = IOUtils.toByteArray(randomBody(1000, 43).openStream());
+
+		assertThat(b1).isEqualTo(b2);
+		assertThat(b1).isNotEqualTo(b3);
+	}
+
+	@Test
+	public void it_should_generate_same_content_whatever_read_size() throws Exception {
+		GeneratedBody body = randomBody(1000, 42);
+		byte[] expected = IOUtils.toByteArray(body.openStream());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (InputStream stream = body.openStream()) {
+			byte[] buffer = new byte[7];
+			int n;
+			while ((n = stream.read(buffer)) != -1) {
+				output.write(buffer, 0, n);
+			}
+		}
+
+		assertThat(output.toByteArray()).isEqualTo(expected);
+	}
+
+	@Test
+	public void it_should_generate_json_records() throws Exception {
+		GeneratedBody body = jsonRecords("{\"id\":1}", 3);
+
+		String json = IOUtils.toString(body.openStream(), "UTF-8");
+		assertThat(json).isEqualTo("[{\"id\":1},{\"id\":1},{\"id\":1}]");
+		assertThat(body.getContentLength()).isEqualTo(json.length());
+	}
+
+	@Test
+	public void it_should_generate_empty_json_array() throws Exception {
+		GeneratedBody body = jsonRecords("{}", 0);
+		assertThat(IOUtils.toString(body.openStream(), "UTF-8")).isEqualTo("[]");
+		assertThat(body.getContentLength()).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_throttle_body() throws Exception {
+		GeneratedBody body = randomBody(30, 42).withChunkRate(10, 50, MILLISECONDS);
+
+		long start = System.nanoTime();
+		byte[] bytes = IOUtils.toByteArray(body.openStream());
+		long duration = System.nanoTime() - start;
+
+		assertThat(bytes).isEqualTo(IOUtils.toByteArray(randomBody(30, 42).openStream()));
+		assertThat(duration).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	public void it_should_compute_digest_of_generated_content() throws Exception {
+		GeneratedBody body = randomBody(100_000, 42);
+
+		BodyDigest digest = body.digest();
+
+		assertThat(digest.getSize()).isEqualTo(100_000);
+		assertThat(digest).isEqualTo(BodyDigest.digest(body.openStream()));
+		assertThat(digest).isNotEqualTo(randomBody(100_000, 43).digest());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_generate_body_with_negative_size() {
+		randomBody(-1, 42);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_throttle_with_empty_chunks() {
+		randomBody(10, 42).withChunkRate(0, 1, MILLISECONDS);
+	}
+}
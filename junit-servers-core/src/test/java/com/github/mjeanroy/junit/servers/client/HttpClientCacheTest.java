@@ -0,0 +1,65 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.github.mjeanroy.junit.servers.servers.InProcessDispatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.HttpClientCache.newHttpClientCache;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+public class HttpClientCacheTest {
+
+	private HttpClientCache cache;
+
+	@Before
+	public void setUp() {
+		EmbeddedServer server = mock(EmbeddedServer.class, withSettings().extraInterfaces(InProcessDispatcher.class));
+		cache = newHttpClientCache(server);
+	}
+
+	@Test
+	public void it_should_reuse_client_with_same_strategy_and_configuration() {
+		HttpClient c1 = cache.get(HttpClientStrategy.IN_PROCESS, HttpClientConfiguration.defaultConfiguration());
+		HttpClient c2 = cache.get(HttpClientStrategy.IN_PROCESS, HttpClientConfiguration.defaultConfiguration());
+		HttpClient c3 = cache.get(HttpClientStrategy.IN_PROCESS, HttpClientConfiguration.builder().withMaxTotalConnections(1).build());
+
+		assertThat(c1).isNotNull().isSameAs(c2);
+		assertThat(c3).isNotNull().isNotSameAs(c1);
+	}
+
+	@Test
+	public void it_should_create_new_client_once_cache_is_cleared() {
+		HttpClient c1 = cache.get(HttpClientStrategy.IN_PROCESS, HttpClientConfiguration.defaultConfiguration());
+		cache.clear();
+		HttpClient c2 = cache.get(HttpClientStrategy.IN_PROCESS, HttpClientConfiguration.defaultConfiguration());
+
+		assertThat(c2).isNotNull().isNotSameAs(c1);
+	}
+}
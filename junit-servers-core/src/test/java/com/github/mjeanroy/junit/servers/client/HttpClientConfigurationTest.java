@@ -0,0 +1,99 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpClientConfigurationTest {
+
+	@Test
+	public void it_should_build_default_configuration() {
+		HttpClientConfiguration configuration = HttpClientConfiguration.defaultConfiguration();
+
+		assertThat(configuration.getMaxTotalConnections()).isEqualTo(HttpClientConfiguration.DEFAULT_MAX_TOTAL_CONNECTIONS);
+		assertThat(configuration.getMaxConnectionsPerRoute()).isEqualTo(HttpClientConfiguration.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+		assertThat(configuration.getKeepAlive()).isEqualTo(HttpClientConfiguration.DEFAULT_KEEP_ALIVE);
+		assertThat(configuration.getConnectionTtl()).isEqualTo(HttpClientConfiguration.DEFAULT_CONNECTION_TTL);
+		assertThat(configuration.getValidateAfterInactivity()).isEqualTo(HttpClientConfiguration.DEFAULT_VALIDATE_AFTER_INACTIVITY);
+		assertThat(configuration.getConnectTimeout()).isEqualTo(HttpClientConfiguration.DEFAULT_CONNECT_TIMEOUT);
+		assertThat(configuration.getSocketTimeout()).isEqualTo(HttpClientConfiguration.DEFAULT_SOCKET_TIMEOUT);
+		assertThat(configuration.getRequestTimeout()).isEqualTo(HttpClientConfiguration.DEFAULT_REQUEST_TIMEOUT);
+		assertThat(configuration.getIoThreads()).isEqualTo(HttpClientConfiguration.DEFAULT_IO_THREADS);
+		assertThat(configuration.isCompressionEnforced()).isFalse();
+		assertThat(configuration.isSharedEventLoop()).isFalse();
+	}
+
+	@Test
+	public void it_should_build_custom_configuration() {
+		HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+				.withMaxTotalConnections(10)
+				.withMaxConnectionsPerRoute(5)
+				.withKeepAlive(1000)
+				.withConnectionTtl(2000)
+				.withValidateAfterInactivity(3000)
+				.withConnectTimeout(4000)
+				.withSocketTimeout(5000)
+				.withRequestTimeout(6000)
+				.withIoThreads(4)
+				.enableCompression()
+				.enableSharedEventLoop()
+				.build();
+
+		assertThat(configuration.getMaxTotalConnections()).isEqualTo(10);
+		assertThat(configuration.getMaxConnectionsPerRoute()).isEqualTo(5);
+		assertThat(configuration.getKeepAlive()).isEqualTo(1000);
+		assertThat(configuration.getConnectionTtl()).isEqualTo(2000);
+		assertThat(configuration.getValidateAfterInactivity()).isEqualTo(3000);
+		assertThat(configuration.getConnectTimeout()).isEqualTo(4000);
+		assertThat(configuration.getSocketTimeout()).isEqualTo(5000);
+		assertThat(configuration.getRequestTimeout()).isEqualTo(6000);
+		assertThat(configuration.getIoThreads()).isEqualTo(4);
+		assertThat(configuration.isCompressionEnforced()).isTrue();
+		assertThat(configuration.isSharedEventLoop()).isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_accept_empty_pool() {
+		HttpClientConfiguration.builder().withMaxTotalConnections(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_accept_negative_timeout() {
+		HttpClientConfiguration.builder().withSocketTimeout(-1);
+	}
+
+	@Test
+	public void it_should_implement_equals_and_hash_code() {
+		HttpClientConfiguration c1 = HttpClientConfiguration.builder().withMaxTotalConnections(10).build();
+		HttpClientConfiguration c2 = HttpClientConfiguration.builder().withMaxTotalConnections(10).build();
+		HttpClientConfiguration c3 = HttpClientConfiguration.builder().withMaxTotalConnections(20).build();
+
+		assertThat(c1).isEqualTo(c2);
+		assertThat(c1.hashCode()).isEqualTo(c2.hashCode());
+		assertThat(c1).isNotEqualTo(c3);
+	}
+}
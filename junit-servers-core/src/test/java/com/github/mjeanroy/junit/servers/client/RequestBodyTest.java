@@ -0,0 +1,156 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import com.github.mjeanroy.junit.servers.client.RequestBody.BytesBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.FileBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StreamBody;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StringBody;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.mjeanroy.junit.servers.client.RequestBody.bytesBody;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.fileBody;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.streamBody;
+import static com.github.mjeanroy.junit.servers.client.RequestBody.stringBody;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestBodyTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void it_should_create_string_body() throws Exception {
+		StringBody body = stringBody("caf\u00e9");
+
+		assertThat(body.getValue()).isEqualTo("caf\u00e9");
+		assertThat(body.getContentLength()).isEqualTo(5);
+		assertThat(body.isRepeatable()).isTrue();
+		assertThat(IOUtils.toString(body.openStream(), "UTF-8")).isEqualTo("caf\u00e9");
+	}
+
+	@Test
+	public void it_should_create_bytes_body() throws Exception {
+		byte[] bytes = "foo".getBytes("UTF-8");
+		BytesBody body = bytesBody(bytes);
+
+		assertThat(body.getBytes()).isSameAs(bytes);
+		assertThat(body.getContentLength()).isEqualTo(3);
+		assertThat(body.isRepeatable()).isTrue();
+		assertThat(IOUtils.toString(body.openStream(), "UTF-8")).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_create_bytes_body_from_remaining_bytes_of_buffer() throws Exception {
+		ByteBuffer buffer = ByteBuffer.wrap("foobar".getBytes("UTF-8"));
+		buffer.position(3);
+
+		BytesBody body = bytesBody(buffer);
+
+		assertThat(buffer.position()).isEqualTo(3);
+		assertThat(body.getContentLength()).isEqualTo(3);
+		assertThat(body.getBytes()).isEqualTo("bar".getBytes("UTF-8"));
+		assertThat(IOUtils.toString(body.openStream(), "UTF-8")).isEqualTo("bar");
+	}
+
+	@Test
+	public void it_should_create_bytes_body_from_direct_buffer() throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(3);
+		buffer.put("foo".getBytes("UTF-8"));
+		buffer.flip();
+
+		BytesBody body = bytesBody(buffer);
+
+		assertThat(buffer.position()).isZero();
+		assertThat(body.getBytes()).isEqualTo("foo".getBytes("UTF-8"));
+	}
+
+	@Test
+	public void it_should_create_stream_body() throws Exception {
+		InputStream stream = new ByteArrayInputStream("foo".getBytes("UTF-8"));
+
+		StreamBody body = streamBody(stream);
+		assertThat(body.getContentLength()).isEqualTo(-1);
+		assertThat(body.isRepeatable()).isFalse();
+		assertThat(body.openStream()).isSameAs(stream);
+
+		assertThat(streamBody(stream, 3).getContentLength()).isEqualTo(3);
+	}
+
+	@Test
+	public void it_should_create_file_body() throws Exception {
+		File file = tmp.newFile();
+		Files.write(file.toPath(), "foo".getBytes("UTF-8"));
+
+		FileBody body = fileBody(file);
+
+		assertThat((Object) body.getPath()).isEqualTo(file.toPath());
+		assertThat(body.getContentLength()).isEqualTo(3);
+		assertThat(body.isRepeatable()).isTrue();
+		assertThat(IOUtils.toString(body.openStream(), "UTF-8")).isEqualTo("foo");
+		assertThat((Object) fileBody(file.toPath()).getPath()).isEqualTo(file.toPath());
+	}
+
+	@Test
+	public void it_should_create_file_body_of_other_file_system() throws Exception {
+		Path zip = tmp.getRoot().toPath().resolve("body.zip");
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), singletonMap("create", "true"))) {
+			Path path = fs.getPath("/foo.txt");
+			Files.write(path, "foo".getBytes("UTF-8"));
+
+			FileBody body = fileBody(path);
+
+			assertThat(body.isDefaultFileSystem()).isFalse();
+			assertThat(body.getContentLength()).isEqualTo(3);
+			assertThat(IOUtils.toString(body.openStream(), "UTF-8")).isEqualTo("foo");
+		}
+
+		assertThat(fileBody(tmp.newFile()).isDefaultFileSystem()).isTrue();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void it_should_not_create_body_from_null_string() {
+		stringBody(null);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void it_should_not_create_body_from_null_bytes() {
+		bytesBody((byte[]) null);
+	}
+}
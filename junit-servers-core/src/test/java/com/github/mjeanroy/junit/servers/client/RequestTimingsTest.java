@@ -0,0 +1,92 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client;
+
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.UNKNOWN;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimingsTest {
+
+	@Test
+	public void it_should_create_timings() {
+		RequestTimings timings = timings(1, 2, 3, 4, 5, 6, 21);
+
+		assertThat(timings.getQueueDuration()).isEqualTo(1);
+		assertThat(timings.getConnectDuration()).isEqualTo(2);
+		assertThat(timings.getTlsHandshakeDuration()).isEqualTo(3);
+		assertThat(timings.getRequestWriteDuration()).isEqualTo(4);
+		assertThat(timings.getTimeToFirstByte()).isEqualTo(5);
+		assertThat(timings.getDownloadDuration()).isEqualTo(6);
+		assertThat(timings.getTotalDuration()).isEqualTo(21);
+	}
+
+	@Test
+	public void it_should_create_timings_with_total_duration_only() {
+		RequestTimings timings = timings(10);
+
+		assertThat(timings.getQueueDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getConnectDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTlsHandshakeDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getRequestWriteDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTimeToFirstByte()).isEqualTo(UNKNOWN);
+		assertThat(timings.getDownloadDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTotalDuration()).isEqualTo(10);
+	}
+
+	@Test
+	public void it_should_normalize_negative_values() {
+		RequestTimings timings = timings(-5, 2, -3, 4, 5, 6, 21);
+		assertThat(timings.getQueueDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTlsHandshakeDuration()).isEqualTo(UNKNOWN);
+	}
+
+	@Test
+	public void it_should_set_download_duration() {
+		RequestTimings timings = timings(10).withDownloadDuration(4);
+		assertThat(timings.getDownloadDuration()).isEqualTo(4);
+		assertThat(timings.getTotalDuration()).isEqualTo(10);
+	}
+
+	@Test
+	public void it_should_implement_equals_hash_code() {
+		RequestTimings t1 = timings(1, 2, 3, 4, 5, 6, 21);
+		RequestTimings t2 = timings(1, 2, 3, 4, 5, 6, 21);
+		RequestTimings t3 = timings(21);
+
+		assertThat(t1).isEqualTo(t2);
+		assertThat(t1.hashCode()).isEqualTo(t2.hashCode());
+		assertThat(t1).isNotEqualTo(t3);
+	}
+
+	@Test
+	public void it_should_implement_to_string() {
+		assertThat(timings(1, 2, 3, 4, 5, 6, 21).toString()).isEqualTo(
+			"RequestTimings {queue = 1, connect = 2, tlsHandshake = 3, requestWrite = 4, timeToFirstByte = 5, download = 6, total = 21}"
+		);
+	}
+}
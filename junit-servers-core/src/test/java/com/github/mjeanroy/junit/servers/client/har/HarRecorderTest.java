@@ -0,0 +1,254 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpHeader;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mjeanroy.junit.servers.client.Cookie.cookie;
+import static com.github.mjeanroy.junit.servers.client.HttpHeader.header;
+import static com.github.mjeanroy.junit.servers.client.HttpParameter.param;
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.timings;
+import static com.github.mjeanroy.junit.servers.client.har.HarRecorder.harRecorder;
+import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ApacheHttpClient.defaultApacheHttpClient;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HarRecorderTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private HttpClient client;
+
+	private HarRecorder recorder;
+
+	@Before
+	public void setUp() {
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		when(server.getUrl()).thenReturn("http://localhost:8080/");
+		when(server.getPath()).thenReturn("/");
+
+		client = mock(HttpClient.class);
+		recorder = harRecorder(server);
+	}
+
+	@Test
+	public void it_should_record_request_and_response() {
+		HttpRequest request = mockRequest(HttpMethod.GET, "/foo");
+		HttpResponse response = mockResponse(200, "application/json", "{\"id\":1}");
+		when(request.execute()).thenReturn(response);
+
+		HttpResponse rsp = recorder.wrap(client).prepareGet("/foo")
+			.addHeader("X-Foo", "bar")
+			.addQueryParam("q", "a b")
+			.addCookie(cookie("session", "1234"))
+			.execute();
+
+		assertThat(rsp).isSameAs(response);
+		verify(request).addHeader("X-Foo", "bar");
+		verify(request).addQueryParam("q", "a b");
+		assertThat(recorder.getEntryCount()).isEqualTo(1);
+
+		Map<String, Object> entry = entries(recorder.toJson()).get(0);
+		assertThat((Double) entry.get("time")).isEqualTo(10.0);
+		assertThat((String) entry.get("startedDateTime")).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z");
+
+		Map<String, Object> req = object(entry, "request");
+		assertThat(req.get("method")).isEqualTo("GET");
+		assertThat(req.get("url")).isEqualTo("http://localhost:8080/foo?q=a+b");
+		assertThat(req.get("headers").toString()).contains("X-Foo").contains("bar");
+		assertThat(req.get("cookies").toString()).contains("session").contains("1234");
+		assertThat(req.get("queryString").toString()).contains("a b");
+		assertThat(req).doesNotContainKey("postData");
+
+		Map<String, Object> res = object(entry, "response");
+		assertThat(res.get("status")).isEqualTo(200.0);
+		assertThat(res.get("headers").toString()).contains("Content-Type").contains("application/json");
+		assertThat(object(res, "content").get("text")).isEqualTo("{\"id\":1}");
+		assertThat(object(res, "content").get("size")).isEqualTo(8.0);
+
+		Map<String, Object> timings = object(entry, "timings");
+		assertThat(timings.get("connect")).isEqualTo(1.0);
+		assertThat(timings.get("ssl")).isEqualTo(-1.0);
+		assertThat(timings.get("wait")).isEqualTo(6.0);
+	}
+
+	@Test
+	public void it_should_record_response_of_real_client() throws Exception {
+		HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		httpServer.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				byte[] body = "caf\u00e9".getBytes("UTF-8");
+				exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream output = exchange.getResponseBody()) {
+					output.write(body);
+				}
+			}
+		});
+
+		httpServer.start();
+
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		when(server.getUrl()).thenReturn("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/");
+		when(server.getPath()).thenReturn("/");
+
+		HttpClient apacheClient = defaultApacheHttpClient(server);
+		try {
+			HarRecorder recorder = harRecorder(server);
+			HttpResponse rsp = recorder.wrap(apacheClient).prepareGet("/foo").execute();
+
+			assertThat(rsp.status()).isEqualTo(200);
+			assertThat(rsp.body()).isEqualTo("caf\u00e9");
+
+			HarEntry entry = recorder.getEntries().get(0);
+			assertThat(entry.contentText).isEqualTo("caf\u00e9");
+			assertThat(entry.contentSize).isEqualTo(5);
+		}
+		finally {
+			apacheClient.destroy();
+			httpServer.stop(0);
+		}
+	}
+
+	@Test
+	public void it_should_record_form_parameters() {
+		HttpRequest request = mockRequest(HttpMethod.POST, "/login");
+		HttpResponse response = mockResponse(302, "image/png", "");
+		when(request.execute()).thenReturn(response);
+
+		recorder.wrap(client).preparePost("/login")
+			.addFormParams(param("login", "john"), param("password", "secret&"))
+			.execute();
+
+		Map<String, Object> req = object(entries(recorder.toJson()).get(0), "request");
+		Map<String, Object> postData = object(req, "postData");
+		assertThat(postData.get("mimeType")).isEqualTo("application/x-www-form-urlencoded");
+		assertThat(postData.get("text")).isEqualTo("login=john&password=secret%26");
+
+		Map<String, Object> content = object(object(entries(recorder.toJson()).get(0), "response"), "content");
+		assertThat(content).doesNotContainKey("text");
+	}
+
+	@Test
+	public void it_should_record_failed_request() {
+		HttpRequest request = mockRequest(HttpMethod.DELETE, "/foo");
+		RuntimeException error = new RuntimeException("Connection refused");
+		when(request.execute()).thenThrow(error);
+
+		try {
+			recorder.wrap(client).prepareDelete("/foo").execute();
+			fail("Request should fail");
+		}
+		catch (RuntimeException ex) {
+			assertThat(ex).isSameAs(error);
+		}
+
+		assertThat(recorder.getEntryCount()).isEqualTo(1);
+		Map<String, Object> entry = entries(recorder.toJson()).get(0);
+		assertThat(object(entry, "response").get("status")).isEqualTo(0.0);
+
+		recorder.clear();
+		assertThat(recorder.getEntryCount()).isZero();
+	}
+
+	@Test
+	public void it_should_write_and_read_har_file() throws Exception {
+		HttpRequest request = mockRequest(HttpMethod.GET, "/foo");
+		HttpResponse response = mockResponse(200, "text/plain", "caf\u00e9");
+		when(request.execute()).thenReturn(response);
+		recorder.wrap(client).prepareGet("/foo").execute();
+
+		Path har = tmp.newFile("traffic.har").toPath();
+		recorder.write(har);
+
+		String json = new String(Files.readAllBytes(har), "UTF-8");
+		assertThat(json).startsWith("{\"log\":{\"version\":\"1.2\"");
+
+		HarEntry entry = HarEntry.fromJson(entries(json).get(0));
+		HarEntry recorded = recorder.getEntries().get(0);
+		assertThat(entry.startedDateTime).isEqualTo(recorded.startedDateTime);
+		assertThat(entry.url).isEqualTo("http://localhost:8080/foo");
+		assertThat(entry.status).isEqualTo(200);
+		assertThat(entry.contentText).isEqualTo("caf\u00e9");
+		assertThat(entry.timings.getTotalDuration()).isEqualTo(10_000_000L);
+	}
+
+	private HttpRequest mockRequest(HttpMethod method, String url) {
+		HttpRequest request = mock(HttpRequest.class);
+		when(request.getMethod()).thenReturn(method);
+		when(client.prepareRequest(method, url)).thenReturn(request);
+		return request;
+	}
+
+	private static HttpResponse mockResponse(int status, String contentType, String body) {
+		HttpHeader header = header("Content-Type", contentType);
+		HttpResponse response = mock(HttpResponse.class);
+		when(response.status()).thenReturn(status);
+		when(response.getHeaders()).thenReturn(asList(header));
+		when(response.getContentType()).thenReturn(header);
+		when(response.body()).thenReturn(body);
+		when(response.bodyAsBytes()).thenReturn(body.getBytes());
+		when(response.getTimings()).thenReturn(timings(-1, 1_000_000, -1, 1_000_000, 6_000_000, 2_000_000, 10_000_000));
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> entries(String json) {
+		Map<String, Object> log = object((Map<String, Object>) Json.parse(json), "log");
+		return (List<Map<String, Object>>) log.get("entries");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> object(Map<String, Object> json, String name) {
+		return (Map<String, Object>) json.get(name);
+	}
+}
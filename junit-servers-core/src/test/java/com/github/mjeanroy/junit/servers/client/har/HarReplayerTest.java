@@ -0,0 +1,312 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import com.github.mjeanroy.junit.servers.client.BodyDigest;
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.RequestBody;
+import com.github.mjeanroy.junit.servers.client.har.HarReplayResult.ReplayedEntry;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ApacheHttpClient.defaultApacheHttpClient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HarReplayerTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private HttpClient client;
+
+	@Before
+	public void setUp() {
+		client = mock(HttpClient.class);
+	}
+
+	@Test
+	public void it_should_replay_har_file() throws Exception {
+		HttpRequest get = mockRequest(HttpMethod.GET, "/api/people", 200, 5_000_000);
+		HttpRequest post = mockRequest(HttpMethod.POST, "/api/people", 500, 50_000_000);
+
+		Path har = har(
+			entry("2016-01-01T10:00:00.000Z", 10, "GET", "http://localhost:8080/api/people?q=john",
+				"\"headers\":[{\"name\":\"Host\",\"value\":\"localhost\"},{\"name\":\"Accept\",\"value\":\"application/json\"}]," +
+				"\"cookies\":[{\"name\":\"session\",\"value\":\"1234\"}]," +
+				"\"queryString\":[{\"name\":\"q\",\"value\":\"john\"}]", 200),
+			entry("2016-01-01T10:00:00.020+00:00", 15, "POST", "http://localhost:8080/api/people",
+				"\"headers\":[{\"name\":\"Content-Type\",\"value\":\"application/json\"},{\"name\":\"Content-Length\",\"value\":\"2\"}]," +
+				"\"postData\":{\"mimeType\":\"application/json\",\"text\":\"{}\"}", 201),
+			entry("2016-01-01T10:00:00.030Z", 1, "OPTIONS", "http://localhost:8080/api/people", "\"headers\":[]", 204)
+		);
+
+		HarReplayResult result = HarReplayer.builder(client, har).build().run();
+
+		verify(get).addQueryParam("q", "john");
+		verify(get).addHeader("Accept", "application/json");
+		verify(get, never()).addHeader("Host", "localhost");
+
+		ArgumentCaptor<Cookie> cookie = ArgumentCaptor.forClass(Cookie.class);
+		verify(get).addCookie(cookie.capture());
+		assertThat(cookie.getValue().getName()).isEqualTo("session");
+		assertThat(cookie.getValue().getValue()).isEqualTo("1234");
+
+		ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+		verify(post).addHeader("Content-Type", "application/json");
+		verify(post, never()).addHeader("Content-Length", "2");
+		verify(post).setBody(body.capture());
+		assertThat(((RequestBody.StringBody) body.getValue()).getValue()).isEqualTo("{}");
+
+		assertThat(result.getEntries()).hasSize(3);
+		ReplayedEntry first = result.getEntries().get(0);
+		assertThat(first.getMethod()).isEqualTo("GET");
+		assertThat(first.getUrl()).isEqualTo("http://localhost:8080/api/people?q=john");
+		assertThat(first.isStatusMatching()).isTrue();
+		assertThat(first.getRecordedTime(TimeUnit.MILLISECONDS)).isEqualTo(10);
+		assertThat(first.getReplayTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5);
+
+		assertThat(result.getStatusMismatches()).hasSize(2);
+		assertThat(result.getStatusMismatches().get(0).getActualStatus()).isEqualTo(500);
+		assertThat(result.getStatusMismatches().get(1).getMethod()).isEqualTo("OPTIONS");
+		assertThat(result.getStatusMismatches().get(1).getActualStatus()).isEqualTo(-1);
+
+		assertThat(result.getSlowerThan(2)).hasSize(1);
+		assertThat(result.getSlowerThan(2).get(0).getMethod()).isEqualTo("POST");
+
+		assertThat(result.getResult().getRequestCount()).isEqualTo(3);
+		assertThat(result.getResult().getErrorCount()).isEqualTo(2);
+		assertThat(result.toString()).contains("OPTIONS").contains("/api/people");
+	}
+
+	@Test
+	public void it_should_replay_with_scaled_pacing() throws Exception {
+		mockRequest(HttpMethod.GET, "/foo", 200, 1_000_000);
+		Path har = har(
+			entry("2016-01-01T10:00:00.000Z", 1, "GET", "http://localhost:8080/foo", "\"headers\":[]", 200),
+			entry("2016-01-01T10:00:00.400Z", 1, "GET", "http://localhost:8080/foo", "\"headers\":[]", 200)
+		);
+
+		long start = System.nanoTime();
+		HarReplayer.builder(client, har).build().run();
+		long original = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		HarReplayer.builder(client, har).withSpeed(4).withConcurrency(2).build().run();
+		long scaled = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		HarReplayer.builder(client, har).asFastAsPossible().build().run();
+		long fast = System.nanoTime() - start;
+
+		assertThat(original).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+		assertThat(scaled).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100)).isLessThan(original);
+		assertThat(fast).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	public void it_should_replay_entries_of_recorder() {
+		mockRequest(HttpMethod.GET, "/foo", 404, 1_000_000);
+
+		HarEntry entry = new HarEntry();
+		entry.method = "GET";
+		entry.url = "http://localhost:8080/foo";
+		entry.status = 200;
+
+		HarRecorder recorder = HarRecorder.harRecorder(mock(EmbeddedServer.class));
+		recorder.add(entry);
+
+		HarReplayResult result = HarReplayer.builder(client, recorder).build().run();
+		assertThat(result.getEntries()).hasSize(1);
+		assertThat(result.getStatusMismatches()).hasSize(1);
+		assertThat(result.getSlowerThan(1)).isEmpty();
+	}
+
+	@Test(timeout = 30000)
+	public void it_should_release_connections_of_real_client() throws Exception {
+		HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		httpServer.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				byte[] body = "ok".getBytes("UTF-8");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream output = exchange.getResponseBody()) {
+					output.write(body);
+				}
+			}
+		});
+
+		httpServer.start();
+
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		when(server.getUrl()).thenReturn("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/");
+		when(server.getPath()).thenReturn("/");
+
+		HttpClient apacheClient = defaultApacheHttpClient(server);
+		try {
+			// More entries than connections available in client pool.
+			HarRecorder recorder = HarRecorder.harRecorder(server);
+			for (int i = 0; i < 150; i++) {
+				HarEntry entry = new HarEntry();
+				entry.method = "GET";
+				entry.url = server.getUrl() + "foo";
+				entry.status = 200;
+				recorder.add(entry);
+			}
+
+			HarReplayResult result = HarReplayer.builder(apacheClient, recorder).asFastAsPossible().withConcurrency(4).build().run();
+			assertThat(result.getEntries()).hasSize(150);
+			assertThat(result.getStatusMismatches()).isEmpty();
+		}
+		finally {
+			apacheClient.destroy();
+			httpServer.stop(0);
+		}
+	}
+
+	@Test
+	public void it_should_include_body_read_in_replay_time() throws Exception {
+		HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		httpServer.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				// Headers are sent immediately, body is slow.
+				exchange.sendResponseHeaders(200, 0);
+				try (OutputStream output = exchange.getResponseBody()) {
+					output.write("o".getBytes("UTF-8"));
+					output.flush();
+					sleep(300);
+					output.write("k".getBytes("UTF-8"));
+				}
+			}
+		});
+
+		httpServer.start();
+
+		EmbeddedServer server = mock(EmbeddedServer.class);
+		when(server.getUrl()).thenReturn("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/");
+		when(server.getPath()).thenReturn("/");
+
+		HttpClient apacheClient = defaultApacheHttpClient(server);
+		try {
+			HarRecorder recorder = HarRecorder.harRecorder(server);
+			HarEntry entry = new HarEntry();
+			entry.method = "GET";
+			entry.url = server.getUrl() + "foo";
+			entry.status = 200;
+			recorder.add(entry);
+
+			HarReplayResult result = HarReplayer.builder(apacheClient, recorder).build().run();
+			assertThat(result.getEntries().get(0).getReplayTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(300);
+			assertThat(result.getResult().getMaxLatency()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(300));
+		}
+		finally {
+			apacheClient.destroy();
+			httpServer.stop(0);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_har_file() throws Exception {
+		Path har = tmp.newFile("invalid.har").toPath();
+		Files.write(har, "{\"log\":{}}".getBytes("UTF-8"));
+		HarReplayer.builder(client, har);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_speed() throws Exception {
+		HarReplayer.builder(client, har()).withSpeed(0);
+	}
+
+	private HttpRequest mockRequest(HttpMethod method, String url, int status, final long duration) {
+		HttpResponse response = mock(HttpResponse.class);
+		when(response.status()).thenReturn(status);
+
+		// Duration is spent reading response body.
+		when(response.bodyDigest()).thenAnswer(new Answer<BodyDigest>() {
+			@Override
+			public BodyDigest answer(InvocationOnMock invocation) {
+				sleep(TimeUnit.NANOSECONDS.toMillis(duration));
+				return null;
+			}
+		});
+
+		HttpRequest request = mock(HttpRequest.class);
+		when(request.getMethod()).thenReturn(method);
+		when(request.execute()).thenReturn(response);
+		when(client.prepareRequest(method, url)).thenReturn(request);
+		return request;
+	}
+
+	private Path har(String... entries) throws Exception {
+		StringBuilder sb = new StringBuilder("{\"log\":{\"version\":\"1.2\",\"entries\":[");
+		for (int i = 0; i < entries.length; i++) {
+			sb.append(i > 0 ? "," : "").append(entries[i]);
+		}
+
+		Path har = tmp.newFile().toPath();
+		Files.write(har, sb.append("]}}").toString().getBytes("UTF-8"));
+		return har;
+	}
+
+	private static String entry(String date, double time, String method, String url, String request, int status) {
+		return "{\"startedDateTime\":\"" + date + "\",\"time\":" + time + "," +
+			"\"request\":{\"method\":\"" + method + "\",\"url\":\"" + url + "\"," + request + "}," +
+			"\"response\":{\"status\":" + status + "}}";
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.har;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class JsonTest {
+
+	@Test
+	public void it_should_quote_strings() {
+		assertThat(Json.quote(new StringBuilder(), "foo \"bar\"\n\\\u0001").toString()).isEqualTo("\"foo \\\"bar\\\"\\n\\\\\\u0001\"");
+		assertThat(Json.quote(new StringBuilder(), null).toString()).isEqualTo("null");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void it_should_parse_document() {
+		Object value = Json.parse(" {\"b\": [1, -2.5e1, true, false, null], \"a\": {\"s\": \"caf\\u00e9 \\\"x\\\"\\n\"}} ");
+
+		Map<String, Object> json = (Map<String, Object>) value;
+		assertThat(json.keySet()).containsExactly("b", "a");
+		assertThat((List<Object>) json.get("b")).isEqualTo(asList((Object) 1.0, -25.0, true, false, null));
+		assertThat(((Map<String, Object>) json.get("a")).get("s")).isEqualTo("caf\u00e9 \"x\"\n");
+	}
+
+	@Test
+	public void it_should_parse_what_it_writes() {
+		String value = "foo\t\"bar\"\r\n\\ \u0002";
+		String json = Json.quote(new StringBuilder(), value).toString();
+		assertThat(Json.parse(json)).isEqualTo(value);
+	}
+
+	@Test
+	public void it_should_fail_with_invalid_document() {
+		for (String json : asList("{\"a\":1", "[1,]", "{\"a\" 1}", "tru", "1 2", "\"foo")) {
+			try {
+				Json.parse(json);
+				fail("Parsing should fail with: " + json);
+			}
+			catch (IllegalArgumentException ex) {
+				assertThat(ex.getMessage()).isNotEmpty();
+			}
+		}
+	}
+}
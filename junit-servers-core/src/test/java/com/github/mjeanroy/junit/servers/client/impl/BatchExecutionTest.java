@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResult;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchExecutionTest {
+
+	@Test
+	public void it_should_execute_requests_with_bounded_concurrency() {
+		DefaultHttpResponseFuture f1 = new DefaultHttpResponseFuture();
+		DefaultHttpResponseFuture f2 = new DefaultHttpResponseFuture();
+		DefaultHttpResponseFuture f3 = new DefaultHttpResponseFuture();
+
+		HttpRequest rq1 = request(f1);
+		HttpRequest rq2 = request(f2);
+		HttpRequest rq3 = request(f3);
+
+		Iterator<HttpResult> results = new BatchExecution(asList(rq1, rq2, rq3).iterator(), 2);
+
+		assertThat(results.hasNext()).isTrue();
+		verify(rq1).executeAsync();
+		verify(rq2).executeAsync();
+		verify(rq3, never()).executeAsync();
+
+		HttpResponse rsp2 = mock(HttpResponse.class);
+		f2.complete(rsp2);
+
+		HttpResult r2 = results.next();
+		assertThat(r2.getRequest()).isSameAs(rq2);
+		assertThat(r2.getResponse()).isSameAs(rsp2);
+		assertThat(r2.isSuccess()).isTrue();
+		assertThat(r2.getDuration()).isPositive();
+		verify(rq3).executeAsync();
+
+		IOException error = new IOException();
+		f1.fail(error);
+		f3.complete(mock(HttpResponse.class));
+
+		HttpResult r1 = results.next();
+		assertThat(r1.getRequest()).isSameAs(rq1);
+		assertThat(r1.isSuccess()).isFalse();
+		assertThat(r1.getError()).isSameAs(error);
+
+		HttpResult r3 = results.next();
+		assertThat(r3.getRequest()).isSameAs(rq3);
+		assertThat(results.hasNext()).isFalse();
+	}
+
+	@Test
+	public void it_should_report_submission_errors() {
+		HttpRequest rq = mock(HttpRequest.class);
+		HttpClientException error = new HttpClientException(new IOException());
+		when(rq.executeAsync()).thenThrow(error);
+
+		Iterator<HttpResult> results = new BatchExecution(asList(rq).iterator(), 1);
+
+		HttpResult result = results.next();
+		assertThat(result.getError()).isSameAs(error);
+		assertThat(results.hasNext()).isFalse();
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void it_should_fail_if_there_is_no_more_result() {
+		Iterator<HttpResult> results = new BatchExecution(Collections.<HttpRequest>emptyIterator(), 1);
+		assertThat(results.hasNext()).isFalse();
+		results.next();
+	}
+
+	private static HttpRequest request(DefaultHttpResponseFuture future) {
+		HttpRequest request = mock(HttpRequest.class);
+		when(request.executeAsync()).thenReturn(future);
+		return request;
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class BodyBufferTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Test
+	public void it_should_keep_small_body_in_memory() throws Exception {
+		BodyBuffer buffer = BodyBuffer.read(stream("foo"), 10);
+
+		assertThat(buffer.isMapped()).isFalse();
+		assertThat(buffer.size()).isEqualTo(3);
+		assertThat(buffer.toString(UTF8)).isEqualTo("foo");
+		assertThat(buffer.toByteArray()).isEqualTo("foo".getBytes(UTF8));
+	}
+
+	@Test
+	public void it_should_keep_body_in_memory_up_to_threshold() throws Exception {
+		BodyBuffer buffer = BodyBuffer.read(stream("foo"), 3);
+		assertThat(buffer.isMapped()).isFalse();
+		assertThat(buffer.toString(UTF8)).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_spill_large_body_to_temporary_file() throws Exception {
+		byte[] bytes = new byte[20000];
+		Arrays.fill(bytes, (byte) 'a');
+		bytes[bytes.length - 1] = 'z';
+
+		BodyBuffer buffer = BodyBuffer.read(new ByteArrayInputStream(bytes), 100);
+
+		assertThat(buffer.isMapped()).isTrue();
+		assertThat(buffer.size()).isEqualTo(bytes.length);
+		assertThat(buffer.toByteArray()).isEqualTo(bytes);
+		assertThat(buffer.toString(UTF8)).isEqualTo(new String(bytes, UTF8));
+	}
+
+	@Test
+	public void it_should_spill_body_if_threshold_is_zero() throws Exception {
+		BodyBuffer buffer = BodyBuffer.read(stream("foo"), 0);
+		assertThat(buffer.isMapped()).isTrue();
+		assertThat(buffer.toString(UTF8)).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_read_empty_body() throws Exception {
+		BodyBuffer buffer = BodyBuffer.read(stream(""), 0);
+		assertThat(buffer.size()).isZero();
+		assertThat(buffer.toString(UTF8)).isEmpty();
+	}
+
+	@Test
+	public void it_should_open_several_streams() throws Exception {
+		BodyBuffer inMemory = BodyBuffer.read(stream("foo"), 10);
+		BodyBuffer mapped = BodyBuffer.read(stream("foo"), 1);
+
+		for (BodyBuffer buffer : Arrays.asList(inMemory, mapped)) {
+			try (InputStream s1 = buffer.openStream(); InputStream s2 = buffer.openStream()) {
+				assertThat(IOUtils.toString(s1, "UTF-8")).isEqualTo("foo");
+				assertThat(IOUtils.toString(s2, "UTF-8")).isEqualTo("foo");
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void it_should_stop_reading_body_larger_than_max_size() throws Exception {
+		InputStream infinite = new InputStream() {
+			@Override
+			public int read() {
+				return 'a';
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				Arrays.fill(b, off, off + len, (byte) 'a');
+				return len;
+			}
+		};
+
+		try {
+			BodyBuffer.read(infinite, 10, 100000);
+			fail("Expected IOException");
+		}
+		catch (IOException ex) {
+			assertThat(ex.getMessage()).contains("too large");
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_negative_threshold() throws Exception {
+		BodyBuffer.read(stream("foo"), -1);
+	}
+
+	private static InputStream stream(String value) {
+		return new ByteArrayInputStream(value.getBytes(UTF8));
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseListener;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class DefaultHttpResponseFutureTest {
+
+	private DefaultHttpResponseFuture future;
+
+	@Before
+	public void setUp() {
+		future = new DefaultHttpResponseFuture();
+	}
+
+	@Test
+	public void it_should_complete_future() throws Exception {
+		HttpResponse response = mock(HttpResponse.class);
+		HttpResponseListener listener = mock(HttpResponseListener.class);
+		future.addListener(listener);
+
+		assertThat(future.isDone()).isFalse();
+		assertThat(future.complete(response)).isTrue();
+		assertThat(future.complete(mock(HttpResponse.class))).isFalse();
+
+		assertThat(future.isDone()).isTrue();
+		assertThat(future.isCancelled()).isFalse();
+		assertThat(future.get()).isSameAs(response);
+		assertThat(future.await()).isSameAs(response);
+		verify(listener).onSuccess(response);
+	}
+
+	@Test
+	public void it_should_notify_listener_added_after_completion() {
+		HttpResponse response = mock(HttpResponse.class);
+		HttpResponseListener listener = mock(HttpResponseListener.class);
+
+		future.complete(response);
+		future.addListener(listener);
+
+		verify(listener).onSuccess(response);
+	}
+
+	@Test
+	public void it_should_fail_future() throws Exception {
+		IOException error = new IOException();
+		HttpResponseListener listener = mock(HttpResponseListener.class);
+		future.addListener(listener);
+
+		assertThat(future.fail(error)).isTrue();
+		verify(listener).onFailure(error);
+
+		try {
+			future.get();
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertThat(ex.getCause()).isSameAs(error);
+		}
+
+		try {
+			future.await();
+			fail("Expected HttpClientException");
+		}
+		catch (HttpClientException ex) {
+			assertThat(ex.getCause()).isSameAs(error);
+		}
+	}
+
+	@Test
+	public void it_should_cancel_future_and_underlying_execution() {
+		Future<?> underlying = mock(Future.class);
+		HttpResponseListener listener = mock(HttpResponseListener.class);
+		future.bind(underlying);
+		future.addListener(listener);
+
+		assertThat(future.cancel(true)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(future.isDone()).isTrue();
+		assertThat(future.complete(mock(HttpResponse.class))).isFalse();
+
+		verify(underlying).cancel(true);
+		verify(listener).onFailure(any(CancellationException.class));
+		verify(listener, never()).onSuccess(any(HttpResponse.class));
+	}
+
+	@Test(expected = TimeoutException.class)
+	public void it_should_wait_with_timeout() throws Exception {
+		future.get(10, MILLISECONDS);
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl;
+
+import com.github.mjeanroy.junit.servers.client.RequestTimings;
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.RequestTimings.UNKNOWN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimingsRecorderTest {
+
+	@Test
+	public void it_should_record_timings_of_new_connection() {
+		RequestTimingsRecorder recorder = new RequestTimingsRecorder();
+		recorder.onConnectStart();
+		recorder.onConnectEnd();
+		recorder.onTlsHandshakeEnd();
+		recorder.onWriteStart();
+		recorder.onWriteEnd();
+		recorder.onFirstByte();
+		recorder.onEnd();
+
+		RequestTimings timings = recorder.toTimings();
+
+		assertThat(timings.getQueueDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getConnectDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getTlsHandshakeDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getRequestWriteDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getTimeToFirstByte()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getDownloadDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getTotalDuration()).isGreaterThanOrEqualTo(
+			timings.getQueueDuration() + timings.getConnectDuration() + timings.getTlsHandshakeDuration()
+		);
+	}
+
+	@Test
+	public void it_should_record_timings_of_pooled_connection() {
+		RequestTimingsRecorder recorder = new RequestTimingsRecorder();
+		recorder.onWriteStart();
+		recorder.onWriteEnd();
+		recorder.onFirstByte();
+
+		RequestTimings timings = recorder.toTimings();
+
+		assertThat(timings.getQueueDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getConnectDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTlsHandshakeDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getRequestWriteDuration()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getTimeToFirstByte()).isGreaterThanOrEqualTo(0);
+		assertThat(timings.getDownloadDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTotalDuration()).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	public void it_should_record_total_duration_only() {
+		RequestTimings timings = new RequestTimingsRecorder().toTimings();
+
+		assertThat(timings.getQueueDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getRequestWriteDuration()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTimeToFirstByte()).isEqualTo(UNKNOWN);
+		assertThat(timings.getTotalDuration()).isGreaterThanOrEqualTo(0);
+	}
+}
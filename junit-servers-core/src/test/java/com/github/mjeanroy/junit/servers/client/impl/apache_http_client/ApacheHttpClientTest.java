@@ -28,8 +28,13 @@ import com.github.mjeanroy.junit.servers.client.BaseHttpClientTest;
 import com.github.mjeanroy.junit.servers.client.HttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import org.apache.http.client.CookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.cookie.BasicClientCookie;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Test;
 
 import java.util.Map;
 
@@ -105,4 +110,47 @@ public class ApacheHttpClientTest extends BaseHttpClientTest {
 	protected void checkDestroy(HttpClient client) throws Exception {
 		verify(internalClient).close();
 	}
+
+	@Test
+	public void it_should_create_pooled_client_using_configuration() throws Exception {
+		HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+				.withMaxTotalConnections(50)
+				.withMaxConnectionsPerRoute(20)
+				.withValidateAfterInactivity(500)
+				.build();
+
+		ApacheHttpClient client = newApacheHttpClient(server, configuration);
+
+		PoolingHttpClientConnectionManager connectionManager = (PoolingHttpClientConnectionManager) readField(client, "connectionManager", true);
+		assertThat(connectionManager.getMaxTotal()).isEqualTo(50);
+		assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+		assertThat(connectionManager.getValidateAfterInactivity()).isEqualTo(500);
+
+		ConnectionPoolStats stats = client.getPoolStats();
+		assertThat(stats.getMax()).isEqualTo(50);
+		assertThat(stats.getLeased()).isZero();
+		assertThat(stats.getAvailable()).isZero();
+		assertThat(stats.getPending()).isZero();
+
+		client.destroy();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void it_should_not_get_pool_stats_of_custom_client() {
+		newApacheHttpClient(server, internalClient).getPoolStats();
+	}
+
+	@Test
+	public void it_should_clear_cookies_when_client_is_reset() throws Exception {
+		ApacheHttpClient client = defaultApacheHttpClient(server);
+
+		CookieStore cookieStore = (CookieStore) readField(client, "cookieStore", true);
+		cookieStore.addCookie(new BasicClientCookie("foo", "bar"));
+		assertThat(cookieStore.getCookies()).hasSize(1);
+
+		client.reset();
+		assertThat(cookieStore.getCookies()).isEmpty();
+
+		client.destroy();
+	}
 }
@@ -29,22 +29,40 @@ import com.github.mjeanroy.junit.servers.client.Cookie;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StringBody;
 import com.github.mjeanroy.junit.servers.utils.Pair;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
 import org.assertj.core.api.Condition;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
 import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
+import static java.util.Collections.singletonMap;
 import static org.apache.commons.lang3.reflect.FieldUtils.readField;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
@@ -56,6 +74,9 @@ import static org.mockito.Mockito.when;
 
 public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	private CloseableHttpClient client;
 	private CloseableHttpResponse response;
 
@@ -97,7 +118,7 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 
 	@Override
 	protected HttpResponse fakeExecution(HttpRequest httpRequest, ExecutionStrategy executionStrategy) throws Exception {
-		when(client.execute(any(HttpUriRequest.class))).thenReturn(response);
+		when(client.execute(any(HttpUriRequest.class), any(HttpContext.class))).thenReturn(response);
 		return executionStrategy.execute(httpRequest);
 	}
 
@@ -107,7 +128,7 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 		assertThat(internalRsp).isSameAs(response);
 
 		ArgumentCaptor<HttpUriRequest> requestCaptor = ArgumentCaptor.forClass(HttpUriRequest.class);
-		verify(client).execute(requestCaptor.capture());
+		verify(client).execute(requestCaptor.capture(), any(HttpContext.class));
 
 		if (headers != null) {
 			HttpUriRequest request = requestCaptor.getValue();
@@ -123,11 +144,11 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 		assertThat(queryParams).contains(entry(name, value));
 
 		reset(client);
-		when(client.execute(any(HttpRequestBase.class))).thenReturn(mock(CloseableHttpResponse.class));
+		when(client.execute(any(HttpRequestBase.class), any(HttpContext.class))).thenReturn(mock(CloseableHttpResponse.class));
 		httpRequest.execute();
 
 		ArgumentCaptor<HttpRequestBase> rqCaptor = ArgumentCaptor.forClass(HttpRequestBase.class);
-		verify(client).execute(rqCaptor.capture());
+		verify(client).execute(rqCaptor.capture(), any(HttpContext.class));
 
 		HttpRequestBase rq = rqCaptor.getValue();
 
@@ -143,11 +164,11 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 		assertThat(headers).contains(entry(name, value));
 
 		reset(client);
-		when(client.execute(any(HttpRequestBase.class))).thenReturn(mock(CloseableHttpResponse.class));
+		when(client.execute(any(HttpRequestBase.class), any(HttpContext.class))).thenReturn(mock(CloseableHttpResponse.class));
 		httpRequest.execute();
 
 		ArgumentCaptor<HttpRequestBase> rqCaptor = ArgumentCaptor.forClass(HttpRequestBase.class);
-		verify(client).execute(rqCaptor.capture());
+		verify(client).execute(rqCaptor.capture(), any(HttpContext.class));
 
 		HttpRequestBase rq = rqCaptor.getValue();
 		assertThat(rq.getFirstHeader(name).getValue()).isEqualTo(value);
@@ -160,11 +181,11 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 		checkHeader(httpRequest, "Content-Type", "application/x-www-form-urlencoded");
 
 		reset(client);
-		when(client.execute(any(HttpRequestBase.class))).thenReturn(mock(CloseableHttpResponse.class));
+		when(client.execute(any(HttpRequestBase.class), any(HttpContext.class))).thenReturn(mock(CloseableHttpResponse.class));
 		httpRequest.execute();
 
 		ArgumentCaptor<HttpEntityEnclosingRequest> rqCaptor = ArgumentCaptor.forClass(HttpEntityEnclosingRequest.class);
-		verify(client).execute((HttpRequestBase) rqCaptor.capture());
+		verify(client).execute((HttpRequestBase) rqCaptor.capture(), any(HttpContext.class));
 
 		HttpEntityEnclosingRequest rq = rqCaptor.getValue();
 		assertThat(rq.getEntity())
@@ -184,8 +205,70 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 
 	@Override
 	protected void checkRequestBody(HttpRequest httpRequest, String body) throws Exception {
-		String requestBody = extract(httpRequest, "body");
-		assertThat(requestBody).isEqualTo(body);
+		StringBody requestBody = extract(httpRequest, "body");
+		assertThat(requestBody.getValue()).isEqualTo(body);
+	}
+
+	@Test
+	public void it_should_encode_string_body_with_utf8() throws Exception {
+		HttpEntity entity = executeWithBody(createDefaultRequest().setBody("caf\u00e9"));
+
+		assertThat(entity.getContentLength()).isEqualTo(5);
+		assertThat(IOUtils.toByteArray(entity.getContent())).isEqualTo("caf\u00e9".getBytes("UTF-8"));
+	}
+
+	@Test
+	public void it_should_send_bytes_body() throws Exception {
+		HttpEntity entity = executeWithBody(createDefaultRequest().setBody("foo".getBytes("UTF-8")));
+
+		assertThat(entity).isExactlyInstanceOf(ByteArrayEntity.class);
+		assertThat(entity.getContentLength()).isEqualTo(3);
+		assertThat(IOUtils.toString(entity.getContent(), "UTF-8")).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_send_file_body_without_loading_it() throws Exception {
+		File file = tmp.newFile();
+		Files.write(file.toPath(), "foo".getBytes("UTF-8"));
+
+		HttpEntity entity = executeWithBody(createDefaultRequest().setBody(file.toPath()));
+
+		assertThat(entity).isExactlyInstanceOf(FileEntity.class);
+		assertThat(entity.getContentLength()).isEqualTo(3);
+	}
+
+	@Test
+	public void it_should_stream_file_body_of_other_file_system() throws Exception {
+		Path zip = tmp.getRoot().toPath().resolve("body.zip");
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), singletonMap("create", "true"))) {
+			Path path = fs.getPath("/foo.txt");
+			Files.write(path, "foo".getBytes("UTF-8"));
+
+			HttpEntity entity = executeWithBody(createDefaultRequest().setBody(path));
+
+			assertThat(entity).isExactlyInstanceOf(InputStreamEntity.class);
+			assertThat(entity.getContentLength()).isEqualTo(3);
+			assertThat(IOUtils.toString(entity.getContent(), "UTF-8")).isEqualTo("foo");
+		}
+	}
+
+	@Test
+	public void it_should_send_stream_body_with_chunked_encoding() throws Exception {
+		InputStream stream = new ByteArrayInputStream("foo".getBytes("UTF-8"));
+		HttpEntity entity = executeWithBody(createDefaultRequest().setBody(stream));
+
+		assertThat(entity).isExactlyInstanceOf(InputStreamEntity.class);
+		assertThat(entity.getContentLength()).isEqualTo(-1);
+		assertThat(entity.getContent()).isSameAs(stream);
+	}
+
+	private HttpEntity executeWithBody(HttpRequest httpRequest) throws Exception {
+		when(client.execute(any(HttpRequestBase.class), any(HttpContext.class))).thenReturn(response);
+		httpRequest.execute();
+
+		ArgumentCaptor<HttpEntityEnclosingRequest> rqCaptor = ArgumentCaptor.forClass(HttpEntityEnclosingRequest.class);
+		verify(client).execute((HttpRequestBase) rqCaptor.capture(), any(HttpContext.class));
+		return rqCaptor.getValue().getEntity();
 	}
 
 	@Override
@@ -197,11 +280,11 @@ public class ApacheHttpRequestTest extends BaseHttpRequestTest {
 				.contains(cookie);
 
 		reset(client);
-		when(client.execute(any(HttpRequestBase.class))).thenReturn(mock(CloseableHttpResponse.class));
+		when(client.execute(any(HttpRequestBase.class), any(HttpContext.class))).thenReturn(mock(CloseableHttpResponse.class));
 		httpRequest.execute();
 
 		ArgumentCaptor<HttpRequestBase> rqCaptor = ArgumentCaptor.forClass(HttpRequestBase.class);
-		verify(client).execute(rqCaptor.capture());
+		verify(client).execute(rqCaptor.capture(), any(HttpContext.class));
 
 		HttpRequestBase rq = rqCaptor.getValue();
 		assertThat(rq.getFirstHeader("Cookie").getValue()).isEqualTo(cookie.toHeaderValue());
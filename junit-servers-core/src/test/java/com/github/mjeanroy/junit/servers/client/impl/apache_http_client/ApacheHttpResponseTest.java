@@ -32,6 +32,8 @@ import org.apache.http.StatusLine;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.commons.lang3.reflect.FieldUtils.readField;
@@ -69,10 +71,11 @@ public class ApacheHttpResponseTest extends BaseHttpResponseTest {
 		when(response.getStatusLine()).thenReturn(statusLine);
 
 		HttpEntity httpEntity = mock(HttpEntity.class);
-		InputStream is = new ByteArrayInputStream(body.getBytes());
+		InputStream is = new ByteArrayInputStream(body.getBytes("UTF-8"));
 		when(httpEntity.getContent()).thenReturn(is);
 		when(response.getEntity()).thenReturn(httpEntity);
 
+		List<Header> allHeaders = new ArrayList<>(headers.size());
 		for (Map.Entry<String, String> entry : headers.entrySet()) {
 			String headerName = entry.getKey();
 			String headerValue = entry.getValue();
@@ -80,11 +83,9 @@ public class ApacheHttpResponseTest extends BaseHttpResponseTest {
 			Header header = mock(Header.class);
 			when(header.getName()).thenReturn(headerName);
 			when(header.getValue()).thenReturn(headerValue);
-
-			when(response.getFirstHeader(headerName)).thenReturn(header);
-			when(response.getHeaders(headerName)).thenReturn(new Header[] {
-					header
-			});
+			allHeaders.add(header);
 		}
+
+		when(response.getAllHeaders()).thenReturn(allHeaders.toArray(new Header[allHeaders.size()]));
 	}
 }
@@ -0,0 +1,61 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.apache_http_client;
+
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.impl.apache_http_client.ConnectionPoolStats.connectionPoolStats;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionPoolStatsTest {
+
+	@Test
+	public void it_should_create_stats() {
+		ConnectionPoolStats stats = connectionPoolStats(1, 2, 3, 20);
+
+		assertThat(stats.getLeased()).isEqualTo(1);
+		assertThat(stats.getAvailable()).isEqualTo(2);
+		assertThat(stats.getPending()).isEqualTo(3);
+		assertThat(stats.getMax()).isEqualTo(20);
+	}
+
+	@Test
+	public void it_should_implement_equals_hash_code() {
+		ConnectionPoolStats s1 = connectionPoolStats(1, 2, 3, 20);
+		ConnectionPoolStats s2 = connectionPoolStats(1, 2, 3, 20);
+		ConnectionPoolStats s3 = connectionPoolStats(0, 0, 0, 20);
+
+		assertThat(s1).isEqualTo(s2);
+		assertThat(s1.hashCode()).isEqualTo(s2.hashCode());
+		assertThat(s1).isNotEqualTo(s3);
+	}
+
+	@Test
+	public void it_should_implement_to_string() {
+		assertThat(connectionPoolStats(1, 2, 3, 20).toString()).isEqualTo(
+			"ConnectionPoolStats {leased = 1, available = 2, pending = 3, max = 20}"
+		);
+	}
+}
@@ -28,9 +28,14 @@ import com.github.mjeanroy.junit.servers.client.BaseHttpClientTest;
 import com.github.mjeanroy.junit.servers.client.HttpClient;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpClientConfiguration;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.Request;
+import com.ning.http.client.providers.netty.NettyAsyncHttpProviderConfig;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
 import com.ning.http.client.RequestBuilder;
+import org.junit.Test;
 
 import static com.github.mjeanroy.junit.servers.client.impl.async_http_client.AsyncHttpClient.defaultAsyncHttpClient;
 import static com.github.mjeanroy.junit.servers.client.impl.async_http_client.AsyncHttpClient.newAsyncHttpClient;
@@ -95,4 +100,81 @@ public class AsyncHttpClientTest extends BaseHttpClientTest {
 	protected void checkDestroy(HttpClient client) throws Exception {
 		verify(internalClient).close();
 	}
+
+	@Test
+	public void it_should_create_client_using_configuration() throws Exception {
+		HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+				.withMaxTotalConnections(50)
+				.withMaxConnectionsPerRoute(20)
+				.withConnectTimeout(1000)
+				.build();
+
+		AsyncHttpClient client = newAsyncHttpClient(server, configuration);
+
+		com.ning.http.client.AsyncHttpClient internalClient = (com.ning.http.client.AsyncHttpClient) readField(client, "client", true);
+		AsyncHttpClientConfig config = internalClient.getConfig();
+		assertThat(config.getMaxConnections()).isEqualTo(50);
+		assertThat(config.getMaxConnectionsPerHost()).isEqualTo(20);
+		assertThat(config.getConnectTimeout()).isEqualTo(1000);
+		assertThat(config.getReadTimeout()).isEqualTo(-1);
+
+		client.destroy();
+	}
+
+	@Test
+	public void it_should_create_default_client_with_default_configuration() throws Exception {
+		AsyncHttpClient client = defaultAsyncHttpClient(server);
+
+		AsyncHttpClientConfig config = ((com.ning.http.client.AsyncHttpClient) readField(client, "client", true)).getConfig();
+		assertThat(config.getMaxConnections()).isEqualTo(HttpClientConfiguration.DEFAULT_MAX_TOTAL_CONNECTIONS);
+		assertThat(config.getMaxConnectionsPerHost()).isEqualTo(HttpClientConfiguration.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+
+		client.destroy();
+	}
+
+	@Test
+	public void it_should_create_client_with_async_http_client_settings() throws Exception {
+		HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+				.withRequestTimeout(5000)
+				.withIoThreads(2)
+				.enableCompression()
+				.build();
+
+		AsyncHttpClient client = newAsyncHttpClient(server, configuration);
+
+		AsyncHttpClientConfig config = ((com.ning.http.client.AsyncHttpClient) readField(client, "client", true)).getConfig();
+		assertThat(config.getRequestTimeout()).isEqualTo(5000);
+		assertThat(config.isCompressionEnforced()).isTrue();
+
+		NioClientSocketChannelFactory channelFactory = (NioClientSocketChannelFactory) readField(client, "channelFactory", true);
+		NettyAsyncHttpProviderConfig providerConfig = (NettyAsyncHttpProviderConfig) config.getAsyncHttpProviderConfig();
+		assertThat(channelFactory).isNotNull();
+		assertThat(providerConfig.getSocketChannelFactory()).isSameAs(channelFactory);
+
+		client.destroy();
+	}
+
+	@Test
+	public void it_should_create_clients_sharing_event_loop() throws Exception {
+		HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+				.enableSharedEventLoop()
+				.build();
+
+		AsyncHttpClient c1 = newAsyncHttpClient(server, configuration);
+		AsyncHttpClient c2 = newAsyncHttpClient(server, configuration);
+
+		NettyAsyncHttpProviderConfig p1 = providerConfig(c1);
+		NettyAsyncHttpProviderConfig p2 = providerConfig(c2);
+		assertThat(p1.getSocketChannelFactory()).isNotNull().isSameAs(p2.getSocketChannelFactory());
+		assertThat(p1.getNettyTimer()).isNotNull().isSameAs(p2.getNettyTimer());
+		assertThat(readField(c1, "channelFactory", true)).isNull();
+
+		c1.destroy();
+		c2.destroy();
+	}
+
+	private static NettyAsyncHttpProviderConfig providerConfig(AsyncHttpClient client) throws Exception {
+		com.ning.http.client.AsyncHttpClient internalClient = (com.ning.http.client.AsyncHttpClient) readField(client, "client", true);
+		return (NettyAsyncHttpProviderConfig) internalClient.getConfig().getAsyncHttpProviderConfig();
+	}
 }
@@ -29,29 +29,54 @@ import com.github.mjeanroy.junit.servers.client.Cookie;
 import com.github.mjeanroy.junit.servers.client.HttpMethod;
 import com.github.mjeanroy.junit.servers.client.HttpRequest;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
 import com.github.mjeanroy.junit.servers.utils.Pair;
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.Body;
+import com.ning.http.client.AsyncCompletionHandler;
 import com.ning.http.client.ListenableFuture;
 import com.ning.http.client.Param;
 import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.Response;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
-
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
+import static com.github.mjeanroy.junit.servers.client.RequestBody.streamBody;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.apache.commons.lang3.reflect.FieldUtils.readField;
 import static org.apache.commons.lang3.reflect.FieldUtils.writeField;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class AsyncHttpRequestTest extends BaseHttpRequestTest {
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	private com.ning.http.client.AsyncHttpClient client;
 
 	private Response response;
@@ -137,6 +162,94 @@ public class AsyncHttpRequestTest extends BaseHttpRequestTest {
 		verify(builder).setBody(body);
 	}
 
+	@Test
+	public void it_should_encode_string_body_with_utf8() throws Exception {
+		HttpRequest httpRequest = createDefaultRequest().setBody("caf\u00e9");
+
+		RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
+		assertThat(builder.build().getBodyEncoding()).isEqualTo("UTF-8");
+	}
+
+	@Test
+	public void it_should_send_bytes_body() throws Exception {
+		byte[] body = "foo".getBytes("UTF-8");
+		HttpRequest httpRequest = createDefaultRequest().setBody(body);
+
+		RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
+		verify(builder).setBody(body);
+	}
+
+	@Test
+	public void it_should_send_file_body_without_loading_it() throws Exception {
+		File file = tmp.newFile();
+		HttpRequest httpRequest = createDefaultRequest().setBody(file);
+
+		RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
+		verify(builder).setBody(file);
+		assertThat(builder.build().getFile()).isEqualTo(file);
+	}
+
+	@Test
+	public void it_should_stream_file_body_of_other_file_system() throws Exception {
+		Path zip = tmp.getRoot().toPath().resolve("body.zip");
+		try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + zip.toUri()), singletonMap("create", "true"))) {
+			Path path = fs.getPath("/foo.txt");
+			Files.write(path, "foo".getBytes("UTF-8"));
+
+			HttpRequest httpRequest = createDefaultRequest().setBody(path);
+
+			RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
+			Request request = builder.build();
+			assertThat(request.getFile()).isNull();
+
+			Body body = request.getBodyGenerator().createBody();
+			assertThat(body.getContentLength()).isEqualTo(3);
+			body.close();
+		}
+	}
+
+	@Test
+	public void it_should_send_stream_body() throws Exception {
+		InputStream stream = new ByteArrayInputStream("foo".getBytes("UTF-8"));
+		HttpRequest httpRequest = createDefaultRequest().setBody(stream);
+
+		RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
+		RequestBodyGenerator generator = (RequestBodyGenerator) builder.build().getBodyGenerator();
+		assertThat(generator.getBody().openStream()).isSameAs(stream);
+
+		Body body = generator.createBody();
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		assertThat(body.getContentLength()).isEqualTo(-1);
+		assertThat(body.read(buffer)).isEqualTo(3);
+		assertThat(body.read(buffer)).isEqualTo(-1);
+		body.close();
+	}
+
+	@Test
+	public void it_should_send_stream_body_with_known_length() throws Exception {
+		InputStream stream = new ByteArrayInputStream("foo".getBytes("UTF-8"));
+		HttpRequest httpRequest = createDefaultRequest().setBody(streamBody(stream, 3));
+
+		RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
+		Body body = builder.build().getBodyGenerator().createBody();
+		assertThat(body.getContentLength()).isEqualTo(3);
+		body.close();
+	}
+
+	@Test
+	public void it_should_not_wrap_http_client_exception_of_async_execution() throws Exception {
+		HttpClientException error = new HttpClientException("error");
+		when(client.executeRequest(any(Request.class), any(AsyncHandler.class))).thenThrow(error);
+
+		try {
+			createDefaultRequest().executeAsync();
+			fail("Expected HttpClientException");
+		}
+		catch (HttpClientException ex) {
+			assertThat(ex).isSameAs(error);
+		}
+	}
+
 	@Override
 	protected void checkCookie(HttpRequest httpRequest, Cookie cookie) throws Exception {
 		RequestBuilder builder = (RequestBuilder) readField(httpRequest, "builder", true);
@@ -165,10 +278,20 @@ public class AsyncHttpRequestTest extends BaseHttpRequestTest {
 	@Override
 	protected HttpResponse fakeExecution(HttpRequest httpRequest, ExecutionStrategy executionStrategy) throws Exception {
 		@SuppressWarnings("unchecked")
-		ListenableFuture<Response> future = mock(ListenableFuture.class);
+		final ListenableFuture<Response> future = mock(ListenableFuture.class);
 
 		when(future.get()).thenReturn(response);
 		when(client.executeRequest(any(Request.class))).thenReturn(future);
+		when(client.executeRequest(any(Request.class), any(AsyncHandler.class))).thenAnswer(new Answer<ListenableFuture<Response>>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public ListenableFuture<Response> answer(InvocationOnMock invocation) throws Throwable {
+				AsyncCompletionHandler<Response> handler = (AsyncCompletionHandler<Response>) invocation.getArguments()[1];
+				handler.onCompleted(response);
+				return future;
+			}
+		});
+
 		return executionStrategy.execute(httpRequest);
 	}
 
@@ -178,7 +301,11 @@ public class AsyncHttpRequestTest extends BaseHttpRequestTest {
 		assertThat(internalRsp).isSameAs(response);
 
 		ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
-		verify(client).executeRequest(requestCaptor.capture());
+		if (mockingDetails(client).getInvocations().iterator().next().getArguments().length == 1) {
+			verify(client).executeRequest(requestCaptor.capture());
+		} else {
+			verify(client).executeRequest(requestCaptor.capture(), any(AsyncHandler.class));
+		}
 
 		if (headers != null) {
 			Request request = requestCaptor.getValue();
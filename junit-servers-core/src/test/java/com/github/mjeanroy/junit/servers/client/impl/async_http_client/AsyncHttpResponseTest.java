@@ -26,11 +26,12 @@ package com.github.mjeanroy.junit.servers.client.impl.async_http_client;
 
 import com.github.mjeanroy.junit.servers.client.BaseHttpResponseTest;
 import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
 import com.ning.http.client.Response;
 
+import java.io.ByteArrayInputStream;
 import java.util.Map;
 
-import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.reflect.FieldUtils.readField;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -61,13 +62,14 @@ public class AsyncHttpResponseTest extends BaseHttpResponseTest {
 	@Override
 	protected void mockInternals(int status, String body, Map<String, String> headers) throws Exception {
 		when(response.getStatusCode()).thenReturn(status);
-		when(response.getResponseBody()).thenReturn(body);
+		when(response.getResponseBodyAsBytes()).thenReturn(body.getBytes("UTF-8"));
+		when(response.getResponseBodyAsStream()).thenReturn(new ByteArrayInputStream(body.getBytes("UTF-8")));
 
+		FluentCaseInsensitiveStringsMap allHeaders = new FluentCaseInsensitiveStringsMap();
 		for (Map.Entry<String, String> entry : headers.entrySet()) {
-			String headerName = entry.getKey();
-			String headerValue = entry.getValue();
-			when(response.getHeader(headerName)).thenReturn(headerValue);
-			when(response.getHeaders(headerName)).thenReturn(asList(headerValue));
+			allHeaders.add(entry.getKey(), entry.getValue());
 		}
+
+		when(response.getHeaders()).thenReturn(allHeaders);
 	}
 }
@@ -0,0 +1,98 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.client.BaseHttpClientTest;
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.github.mjeanroy.junit.servers.servers.InProcessDispatcher;
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.impl.in_process.InProcessHttpClient.defaultInProcessHttpClient;
+import static com.github.mjeanroy.junit.servers.client.impl.in_process.InProcessHttpClient.newInProcessHttpClient;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.reflect.FieldUtils.readField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class InProcessHttpClientTest extends BaseHttpClientTest {
+
+	private InProcessDispatcher dispatcher;
+
+	@Override
+	protected void onSetUp() throws Exception {
+		dispatcher = mock(InProcessDispatcher.class);
+
+		// Default client use server as dispatcher
+		server = mock(EmbeddedServer.class, withSettings().extraInterfaces(InProcessDispatcher.class));
+		when(server.getUrl()).thenReturn("http://localhost:8080/path");
+		when(server.getPort()).thenReturn(8080);
+		when(server.getPath()).thenReturn("/path");
+	}
+
+	@Override
+	protected HttpClient createDefaultClient(EmbeddedServer server) throws Exception {
+		return defaultInProcessHttpClient(server);
+	}
+
+	@Override
+	protected HttpClient createCustomClient(EmbeddedServer server) throws Exception {
+		return newInProcessHttpClient(server, dispatcher);
+	}
+
+	@Override
+	protected void checkInternalHttpClient(HttpClient httpClient) throws Exception {
+		InProcessDispatcher internalDispatcher = (InProcessDispatcher) readField(httpClient, "dispatcher", true);
+		assertThat(internalDispatcher).isNotNull();
+	}
+
+	@Override
+	protected void checkHttpRequest(HttpRequest httpRequest, HttpMethod httpMethod, String path) throws Exception {
+		assertThat(httpRequest)
+				.isNotNull()
+				.isExactlyInstanceOf(InProcessHttpRequest.class);
+
+		InProcessDispatcher internalDispatcher = (InProcessDispatcher) readField(httpRequest, "dispatcher", true);
+		assertThat(internalDispatcher).isSameAs(dispatcher);
+
+		assertThat(httpRequest.getMethod()).isEqualTo(httpMethod);
+		assertThat(readField(httpRequest, "url", true)).isEqualTo(format("http://localhost:8080/path%s", path));
+	}
+
+	@Override
+	protected void checkDestroy(HttpClient client) throws Exception {
+		verifyZeroInteractions(dispatcher);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void it_should_fail_if_server_does_not_support_in_process_requests() {
+		defaultInProcessHttpClient(mock(EmbeddedServer.class));
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.client.BaseHttpRequestTest;
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.RequestBody.StringBody;
+import com.github.mjeanroy.junit.servers.servers.InProcessDispatcher;
+import com.github.mjeanroy.junit.servers.utils.Pair;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.readField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InProcessHttpRequestTest extends BaseHttpRequestTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private InProcessDispatcher dispatcher;
+
+	@Override
+	protected void onSetUp() throws Exception {
+		dispatcher = mock(InProcessDispatcher.class);
+	}
+
+	@Override
+	protected HttpRequest createHttpRequest(HttpMethod httpMethod, String url) throws Exception {
+		return new InProcessHttpRequest(dispatcher, httpMethod, url);
+	}
+
+	@Override
+	protected void checkInternals(HttpRequest request, HttpMethod httpMethod, String url) throws Exception {
+		InProcessDispatcher internalDispatcher = extract(request, "dispatcher");
+		assertThat(internalDispatcher).isSameAs(dispatcher);
+
+		HttpMethod requestMethod = extract(request, "httpMethod");
+		assertThat(requestMethod).isEqualTo(httpMethod);
+
+		String requestUrl = extract(request, "url");
+		assertThat(requestUrl).isEqualTo(url);
+
+		Map<String, String> headers = extract(request, "headers");
+		assertThat(headers).isEmpty();
+
+		Map<String, String> formParams = extract(request, "formParams");
+		assertThat(formParams).isEmpty();
+	}
+
+	@Override
+	protected HttpRequest createDefaultRequest() throws Exception {
+		return new InProcessHttpRequest(dispatcher, HttpMethod.POST, "http://localhost:8080/foo");
+	}
+
+	@Override
+	protected HttpResponse fakeExecution(HttpRequest httpRequest, ExecutionStrategy executionStrategy) throws Exception {
+		mockDispatcher();
+		return executionStrategy.execute(httpRequest);
+	}
+
+	@Override
+	protected void checkExecution(HttpResponse httpResponse, Pair... headers) throws Exception {
+		assertThat(httpResponse.status()).isEqualTo(200);
+		assertThat(httpResponse.body()).isEqualTo("foo");
+
+		String rawRequest = captureRawRequest();
+		assertThat(rawRequest)
+				.startsWith("POST /foo HTTP/1.1\r\n")
+				.contains("Host: localhost:8080\r\n")
+				.contains("Connection: close\r\n");
+
+		if (headers != null) {
+			for (Pair h : headers) {
+				assertThat(rawRequest).contains(h.getO1() + ": " + h.getO2() + "\r\n");
+			}
+		}
+	}
+
+	@Override
+	protected void checkQueryParam(HttpRequest httpRequest, String name, String value) throws Exception {
+		Map<String, String> queryParams = extract(httpRequest, "queryParams");
+		assertThat(queryParams).contains(entry(name, value));
+
+		reset(dispatcher);
+		mockDispatcher();
+		httpRequest.execute();
+
+		String rawRequest = captureRawRequest();
+		String requestTarget = rawRequest.substring(0, rawRequest.indexOf(" HTTP/1.1"));
+		assertThat(requestTarget).startsWith("POST /foo?");
+		assertThat(requestTarget.substring(10).split("&")).contains(name + "=" + value);
+	}
+
+	@Override
+	protected void checkHeader(HttpRequest httpRequest, String name, String value) throws Exception {
+		Map<String, String> headers = extract(httpRequest, "headers");
+		assertThat(headers).contains(entry(name, value));
+
+		reset(dispatcher);
+		mockDispatcher();
+		httpRequest.execute();
+
+		assertThat(captureRawRequest()).contains(name + ": " + value + "\r\n");
+	}
+
+	@Override
+	protected void checkFormParam(HttpRequest httpRequest, String name, String value) throws Exception {
+		Map<String, String> formParams = extract(httpRequest, "formParams");
+		assertThat(formParams).contains(entry(name, value));
+		checkHeader(httpRequest, "Content-Type", "application/x-www-form-urlencoded");
+
+		String rawRequest = captureRawRequest();
+		String body = rawRequest.substring(rawRequest.indexOf("\r\n\r\n") + 4);
+		assertThat(body.split("&")).contains(name + "=" + value);
+		assertThat(rawRequest).contains("Content-Length: " + body.length() + "\r\n");
+	}
+
+	@Override
+	protected void checkRequestBody(HttpRequest httpRequest, String body) throws Exception {
+		StringBody requestBody = extract(httpRequest, "body");
+		assertThat(requestBody.getValue()).isEqualTo(body);
+
+		mockDispatcher();
+		httpRequest.execute();
+
+		assertThat(captureRawRequest())
+				.contains("Content-Length: " + body.getBytes(UTF_8).length + "\r\n")
+				.endsWith("\r\n\r\n" + body);
+	}
+
+	@Override
+	protected void checkCookie(HttpRequest httpRequest, Cookie cookie) throws Exception {
+		List<Cookie> cookies = extract(httpRequest, "cookies");
+		assertThat(cookies)
+				.isNotNull()
+				.isNotEmpty()
+				.contains(cookie);
+
+		mockDispatcher();
+		httpRequest.execute();
+
+		assertThat(captureRawRequest()).contains("Cookie: " + cookie.toHeaderValue() + "\r\n");
+	}
+
+	@Test
+	public void it_should_not_send_body_with_get_request() throws Exception {
+		HttpRequest request = createHttpRequest(HttpMethod.GET, "http://localhost:8080/foo?id=1");
+
+		mockDispatcher();
+		request.addQueryParam("name", "foo bar").execute();
+
+		assertThat(captureRawRequest())
+				.startsWith("GET /foo?id=1&name=foo+bar HTTP/1.1\r\n")
+				.doesNotContain("Content-Length")
+				.endsWith("\r\n\r\n");
+	}
+
+	@Test
+	public void it_should_send_bytes_body() throws Exception {
+		mockDispatcher();
+		createDefaultRequest().setBody(ByteBuffer.wrap("foo".getBytes(UTF_8))).execute();
+
+		assertThat(captureRawRequest())
+				.contains("Content-Length: 3\r\n")
+				.endsWith("\r\n\r\nfoo");
+	}
+
+	@Test
+	public void it_should_send_stream_body() throws Exception {
+		mockDispatcher();
+		createDefaultRequest().setBody(new ByteArrayInputStream("foo".getBytes(UTF_8))).execute();
+
+		assertThat(captureRawRequest())
+				.contains("Content-Length: 3\r\n")
+				.endsWith("\r\n\r\nfoo");
+	}
+
+	private void mockDispatcher() throws Exception {
+		when(dispatcher.dispatch(any(ByteBuffer.class))).thenReturn(
+				ByteBuffer.wrap("HTTP/1.1 200 OK\r\nContent-Length: 3\r\n\r\nfoo".getBytes(UTF_8))
+		);
+	}
+
+	private String captureRawRequest() throws Exception {
+		ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+		verify(dispatcher).dispatch(captor.capture());
+
+		ByteBuffer buffer = captor.getValue().duplicate();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T extract(Object source, String name) throws IllegalAccessException {
+		return (T) readField(source, name, true);
+	}
+}
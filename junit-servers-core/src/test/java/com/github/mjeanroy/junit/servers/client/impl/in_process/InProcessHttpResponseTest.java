@@ -0,0 +1,74 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.client.BaseHttpResponseTest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.reflect.FieldUtils.readField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InProcessHttpResponseTest extends BaseHttpResponseTest {
+
+	private RawHttpResponse response;
+
+	@Override
+	protected void onSetUp() throws Exception {
+		response = mock(RawHttpResponse.class);
+	}
+
+	@Override
+	protected HttpResponse createHttpResponse() throws Exception {
+		return new InProcessHttpResponse(response, 1_000_000);
+	}
+
+	@Override
+	protected void checkInternals(HttpResponse rsp) throws Exception {
+		RawHttpResponse internalRsp = (RawHttpResponse) readField(rsp, "response", true);
+		assertThat(internalRsp)
+				.isNotNull()
+				.isSameAs(response);
+	}
+
+	@Override
+	protected void mockInternals(int status, String body, Map<String, String> headers) throws Exception {
+		when(response.getStatus()).thenReturn(status);
+		when(response.getBody()).thenReturn(body.getBytes("UTF-8"));
+
+		Map<String, List<String>> allHeaders = new LinkedHashMap<>();
+		for (Map.Entry<String, String> entry : headers.entrySet()) {
+			allHeaders.put(entry.getKey(), singletonList(entry.getValue()));
+		}
+
+		when(response.getHeaders()).thenReturn(allHeaders);
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.impl.in_process;
+
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class RawHttpResponseTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	@Test
+	public void it_should_parse_status_and_headers() {
+		RawHttpResponse response = parse(
+				"HTTP/1.1 404 Not Found\r\n" +
+				"Content-Type: text/plain\r\n" +
+				"Set-Cookie: foo=bar\r\n" +
+				"set-cookie: quix=baz\r\n" +
+				"Content-Length: 0\r\n" +
+				"\r\n"
+		);
+
+		assertThat(response.getStatus()).isEqualTo(404);
+		assertThat(response.getHeaders("content-type")).containsExactly("text/plain");
+		assertThat(response.getHeaders("Set-Cookie")).containsExactly("foo=bar", "quix=baz");
+		assertThat(response.getHeaders("X-Foo")).isEmpty();
+		assertThat(response.getBody()).isEmpty();
+
+		assertThat(response.getHeaders().keySet()).containsExactly("Content-Length", "Content-Type", "Set-Cookie");
+		assertThat(response.getHeaders().get("set-cookie")).containsExactly("foo=bar", "quix=baz");
+	}
+
+	@Test
+	public void it_should_read_body_using_content_length() {
+		RawHttpResponse response = parse(
+				"HTTP/1.1 200 OK\r\n" +
+				"Content-Length: 3\r\n" +
+				"\r\n" +
+				"foobar"
+		);
+
+		assertThat(response.getBodyAsString()).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_read_chunked_body() {
+		RawHttpResponse response = parse(
+				"HTTP/1.1 200 OK\r\n" +
+				"Transfer-Encoding: chunked\r\n" +
+				"\r\n" +
+				"3\r\nfoo\r\n" +
+				"a;name=value\r\n0123456789\r\n" +
+				"0\r\n" +
+				"\r\n"
+		);
+
+		assertThat(response.getBodyAsString()).isEqualTo("foo0123456789");
+	}
+
+	@Test
+	public void it_should_read_body_until_end_of_response() {
+		RawHttpResponse response = parse(
+				"HTTP/1.1 200 OK\r\n" +
+				"\r\n" +
+				"foo"
+		);
+
+		assertThat(response.getBodyAsString()).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_decode_body_with_charset_of_content_type() {
+		RawHttpResponse response = parse(
+				"HTTP/1.1 200 OK\r\n" +
+				"Content-Type: text/plain; charset=UTF-8\r\n" +
+				"\r\n" +
+				"été"
+		);
+
+		assertThat(response.getBodyAsString()).isEqualTo("été");
+	}
+
+	@Test
+	public void it_should_fail_with_truncated_body() {
+		try {
+			parse(
+					"HTTP/1.1 200 OK\r\n" +
+					"Content-Length: 6\r\n" +
+					"\r\n" +
+					"foo"
+			);
+
+			fail("Parsing should fail with truncated body");
+		}
+		catch (HttpClientException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Http response body is truncated: expected 6 bytes, got 3");
+		}
+	}
+
+	@Test
+	public void it_should_fail_with_chunked_body_without_last_chunk() {
+		try {
+			parse(
+					"HTTP/1.1 200 OK\r\n" +
+					"Transfer-Encoding: chunked\r\n" +
+					"\r\n" +
+					"3\r\nfoo\r\n"
+			);
+
+			fail("Parsing should fail without last chunk");
+		}
+		catch (HttpClientException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Chunked http response body is truncated: last chunk is missing");
+		}
+	}
+
+	@Test
+	public void it_should_fail_with_truncated_chunk() {
+		try {
+			parse(
+					"HTTP/1.1 200 OK\r\n" +
+					"Transfer-Encoding: chunked\r\n" +
+					"\r\n" +
+					"a\r\nfoo"
+			);
+
+			fail("Parsing should fail with truncated chunk");
+		}
+		catch (HttpClientException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Chunked http response body is truncated: expected chunk of 10 bytes, got 3");
+		}
+	}
+
+	@Test
+	public void it_should_fail_with_empty_response() {
+		try {
+			parse("");
+			fail("Parsing should fail with empty response");
+		}
+		catch (HttpClientException ex) {
+			assertThat(ex.getMessage()).contains("timed out");
+		}
+	}
+
+	private static RawHttpResponse parse(String response) {
+		return RawHttpResponse.parse(ByteBuffer.wrap(response.getBytes(UTF_8)));
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.load.Measurement.higherIsBetter;
+import static com.github.mjeanroy.junit.servers.client.load.Measurement.lowerIsBetter;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.offset;
+
+public class BaselineStoreTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Path directory;
+
+	@Before
+	public void setUp() {
+		directory = tmp.getRoot().toPath().resolve("baselines");
+	}
+
+	@Test
+	public void it_should_append_measurements_to_history() throws Exception {
+		BaselineStore store = BaselineStore.builder(directory).build();
+
+		BaselineReport report = store.record("com.foo.BarTest#test", asList(lowerIsBetter("latency", 10)));
+		store.record("com.foo.BarTest#test", asList(lowerIsBetter("latency", 12)));
+
+		assertThat(report.getTestId()).isEqualTo("com.foo.BarTest#test");
+		assertThat(report.hasRegressions()).isFalse();
+		assertThat(report.getComparisons()).hasSize(1);
+		assertThat(report.getComparisons().get(0).getSamples()).isZero();
+		assertThat(report.getComparisons().get(0).getBaseline()).isNaN();
+
+		Path file = directory.resolve("com.foo.BarTest_23test.csv");
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0)).isEqualTo("timestamp,measurement,value,lowerIsBetter");
+		assertThat(lines.get(1)).endsWith(",latency,10.0,true");
+		assertThat(lines.get(2)).endsWith(",latency,12.0,true");
+	}
+
+	@Test
+	public void it_should_compare_with_rolling_baseline() {
+		BaselineStore store = BaselineStore.builder(directory)
+			.withHistorySize(3)
+			.build();
+
+		for (double value : new double[] {100, 10, 11, 12}) {
+			store.record("test", asList(lowerIsBetter("latency", value)));
+		}
+
+		BaselineReport report = store.record("test", asList(lowerIsBetter("latency", 11)));
+		BaselineReport.Comparison comparison = report.getComparisons().get(0);
+
+		assertThat(comparison.getSamples()).isEqualTo(3);
+		assertThat(comparison.getBaseline()).isEqualTo(11.0, offset(0.0001));
+		assertThat(comparison.getStandardDeviation()).isEqualTo(1.0, offset(0.0001));
+		assertThat(comparison.isRegression()).isFalse();
+	}
+
+	@Test
+	public void it_should_fail_on_regression() {
+		BaselineStore store = BaselineStore.builder(directory).build();
+		for (double value : new double[] {10, 11, 10, 11}) {
+			store.record("test", asList(lowerIsBetter("latency", value), higherIsBetter("throughput", 1000)));
+		}
+
+		try {
+			store.record("test", asList(lowerIsBetter("latency", 10.8), higherIsBetter("throughput", 500)));
+			fail("Regression should have been detected");
+		}
+		catch (AssertionError ex) {
+			assertThat(ex.getMessage())
+				.startsWith("Performance baseline of test")
+				.contains("throughput")
+				.contains("REGRESSION");
+		}
+	}
+
+	@Test
+	public void it_should_not_append_regressions_to_history() throws Exception {
+		BaselineStore store = BaselineStore.builder(directory)
+			.withMinHistory(1)
+			.onRegression(BaselineStore.OnRegression.WARN)
+			.build();
+
+		store.record("test", asList(lowerIsBetter("latency", 10)));
+		for (int i = 0; i < 5; i++) {
+			assertThat(store.record("test", asList(lowerIsBetter("latency", 100))).hasRegressions()).isTrue();
+		}
+
+		List<String> lines = Files.readAllLines(directory.resolve("test.csv"), StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(2);
+	}
+
+	@Test
+	public void it_should_append_regressions_to_history_if_enabled() throws Exception {
+		BaselineStore store = BaselineStore.builder(directory)
+			.withMinHistory(1)
+			.withRegressionsRecorded(true)
+			.onRegression(BaselineStore.OnRegression.WARN)
+			.build();
+
+		store.record("test", asList(lowerIsBetter("latency", 10)));
+		assertThat(store.record("test", asList(lowerIsBetter("latency", 100))).hasRegressions()).isTrue();
+
+		List<String> lines = Files.readAllLines(directory.resolve("test.csv"), StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(3);
+	}
+
+	@Test
+	public void it_should_tolerate_noisy_measurements() {
+		BaselineStore store = BaselineStore.builder(directory).build();
+		for (double value : new double[] {10, 20, 10, 20}) {
+			store.record("test", asList(lowerIsBetter("latency", value)));
+		}
+
+		BaselineReport report = store.record("test", asList(lowerIsBetter("latency", 22)));
+
+		assertThat(report.hasRegressions()).isFalse();
+	}
+
+	@Test
+	public void it_should_not_detect_regression_without_enough_history() {
+		BaselineStore store = BaselineStore.builder(directory).build();
+		store.record("test", asList(lowerIsBetter("latency", 10)));
+
+		BaselineReport report = store.record("test", asList(lowerIsBetter("latency", 100)));
+
+		assertThat(report.hasRegressions()).isFalse();
+	}
+
+	@Test
+	public void it_should_only_warn_on_regression() {
+		BaselineStore store = BaselineStore.builder(directory)
+			.withMinHistory(1)
+			.onRegression(BaselineStore.OnRegression.WARN)
+			.build();
+
+		store.record("test", asList(lowerIsBetter("latency", 10)));
+		BaselineReport report = store.record("test", asList(lowerIsBetter("latency", 100)));
+
+		assertThat(report.hasRegressions()).isTrue();
+		assertThat(report.getRegressions()).hasSize(1);
+		assertThat(report.getRegressions().get(0).getMeasurement().getName()).isEqualTo("latency");
+	}
+
+	@Test
+	public void it_should_record_load_result_of_test() {
+		BaselineStore store = BaselineStore.builder(directory).build();
+		LoadResult result = LoadResult.loadResult(1000, 2_000_000_000L, 0, 0, new TreeMap<Integer, Long>(), LatencyHistogram.latencyHistogram(), 0, 0);
+
+		BaselineReport report = store.record(Description.createTestDescription(BaselineStoreTest.class, "test"), result);
+
+		assertThat(report.getTestId()).isEqualTo(BaselineStoreTest.class.getName() + "#test");
+		assertThat(report.getComparisons()).hasSize(Measurement.of(result).size());
+		assertThat(Files.exists(directory.resolve(BaselineStoreTest.class.getName() + "_23test.csv"))).isTrue();
+	}
+
+	@Test
+	public void it_should_use_distinct_files_for_distinct_tests() {
+		assertThat(BaselineStore.fileName("a.B#c")).isEqualTo("a.B_23c.csv");
+		assertThat(BaselineStore.fileName("a.B_c")).isEqualTo("a.B_5Fc.csv");
+		assertThat(BaselineStore.fileName("caf\u00e9")).isEqualTo("caf_C3_A9.csv");
+	}
+
+	@Test
+	public void it_should_use_directory_of_system_property() {
+		String previous = System.getProperty(BaselineStore.DIRECTORY_PROPERTY);
+		System.setProperty(BaselineStore.DIRECTORY_PROPERTY, directory.toString());
+		try {
+			BaselineStore.builder().build().record("test", asList(lowerIsBetter("latency", 10)));
+			assertThat(Files.exists(directory.resolve("test.csv"))).isTrue();
+		}
+		finally {
+			restore(previous);
+		}
+	}
+
+	@Test
+	public void it_should_require_directory() {
+		String previous = System.getProperty(BaselineStore.DIRECTORY_PROPERTY);
+		System.clearProperty(BaselineStore.DIRECTORY_PROPERTY);
+		try {
+			BaselineStore.builder();
+			fail("Directory should be required");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(ex.getMessage()).contains(BaselineStore.DIRECTORY_PROPERTY);
+		}
+		finally {
+			restore(previous);
+		}
+	}
+
+	private static void restore(String previous) {
+		if (previous == null) {
+			System.clearProperty(BaselineStore.DIRECTORY_PROPERTY);
+		}
+		else {
+			System.setProperty(BaselineStore.DIRECTORY_PROPERTY, previous);
+		}
+	}
+}
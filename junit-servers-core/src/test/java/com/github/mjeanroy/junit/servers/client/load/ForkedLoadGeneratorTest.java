@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.exceptions.LoadTestException;
+import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ForkedLoadGeneratorTest {
+
+	private HttpServer httpServer;
+
+	private EmbeddedServer server;
+
+	private AtomicLong handled;
+
+	@Before
+	public void setUp() throws Exception {
+		handled = new AtomicLong();
+		httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		httpServer.setExecutor(Executors.newFixedThreadPool(4));
+		httpServer.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				boolean authorized = "secret".equals(exchange.getRequestHeaders().getFirst("X-Token"));
+				byte[] body = "ok".getBytes("UTF-8");
+				exchange.sendResponseHeaders(authorized ? 200 : 401, body.length);
+				try (OutputStream output = exchange.getResponseBody()) {
+					output.write(body);
+				}
+
+				handled.incrementAndGet();
+			}
+		});
+
+		httpServer.start();
+
+		server = mock(EmbeddedServer.class);
+		when(server.getUrl()).thenReturn("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/");
+		when(server.getPath()).thenReturn("/");
+	}
+
+	@After
+	public void tearDown() {
+		httpServer.stop(0);
+	}
+
+	@Test
+	public void it_should_run_load_in_worker_processes() {
+		LoadResult result = ForkedLoadGenerator.builder(server)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withHeader("X-Token", "secret")
+			.withHttpClient(HttpClientStrategy.APACHE_HTTP_CLIENT)
+			.withProcesses(2)
+			.withConcurrency(2)
+			.withDuration(1500, TimeUnit.MILLISECONDS)
+			.withSnapshotInterval(200, TimeUnit.MILLISECONDS)
+			.withJvmOptions("-Xmx64m")
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isGreaterThan(0).isEqualTo(handled.get());
+		assertThat(result.getErrorCount()).isZero();
+		assertThat(result.getStatusCounts()).containsEntry(200, result.getRequestCount());
+		assertThat(result.getHistogram().getTotalCount()).isEqualTo(result.getRequestCount());
+		assertThat(result.getDuration()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(1500));
+	}
+
+	@Test
+	public void it_should_report_errors_of_worker_processes() {
+		LoadResult result = ForkedLoadGenerator.builder(server)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withHttpClient(HttpClientStrategy.APACHE_HTTP_CLIENT)
+			.withProcesses(1)
+			.withDuration(500, TimeUnit.MILLISECONDS)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isGreaterThan(0);
+		assertThat(result.getErrorCount()).isEqualTo(result.getRequestCount());
+		assertThat(result.getStatusCounts()).containsOnlyKeys(401);
+	}
+
+	@Test
+	public void it_should_fail_if_worker_process_fails() {
+		ForkedLoadGenerator generator = ForkedLoadGenerator.builder(server)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withHttpClient(HttpClientStrategy.APACHE_HTTP_CLIENT)
+			.withProcesses(1)
+			.withDuration(500, TimeUnit.MILLISECONDS)
+			.build();
+
+		when(server.getUrl()).thenReturn("not an url");
+
+		try {
+			generator.run();
+			fail("Load should fail");
+		}
+		catch (LoadTestException ex) {
+			assertThat(ex.getMessage()).startsWith("Worker process failed");
+		}
+	}
+
+	@Test
+	public void it_should_send_large_failure_details() throws Exception {
+		StringBuilder details = new StringBuilder();
+		while (details.length() < 100_000) {
+			details.append("\tat com.foo.Bar.caf\u00e9(Bar.java:1)\n");
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		LoadWorker.writeFailure(new DataOutputStream(bytes), details.toString());
+
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertThat(input.readByte()).isEqualTo(LoadWorker.FAILURE);
+		assertThat(LoadWorker.readFailure(input)).isEqualTo(details.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_use_in_process_client() {
+		ForkedLoadGenerator.builder(server).withHttpClient(HttpClientStrategy.IN_PROCESS);
+	}
+}
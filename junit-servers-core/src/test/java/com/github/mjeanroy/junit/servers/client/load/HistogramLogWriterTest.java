@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.load.HistogramLogWriter.histogramLogWriter;
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistogramLogWriterTest {
+
+	@Test
+	public void it_should_write_histogram_log() throws Exception {
+		LatencyHistogram histogram = latencyHistogram();
+		histogram.recordValue(2_500_000);
+
+		StringBuilder output = new StringBuilder();
+		HistogramLogWriter writer = histogramLogWriter(output);
+		writer.writeHeader(1_000_000_000_000L);
+		writer.writeInterval(null, 0, 10_000_000_000L, histogram);
+		writer.writeInterval("foo", 10_000_000_000L, 5_000_000_000L, histogram);
+
+		String[] lines = output.toString().split("\n");
+		assertThat(lines).hasSize(5);
+		assertThat(lines[0]).isEqualTo("#[Histogram log format version 1.3]");
+		assertThat(lines[1]).isEqualTo("#[StartTime: 1000000000.000 (seconds since epoch), Sun, 09 Sep 2001 01:46:40 GMT]");
+		assertThat(lines[2]).isEqualTo("\"StartTimestamp\",\"Interval_Length\",\"Interval_Max\",\"Interval_Compressed_Histogram\"");
+		assertThat(lines[3]).startsWith("0.000,10.000,2.501,");
+		assertThat(lines[4]).startsWith("Tag=foo,10.000,5.000,2.501,");
+
+		String encoded = lines[3].substring(lines[3].lastIndexOf(',') + 1);
+		LatencyHistogram decoded = LatencyHistogram.decode(Base64Codec.decode(encoded));
+		assertThat(decoded.getTotalCount()).isEqualTo(1);
+		assertThat(decoded.getMaxValue()).isEqualTo(histogram.getMaxValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_write_tag_with_comma() throws Exception {
+		histogramLogWriter(new StringBuilder()).writeInterval("foo,bar", 0, 1, latencyHistogram());
+	}
+
+	@Test
+	public void it_should_encode_and_decode_base64() {
+		for (String value : new String[] {"", "f", "fo", "foo", "foob", "fooba", "foobar"}) {
+			String encoded = Base64Codec.encode(value.getBytes());
+			assertThat(new String(Base64Codec.decode(encoded))).isEqualTo(value);
+		}
+
+		assertThat(Base64Codec.encode("foobar".getBytes())).isEqualTo("Zm9vYmFy");
+		assertThat(Base64Codec.encode("fooba".getBytes())).isEqualTo("Zm9vYmE=");
+		assertThat(Base64Codec.encode("foob".getBytes())).isEqualTo("Zm9vYg==");
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvocationLoadTest {
+
+	@Test
+	public void it_should_execute_invocation_during_given_duration() {
+		final AtomicInteger counter = new AtomicInteger(0);
+		InvocationLoad load = InvocationLoad.builder(new Invocation() {
+				@Override
+				public void invoke() {
+					counter.incrementAndGet();
+				}
+			})
+			.withThreads(2)
+			.withWarmup(10, MILLISECONDS)
+			.withDuration(30, MILLISECONDS)
+			.build();
+
+		LoadResult result = load.run();
+
+		assertThat(result.getRequestCount()).isGreaterThan(0).isLessThanOrEqualTo(counter.get());
+		assertThat(result.getErrorCount()).isZero();
+		assertThat(result.getStatusCounts()).isEmpty();
+		assertThat(result.getHistogram().getTotalCount()).isEqualTo(result.getRequestCount());
+		assertThat(result.getDuration()).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(30));
+		assertThat(load.getFailures()).isEmpty();
+	}
+
+	@Test
+	public void it_should_keep_first_failures() {
+		final AtomicInteger counter = new AtomicInteger(0);
+		InvocationLoad load = InvocationLoad.builder(new Invocation() {
+				@Override
+				public void invoke() {
+					if (counter.incrementAndGet() % 2 == 0) {
+						throw new AssertionError("fail");
+					}
+				}
+			})
+			.withDuration(20, MILLISECONDS)
+			.build();
+
+		LoadResult result = load.run();
+
+		assertThat(result.getErrorCount()).isGreaterThan(0);
+		assertThat(result.getRequestCount()).isGreaterThan(result.getErrorCount());
+		assertThat(load.getFailures()).hasSize(10);
+		assertThat(load.getFailures().get(0)).isInstanceOf(AssertionError.class).hasMessage("fail");
+	}
+}
@@ -0,0 +1,206 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void it_should_create_empty_histogram() {
+		LatencyHistogram histogram = latencyHistogram();
+
+		assertThat(histogram.getTotalCount()).isZero();
+		assertThat(histogram.getMinValue()).isZero();
+		assertThat(histogram.getMaxValue()).isZero();
+		assertThat(histogram.getMean()).isZero();
+		assertThat(histogram.getValueAtPercentile(99)).isZero();
+		assertThat(histogram.getHighestTrackableValue()).isEqualTo(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE);
+		assertThat(histogram.getSignificantDigits()).isEqualTo(LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS);
+	}
+
+	@Test
+	public void it_should_record_values_exactly_below_precision_threshold() {
+		LatencyHistogram histogram = latencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.recordValue(i);
+		}
+
+		assertThat(histogram.getTotalCount()).isEqualTo(100);
+		assertThat(histogram.getMinValue()).isEqualTo(1);
+		assertThat(histogram.getMaxValue()).isEqualTo(100);
+		assertThat(histogram.getValueAtPercentile(50)).isEqualTo(50);
+		assertThat(histogram.getValueAtPercentile(90)).isEqualTo(90);
+		assertThat(histogram.getValueAtPercentile(99)).isEqualTo(99);
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100);
+		assertThat(histogram.getMean()).isEqualTo(50.5, offset(0.001));
+	}
+
+	@Test
+	public void it_should_keep_relative_precision_of_large_values() {
+		LatencyHistogram histogram = latencyHistogram();
+		Random random = new Random(42);
+		long[] values = new long[10_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 1_000 + (long) (random.nextDouble() * 10_000_000_000L);
+			histogram.recordValue(values[i]);
+		}
+
+		Arrays.sort(values);
+
+		long p99 = values[(int) Math.ceil(0.99 * values.length) - 1];
+		assertThat((double) histogram.getValueAtPercentile(99)).isEqualTo(p99, offset(p99 * 0.001));
+
+		long max = values[values.length - 1];
+		assertThat((double) histogram.getMaxValue()).isEqualTo(max, offset(max * 0.001));
+		assertThat(histogram.getMaxValue()).isGreaterThanOrEqualTo(max);
+	}
+
+	@Test
+	public void it_should_clamp_values_greater_than_highest_trackable_value() {
+		LatencyHistogram histogram = latencyHistogram(1_000_000, 2);
+		histogram.recordValue(5_000_000);
+
+		assertThat(histogram.getTotalCount()).isEqualTo(1);
+		assertThat((double) histogram.getMaxValue()).isEqualTo(1_000_000, offset(10_000.0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_record_negative_values() {
+		latencyHistogram().recordValue(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_histogram_with_invalid_precision() {
+		latencyHistogram(1_000, 6);
+	}
+
+	@Test
+	public void it_should_count_values_between_values() {
+		LatencyHistogram histogram = latencyHistogram();
+		histogram.recordValues(10, 5);
+		histogram.recordValue(20);
+		histogram.recordValue(30);
+
+		assertThat(histogram.getCountBetweenValues(0, 10)).isEqualTo(5);
+		assertThat(histogram.getCountBetweenValues(11, 30)).isEqualTo(2);
+		assertThat(histogram.getCountBetweenValues(31, 100)).isZero();
+	}
+
+	@Test
+	public void it_should_add_histograms() {
+		LatencyHistogram h1 = latencyHistogram();
+		h1.recordValue(10);
+		h1.recordValue(1_000_000);
+
+		LatencyHistogram h2 = latencyHistogram();
+		h2.recordValue(5);
+
+		LatencyHistogram h3 = latencyHistogram(1_000_000_000, 2);
+		h3.recordValue(500);
+
+		h1.add(h2);
+		h1.add(h3);
+
+		assertThat(h1.getTotalCount()).isEqualTo(4);
+		assertThat(h1.getMinValue()).isEqualTo(5);
+		assertThat(h1.getCountBetweenValues(500, 500)).isEqualTo(1);
+		assertThat((double) h1.getMaxValue()).isEqualTo(1_000_000, offset(1_000.0));
+	}
+
+	@Test
+	public void it_should_copy_and_reset_histogram() {
+		LatencyHistogram histogram = latencyHistogram();
+		histogram.recordValue(10);
+
+		LatencyHistogram copy = histogram.copy();
+		histogram.reset();
+
+		assertThat(histogram.getTotalCount()).isZero();
+		assertThat(histogram.getMaxValue()).isZero();
+		assertThat(copy.getTotalCount()).isEqualTo(1);
+		assertThat(copy.getMaxValue()).isEqualTo(10);
+	}
+
+	@Test
+	public void it_should_encode_and_decode_histogram() {
+		LatencyHistogram histogram = latencyHistogram();
+		Random random = new Random(42);
+		for (int i = 0; i < 1_000; i++) {
+			histogram.recordValue((long) (random.nextDouble() * 1_000_000_000L));
+		}
+		histogram.recordValue(0);
+		histogram.recordValues(42, 1_000_000_000_000L);
+
+		byte[] encoded = histogram.encode();
+		LatencyHistogram decoded = LatencyHistogram.decode(encoded);
+
+		assertThat(decoded.getTotalCount()).isEqualTo(histogram.getTotalCount());
+		assertThat(decoded.getMinValue()).isEqualTo(histogram.getMinValue());
+		assertThat(decoded.getMaxValue()).isEqualTo(histogram.getMaxValue());
+		assertThat(decoded.getValueAtPercentile(99.99)).isEqualTo(histogram.getValueAtPercentile(99.99));
+		assertThat(decoded.getHighestTrackableValue()).isEqualTo(histogram.getHighestTrackableValue());
+		assertThat(decoded.getSignificantDigits()).isEqualTo(histogram.getSignificantDigits());
+	}
+
+	@Test
+	public void it_should_encode_using_hdr_histogram_compressed_format() {
+		byte[] encoded = latencyHistogram().encode();
+		assertThat(encoded[0]).isEqualTo((byte) 0x1c);
+		assertThat(encoded[1]).isEqualTo((byte) 0x84);
+		assertThat(encoded[2]).isEqualTo((byte) 0x93);
+		assertThat(encoded[3]).isEqualTo((byte) 0x14);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_decode_invalid_bytes() {
+		LatencyHistogram.decode(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+	}
+
+	@Test
+	public void it_should_output_percentile_distribution() {
+		LatencyHistogram histogram = latencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.recordValue(i * 1_000_000L);
+		}
+
+		String distribution = histogram.toPercentileDistribution(NANOSECONDS, MILLISECONDS);
+
+		assertThat(distribution.split(System.lineSeparator())).hasSize(11);
+		assertThat(distribution).contains("Value   Percentile   TotalCount");
+		assertThat(distribution).contains("50.004       0.5000           50");
+		assertThat(distribution).contains("100.008       1.0000          100");
+		assertThat(distribution).endsWith("#[Mean = 50.499, Max = 100.008, Total count = 100]");
+	}
+}
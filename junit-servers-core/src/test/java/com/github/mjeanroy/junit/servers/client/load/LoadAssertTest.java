@@ -0,0 +1,129 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static com.github.mjeanroy.junit.servers.client.load.LoadAssertions.assertThatLoad;
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.loadResult;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class LoadAssertTest {
+
+	@Test
+	public void it_should_chain_assertions() {
+		LoadResult result = createResult(0);
+
+		LoadAssert assertions = assertThatLoad(result)
+			.p50().isLessThan(60, MILLISECONDS)
+			.p99().isLessThan(101, MILLISECONDS)
+			.p999().isAtMost(101, MILLISECONDS)
+			.percentile(75).isLessThan(80, MILLISECONDS)
+			.maxLatency().isLessThan(1, SECONDS)
+			.meanLatency().isLessThan(51, MILLISECONDS)
+			.throughput().isAtLeast(50)
+			.throughput().isAtMost(50)
+			.errorRate().isAtMost(0)
+			.hasNoErrors()
+			.isOnSchedule();
+
+		assertThat(assertions.getResult()).isSameAs(result);
+	}
+
+	@Test
+	public void it_should_fail_with_latency_and_histogram() {
+		try {
+			assertThatLoad(createResult(0)).p99().isLessThan(50, MILLISECONDS);
+			fail("Assertion should have failed");
+		}
+		catch (AssertionError ex) {
+			assertThat(ex.getMessage())
+				.startsWith("Expected p99 latency to be less than 50.000 ms but was 99.025 ms")
+				.contains("LoadResult {requests = 100")
+				.contains("Value   Percentile   TotalCount")
+				.endsWith("#[Mean = 50.499, Max = 100.008, Total count = 100]");
+		}
+	}
+
+	@Test
+	public void it_should_fail_with_throughput() {
+		try {
+			assertThatLoad(createResult(0)).p99().isLessThan(200, MILLISECONDS).throughput().isAtLeast(2000);
+			fail("Assertion should have failed");
+		}
+		catch (AssertionError ex) {
+			assertThat(ex.getMessage()).startsWith("Expected throughput to be at least 2000.000 req/s but was 50.000 req/s");
+		}
+	}
+
+	@Test
+	public void it_should_fail_with_errors() {
+		try {
+			assertThatLoad(createResult(5)).hasNoErrors();
+			fail("Assertion should have failed");
+		}
+		catch (AssertionError ex) {
+			assertThat(ex.getMessage()).startsWith("Expected no errors but got 5 errors out of 100 requests");
+		}
+	}
+
+	@Test
+	public void it_should_fail_with_error_rate() {
+		try {
+			assertThatLoad(createResult(5)).errorRate().isAtMost(0.01);
+			fail("Assertion should have failed");
+		}
+		catch (AssertionError ex) {
+			assertThat(ex.getMessage()).startsWith("Expected error rate to be at most 0.010 but was 0.050");
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_accept_invalid_percentile() {
+		assertThatLoad(createResult(0)).percentile(101);
+	}
+
+	private static LoadResult createResult(long errors) {
+		LatencyHistogram histogram = latencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.recordValue(i * 1_000_000L);
+		}
+
+		Map<Integer, Long> statuses = new TreeMap<>();
+		statuses.put(200, 100 - errors);
+		if (errors > 0) {
+			statuses.put(500, errors);
+		}
+
+		return loadResult(1000, 2_000_000_000L, 100, errors, statuses, histogram, 0, 0);
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.exceptions.HttpClientException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LoadGeneratorTest {
+
+	private HttpClient client;
+
+	private HttpRequest request;
+
+	private HttpResponse response;
+
+	@Before
+	public void setUp() {
+		client = mock(HttpClient.class);
+		request = mock(HttpRequest.class);
+		response = mock(HttpResponse.class);
+
+		when(client.prepareRequest(HttpMethod.GET, "/foo")).thenReturn(request);
+		when(request.execute()).thenReturn(response);
+		when(response.status()).thenReturn(200);
+	}
+
+	@Test
+	public void it_should_execute_given_number_of_iterations() {
+		LoadResult result = LoadGenerator.builder(client)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withConcurrency(4)
+			.withIterations(100)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isEqualTo(100);
+		assertThat(result.getErrorCount()).isZero();
+		assertThat(result.getStatusCounts()).containsEntry(200, 100L);
+		assertThat(result.getHistogram().getTotalCount()).isEqualTo(100);
+		assertThat(result.getDuration()).isGreaterThan(0);
+		assertThat(result.getStartTime()).isGreaterThan(0);
+
+		verify(response, atLeast(100)).bodyDigest();
+	}
+
+	@Test
+	public void it_should_run_warmup_before_measured_phase() {
+		LoadResult result = LoadGenerator.builder(client)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withWarmup(20, MILLISECONDS)
+			.withIterations(10)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isEqualTo(10);
+		verify(request, atLeast(11)).execute();
+	}
+
+	@Test
+	public void it_should_execute_requests_during_given_duration() {
+		LoadResult result = LoadGenerator.builder(client)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withConcurrency(2)
+			.withDuration(50, MILLISECONDS)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isGreaterThan(0);
+		assertThat(result.getDuration()).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(50));
+	}
+
+	@Test
+	public void it_should_count_errors() {
+		final AtomicInteger counter = new AtomicInteger(0);
+		RequestTemplate template = new RequestTemplate() {
+			@Override
+			public HttpRequest prepare(HttpClient client) {
+				int i = counter.incrementAndGet();
+				if (i % 3 == 0) {
+					throw new HttpClientException(new Exception());
+				}
+
+				return i % 3 == 1 ? request : client.prepareRequest(HttpMethod.POST, "/fail");
+			}
+		};
+
+		HttpRequest failure = mock(HttpRequest.class);
+		HttpResponse serverError = mock(HttpResponse.class);
+		when(client.prepareRequest(HttpMethod.POST, "/fail")).thenReturn(failure);
+		when(failure.execute()).thenReturn(serverError);
+		when(serverError.status()).thenReturn(500);
+
+		LoadResult result = LoadGenerator.builder(client)
+			.withRequest(template)
+			.withIterations(30)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isEqualTo(30);
+		assertThat(result.getErrorCount()).isEqualTo(20);
+		assertThat(result.getStatusCounts()).containsEntry(200, 10L).containsEntry(500, 10L);
+		assertThat(result.getHistogram().getTotalCount()).isEqualTo(20);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void it_should_not_build_generator_without_request() {
+		LoadGenerator.builder(client).build();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_set_invalid_concurrency() {
+		LoadGenerator.builder(client).withConcurrency(0);
+	}
+}
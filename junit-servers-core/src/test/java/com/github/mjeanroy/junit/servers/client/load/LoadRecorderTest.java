@@ -0,0 +1,78 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadRecorderTest {
+
+	@Test
+	public void it_should_drain_recorded_values() {
+		LoadRecorder recorder = new LoadRecorder();
+		recorder.recordResponse(200, 1_000_000);
+		recorder.recordResponse(500, 2_000_000);
+
+		LoadResult drained = recorder.drain().toResult(0, 1_000_000_000);
+		assertThat(drained.getRequestCount()).isEqualTo(2);
+		assertThat(drained.getErrorCount()).isEqualTo(1);
+		assertThat(drained.getHistogram().getTotalCount()).isEqualTo(2);
+
+		LoadResult empty = recorder.toResult(0, 1_000_000_000);
+		assertThat(empty.getRequestCount()).isZero();
+		assertThat(empty.getStatusCounts()).isEmpty();
+		assertThat(empty.getHistogram().getTotalCount()).isZero();
+	}
+
+	@Test
+	public void it_should_write_and_read_recorded_values() throws Exception {
+		LoadRecorder recorder = new LoadRecorder();
+		recorder.recordResponse(200, 1_000_000);
+		recorder.recordResponse(200, 3_000_000);
+		recorder.recordResponse(404, 2_000_000);
+		recorder.recordFailure();
+		recorder.recordScheduleLag(5_000_000);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		recorder.writeTo(new DataOutputStream(bytes));
+		LoadRecorder read = LoadRecorder.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		LoadResult expected = recorder.toResult(0, 1_000_000_000);
+		LoadResult result = read.toResult(0, 1_000_000_000);
+		assertThat(result.getRequestCount()).isEqualTo(4);
+		assertThat(result.getErrorCount()).isEqualTo(2);
+		assertThat(result.getStatusCounts()).isEqualTo(expected.getStatusCounts());
+		assertThat(result.getLateRequestCount()).isEqualTo(1);
+		assertThat(result.getMaxScheduleLag()).isEqualTo(5_000_000);
+		assertThat(result.getMaxLatency()).isEqualTo(expected.getMaxLatency());
+		assertThat(result.getHistogram().getTotalCount()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.loadResult;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class LoadResultTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void it_should_compute_throughput_and_error_rate() {
+		LoadResult result = createResult();
+
+		assertThat(result.getRequestCount()).isEqualTo(4);
+		assertThat(result.getErrorCount()).isEqualTo(1);
+		assertThat(result.getErrorRate()).isEqualTo(0.25, offset(0.0001));
+		assertThat(result.getThroughput()).isEqualTo(2.0, offset(0.0001));
+		assertThat(result.getStatusCounts()).hasSize(2).containsEntry(200, 3L).containsEntry(500, 1L);
+		assertThat((double) result.getLatencyAtPercentile(50)).isEqualTo(2_000_000, offset(2_000.0));
+		assertThat((double) result.getMaxLatency()).isEqualTo(4_000_000, offset(4_000.0));
+	}
+
+	@Test
+	public void it_should_report_late_requests() {
+		LoadResult result = loadResult(1000, 2_000_000_000L, 0, 0, new TreeMap<Integer, Long>(), latencyHistogram(), 3, 5_000_000);
+
+		assertThat(result.isBehindSchedule()).isTrue();
+		assertThat(result.getLateRequestCount()).isEqualTo(3);
+		assertThat(result.getMaxScheduleLag()).isEqualTo(5_000_000);
+		assertThat(result.toJson()).contains("\"lateRequests\":3,\"maxScheduleLagMs\":5.000,");
+		assertThat(result.toString()).endsWith(", late requests = 3, max schedule lag = 5.000 ms}");
+	}
+
+	@Test
+	public void it_should_return_copy_of_histogram() {
+		LoadResult result = createResult();
+		result.getHistogram().reset();
+		assertThat(result.getHistogram().getTotalCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void it_should_export_result_as_json() {
+		String json = createResult().toJson();
+
+		assertThat(json)
+			.startsWith("{\"startTime\":1000,\"durationMs\":2000.000,\"requests\":4,\"errors\":1,\"errorRate\":0.250,\"throughput\":2.000,")
+			.contains("\"statuses\":{\"200\":3,\"500\":1}")
+			.contains("\"latencyMs\":{\"min\":1.000,")
+			.contains("\"p50\":2.001")
+			.contains("\"p99.9\":4.002")
+			.endsWith("}}");
+	}
+
+	@Test
+	public void it_should_write_json_and_histogram_log() throws Exception {
+		LoadResult result = createResult();
+		Path json = tmp.newFile("result.json").toPath();
+		Path log = tmp.newFile("result.hlog").toPath();
+
+		result.writeJson(json);
+		result.writeHistogramLog(log);
+
+		assertThat(new String(Files.readAllBytes(json), StandardCharsets.UTF_8)).isEqualTo(result.toJson());
+		assertThat(Files.readAllLines(log, StandardCharsets.UTF_8)).hasSize(4);
+	}
+
+	@Test
+	public void it_should_implement_to_string() {
+		assertThat(createResult().toString())
+			.startsWith("LoadResult {requests = 4, errors = 1, duration = 2000.000 ms, throughput = 2.0 req/s, latency (ms): min = 1.000")
+			.contains("p99 = 4.002");
+	}
+
+	private static LoadResult createResult() {
+		LatencyHistogram histogram = latencyHistogram();
+		histogram.recordValue(1_000_000);
+		histogram.recordValue(2_000_000);
+		histogram.recordValue(3_000_000);
+		histogram.recordValue(4_000_000);
+
+		Map<Integer, Long> statuses = new TreeMap<>();
+		statuses.put(200, 3L);
+		statuses.put(500, 1L);
+
+		return loadResult(1000, 2_000_000_000L, 4, 1, statuses, histogram, 0, 0);
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.loadResult;
+import static com.github.mjeanroy.junit.servers.client.load.Measurement.higherIsBetter;
+import static com.github.mjeanroy.junit.servers.client.load.Measurement.lowerIsBetter;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class MeasurementTest {
+
+	@Test
+	public void it_should_create_measurements() {
+		assertThat(lowerIsBetter("startup.ms", 10).isLowerBetter()).isTrue();
+		assertThat(higherIsBetter("throughput", 10).isLowerBetter()).isFalse();
+		assertThat(lowerIsBetter("startup.ms", 10)).isEqualTo(lowerIsBetter("startup.ms", 10)).isNotEqualTo(higherIsBetter("startup.ms", 10));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_accept_invalid_names() {
+		lowerIsBetter("startup,ms", 10);
+	}
+
+	@Test
+	public void it_should_extract_measurements_of_load_result() {
+		LatencyHistogram histogram = latencyHistogram();
+		histogram.recordValue(2_000_000);
+		Map<Integer, Long> statuses = new TreeMap<>();
+		statuses.put(200, 1L);
+
+		List<Measurement> measurements = Measurement.of(loadResult(1000, 1_000_000_000L, 1, 0, statuses, histogram, 0, 0));
+
+		assertThat(measurements).extracting("name").containsExactly("latency.p50.ms", "latency.p90.ms", "latency.p99.ms", "latency.mean.ms", "throughput", "errorRate");
+		assertThat(measurements.get(0).getValue()).isEqualTo(2.0, offset(0.01));
+		assertThat(measurements.get(4).getValue()).isEqualTo(1.0, offset(0.0001));
+		assertThat(measurements.get(4).isLowerBetter()).isFalse();
+	}
+}
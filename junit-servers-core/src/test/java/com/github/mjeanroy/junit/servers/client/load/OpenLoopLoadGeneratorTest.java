@@ -0,0 +1,146 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResponseFuture;
+import com.github.mjeanroy.junit.servers.client.HttpResponseListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OpenLoopLoadGeneratorTest {
+
+	private HttpClient client;
+
+	private HttpRequest request;
+
+	@Before
+	public void setUp() {
+		client = mock(HttpClient.class);
+		request = mock(HttpRequest.class);
+
+		final HttpResponse response = mock(HttpResponse.class);
+		when(response.status()).thenReturn(200);
+
+		final HttpResponseFuture future = mock(HttpResponseFuture.class);
+		when(future.addListener(any(HttpResponseListener.class))).thenAnswer(new Answer<HttpResponseFuture>() {
+			@Override
+			public HttpResponseFuture answer(InvocationOnMock invocation) throws Throwable {
+				HttpResponseListener listener = (HttpResponseListener) invocation.getArguments()[0];
+				listener.onSuccess(response);
+				return future;
+			}
+		});
+
+		when(client.prepareRequest(HttpMethod.GET, "/foo")).thenReturn(request);
+		when(request.executeAsync()).thenReturn(future);
+	}
+
+	@Test
+	public void it_should_compute_intended_send_time_at_constant_rate() {
+		long duration = MILLISECONDS.toNanos(1000);
+		assertThat(OpenLoopLoadGenerator.offset(0, duration, 10, 10)).isEqualTo(0);
+		assertThat(OpenLoopLoadGenerator.offset(5, duration, 10, 10)).isEqualTo(MILLISECONDS.toNanos(500));
+		assertThat(OpenLoopLoadGenerator.offset(10, duration, 10, 10)).isEqualTo(duration);
+	}
+
+	@Test
+	public void it_should_compute_intended_send_time_at_ramped_rate() {
+		long duration = MILLISECONDS.toNanos(1000);
+
+		// 10 req/s to 30 req/s: 20 requests in one second.
+		assertThat(OpenLoopLoadGenerator.offset(0, duration, 10, 30)).isEqualTo(0);
+		assertThat((double) OpenLoopLoadGenerator.offset(20, duration, 10, 30)).isEqualTo(duration, offset(1000.0));
+		assertThat(OpenLoopLoadGenerator.offset(5, duration, 10, 30)).isLessThan(MILLISECONDS.toNanos(500));
+
+		// Decreasing rate: 20 requests in one second, no more.
+		assertThat((double) OpenLoopLoadGenerator.offset(20, duration, 30, 10)).isEqualTo(duration, offset(1000.0));
+		assertThat(OpenLoopLoadGenerator.offset(21, duration, 30, 10)).isGreaterThan(duration);
+	}
+
+	@Test
+	public void it_should_send_requests_at_given_rate() {
+		LoadResult result = OpenLoopLoadGenerator.builder(client)
+			.withRequest(HttpMethod.GET, "/foo")
+			.withRate(200)
+			.withDuration(100, MILLISECONDS)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isEqualTo(20);
+		assertThat(result.getErrorCount()).isZero();
+		assertThat(result.getStatusCounts()).containsEntry(200, 20L);
+		assertThat(result.getDuration()).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(95));
+	}
+
+	@Test
+	public void it_should_measure_latency_from_intended_send_time() {
+		// Sending a request takes 10ms, whereas a request must be sent every 1ms:
+		// load generator falls behind and delay is part of latency.
+		RequestTemplate slowTemplate = new RequestTemplate() {
+			@Override
+			public HttpRequest prepare(HttpClient client) {
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+
+				return request;
+			}
+		};
+
+		LoadResult result = OpenLoopLoadGenerator.builder(client)
+			.withRequest(slowTemplate)
+			.withRate(1000)
+			.withDuration(10, MILLISECONDS)
+			.build()
+			.run();
+
+		assertThat(result.getRequestCount()).isEqualTo(10);
+		assertThat(result.isBehindSchedule()).isTrue();
+		assertThat(result.getLateRequestCount()).isGreaterThan(0);
+		assertThat(result.getMaxScheduleLag()).isGreaterThan(MILLISECONDS.toNanos(50));
+		assertThat(result.getMaxLatency()).isGreaterThan(MILLISECONDS.toNanos(50));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_set_invalid_rate() {
+		OpenLoopLoadGenerator.builder(client).withRate(0);
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.load.ResponseRecorder.responseRecorder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResponseRecorderTest {
+
+	@Test
+	public void it_should_record_responses() {
+		HttpResponse ok = mock(HttpResponse.class);
+		when(ok.status()).thenReturn(200);
+		when(ok.getRequestDuration()).thenReturn(2_000_000L);
+
+		HttpResponse notFound = mock(HttpResponse.class);
+		when(notFound.status()).thenReturn(404);
+		when(notFound.getRequestDuration()).thenReturn(4_000_000L);
+
+		ResponseRecorder recorder = responseRecorder();
+		assertThat(recorder.record(ok)).isSameAs(ok);
+		assertThat(recorder.record(notFound)).isSameAs(notFound);
+		recorder.recordFailure();
+
+		LoadResult result = recorder.toResult();
+		assertThat(result.getRequestCount()).isEqualTo(3);
+		assertThat(result.getErrorCount()).isEqualTo(2);
+		assertThat(result.getStatusCounts()).containsEntry(200, 1L).containsEntry(404, 1L);
+		assertThat((double) result.getMaxLatency()).isEqualTo(4_000_000.0, offset(4_000.0));
+		assertThat(result.getStartTime()).isGreaterThan(0);
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import static com.github.mjeanroy.junit.servers.client.load.LatencyHistogram.latencyHistogram;
+import static com.github.mjeanroy.junit.servers.client.load.LoadResult.loadResult;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SaturationFinderTest {
+
+	@Test
+	public void it_should_find_max_rate_with_steps() {
+		SaturationResult result = SaturationFinder.builder(mock(HttpClient.class))
+			.withRequest(HttpMethod.GET, "/foo")
+			.withLatencyObjective(50, MILLISECONDS)
+			.withSteps(20, 200, 20)
+			.build(new FakeRunner(100, 0))
+			.run();
+
+		List<LoadLevel> curve = result.getCurve();
+		assertThat(curve).hasSize(5);
+		assertThat(curve.get(0).getRate()).isEqualTo(20);
+		assertThat(curve.get(4).getRate()).isEqualTo(100);
+		assertThat(curve.get(4).isPassed()).isFalse();
+
+		assertThat(result.getMaxRate()).isEqualTo(80);
+		assertThat(result.getKnee()).isSameAs(curve.get(3));
+		assertThat(result.toString())
+			.startsWith("SaturationResult {maxRate = 80.0}")
+			.contains("knee");
+	}
+
+	@Test
+	public void it_should_find_max_rate_with_binary_search() {
+		SaturationResult result = SaturationFinder.builder(mock(HttpClient.class))
+			.withRequest(HttpMethod.GET, "/foo")
+			.withLatencyObjective(50, MILLISECONDS)
+			.withBinarySearch(10, 1000, 5)
+			.build(new FakeRunner(100, 0))
+			.run();
+
+		assertThat(result.getMaxRate()).isGreaterThan(95).isLessThan(100);
+		assertThat(result.getCurve()).hasSize(2 + 8);
+		assertThat(result.getCurve().get(0).getRate()).isEqualTo(10);
+		assertThat(result.getCurve().get(9).getRate()).isEqualTo(1000);
+	}
+
+	@Test
+	public void it_should_stop_when_error_rate_is_too_high() {
+		SaturationResult result = SaturationFinder.builder(mock(HttpClient.class))
+			.withRequest(HttpMethod.GET, "/foo")
+			.withLatencyObjective(50, MILLISECONDS)
+			.withMaxErrorRate(0.05)
+			.withSteps(10, 100, 10)
+			.build(new FakeRunner(1000, 30))
+			.run();
+
+		assertThat(result.getMaxRate()).isEqualTo(30);
+	}
+
+	@Test
+	public void it_should_report_no_knee_if_lowest_rate_fails() {
+		SaturationResult result = SaturationFinder.builder(mock(HttpClient.class))
+			.withRequest(HttpMethod.GET, "/foo")
+			.withLatencyObjective(50, MILLISECONDS)
+			.withBinarySearch(200, 1000, 5)
+			.build(new FakeRunner(100, 0))
+			.run();
+
+		assertThat(result.getCurve()).hasSize(1);
+		assertThat(result.getKnee()).isNull();
+		assertThat(result.getMaxRate()).isZero();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_require_latency_objective() {
+		SaturationFinder.builder(mock(HttpClient.class))
+			.withRequest(HttpMethod.GET, "/foo")
+			.build();
+	}
+
+	/**
+	 * Fake runner: latency is 10ms below saturation rate and 100ms
+	 * above, errors occur above error threshold.
+	 */
+	private static class FakeRunner implements SaturationFinder.LevelRunner {
+
+		private final double saturationRate;
+
+		private final double errorThreshold;
+
+		private FakeRunner(double saturationRate, double errorThreshold) {
+			this.saturationRate = saturationRate;
+			this.errorThreshold = errorThreshold;
+		}
+
+		@Override
+		public LoadResult run(double rate) {
+			LatencyHistogram histogram = latencyHistogram();
+			histogram.recordValues(MILLISECONDS.toNanos(rate < saturationRate ? 10 : 100), 100);
+			long errors = errorThreshold > 0 && rate > errorThreshold ? 10 : 0;
+			return loadResult(0, 1_000_000_000L, 100, errors, new TreeMap<Integer, Long>(), histogram, 0, 0);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.mjeanroy.junit.servers.client.Cookie.cookie;
+import static com.github.mjeanroy.junit.servers.client.HttpHeader.header;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScenarioLoadTest {
+
+	private HttpClient client;
+
+	private HttpRequest loginPage;
+
+	private HttpRequest login;
+
+	private HttpRequest profile;
+
+	private HttpResponse profileResponse;
+
+	private Scenario scenario;
+
+	@Before
+	public void setUp() {
+		client = mock(HttpClient.class);
+		loginPage = mock(HttpRequest.class);
+		login = mock(HttpRequest.class);
+		profile = mock(HttpRequest.class);
+
+		HttpResponse loginPageResponse = response(200, Collections.<Cookie>emptyList());
+		when(loginPageResponse.body()).thenReturn("<input name=\"_csrf\" value=\"token\">");
+
+		HttpResponse loginResponse = response(302, singletonList(cookie("JSESSIONID", "abc")));
+		when(loginResponse.getHeader("Location")).thenReturn(header("Location", "/users/42"));
+
+		profileResponse = response(200, Collections.<Cookie>emptyList());
+
+		when(client.prepareRequest(HttpMethod.GET, "/login")).thenReturn(loginPage);
+		when(client.prepareRequest(HttpMethod.POST, "/login")).thenReturn(login);
+		when(client.prepareRequest(HttpMethod.GET, "/users/42")).thenReturn(profile);
+		when(loginPage.execute()).thenReturn(loginPageResponse);
+		when(login.execute()).thenReturn(loginResponse);
+		when(profile.execute()).thenReturn(profileResponse);
+
+		scenario = Scenario.builder("login")
+			.step("login page", HttpMethod.GET, "/login").extractBody("name=\"_csrf\" value=\"([^\"]+)\"", "csrf")
+			.step("login", HttpMethod.POST, "/login").withCsrfToken("csrf").extractHeader("Location", "profile").thinkTime(1, MILLISECONDS)
+			.step("profile", HttpMethod.GET, "${profile}")
+			.build();
+	}
+
+	@Test
+	public void it_should_execute_journeys() {
+		ScenarioResult result = ScenarioLoad.builder(client, scenario)
+			.withUsers(2)
+			.withIterations(10)
+			.build()
+			.run();
+
+		assertThat(result.getScenario()).isEqualTo("login");
+		assertThat(result.getUsers()).isEqualTo(2);
+		assertThat(result.getJourney().getRequestCount()).isEqualTo(10);
+		assertThat(result.getJourney().getErrorCount()).isZero();
+		assertThat(result.getSteps()).hasSize(3);
+		assertThat(result.getSteps().keySet()).containsExactly("login page", "login", "profile");
+		assertThat(result.getStep("login").getStatusCounts()).containsEntry(302, 10L);
+		assertThat(result.getStep("profile").getStatusCounts()).containsEntry(200, 10L);
+		assertThat(result.getStep("unknown")).isNull();
+		assertThat(result.toString()).startsWith("Scenario login (2 users)");
+
+		verify(login, times(10)).addCsrfToken("token");
+		verify(profile, times(10)).addCookie(cookie("JSESSIONID", "abc"));
+		verify(loginPage, never()).addCookie(cookie("JSESSIONID", "abc"));
+	}
+
+	@Test
+	public void it_should_abort_journey_when_step_fails() {
+		HttpResponse unavailable = response(503, Collections.<Cookie>emptyList());
+		when(loginPage.execute()).thenReturn(unavailable);
+
+		ScenarioResult result = ScenarioLoad.builder(client, scenario)
+			.withIterations(5)
+			.build()
+			.run();
+
+		assertThat(result.getJourney().getRequestCount()).isEqualTo(5);
+		assertThat(result.getJourney().getErrorCount()).isEqualTo(5);
+		assertThat(result.getJourney().getStatusCounts()).containsEntry(503, 5L);
+		assertThat(result.getStep("login page").getErrorCount()).isEqualTo(5);
+		assertThat(result.getStep("login").getRequestCount()).isZero();
+		assertThat(result.getStep("profile").getRequestCount()).isZero();
+	}
+
+	@Test
+	public void it_should_count_failed_extraction_as_error() {
+		HttpResponse emptyPage = response(200, Collections.<Cookie>emptyList());
+		when(loginPage.execute()).thenReturn(emptyPage);
+
+		ScenarioResult result = ScenarioLoad.builder(client, scenario)
+			.withIterations(3)
+			.build()
+			.run();
+
+		assertThat(result.getJourney().getErrorCount()).isEqualTo(3);
+		assertThat(result.getStep("login page").getErrorCount()).isEqualTo(3);
+		assertThat(result.getStep("login").getRequestCount()).isZero();
+	}
+
+	@Test
+	public void it_should_execute_journeys_during_given_duration() {
+		ScenarioResult result = ScenarioLoad.builder(client, scenario)
+			.withUsers(3)
+			.withRampUp(10, MILLISECONDS)
+			.withDuration(50, MILLISECONDS)
+			.build()
+			.run();
+
+		assertThat(result.getJourney().getRequestCount()).isGreaterThan(0);
+		assertThat(result.getJourney().getDuration()).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(50));
+	}
+
+	private static HttpResponse response(int status, List<Cookie> cookies) {
+		HttpResponse response = mock(HttpResponse.class);
+		when(response.status()).thenReturn(status);
+		when(response.getCookies()).thenReturn(cookies);
+		when(response.body()).thenReturn("");
+		return response;
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpMethod;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.github.mjeanroy.junit.servers.client.Cookie.cookie;
+import static com.github.mjeanroy.junit.servers.client.HttpHeader.header;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScenarioTest {
+
+	private HttpClient client;
+
+	private HttpRequest request;
+
+	private HttpResponse response;
+
+	private Session session;
+
+	@Before
+	public void setUp() {
+		client = mock(HttpClient.class);
+		request = mock(HttpRequest.class);
+		response = mock(HttpResponse.class);
+		session = new Session(0);
+
+		when(client.prepareRequest(HttpMethod.GET, "/users/42")).thenReturn(request);
+		when(response.getCookies()).thenReturn(Collections.<Cookie>emptyList());
+		session.set("id", "42");
+	}
+
+	@Test
+	public void it_should_create_scenario() {
+		Scenario scenario = Scenario.builder("browse")
+			.step("home", HttpMethod.GET, "/")
+			.step("user", HttpMethod.GET, "/users/${id}").thinkTime(10, 20, MILLISECONDS)
+			.build();
+
+		assertThat(scenario.getName()).isEqualTo("browse");
+		assertThat(scenario.getStepNames()).containsExactly("home", "user");
+		assertThat(scenario.getSteps().get(0).getMinThinkTime()).isZero();
+		assertThat(scenario.getSteps().get(1).getMinThinkTime()).isEqualTo(MILLISECONDS.toNanos(10));
+		assertThat(scenario.getSteps().get(1).getMaxThinkTime()).isEqualTo(MILLISECONDS.toNanos(20));
+		assertThat(scenario.toString()).isEqualTo("Scenario{name: browse, steps: [home, user]}");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_without_steps() {
+		Scenario.builder("empty").build();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_to_extract_before_first_step() {
+		Scenario.builder("empty").extractHeader("Location", "location");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_duplicated_step_names() {
+		Scenario.builder("browse")
+			.step("home", HttpMethod.GET, "/")
+			.step("home", HttpMethod.GET, "/index");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_think_times() {
+		Scenario.builder("browse")
+			.step("home", HttpMethod.GET, "/")
+			.thinkTime(20, 10, MILLISECONDS);
+	}
+
+	@Test
+	public void it_should_prepare_request_with_session_cookies_and_csrf_token() {
+		session.set("csrf", "secret");
+		session.storeCookies(responseWithCookie("JSESSIONID", "abc"));
+
+		Scenario.Step step = Scenario.builder("browse")
+			.step("user", HttpMethod.GET, "/users/${id}").withCsrfToken("csrf")
+			.build()
+			.getSteps()
+			.get(0);
+
+		assertThat(step.prepare(client, session)).isSameAs(request);
+		verify(request).addCsrfToken("secret");
+		verify(request).addCookie(cookie("JSESSIONID", "abc"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_to_prepare_request_without_csrf_token() {
+		Scenario.builder("browse")
+			.step("user", HttpMethod.GET, "/users/${id}").withCsrfToken("csrf")
+			.build()
+			.getSteps()
+			.get(0)
+			.prepare(client, session);
+	}
+
+	@Test
+	public void it_should_extract_values() {
+		when(response.getHeader("Location")).thenReturn(header("Location", "/users/43"));
+		when(response.getCookie("token")).thenReturn(cookie("token", "t1"));
+		when(response.body()).thenReturn("<input name=\"_csrf\" value=\"c1\"> <span>done</span>");
+
+		Scenario.builder("browse")
+			.step("user", HttpMethod.GET, "/users/${id}")
+			.extractHeader("Location", "location")
+			.extractCookie("token", "token")
+			.extractBody("name=\"_csrf\" value=\"([^\"]+)\"", "csrf")
+			.extractBody("done", "done")
+			.build()
+			.getSteps()
+			.get(0)
+			.extract(response, session);
+
+		assertThat(session.get("location")).isEqualTo("/users/43");
+		assertThat(session.get("token")).isEqualTo("t1");
+		assertThat(session.get("csrf")).isEqualTo("c1");
+		assertThat(session.get("done")).isEqualTo("done");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_if_body_does_not_match() {
+		when(response.body()).thenReturn("<html></html>");
+
+		Scenario.builder("browse")
+			.step("user", HttpMethod.GET, "/users/${id}").extractBody("value=\"([^\"]+)\"", "csrf")
+			.build()
+			.getSteps()
+			.get(0)
+			.extract(response, session);
+	}
+
+	private static HttpResponse responseWithCookie(String name, String value) {
+		HttpResponse response = mock(HttpResponse.class);
+		when(response.getCookies()).thenReturn(singletonList(cookie(name, value)));
+		return response;
+	}
+}
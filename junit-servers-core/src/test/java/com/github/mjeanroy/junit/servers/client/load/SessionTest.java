@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 <mickael.jeanroy@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.junit.servers.client.load;
+
+import com.github.mjeanroy.junit.servers.client.Cookie;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import org.junit.Test;
+
+import static com.github.mjeanroy.junit.servers.client.Cookie.cookie;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SessionTest {
+
+	@Test
+	public void it_should_store_variables() {
+		Session session = new Session(2);
+		session.set("id", "42");
+
+		assertThat(session.getUserId()).isEqualTo(2);
+		assertThat(session.contains("id")).isTrue();
+		assertThat(session.contains("foo")).isFalse();
+		assertThat(session.get("id")).isEqualTo("42");
+		assertThat(session.get("foo")).isNull();
+	}
+
+	@Test
+	public void it_should_resolve_placeholders() {
+		Session session = new Session(0);
+		session.set("id", "42");
+		session.set("name", "john");
+
+		assertThat(session.resolve("/users")).isEqualTo("/users");
+		assertThat(session.resolve("/users/${id}")).isEqualTo("/users/42");
+		assertThat(session.resolve("/users/${id}/${name}?q=${id}")).isEqualTo("/users/42/john?q=42");
+		assertThat(session.resolve("/users/${foo}/${id}")).isEqualTo("/users/${foo}/42");
+		assertThat(session.resolve("/users/${id")).isEqualTo("/users/${id");
+	}
+
+	@Test
+	public void it_should_store_and_remove_cookies() {
+		Session session = new Session(0);
+		HttpResponse rsp1 = mock(HttpResponse.class);
+		when(rsp1.getCookies()).thenReturn(asList(cookie("JSESSIONID", "1"), cookie("lang", "fr")));
+
+		HttpResponse rsp2 = mock(HttpResponse.class);
+		when(rsp2.getCookies()).thenReturn(asList(cookie("JSESSIONID", "2"), cookie("lang", "")));
+
+		session.storeCookies(rsp1);
+		assertThat(session.getCookies()).containsExactly(cookie("JSESSIONID", "1"), cookie("lang", "fr"));
+
+		session.storeCookies(rsp2);
+		assertThat(session.getCookies()).containsExactly(cookie("JSESSIONID", "2"));
+	}
+}
@@ -31,11 +31,16 @@ import org.junit.Test;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.github.mjeanroy.junit.servers.commons.Dates.RFC_1123;
 import static com.github.mjeanroy.junit.servers.commons.Dates.format;
+import static com.github.mjeanroy.junit.servers.commons.Dates.formatHttpDate;
+import static com.github.mjeanroy.junit.servers.commons.Dates.formatHttpTime;
 import static com.github.mjeanroy.junit.servers.commons.Dates.formatTime;
 import static com.github.mjeanroy.junit.servers.commons.Dates.getTime;
 import static com.github.mjeanroy.junit.servers.commons.Dates.parse;
+import static com.github.mjeanroy.junit.servers.commons.Dates.parseCookieDate;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class DatesTest {
@@ -124,4 +129,93 @@ public class DatesTest {
 				.isNotNull()
 				.isEqualTo("Wed, 13 Jan 2021 22:23:01 GMT");
 	}
+
+	@Test
+	public void it_should_parse_cookie_dates() {
+		long expected = 1610576581000L;
+		assertThat(parseCookieDate("Wed, 13 Jan 2021 22:23:01 GMT")).isEqualTo(expected);
+		assertThat(parseCookieDate("Wed, 13-Jan-2021 22:23:01 GMT")).isEqualTo(expected);
+		assertThat(parseCookieDate("Wednesday, 13-Jan-21 22:23:01 GMT")).isEqualTo(expected);
+		assertThat(parseCookieDate("Wed Jan 13 22:23:01 2021")).isEqualTo(expected);
+		assertThat(parseCookieDate("Thu, 01 Jan 1970 00:00:00 GMT")).isEqualTo(0L);
+		assertThat(parseCookieDate("Tue, 29 Feb 2000 12:00:00 GMT")).isEqualTo(951825600000L);
+	}
+
+	@Test
+	public void it_should_parse_cookie_date_in_substring() {
+		String value = "expires=Wed, 13 Jan 2021 22:23:01 GMT; path=/";
+		assertThat(parseCookieDate(value, 8, value.indexOf(';'))).isEqualTo(1610576581000L);
+	}
+
+	@Test
+	public void it_should_not_parse_invalid_cookie_dates() {
+		assertThat(parseCookieDate("foo")).isNull();
+		assertThat(parseCookieDate("Wed, 13 Jan 2021")).isNull();
+		assertThat(parseCookieDate("Wed, 32 Jan 2021 22:23:01 GMT")).isNull();
+		assertThat(parseCookieDate("Thu, 29 Feb 2001 22:23:01 GMT")).isNull();
+		assertThat(parseCookieDate("Wed, 13 Jan 2021 24:23:01 GMT")).isNull();
+		assertThat(parseCookieDate("Wed, 13 Jan 1600 22:23:01 GMT")).isNull();
+	}
+
+	@Test
+	public void it_should_format_http_date() {
+		Date date = new Date(1610576581000L);
+		assertThat(formatHttpDate(date)).isEqualTo("Wed, 13 Jan 2021 22:23:01 GMT");
+	}
+
+	@Test
+	public void it_should_format_http_time_as_rfc_1123_pattern() {
+		long[] times = {
+				0L,
+				-1L,
+				951825600000L,
+				1610576581999L,
+				-2208988800000L,
+				253402300799000L
+		};
+
+		for (long time : times) {
+			assertThat(formatHttpTime(time)).isEqualTo(formatTime(time, RFC_1123));
+		}
+	}
+
+	@Test
+	public void it_should_cache_http_date_for_current_second() {
+		String d1 = formatHttpTime(1610576581000L);
+		String d2 = formatHttpTime(1610576581999L);
+		String d3 = formatHttpTime(1610576582000L);
+
+		assertThat(d2).isSameAs(d1);
+		assertThat(d3).isEqualTo("Wed, 13 Jan 2021 22:23:02 GMT");
+	}
+
+	@Test
+	public void it_should_parse_and_format_dates_concurrently() throws Exception {
+		final String pattern = "EEE, dd MMM yyyy HH:mm:ss zzz";
+		final AtomicInteger errors = new AtomicInteger(0);
+
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final long time = 1610576581000L + (i * 86400000L);
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 1000; j++) {
+						String value = formatTime(time, pattern);
+						Long parsed = getTime(value, pattern);
+						if (parsed == null || parsed != time) {
+							errors.incrementAndGet();
+						}
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(errors.get()).isZero();
+	}
 }
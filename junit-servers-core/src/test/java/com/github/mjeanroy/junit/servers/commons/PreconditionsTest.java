@@ -33,6 +33,7 @@ import java.util.List;
 
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.notEmpty;
 import static com.github.mjeanroy.junit.servers.commons.Preconditions.positive;
+import static com.github.mjeanroy.junit.servers.commons.Preconditions.strictlyPositive;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -86,4 +87,28 @@ public class PreconditionsTest {
 		assertThat(positive(0L, "foo")).isZero();
 		assertThat(positive(1L, "foo")).isEqualTo(1L);
 	}
+
+	@Test
+	public void it_should_throw_exception_if_int_is_zero() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("foo must be strictly positive");
+		strictlyPositive(0, "foo");
+	}
+
+	@Test
+	public void it_should_not_throw_exception_if_int_is_strictly_positive() {
+		assertThat(strictlyPositive(1, "foo")).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_throw_exception_if_long_is_not_strictly_positive() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("foo must be strictly positive");
+		strictlyPositive(0L, "foo");
+	}
+
+	@Test
+	public void it_should_not_throw_exception_if_long_is_strictly_positive() {
+		assertThat(strictlyPositive(1L, "foo")).isEqualTo(1L);
+	}
 }
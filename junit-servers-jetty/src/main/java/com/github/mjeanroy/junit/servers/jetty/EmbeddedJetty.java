@@ -28,8 +28,10 @@ import com.github.mjeanroy.junit.servers.exceptions.ServerInitializationExceptio
 import com.github.mjeanroy.junit.servers.exceptions.ServerStartException;
 import com.github.mjeanroy.junit.servers.exceptions.ServerStopException;
 import com.github.mjeanroy.junit.servers.servers.AbstractEmbeddedServer;
+import com.github.mjeanroy.junit.servers.servers.InProcessDispatcher;
 import org.eclipse.jetty.annotations.AnnotationConfiguration;
 import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.LocalConnector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.util.resource.FileResource;
@@ -41,15 +43,25 @@ import org.eclipse.jetty.webapp.WebXmlConfiguration;
 
 import javax.servlet.ServletContext;
 import java.io.File;
+import java.nio.ByteBuffer;
 
 import static com.github.mjeanroy.junit.servers.commons.Strings.isNotBlank;
 import static com.github.mjeanroy.junit.servers.jetty.EmbeddedJettyConfiguration.defaultConfiguration;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.jetty.util.resource.Resource.newResource;
 
 /**
  * Jetty Embedded Server.
+ * Requests can also be dispatched in-process (i.e without
+ * any socket) using a jetty {@link LocalConnector}.
  */
-public class EmbeddedJetty extends AbstractEmbeddedServer<Server, EmbeddedJettyConfiguration> {
+public class EmbeddedJetty extends AbstractEmbeddedServer<Server, EmbeddedJettyConfiguration> implements InProcessDispatcher {
+
+	/**
+	 * Maximum time (in seconds) to wait for an in-process
+	 * response to be written.
+	 */
+	private static final long LOCAL_TIMEOUT = 30;
 
 	/**
 	 * Instance of Jetty Server.
@@ -66,6 +78,11 @@ public class EmbeddedJetty extends AbstractEmbeddedServer<Server, EmbeddedJettyC
 	 */
 	private volatile ServerConnector connector;
 
+	/**
+	 * Local connector, used to dispatch in-process requests.
+	 */
+	private final LocalConnector localConnector;
+
 	/**
 	 * Build default embedded jetty server.
 	 */
@@ -81,6 +98,7 @@ public class EmbeddedJetty extends AbstractEmbeddedServer<Server, EmbeddedJettyC
 	public EmbeddedJetty(EmbeddedJettyConfiguration configuration) {
 		super(configuration);
 		this.server = initServer();
+		this.localConnector = initLocalConnector();
 	}
 
 	private Server initServer() {
@@ -90,6 +108,12 @@ public class EmbeddedJetty extends AbstractEmbeddedServer<Server, EmbeddedJettyC
 		return server;
 	}
 
+	private LocalConnector initLocalConnector() {
+		LocalConnector localConnector = new LocalConnector(server);
+		server.addConnector(localConnector);
+		return localConnector;
+	}
+
 	private WebAppContext initContext() {
 		try {
 			return createdWebAppContext();
@@ -183,6 +207,15 @@ public class EmbeddedJetty extends AbstractEmbeddedServer<Server, EmbeddedJettyC
 		return webAppContext == null ? null : webAppContext.getServletContext();
 	}
 
+	@Override
+	public ByteBuffer dispatch(ByteBuffer request) throws Exception {
+		if (!isStarted()) {
+			throw new IllegalStateException("Jetty must be started to dispatch requests");
+		}
+
+		return localConnector.getResponses(request, LOCAL_TIMEOUT, SECONDS);
+	}
+
 	private ServerConnector findConnector() {
 		for (Connector connector : server.getConnectors()) {
 			if (connector instanceof ServerConnector) {
@@ -24,9 +24,20 @@
 
 package com.github.mjeanroy.junit.servers.jetty;
 
+import com.github.mjeanroy.junit.servers.client.HttpClient;
+import com.github.mjeanroy.junit.servers.client.HttpClientStrategy;
+import com.github.mjeanroy.junit.servers.client.HttpRequest;
+import com.github.mjeanroy.junit.servers.client.HttpResponse;
+import com.github.mjeanroy.junit.servers.client.HttpResult;
 import org.junit.After;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class EmbeddedJettyTest {
@@ -74,4 +85,60 @@ public class EmbeddedJettyTest {
 		jetty = new EmbeddedJetty();
 		assertThat(jetty.getDelegate()).isNotNull();
 	}
+
+	@Test
+	public void it_should_dispatch_request_in_process() throws Exception {
+		jetty = new EmbeddedJetty();
+		jetty.start();
+
+		Charset ascii = Charset.forName("US-ASCII");
+		String request = "GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+		ByteBuffer response = jetty.dispatch(ByteBuffer.wrap(request.getBytes(ascii)));
+
+		assertThat(ascii.decode(response).toString()).startsWith("HTTP/1.1 ");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_not_dispatch_request_if_jetty_is_not_started() throws Exception {
+		jetty = new EmbeddedJetty();
+		jetty.dispatch(ByteBuffer.allocate(0));
+	}
+
+	@Test
+	public void it_should_execute_request_with_in_process_client() {
+		jetty = new EmbeddedJetty();
+		jetty.start();
+
+		HttpResponse response = HttpClientStrategy.IN_PROCESS.build(jetty)
+				.prepareGet("/")
+				.execute();
+
+		assertThat(response.status()).isGreaterThan(0);
+		assertThat(response.getRequestDuration()).isPositive();
+	}
+
+	@Test
+	public void it_should_execute_batch_of_requests() {
+		jetty = new EmbeddedJetty();
+		jetty.start();
+
+		HttpClient client = HttpClientStrategy.IN_PROCESS.build(jetty);
+
+		List<HttpRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			requests.add(client.prepareGet("/?id=" + i));
+		}
+
+		int count = 0;
+		Iterator<HttpResult> results = client.executeAll(requests, 3);
+		while (results.hasNext()) {
+			HttpResult result = results.next();
+			assertThat(result.isSuccess()).isTrue();
+			assertThat(result.getResponse().status()).isGreaterThan(0);
+			count++;
+		}
+
+		assertThat(count).isEqualTo(10);
+		client.destroy();
+	}
 }
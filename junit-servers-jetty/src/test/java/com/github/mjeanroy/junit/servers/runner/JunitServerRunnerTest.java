@@ -26,17 +26,28 @@ package com.github.mjeanroy.junit.servers.runner;
 
 import com.github.mjeanroy.junit.servers.jetty.EmbeddedJetty;
 import com.github.mjeanroy.junit.servers.jetty.EmbeddedJettyConfiguration;
+import com.github.mjeanroy.junit.servers.annotations.LoadTest;
 import com.github.mjeanroy.junit.servers.annotations.TestServerConfiguration;
 import com.github.mjeanroy.junit.servers.annotations.TestServer;
+import com.github.mjeanroy.junit.servers.client.load.LoadResult;
 import com.github.mjeanroy.junit.servers.rules.HandlersRule;
 import com.github.mjeanroy.junit.servers.rules.ServerRule;
 import com.github.mjeanroy.junit.servers.servers.EmbeddedServer;
 import com.github.mjeanroy.junit.servers.servers.configuration.AbstractConfiguration;
 import org.assertj.core.api.Condition;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.mjeanroy.junit.servers.jetty.EmbeddedJettyConfiguration.defaultConfiguration;
 import static org.apache.commons.lang3.reflect.FieldUtils.readField;
@@ -119,6 +130,72 @@ public class JunitServerRunnerTest {
 				});
 	}
 
+	@Test
+	public void it_should_run_load_test_methods_repeatedly() throws Exception {
+		ReportsListener listener = new ReportsListener();
+		Result result = run(Baz.class, listener);
+
+		assertThat(result.wasSuccessful()).isTrue();
+		assertThat(result.getRunCount()).isEqualTo(2);
+		assertThat(Baz.befores.get()).isEqualTo(2);
+		assertThat(Baz.invocations.get()).isGreaterThan(1);
+
+		LoadResult report = listener.reports.get(Description.createTestDescription(Baz.class, "loadTest"));
+		assertThat(report).isNotNull();
+		assertThat(report.getRequestCount()).isGreaterThan(0).isLessThanOrEqualTo(Baz.invocations.get() - 1);
+		assertThat(report.getErrorCount()).isZero();
+		assertThat(listener.reports.get(Description.createTestDescription(Baz.class, "functionalTest"))).isNull();
+	}
+
+	@Test
+	public void it_should_remove_load_test_reports_once_test_is_finished() throws Exception {
+		ReportsListener listener = new ReportsListener();
+		run(Quux.class, listener);
+
+		Description description = Description.createTestDescription(Quux.class, "loadTest");
+		assertThat(listener.reports.get(description)).isNotNull();
+		assertThat(LoadTestReports.get(description)).isNull();
+	}
+
+	@Test
+	public void it_should_fail_load_test_if_one_execution_fails() throws Exception {
+		ReportsListener listener = new ReportsListener();
+		Result result = run(Qux.class, listener);
+
+		assertThat(result.getFailureCount()).isEqualTo(1);
+		assertThat(result.getFailures().get(0).getException()).isInstanceOf(AssertionError.class);
+
+		LoadResult report = listener.reports.get(Description.createTestDescription(Qux.class, "loadTest"));
+		assertThat(report).isNotNull();
+		assertThat(report.getErrorCount()).isGreaterThan(0);
+	}
+
+	@Test
+	public void it_should_fail_load_test_with_same_exception_thrown_several_times() throws Exception {
+		Result result = run(Quux.class, new ReportsListener());
+
+		assertThat(result.getFailureCount()).isEqualTo(1);
+		assertThat(result.getFailures().get(0).getException()).isSameAs(Quux.error);
+	}
+
+	private static Result run(Class<?> klass, RunListener listener) throws Exception {
+		JUnitCore junit = new JUnitCore();
+		junit.addListener(listener);
+		return junit.run(Request.runner(new JunitServerRunner(klass)));
+	}
+
+	private static class ReportsListener extends RunListener {
+		private final Map<Description, LoadResult> reports = new ConcurrentHashMap<>();
+
+		@Override
+		public void testFinished(Description description) {
+			LoadResult report = LoadTestReports.get(description);
+			if (report != null) {
+				reports.put(description, report);
+			}
+		}
+	}
+
 	public static class Foo {
 		@TestServer
 		private static EmbeddedServer server;
@@ -153,4 +230,55 @@ public class JunitServerRunnerTest {
 
 		}
 	}
+
+	public static class Baz {
+
+		private static final AtomicInteger befores = new AtomicInteger(0);
+
+		private static final AtomicInteger invocations = new AtomicInteger(0);
+
+		@TestServer
+		private static EmbeddedServer server;
+
+		@Before
+		public void setUp() {
+			befores.incrementAndGet();
+		}
+
+		@Test
+		@LoadTest(threads = 2, warmup = 10, duration = 30)
+		public void loadTest() {
+			assertThat(server.isStarted()).isTrue();
+			invocations.incrementAndGet();
+		}
+
+		@Test
+		public void functionalTest() {
+			invocations.incrementAndGet();
+		}
+	}
+
+	public static class Quux {
+
+		private static final AssertionError error = new AssertionError("fail");
+
+		@Test
+		@LoadTest(threads = 2, duration = 20)
+		public void loadTest() {
+			throw error;
+		}
+	}
+
+	public static class Qux {
+
+		private static final AtomicInteger invocations = new AtomicInteger(0);
+
+		@Test
+		@LoadTest(duration = 20)
+		public void loadTest() {
+			if (invocations.incrementAndGet() % 10 == 0) {
+				throw new AssertionError("fail");
+			}
+		}
+	}
 }